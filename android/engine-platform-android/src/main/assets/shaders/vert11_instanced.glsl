@@ -0,0 +1,31 @@
+#version 450 core
+layout (location = 0) in vec3 position;
+layout (location = 1) in vec3 color;
+layout(location = 2) in vec2 texture_coordinate;
+// Per-instance model matrix, one vec4 column per location (5-8).
+layout (location = 5) in mat4 instanceModel;
+
+out vec3 fragColor;
+out vec3 fragpos;
+out vec3 frag_Normal;
+out vec2 tt_coord;
+out vec4 fragLightSpacePos;
+
+
+layout(std430, binding = 0) buffer MySSBO {
+    mat4 perspective;
+    mat4 view;
+    vec3 eyepos;
+    vec3 lightpos;
+
+};
+uniform mat4 uLightSpaceMatrix;
+void main()
+{
+    gl_Position = perspective* view * instanceModel * vec4(position, 1.0);
+    fragColor = color;
+    fragpos=vec3(instanceModel*vec4(position,1.0));
+    tt_coord=texture_coordinate;
+    frag_Normal=vec3(mat3(instanceModel)* color);
+    fragLightSpacePos = uLightSpaceMatrix * vec4(fragpos, 1.0);
+}
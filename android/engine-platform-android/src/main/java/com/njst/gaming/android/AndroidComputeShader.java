@@ -89,6 +89,7 @@ public class AndroidComputeShader {
         }
         long startNanos = System.nanoTime();
         GLES31.glUseProgram(program);
+        AndroidShaderProgram.forgetBoundProgram();
         GLES31.glDispatchCompute(x, y, z);
         GLES31.glMemoryBarrier(GLES31.GL_SHADER_STORAGE_BARRIER_BIT);
         recordDispatchTime(System.nanoTime() - startNanos, x, y, z);
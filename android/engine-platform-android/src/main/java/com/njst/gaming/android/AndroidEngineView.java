@@ -153,18 +153,23 @@ public class AndroidEngineView extends FrameLayout {
 
     private String formatStats(int fps, Renderer.ProfilerSnapshot snapshot) {
         if (snapshot == null) {
-            return "FPS 0\nframe 0.0ms\nupd 0.0 sky 0.0\nbone 0.0 rnd 0.0\nobj 0 t 0";
+            return "FPS 0\nframe 0.0ms\nupd 0.0 sky 0.0\nbone 0.0 rnd 0.0\ncol 0.0 max 0.0\nobj 0 t 0 cull 0\nxform 0/0";
         }
         return String.format(Locale.US,
-                "FPS %d\nframe %.1fms\nupd %.1f sky %.1f\nbone %.1f rnd %.1f\nobj %d t %d",
+                "FPS %d\nframe %.1fms\nupd %.1f sky %.1f\nbone %.1f rnd %.1f\ncol %.1f max %.1f\nobj %d t %d cull %d\nxform %d/%d",
                 fps,
                 snapshot.frameMs,
                 snapshot.updateMs,
                 snapshot.skyboxMs,
                 snapshot.boneMs,
                 snapshot.renderMs,
+                snapshot.collisionMs,
+                snapshot.collisionMaxMs,
                 snapshot.objectCount,
-                snapshot.terrainCount);
+                snapshot.terrainCount,
+                snapshot.culledCount,
+                snapshot.transformsRecomputed,
+                snapshot.transformsRecomputed + snapshot.transformsReused);
     }
 
     private Button createActionButton(Context context, String label, ActionSetter setter) {
@@ -16,6 +16,7 @@ import com.njst.gaming.graphics.BufferHandle;
 import com.njst.gaming.graphics.ComputeBackend;
 import com.njst.gaming.graphics.GraphicsDevice;
 import com.njst.gaming.graphics.ImposterBakeResult;
+import com.njst.gaming.graphics.MeshCache;
 import com.njst.gaming.graphics.ShaderHandle;
 import com.njst.gaming.graphics.ShadowMapHandle;
 import com.njst.gaming.objects.GameObject;
@@ -25,12 +26,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
 import java.nio.charset.StandardCharsets;
 
 public class AndroidGraphicsDevice implements GraphicsDevice {
     private static final String TAG = "NJST";
     private final AssetManager assetManager;
+    private static final int MATRIX_COLUMN_BYTES = 4 * Float.BYTES;
     private int whiteTextureId;
+    private final MeshCache meshCache = new MeshCache(this);
+    private ByteBuffer streamBytes = ByteBuffer.allocateDirect(1024 * Float.BYTES).order(java.nio.ByteOrder.nativeOrder());
+    private FloatBuffer streamBuffer = streamBytes.asFloatBuffer();
 
     public AndroidGraphicsDevice(Context context) {
         this.assetManager = context.getAssets();
@@ -292,6 +298,11 @@ public class AndroidGraphicsDevice implements GraphicsDevice {
         return buffers;
     }
 
+    @Override
+    public MeshCache getMeshCache() {
+        return meshCache;
+    }
+
     @Override
     public void bindVertexArray(int vaoId) {
         GLES30.glBindVertexArray(vaoId);
@@ -340,11 +351,41 @@ public class AndroidGraphicsDevice implements GraphicsDevice {
         uploadArrayBufferFloat(bufferId, data);
     }
 
+    @Override
+    public void streamArrayBufferFloat(int bufferId, float[] data, int count) {
+        if (streamBuffer.capacity() < count) {
+            int capacity = Math.max(count, streamBuffer.capacity() * 2);
+            streamBytes = ByteBuffer.allocateDirect(capacity * Float.BYTES).order(java.nio.ByteOrder.nativeOrder());
+            streamBuffer = streamBytes.asFloatBuffer();
+        }
+        streamBuffer.clear();
+        streamBuffer.put(data, 0, count).position(0);
+        GLES31.glBindBuffer(GLES31.GL_ARRAY_BUFFER, bufferId);
+        GLES31.glBufferData(GLES31.GL_ARRAY_BUFFER, count * Float.BYTES, null, GLES31.GL_STREAM_DRAW);
+        GLES31.glBufferSubData(GLES31.GL_ARRAY_BUFFER, 0, count * Float.BYTES, streamBuffer);
+    }
+
+    @Override
+    public void setInstanceMatrixAttribute(int bufferId, int location) {
+        GLES31.glBindBuffer(GLES31.GL_ARRAY_BUFFER, bufferId);
+        for (int column = 0; column < 4; column++) {
+            GLES31.glVertexAttribPointer(location + column, 4, GLES31.GL_FLOAT, false, 4 * MATRIX_COLUMN_BYTES,
+                    column * MATRIX_COLUMN_BYTES);
+            GLES31.glEnableVertexAttribArray(location + column);
+            GLES30.glVertexAttribDivisor(location + column, 1);
+        }
+    }
+
     @Override
     public void drawElementsTriangles(int indexCount) {
         GLES31.glDrawElements(GLES31.GL_TRIANGLES, indexCount, GLES31.GL_UNSIGNED_INT, 0);
     }
 
+    @Override
+    public void drawElementsTrianglesInstanced(int indexCount, int instanceCount) {
+        GLES30.glDrawElementsInstanced(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, 0, instanceCount);
+    }
+
     @Override
     public void drawElementsLines(int indexCount) {
         GLES31.glDrawElements(GLES31.GL_LINES, indexCount, GLES31.GL_UNSIGNED_INT, 0);
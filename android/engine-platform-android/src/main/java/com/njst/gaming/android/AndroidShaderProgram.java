@@ -6,10 +6,15 @@ import android.util.Log;
 import com.njst.gaming.Math.Matrix4;
 import com.njst.gaming.Math.Vector3;
 import com.njst.gaming.graphics.ShaderHandle;
+import com.njst.gaming.graphics.UniformCache;
 
 public class AndroidShaderProgram implements ShaderHandle {
     private static final String TAG = "NJST";
+    /** Program last bound through {@link #use()} on the GL thread, or null when unknown. */
+    private static AndroidShaderProgram boundProgram;
+
     private final int programId;
+    private final UniformCache uniformCache = new UniformCache();
 
     public AndroidShaderProgram(String vertexShaderSource, String fragmentShaderSource) {
         Log.i(TAG, "Starting Android shader program build");
@@ -36,6 +41,84 @@ public class AndroidShaderProgram implements ShaderHandle {
                 + " vertexShaderId=" + vertexShaderId + " fragmentShaderId=" + fragmentShaderId);
         GLES31.glDeleteShader(vertexShaderId);
         GLES31.glDeleteShader(fragmentShaderId);
+        resolveUniformLocations();
+    }
+
+    /**
+     * Call after binding a program without going through {@link #use()}, e.g. a compute dispatch,
+     * so uniform uploads stop trusting the cached values of the previously bound program.
+     */
+    public static void forgetBoundProgram() {
+        boundProgram = null;
+    }
+
+    private void resolveUniformLocations() {
+        int[] count = new int[1];
+        GLES31.glGetProgramiv(programId, GLES31.GL_ACTIVE_UNIFORMS, count, 0);
+        int[] size = new int[1];
+        int[] type = new int[1];
+        for (int i = 0; i < count[0]; i++) {
+            String name = GLES31.glGetActiveUniform(programId, i, size, 0, type, 0);
+            if (name.endsWith("[0]")) {
+                String base = name.substring(0, name.length() - 3);
+                uniformCache.define(base, GLES31.glGetUniformLocation(programId, base));
+                for (int element = 0; element < size[0]; element++) {
+                    String elementName = base + "[" + element + "]";
+                    uniformCache.define(elementName, GLES31.glGetUniformLocation(programId, elementName));
+                }
+            } else {
+                uniformCache.define(name, GLES31.glGetUniformLocation(programId, name));
+            }
+        }
+    }
+
+    private UniformCache.Slot slot(String name) {
+        UniformCache.Slot slot = uniformCache.find(name);
+        if (slot == null) {
+            // Not an active uniform; remember the miss so the driver is asked only once.
+            slot = uniformCache.define(name, GLES31.glGetUniformLocation(programId, name));
+        }
+        return slot;
+    }
+
+    private UniformCache.Slot slot(int location) {
+        UniformCache.Slot slot = uniformCache.findByLocation(location);
+        if (slot == null) {
+            slot = uniformCache.define("#" + location, location);
+        }
+        return slot;
+    }
+
+    /**
+     * glUniform writes to whichever program is bound. The cache can only vouch for this program while
+     * it is the bound one; otherwise the write lands elsewhere and that program's cache is dropped.
+     */
+    private boolean isBound() {
+        if (boundProgram == this) {
+            return true;
+        }
+        if (boundProgram != null) {
+            boundProgram.uniformCache.invalidate();
+        }
+        return false;
+    }
+
+    private void uploadInt(UniformCache.Slot slot, int value) {
+        if (!isBound() || uniformCache.acceptInt(slot, value)) {
+            GLES31.glUniform1i(slot.getLocation(), value);
+        }
+    }
+
+    private void uploadVector3(UniformCache.Slot slot, float x, float y, float z) {
+        if (!isBound() || uniformCache.acceptVector3(slot, x, y, z)) {
+            GLES31.glUniform3f(slot.getLocation(), x, y, z);
+        }
+    }
+
+    private void uploadMatrix4(UniformCache.Slot slot, float[] matrix) {
+        if (!isBound() || uniformCache.acceptFloats(slot, matrix, 16)) {
+            GLES31.glUniformMatrix4fv(slot.getLocation(), 1, false, matrix, 0);
+        }
     }
 
     private int compileShader(int type, String source) {
@@ -60,50 +143,51 @@ public class AndroidShaderProgram implements ShaderHandle {
     @Override
     public void use() {
         GLES31.glUseProgram(programId);
+        boundProgram = this;
     }
 
     @Override
     public int getUniformLocation(String name) {
-        return GLES31.glGetUniformLocation(programId, name);
+        return slot(name).getLocation();
     }
 
     @Override
     public void setUniformVector3(String name, float[] vector3f) {
-        GLES31.glUniform3fv(getUniformLocation(name), 1, vector3f, 0);
+        uploadVector3(slot(name), vector3f[0], vector3f[1], vector3f[2]);
     }
 
     @Override
     public void setUniformVector3(String name, Vector3 vector3f) {
-        GLES31.glUniform3f(getUniformLocation(name), vector3f.x, vector3f.y, vector3f.z);
+        uploadVector3(slot(name), vector3f.x, vector3f.y, vector3f.z);
     }
 
     @Override
     public void setUniformInt(String name, int value) {
-        GLES31.glUniform1i(getUniformLocation(name), value);
+        uploadInt(slot(name), value);
     }
 
     @Override
     public void setUniformMatrix4fv(String name, float[] matrix) {
-        GLES31.glUniformMatrix4fv(getUniformLocation(name), 1, false, matrix, 0);
+        uploadMatrix4(slot(name), matrix);
     }
 
     @Override
     public void setUniformMatrix4fv(String name, Matrix4 matrix) {
-        GLES31.glUniformMatrix4fv(getUniformLocation(name), 1, false, matrix.get(new float[16]), 0);
+        uploadMatrix4(slot(name), matrix.r);
     }
 
     @Override
     public void activateTexture(int location, int textureID) {
         GLES31.glActiveTexture(GLES31.GL_TEXTURE0);
         GLES31.glBindTexture(GLES31.GL_TEXTURE_2D, textureID);
-        GLES31.glUniform1i(location, 0);
+        uploadInt(slot(location), 0);
     }
 
     @Override
     public void activateTexture(String uniformName, int unit, int textureID) {
         GLES31.glActiveTexture(GLES31.GL_TEXTURE0 + unit);
         GLES31.glBindTexture(GLES31.GL_TEXTURE_2D, textureID);
-        GLES31.glUniform1i(getUniformLocation(uniformName), unit);
+        uploadInt(slot(uniformName), unit);
     }
 
     @Override
@@ -115,6 +199,9 @@ public class AndroidShaderProgram implements ShaderHandle {
 
     @Override
     public void cleanup() {
+        if (boundProgram == this) {
+            boundProgram = null;
+        }
         GLES31.glDeleteProgram(programId);
     }
 
@@ -122,4 +209,9 @@ public class AndroidShaderProgram implements ShaderHandle {
     public Object rawHandle() {
         return programId;
     }
+
+    @Override
+    public UniformCache getUniformCache() {
+        return uniformCache;
+    }
 }
@@ -13,6 +13,7 @@ import java.nio.IntBuffer;
 
 public class AndroidShaderStorageBuffer implements BufferHandle {
     private final int bufferId;
+    private FloatBuffer rangeBuffer;
 
     public AndroidShaderStorageBuffer() {
         int[] buffers = new int[1];
@@ -63,6 +64,20 @@ public class AndroidShaderStorageBuffer implements BufferHandle {
         unbind();
     }
 
+    @Override
+    public void updateData(float[] data, int offset, int count) {
+        bind();
+        if (rangeBuffer == null || rangeBuffer.capacity() < count) {
+            rangeBuffer = ByteBuffer.allocateDirect(count * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        }
+        rangeBuffer.clear();
+        rangeBuffer.put(data, offset, count).position(0);
+        GLES31.glBufferSubData(GLES31.GL_SHADER_STORAGE_BUFFER, offset * Float.BYTES, count * Float.BYTES, rangeBuffer);
+        unbind();
+    }
+
     @Override
     public void updateData(int[] data) {
         bind();
@@ -1,5 +1,6 @@
 package com.njst.gaming.ri.battlearena;
 
+import com.njst.gaming.Animations.CompiledAnimationClip;
 import com.njst.gaming.Animations.KeyframeAnimation;
 import com.njst.gaming.Bone;
 import com.njst.gaming.Geometries.WeightedGeometry;
@@ -134,6 +135,7 @@ final class BattleArenaCharacterAssembler {
                                                    ArrayList<KeyframeAnimation> activeAnimations) {
         BattleArenaCharacterAssembly assembly = new BattleArenaCharacterAssembly();
         assembly.bones = loadBones(graphicsDevice, boneFile, boneNames);
+        assembly.skeletonAsset = boneFile;
         assembly.rootBone = findRootBone(assembly.bones);
         if (assembly.rootBone == null) {
             throw new IllegalStateException(LOG_PREFIX + "No root bone found in " + boneFile);
@@ -206,6 +208,7 @@ final class BattleArenaCharacterAssembler {
                     spec.path,
                     spec.framesPerSecond,
                     assembly.animationSet(animationKey));
+            assembly.animationAssets.put(animationKey, spec.path);
         }
         for (String animationKey : OPTIONAL_ANIMATION_KEYS) {
             AnimationAssetSpec spec = animationSpecs.get(animationKey);
@@ -219,6 +222,7 @@ final class BattleArenaCharacterAssembler {
                     spec.path,
                     spec.framesPerSecond,
                     assembly.animationSet(animationKey));
+            assembly.animationAssets.put(animationKey, spec.path);
         }
     }
 
@@ -285,12 +289,16 @@ final class BattleArenaCharacterAssembler {
         Skeletal_Animation skeletalAnimation = new Skeletal_Animation();
         skeletalAnimation.set_Animation_map(animMap);
         skeleton.map(skeletalAnimation);
+        CompiledAnimationClip clip = CompiledAnimationClip.compile(animMap);
+        log("compiled animation clip file=" + animationFile
+                + " channels=" + clip.getChannelCount() + " keys=" + clip.getKeyCount());
 
         for (Map.Entry<String, KeyframeAnimation> entry : animMap.entrySet()) {
             KeyframeAnimation animation = entry.getValue();
             if (animation.bone == null) {
                 continue;
             }
+            animation.setCompiledChannel(clip.getChannel(entry.getKey()));
             normalizeAnimationTiming(animation);
             animation.framesPerSecond = framesPerSecond;
             animation.onfinish = () -> animation.time = 0f;
@@ -18,6 +18,8 @@ final class BattleArenaCharacterAssembly {
     Skeleton skeleton;
     Weighted_GameObject meshObject;
     Map<String, ArrayList<KeyframeAnimation>> animationSets = new LinkedHashMap<>();
+    String skeletonAsset;
+    Map<String, String> animationAssets = new LinkedHashMap<>();
 
     ArrayList<KeyframeAnimation> animationSet(String key) {
         ArrayList<KeyframeAnimation> animations = animationSets.get(key);
@@ -627,12 +627,7 @@ public final class BattleArenaCharacterController {
     }
 
     private boolean hasNextKeyframe(KeyframeAnimation animation) {
-        for (KeyframeAnimation.Keyframe keyframe : animation.keyframes) {
-            if (keyframe.time > animation.time) {
-                return true;
-            }
-        }
-        return false;
+        return animation.hasKeyframeAfter(animation.time);
     }
 
     private void triggerConfiguredEvent(String eventName, Runnable onEventStarted, Runnable onEventFinished) {
@@ -1,6 +1,8 @@
 package com.njst.gaming.ri.battlearena;
 
 import com.njst.gaming.Animations.KeyframeAnimation;
+import com.njst.gaming.Animations.ParallelKeyframeAnimator;
+import com.njst.gaming.Animations.SkinningPaletteCache;
 import com.njst.gaming.collision.Collider;
 import com.njst.gaming.collision.CollisionEvent;
 import com.njst.gaming.collision.CollisionEventType;
@@ -35,6 +37,9 @@ final class BattleArenaCharacterManager {
     private static final float HEALTH_BAR_WIDTH = 1.35f;
     private static final float HEALTH_BAR_HEIGHT = 0.18f;
     private static final float HEALTH_BAR_VERTICAL_OFFSET = 2.35f;
+    private static final long PALETTE_CACHE_MAX_BYTES = 8L * 1024L * 1024L;
+    private static final float PALETTE_CACHE_FRAMES_PER_ENTRY = 1f;
+    private static final int PALETTE_CACHE_LOG_INTERVAL_TICKS = 600;
 
     private final List<GameObject> playerMeshes = new ArrayList<>();
     private final List<BattleArenaHitboxDebugGameObject> debugHitboxes = new ArrayList<>();
@@ -46,6 +51,9 @@ final class BattleArenaCharacterManager {
     private final Map<String, BattleArenaControlledCharacter> charactersByPlayer =
             new LinkedHashMap<String, BattleArenaControlledCharacter>();
     private final ArrayList<KeyframeAnimation> activeAnimations = new ArrayList<>();
+    private final SkinningPaletteCache paletteCache =
+            new SkinningPaletteCache(PALETTE_CACHE_MAX_BYTES, PALETTE_CACHE_FRAMES_PER_ENTRY);
+    private int paletteCacheTicks;
 
     private BattleArenaControlledCharacter playerCharacter;
     private BattleArenaControlledCharacter activeCharacter;
@@ -58,6 +66,9 @@ final class BattleArenaCharacterManager {
 
     void reset() {
         playerMeshes.clear();
+        paletteCache.clear();
+        paletteCache.resetStats();
+        paletteCacheTicks = 0;
         debugHitboxes.clear();
         arenaCharacters.clear();
         npcCharacters.clear();
@@ -161,18 +172,60 @@ final class BattleArenaCharacterManager {
         }
     }
 
-    ArrayList<ArrayList<KeyframeAnimation>> collectActiveSkeletonAnimations() {
-        ArrayList<ArrayList<KeyframeAnimation>> skeletonAnimations = new ArrayList<>();
+    /**
+     * Advances every character's animation by one tick. Characters other than the camera target
+     * share baked palettes through {@link #paletteCache}: a hit only moves the animation clock and
+     * places the cached palette at the character's root, a miss samples the clip at the new time
+     * and bakes the result for everyone else in the same clip and frame.
+     */
+    void animateSkeletons(Scene scene, float deltaSeconds) {
+        ArrayList<ArrayList<KeyframeAnimation>> liveAnimations = new ArrayList<>();
+        ArrayList<ArrayList<KeyframeAnimation>> missedAnimations = new ArrayList<>();
+        ArrayList<BattleArenaCharacterRuntime> missedCharacters = new ArrayList<>();
         for (BattleArenaControlledCharacter character : arenaCharacters) {
             if (character == null || character.runtime == null) {
                 continue;
             }
-            ArrayList<KeyframeAnimation> activeSkeletonAnimations = collectActiveAnimations(character.runtime);
-            if (!activeSkeletonAnimations.isEmpty()) {
-                skeletonAnimations.add(activeSkeletonAnimations);
+            BattleArenaCharacterRuntime runtime = character.runtime;
+            if (character == activeCharacter || !runtime.canSharePalette()) {
+                runtime.useLiveBones(scene);
+                addIfNotEmpty(liveAnimations, collectActiveAnimations(runtime));
+                continue;
+            }
+            runtime.advanceAnimationClock(deltaSeconds);
+            String animationAsset = runtime.currentAnimationAsset();
+            float[] palette = animationAsset != null
+                    ? paletteCache.get(runtime.skeletonAsset, animationAsset, currentPaletteFrame(runtime))
+                    : null;
+            if (palette != null) {
+                runtime.applySharedPalette(scene, paletteCache, palette);
+                continue;
+            }
+            runtime.useLiveBones(scene);
+            addIfNotEmpty(missedAnimations, collectActiveAnimations(runtime));
+            if (animationAsset != null) {
+                missedCharacters.add(runtime);
             }
         }
-        return skeletonAnimations;
+        ParallelKeyframeAnimator.animateSkeletons(liveAnimations, deltaSeconds);
+        // Missed clocks already advanced above; sample them where they are.
+        ParallelKeyframeAnimator.animateSkeletons(missedAnimations, 0f);
+        for (BattleArenaCharacterRuntime runtime : missedCharacters) {
+            runtime.syncRig();
+            paletteCache.put(
+                    runtime.skeletonAsset,
+                    runtime.currentAnimationAsset(),
+                    currentPaletteFrame(runtime),
+                    runtime.bakeSharedPalette(paletteCache));
+        }
+        if (++paletteCacheTicks >= PALETTE_CACHE_LOG_INTERVAL_TICKS) {
+            paletteCacheTicks = 0;
+            log("skinning palette cache " + paletteCache);
+        }
+    }
+
+    SkinningPaletteCache getPaletteCache() {
+        return paletteCache;
     }
 
     ArrayList<BattleArenaGpuSkeletonPoseSource> collectGpuSkeletonPoseSources() {
@@ -520,6 +573,22 @@ final class BattleArenaCharacterManager {
                 + " contact=" + event.getManifold().getContactPoint());
     }
 
+    /**
+     * Quantized frame of the largest active animation time in the current set. Sets whose channels
+     * run at different frame rates, or bones still posed by a previous clip, can therefore share an
+     * entry with a slightly different pose.
+     */
+    private int currentPaletteFrame(BattleArenaCharacterRuntime runtime) {
+        return paletteCache.quantizeFrame(runtime.controller.getCurrentAnimationFrame());
+    }
+
+    private static void addIfNotEmpty(ArrayList<ArrayList<KeyframeAnimation>> batches,
+                                      ArrayList<KeyframeAnimation> animations) {
+        if (!animations.isEmpty()) {
+            batches.add(animations);
+        }
+    }
+
     private ArrayList<KeyframeAnimation> collectActiveAnimations(BattleArenaCharacterRuntime runtime) {
         ArrayList<KeyframeAnimation> activeSkeletonAnimations = new ArrayList<>();
         for (ArrayList<KeyframeAnimation> animationSet : runtime.animationSets.values()) {
@@ -1,8 +1,11 @@
 package com.njst.gaming.ri.battlearena;
 
 import com.njst.gaming.Animations.KeyframeAnimation;
+import com.njst.gaming.Animations.SkinningPaletteCache;
 import com.njst.gaming.Bone;
+import com.njst.gaming.Math.Quaternion;
 import com.njst.gaming.Math.Vector3;
+import com.njst.gaming.Scene;
 import com.njst.gaming.collision.Collider;
 import com.njst.gaming.objects.Weighted_GameObject;
 
@@ -28,6 +31,12 @@ public final class BattleArenaCharacterRuntime implements BattleArenaGpuSkeleton
     final Map<String, ArrayList<KeyframeAnimation>> animationSets;
     final Map<String, BattleArenaCharacterDefinition.EventDefinition> eventDefinitions;
     final ArrayList<Collider> hitboxColliders;
+    final String skeletonAsset;
+    final Map<String, String> animationAssets;
+    private final Quaternion rootOrientation = new Quaternion();
+    private final Vector3 rootPosition = new Vector3();
+    private float[] cachedPalette;
+    private boolean usingCachedPalette;
     private BattleArenaControlledCharacter character;
 
     BattleArenaCharacterRuntime(BattleArenaCharacterController controller,
@@ -46,6 +55,8 @@ public final class BattleArenaCharacterRuntime implements BattleArenaGpuSkeleton
         this.animationSets = createAnimationSets(assembly);
         this.eventDefinitions = createEventDefinitions(definition);
         this.hitboxColliders = createHitboxColliders();
+        this.skeletonAsset = assembly.skeletonAsset;
+        this.animationAssets = assembly.animationAssets;
         controller.configureCharacterData(animationSets, eventDefinitions, activeAnimations);
     }
 
@@ -167,16 +178,61 @@ public final class BattleArenaCharacterRuntime implements BattleArenaGpuSkeleton
         return bones.size();
     }
 
-    void advanceGpuAnimationClock(float deltaSeconds) {
+    void advanceAnimationClock(float deltaSeconds) {
         controller.advanceAnimationClockOnly(deltaSeconds);
     }
 
+    /**
+     * True when the pose can come from a shared palette: the rig is a known asset and hitboxes
+     * follow baked tracks, since a cached palette leaves the bones where they were.
+     */
+    boolean canSharePalette() {
+        return skeletonAsset != null && hitboxTracks != null;
+    }
+
+    /** Asset of the clip being played, which identifies the pose together with the frame. */
+    String currentAnimationAsset() {
+        return animationAssets.get(controller.getCurrentAnimationKey());
+    }
+
+    /** Skins this character from {@code rigSpacePalette} placed at its root; see {@link #syncRig()}. */
+    void applySharedPalette(Scene scene, SkinningPaletteCache paletteCache, float[] rigSpacePalette) {
+        if (cachedPalette == null || cachedPalette.length != rigSpacePalette.length) {
+            cachedPalette = new float[rigSpacePalette.length];
+            usingCachedPalette = false;
+        }
+        paletteCache.placeInWorld(rigSpacePalette, updateRootTransform(), rootPosition, cachedPalette);
+        if (!usingCachedPalette) {
+            scene.setSkeletonPalette(meshObject.boneBufferStartIndex, cachedPalette);
+            usingCachedPalette = true;
+        }
+    }
+
+    void useLiveBones(Scene scene) {
+        if (usingCachedPalette) {
+            scene.setSkeletonPalette(meshObject.boneBufferStartIndex, null);
+            usingCachedPalette = false;
+        }
+    }
+
+    /** Bakes the current bone matrices into a rig-space palette; call after {@link #syncRig()}. */
+    float[] bakeSharedPalette(SkinningPaletteCache paletteCache) {
+        float[] worldPalette = new float[bones.size() * SkinningPaletteCache.FLOATS_PER_BONE];
+        for (int i = 0; i < bones.size(); i++) {
+            bones.get(i).writeAnimationMatrix(worldPalette, i * SkinningPaletteCache.FLOATS_PER_BONE);
+        }
+        return paletteCache.bakeRigSpace(worldPalette, 0, bones.size(), updateRootTransform(), rootPosition);
+    }
+
     ArrayList<KeyframeAnimation> animationSet(String key) {
         ArrayList<KeyframeAnimation> animations = animationSets.get(key);
         return animations != null ? animations : new ArrayList<KeyframeAnimation>();
     }
 
     void syncRig() {
+        if (usingCachedPalette) {
+            return;
+        }
         Vector3 position = getPosition();
         rootBone.position_to_parent.set(
                 rootBasePosition.x + position.x,
@@ -188,6 +244,16 @@ public final class BattleArenaCharacterRuntime implements BattleArenaGpuSkeleton
         rootBone.update();
     }
 
+    /** The root transform {@link #syncRig()} gives the rig: no parent, heading about Y only. */
+    private Quaternion updateRootTransform() {
+        Vector3 position = getPosition();
+        rootPosition.set(
+                rootBasePosition.x + position.x,
+                rootBasePosition.y + position.y,
+                rootBasePosition.z + position.z);
+        return rootOrientation.setFromEuler(0f, getHeadingDegrees(), 0f).normalize();
+    }
+
     void applyHeadingToRig() {
         rootBone.rotation.set(0f, getHeadingDegrees(), 0f);
     }
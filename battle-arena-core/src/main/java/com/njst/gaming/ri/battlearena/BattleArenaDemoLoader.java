@@ -1,7 +1,6 @@
 package com.njst.gaming.ri.battlearena;
 
 import com.njst.gaming.Animations.Animation;
-import com.njst.gaming.Animations.ParallelKeyframeAnimator;
 import com.njst.gaming.Camera;
 import com.njst.gaming.Math.Vector3;
 import com.njst.gaming.Scene;
@@ -160,9 +159,7 @@ public class BattleArenaDemoLoader implements Scene.SceneLoader {
                         SIMULATION_TICK_SECONDS);
                 pendingPlayerControls.clearPressedEdges();
                 if (!DISABLE_ACTIVE_ANIMATIONS_FOR_PROFILING) {
-                    ParallelKeyframeAnimator.animateSkeletons(
-                            characterManager.collectActiveSkeletonAnimations(),
-                            SIMULATION_TICK_SECONDS);
+                    characterManager.animateSkeletons(scene, SIMULATION_TICK_SECONDS);
                 }
                 characterManager.syncRigs();
             }
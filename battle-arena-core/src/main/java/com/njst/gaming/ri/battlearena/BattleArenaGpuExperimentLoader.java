@@ -68,10 +68,11 @@ public final class BattleArenaGpuExperimentLoader implements Scene.SceneLoader {
             this.experimentShader = experimentShader;
             this.name = "GpuExperiment_FullscreenQuad";
             this.castsShadows = false;
+            this.frustumCulled = false;
         }
 
         @Override
-        public void render(ShaderHandle ignoredShader, int ignoredTextureHandle) {
+        public void render(ShaderHandle shader, int ignoredTextureHandle) {
             if (experimentShader == null) {
                 return;
             }
@@ -90,6 +91,7 @@ public final class BattleArenaGpuExperimentLoader implements Scene.SceneLoader {
             graphicsDevice.bindVertexArray(vaoIds[0]);
             graphicsDevice.drawElementsTriangles(getIndexCount());
             graphicsDevice.bindVertexArray(0);
+            shader.use();
         }
 
         @Override
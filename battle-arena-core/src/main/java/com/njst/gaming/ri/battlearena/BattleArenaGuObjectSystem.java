@@ -1,5 +1,7 @@
 package com.njst.gaming.ri.battlearena;
 
+import com.njst.gaming.collision.SweptAabb;
+
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -113,6 +115,9 @@ public final class BattleArenaGuObjectSystem {
             if (!controlled) {
                 applyPostExpiryPhysics(object, tickSeconds);
             }
+            object.previousX = object.x;
+            object.previousY = object.y;
+            object.previousZ = object.z;
             object.x += object.velocityX * tickSeconds;
             object.y += object.velocityY * tickSeconds;
             object.z += object.velocityZ * tickSeconds;
@@ -729,7 +734,12 @@ public final class BattleArenaGuObjectSystem {
             if (!isExplosiveProjectile(object)) {
                 continue;
             }
-            if (overlapsAnyPlayer(object, players) || overlapsAnyBlockingObject(object)) {
+            float impactTime = earliestProjectileImpact(object, players);
+            if (impactTime >= 0f) {
+                // Detonate where the projectile first touched, not where the tick left it.
+                object.x = object.previousX + ((object.x - object.previousX) * impactTime);
+                object.y = object.previousY + ((object.y - object.previousY) * impactTime);
+                object.z = object.previousZ + ((object.z - object.previousZ) * impactTime);
                 explode(object);
             }
         }
@@ -745,33 +755,49 @@ public final class BattleArenaGuObjectSystem {
                 + (object.velocityZ * object.velocityZ)) > 0.04f;
     }
 
-    private boolean overlapsAnyPlayer(MutableGuObject object, List<BattleArenaPlayerState> players) {
-        if (players == null || players.isEmpty()) {
-            return false;
-        }
-        Bounds objectBounds = boundsFor(object);
-        for (BattleArenaPlayerState player : players) {
-            if (player == null || player.playerId.equals(object.ownerPlayerId)) {
-                continue;
-            }
-            if (objectBounds.overlaps(playerBounds(player))) {
-                return true;
+    /**
+     * Sweeps the projectile's bounds along this tick's motion against enemy players and blocking
+     * objects, which are taken at their end-of-tick positions. Returns the earliest fraction of the
+     * motion at which it touches one, or -1 when it touches nothing.
+     */
+    private float earliestProjectileImpact(MutableGuObject object, List<BattleArenaPlayerState> players) {
+        Bounds current = boundsFor(object);
+        float earliest = -1f;
+        if (players != null) {
+            for (BattleArenaPlayerState player : players) {
+                if (player == null || player.playerId.equals(object.ownerPlayerId)) {
+                    continue;
+                }
+                earliest = earlierImpact(earliest, sweptImpact(object, current, playerBounds(player)));
             }
         }
-        return false;
-    }
-
-    private boolean overlapsAnyBlockingObject(MutableGuObject object) {
-        Bounds objectBounds = boundsFor(object);
         for (MutableGuObject other : objects) {
             if (other == null || other == object || !isBlockingObject(other)) {
                 continue;
             }
-            if (objectBounds.overlaps(boundsFor(other))) {
-                return true;
-            }
+            earliest = earlierImpact(earliest, sweptImpact(object, current, boundsFor(other)));
+        }
+        return earliest;
+    }
+
+    private float sweptImpact(MutableGuObject object, Bounds current, Bounds target) {
+        float motionX = object.x - object.previousX;
+        float motionY = object.y - object.previousY;
+        float motionZ = object.z - object.previousZ;
+        return SweptAabb.timeOfImpact(
+                current.minX - motionX, current.minY - motionY, current.minZ - motionZ,
+                current.maxX - motionX, current.maxY - motionY, current.maxZ - motionZ,
+                motionX, motionY, motionZ,
+                target.minX, target.minY, target.minZ,
+                target.maxX, target.maxY, target.maxZ,
+                null);
+    }
+
+    private static float earlierImpact(float current, float candidate) {
+        if (candidate < 0f) {
+            return current;
         }
-        return false;
+        return current < 0f ? candidate : Math.min(current, candidate);
     }
 
     private boolean isBlockingObject(MutableGuObject object) {
@@ -1147,6 +1173,9 @@ public final class BattleArenaGuObjectSystem {
         float x;
         float y;
         float z;
+        float previousX;
+        float previousY;
+        float previousZ;
         float headingDegrees;
         float halfX;
         float halfY;
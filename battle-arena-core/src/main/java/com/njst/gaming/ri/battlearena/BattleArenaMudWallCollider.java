@@ -8,7 +8,7 @@ import com.njst.gaming.collision.CollisionShape;
 import com.njst.gaming.objects.GameObject;
 
 public final class BattleArenaMudWallCollider implements Collider {
-    private static final int LAYER_OBSTACLE = 1 << 2;
+    public static final int LAYER_OBSTACLE = 1 << 2;
     private static final Bounds3 INACTIVE_BOUNDS =
             new Bounds3(new Vector3(100000f, 100000f, 100000f), new Vector3(100001f, 100001f, 100001f));
 
@@ -33,6 +33,7 @@ public final class BattleArenaAnimatedAtlasGameObject extends GameObject {
         this.rows = Math.max(1, rows);
         this.frameRate = Math.max(1f, frameRate);
         this.castsShadows = false;
+        this.transparent = true;
         this.ambientlight_multiplier = 8f;
         this.shininess = 1f;
     }
@@ -19,6 +19,9 @@ public final class BattleArenaMudWallDebugGameObject extends GameObject {
         this.enabled = false;
         this.name = "MudWall_Debug";
         this.modelMatrix.identity();
+        this.frustumCulled = false;
+        // The box vertices are rewritten every frame, so the buffers cannot be shared.
+        this.shareMesh = false;
         this.shininess = 0f;
         this.ambientlight_multiplier = 2.2f;
         this.castsShadows = false;
@@ -53,11 +56,11 @@ public final class BattleArenaMudWallDebugGameObject extends GameObject {
             shaderprogram = shader;
         }
         shaderprogram.setUniformVector3("properties", new Vector3(shininess, ambientlight_multiplier, 0));
-        shaderprogram.setUniformMatrix4fv("uMMatrix", modelMatrix);
+        shaderprogram.setUniformMatrix4fv("uMMatrix", getRenderModelMatrix());
         shaderprogram.activateTexture(textureHandle, texture);
 
         graphicsDevice.bindVertexArray(vaoIds[0]);
-        graphicsDevice.drawElementsLines(geometry.getIndices().length);
+        graphicsDevice.drawElementsLines(getIndexCount());
         graphicsDevice.bindVertexArray(0);
     }
 }
@@ -34,6 +34,7 @@ public final class BattleArenaPlayerHealthBarGameObject extends GameObject {
         this.verticalOffset = verticalOffset;
         this.name = name;
         this.castsShadows = false;
+        this.transparent = true;
         this.ambientlight_multiplier = 12f;
         this.shininess = 1f;
         setScale(widthWorldUnits, heightWorldUnits, 1f);
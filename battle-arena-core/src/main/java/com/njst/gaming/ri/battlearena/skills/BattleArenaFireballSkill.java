@@ -75,27 +75,39 @@ public final class BattleArenaFireballSkill implements BattleArenaSkill {
         Iterator<ActiveProjectile> iterator = activeProjectiles.iterator();
         while (iterator.hasNext()) {
             ActiveProjectile activeProjectile = iterator.next();
+            boolean wasLaunched = activeProjectile.launched;
+            Vector3 previousPosition = activeProjectile.projectile.obj.position.clone();
             updateProjectileState(activeProjectile, deltaSeconds);
 
-            if (activeProjectile.launched && mudWallSkill != null && mudWallSkill.blocksProjectile(activeProjectile.projectile.obj.position, activeProjectile.owner)) {
-                log("FIREBALL BLOCKED owner=" + activeProjectile.owner.meshObject.name
-                        + " position=" + activeProjectile.projectile.obj.position);
-                removeProjectile(context, activeProjectile.projectile);
-                iterator.remove();
-                continue;
-            }
+            if (activeProjectile.launched) {
+                // Sweep this tick's motion so a fireball cannot step through a wall or its target.
+                Vector3 currentPosition = activeProjectile.projectile.obj.position;
+                Vector3 sweepStart = wasLaunched ? previousPosition : currentPosition;
+                float blockTime = mudWallSkill != null
+                        ? mudWallSkill.projectileBlockTime(sweepStart, currentPosition, activeProjectile.owner)
+                        : -1f;
+                float hitTime = projectileHitTime(activeProjectile, sweepStart, currentPosition);
 
-            if (activeProjectile.launched && hasProjectileHitTarget(activeProjectile)) {
-                BattleArenaCharacterRuntime target = activeProjectile.target;
-                target.onHitTaken(activeProjectile.owner, "torso", BattleArenaCharacterController.ANIM_TAKE_HIT);
-                log("FIREBALL HIT "
-                        + activeProjectile.owner.meshObject.name
-                        + " -> "
-                        + target.meshObject.name
-                        + " position=" + activeProjectile.projectile.obj.position);
-                removeProjectile(context, activeProjectile.projectile);
-                iterator.remove();
-                continue;
+                if (blockTime >= 0f && (hitTime < 0f || blockTime <= hitTime)) {
+                    log("FIREBALL BLOCKED owner=" + activeProjectile.owner.meshObject.name
+                            + " position=" + pointAlong(sweepStart, currentPosition, blockTime));
+                    removeProjectile(context, activeProjectile.projectile);
+                    iterator.remove();
+                    continue;
+                }
+
+                if (hitTime >= 0f) {
+                    BattleArenaCharacterRuntime target = activeProjectile.target;
+                    target.onHitTaken(activeProjectile.owner, "torso", BattleArenaCharacterController.ANIM_TAKE_HIT);
+                    log("FIREBALL HIT "
+                            + activeProjectile.owner.meshObject.name
+                            + " -> "
+                            + target.meshObject.name
+                            + " position=" + pointAlong(sweepStart, currentPosition, hitTime));
+                    removeProjectile(context, activeProjectile.projectile);
+                    iterator.remove();
+                    continue;
+                }
             }
 
             if (activeProjectile.projectile.isExpired()) {
@@ -164,17 +176,44 @@ public final class BattleArenaFireballSkill implements BattleArenaSkill {
         activeProjectile.projectile.update(deltaSeconds);
     }
 
-    private boolean hasProjectileHitTarget(ActiveProjectile activeProjectile) {
+    /**
+     * Returns the earliest fraction of the motion from {@code from} to {@code to} at which the
+     * fireball enters the target's hit sphere, or -1 when it misses.
+     */
+    private float projectileHitTime(ActiveProjectile activeProjectile, Vector3 from, Vector3 to) {
         if (activeProjectile == null || activeProjectile.target == null) {
-            return false;
+            return -1f;
         }
-        Vector3 projectilePosition = activeProjectile.projectile.obj.position;
         Vector3 targetPosition = activeProjectile.target.getPosition();
-        float targetY = targetPosition.y + 1.0f;
-        float dx = projectilePosition.x - targetPosition.x;
-        float dy = projectilePosition.y - targetY;
-        float dz = projectilePosition.z - targetPosition.z;
-        return (dx * dx) + (dy * dy) + (dz * dz) <= FIREBALL_HIT_RADIUS * FIREBALL_HIT_RADIUS;
+        float offsetX = from.x - targetPosition.x;
+        float offsetY = from.y - (targetPosition.y + 1.0f);
+        float offsetZ = from.z - targetPosition.z;
+        float startDistanceSquared = (offsetX * offsetX) + (offsetY * offsetY) + (offsetZ * offsetZ)
+                - (FIREBALL_HIT_RADIUS * FIREBALL_HIT_RADIUS);
+        if (startDistanceSquared <= 0f) {
+            return 0f;
+        }
+        float motionX = to.x - from.x;
+        float motionY = to.y - from.y;
+        float motionZ = to.z - from.z;
+        float motionLengthSquared = (motionX * motionX) + (motionY * motionY) + (motionZ * motionZ);
+        float approach = (offsetX * motionX) + (offsetY * motionY) + (offsetZ * motionZ);
+        if (motionLengthSquared <= 0f || approach >= 0f) {
+            return -1f;
+        }
+        float discriminant = (approach * approach) - (motionLengthSquared * startDistanceSquared);
+        if (discriminant < 0f) {
+            return -1f;
+        }
+        float time = (-approach - (float) Math.sqrt(discriminant)) / motionLengthSquared;
+        return time <= 1f ? time : -1f;
+    }
+
+    private Vector3 pointAlong(Vector3 from, Vector3 to, float time) {
+        return new Vector3(
+                from.x + ((to.x - from.x) * time),
+                from.y + ((to.y - from.y) * time),
+                from.z + ((to.z - from.z) * time));
     }
 
     private void removeProjectile(BattleArenaSkillContext context, Projectile projectile) {
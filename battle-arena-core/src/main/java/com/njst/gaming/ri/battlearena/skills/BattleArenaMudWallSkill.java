@@ -3,8 +3,10 @@ package com.njst.gaming.ri.battlearena.skills;
 import com.njst.gaming.Geometries.CubeGeometry;
 import com.njst.gaming.Math.Vector3;
 import com.njst.gaming.collision.Bounds3;
+import com.njst.gaming.collision.Collider;
 import com.njst.gaming.collision.CollisionEvent;
 import com.njst.gaming.collision.CollisionEventType;
+import com.njst.gaming.collision.CollisionWorld;
 import com.njst.gaming.objects.GameObject;
 import com.njst.gaming.ri.battlearena.BattleArenaCharacterRuntime;
 import com.njst.gaming.ri.battlearena.BattleArenaControlledCharacter;
@@ -26,9 +28,13 @@ public final class BattleArenaMudWallSkill implements BattleArenaSkill {
     private static final float MUD_WALL_FORWARD_OFFSET = 1.8f;
     private static final float MUD_WALL_PUSH_PADDING = 0.02f;
     private static final float FIREBALL_RADIUS = 0.16f;
+    private static final int WALL_QUERY_CAPACITY = 16;
     private static final String LOG_PREFIX = "[BattleArena] ";
 
     private final List<ActiveMudWall> activeMudWalls = new ArrayList<>();
+    private final Collider[] wallHits = new Collider[WALL_QUERY_CAPACITY];
+    private final float[] wallHitTimes = new float[WALL_QUERY_CAPACITY];
+    private CollisionWorld collisionWorld;
 
     @Override
     public String id() {
@@ -58,7 +64,8 @@ public final class BattleArenaMudWallSkill implements BattleArenaSkill {
         context.scene.addGameObject(mudWall);
 
         BattleArenaMudWallCollider mudWallCollider = new BattleArenaMudWallCollider(mudWall);
-        context.scene.getCollisionWorld().addCollider(mudWallCollider);
+        collisionWorld = context.scene.getCollisionWorld();
+        collisionWorld.addCollider(mudWallCollider);
         BattleArenaMudWallDebugGameObject debugObject = new BattleArenaMudWallDebugGameObject(mudWallCollider);
         debugObject.setEnabled(context.debugEnabled);
         context.scene.addGameObject(debugObject);
@@ -126,54 +133,59 @@ public final class BattleArenaMudWallSkill implements BattleArenaSkill {
         }
     }
 
-    boolean blocksProjectile(Vector3 projectilePosition, BattleArenaCharacterRuntime projectileOwner) {
-        if (projectilePosition == null) {
-            return false;
+    /**
+     * Sweeps a fireball from {@code from} to {@code to} against enemy mud walls and returns the
+     * earliest fraction of that motion at which it touches one, or -1 when it passes freely.
+     */
+    float projectileBlockTime(Vector3 from, Vector3 to, BattleArenaCharacterRuntime projectileOwner) {
+        if (from == null || to == null || collisionWorld == null || activeMudWalls.isEmpty()) {
+            return -1f;
         }
-        for (ActiveMudWall mudWall : activeMudWalls) {
-            if (mudWall == null || mudWall.collider == null || mudWall.owner == projectileOwner) {
-                continue;
-            }
-            Bounds3 bounds = mudWall.collider.getWorldBounds();
-            Vector3 min = bounds.getMin();
-            Vector3 max = bounds.getMax();
-            if (projectilePosition.x < (min.x - FIREBALL_RADIUS) || projectilePosition.x > (max.x + FIREBALL_RADIUS)) {
-                continue;
-            }
-            if (projectilePosition.y < (min.y - FIREBALL_RADIUS) || projectilePosition.y > (max.y + FIREBALL_RADIUS)) {
-                continue;
+        int hitCount = collisionWorld.sweepAabb(
+                from.x - FIREBALL_RADIUS, from.y - FIREBALL_RADIUS, from.z - FIREBALL_RADIUS,
+                from.x + FIREBALL_RADIUS, from.y + FIREBALL_RADIUS, from.z + FIREBALL_RADIUS,
+                to.x - from.x, to.y - from.y, to.z - from.z,
+                BattleArenaMudWallCollider.LAYER_OBSTACLE, wallHits, wallHitTimes);
+        // Hits come back nearest first, so the first enemy wall is the earliest block.
+        float earliest = -1f;
+        for (int i = 0; i < hitCount; i++) {
+            ActiveMudWall mudWall = findMudWall(wallHits[i]);
+            wallHits[i] = null;
+            if (earliest < 0f && mudWall != null && mudWall.owner != projectileOwner) {
+                earliest = wallHitTimes[i];
             }
-            if (projectilePosition.z < (min.z - FIREBALL_RADIUS) || projectilePosition.z > (max.z + FIREBALL_RADIUS)) {
-                continue;
-            }
-            return true;
         }
-        return false;
+        return earliest;
     }
 
     boolean hasBlockingWallBetween(Vector3 start, Vector3 target, BattleArenaCharacterRuntime wallOwner) {
-        if (start == null || target == null) {
+        if (start == null || target == null || collisionWorld == null || activeMudWalls.isEmpty()) {
             return false;
         }
-        float minX = Math.min(start.x, target.x);
-        float maxX = Math.max(start.x, target.x);
-        float minZ = Math.min(start.z, target.z);
-        float maxZ = Math.max(start.z, target.z);
-
-        for (ActiveMudWall mudWall : activeMudWalls) {
-            if (mudWall == null || mudWall.collider == null || mudWall.owner != wallOwner) {
-                continue;
+        // The path test is horizontal, so the box spans every height.
+        int hitCount = collisionWorld.overlapAabb(
+                Math.min(start.x, target.x), -Float.MAX_VALUE, Math.min(start.z, target.z),
+                Math.max(start.x, target.x), Float.MAX_VALUE, Math.max(start.z, target.z),
+                BattleArenaMudWallCollider.LAYER_OBSTACLE, wallHits);
+        boolean blocked = false;
+        for (int i = 0; i < hitCount; i++) {
+            ActiveMudWall mudWall = findMudWall(wallHits[i]);
+            wallHits[i] = null;
+            if (mudWall != null && mudWall.owner == wallOwner) {
+                blocked = true;
             }
-            Bounds3 bounds = mudWall.collider.getWorldBounds();
-            Vector3 wallMin = bounds.getMin();
-            Vector3 wallMax = bounds.getMax();
-            boolean overlapsPathX = wallMax.x >= minX && wallMin.x <= maxX;
-            boolean overlapsPathZ = wallMax.z >= minZ && wallMin.z <= maxZ;
-            if (overlapsPathX && overlapsPathZ) {
-                return true;
+        }
+        return blocked;
+    }
+
+    private ActiveMudWall findMudWall(Collider collider) {
+        for (int i = 0; i < activeMudWalls.size(); i++) {
+            ActiveMudWall mudWall = activeMudWalls.get(i);
+            if (mudWall.collider == collider) {
+                return mudWall;
             }
         }
-        return false;
+        return null;
     }
 
     void setDebugVisible(boolean debugVisible) {
@@ -0,0 +1,184 @@
+package com.njst.gaming.Animations;
+
+import com.njst.gaming.Math.Quaternion;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyframe clip compiled for sampling: one {@link Channel} per animated bone, each holding its key
+ * times in a sorted {@code float[]} and its rotations as normalized quaternions, four floats per
+ * key. Channels are immutable and can be shared; the sampling position lives in each
+ * {@link KeyframeAnimation}, which keeps a key cursor so advancing time costs O(1) amortized.
+ */
+public final class CompiledAnimationClip implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final class Channel implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final float[] times;
+        private final float[] rotations;
+        private final float[] positions;
+
+        private Channel(float[] times, float[] rotations, float[] positions) {
+            this.times = times;
+            this.rotations = rotations;
+            this.positions = positions;
+        }
+
+        /** Compiles {@code keyframes}, stably sorted by time; null entries are skipped. */
+        public static Channel compile(List<KeyframeAnimation.Keyframe> keyframes) {
+            ArrayList<KeyframeAnimation.Keyframe> sorted = new ArrayList<KeyframeAnimation.Keyframe>();
+            if (keyframes != null) {
+                for (KeyframeAnimation.Keyframe keyframe : keyframes) {
+                    if (keyframe != null && keyframe.rotation != null) {
+                        sorted.add(keyframe);
+                    }
+                }
+            }
+            Collections.sort(sorted, new Comparator<KeyframeAnimation.Keyframe>() {
+                @Override
+                public int compare(KeyframeAnimation.Keyframe a, KeyframeAnimation.Keyframe b) {
+                    return Float.compare(a.time, b.time);
+                }
+            });
+            int count = sorted.size();
+            float[] times = new float[count];
+            float[] rotations = new float[count * 4];
+            float[] positions = new float[count * 3];
+            Quaternion scratch = new Quaternion();
+            for (int i = 0; i < count; i++) {
+                KeyframeAnimation.Keyframe keyframe = sorted.get(i);
+                times[i] = keyframe.time;
+                scratch.setFromEuler(keyframe.rotation.x, keyframe.rotation.y, keyframe.rotation.z);
+                rotations[i * 4] = scratch.x;
+                rotations[(i * 4) + 1] = scratch.y;
+                rotations[(i * 4) + 2] = scratch.z;
+                rotations[(i * 4) + 3] = scratch.w;
+                if (keyframe.position != null) {
+                    positions[i * 3] = keyframe.position.x;
+                    positions[(i * 3) + 1] = keyframe.position.y;
+                    positions[(i * 3) + 2] = keyframe.position.z;
+                }
+            }
+            return new Channel(times, rotations, positions);
+        }
+
+        public int getKeyCount() {
+            return times.length;
+        }
+
+        public float getTime(int key) {
+            return times[key];
+        }
+
+        /** Time of the last key, or 0 for an empty channel. */
+        public float getDuration() {
+            return times.length > 0 ? times[times.length - 1] : 0f;
+        }
+
+        /** Key positions, three floats per key; kept for tools, sampling only uses rotations. */
+        public float[] getPositions() {
+            return positions;
+        }
+
+        /**
+         * Returns the last key at or before {@code time}, or -1 when {@code time} is before the
+         * first key. {@code cursor} is the previous answer: moving forward walks from it, and only a
+         * jump backwards falls back to a binary search.
+         */
+        public int findKey(float time, int cursor) {
+            int count = times.length;
+            if (count == 0 || time < times[0]) {
+                return -1;
+            }
+            int key = cursor;
+            if (key < 0 || key >= count || times[key] > time) {
+                key = binarySearch(time);
+            }
+            while (key + 1 < count && times[key + 1] <= time) {
+                key++;
+            }
+            return key;
+        }
+
+        /** True when {@code key}, as returned by {@link #findKey}, has a following key to blend toward. */
+        public boolean hasNextKey(int key) {
+            return key + 1 < times.length;
+        }
+
+        /**
+         * Slerps from {@code key} to the next key at {@code time} into {@code out} with
+         * {@link Quaternion#slerp(Quaternion, Quaternion, float, Quaternion)}; {@code scratch}
+         * holds the next key.
+         */
+        public Quaternion sampleRotation(int key, float time, Quaternion scratch, Quaternion out) {
+            int next = key + 1;
+            float span = times[next] - times[key];
+            float t = span != 0f ? (time - times[key]) / span : 1f;
+            loadRotation(key, out);
+            loadRotation(next, scratch);
+            return Quaternion.slerp(out, scratch, t, out);
+        }
+
+        private void loadRotation(int key, Quaternion out) {
+            int offset = key * 4;
+            out.x = rotations[offset];
+            out.y = rotations[offset + 1];
+            out.z = rotations[offset + 2];
+            out.w = rotations[offset + 3];
+        }
+
+        private int binarySearch(float time) {
+            int low = 0;
+            int high = times.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (times[mid] <= time) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final LinkedHashMap<String, Channel> channels = new LinkedHashMap<String, Channel>();
+    private int keyCount;
+
+    /** Compiles every animation in a map loaded from a legacy {@code .ser} animation resource. */
+    public static CompiledAnimationClip compile(Map<String, KeyframeAnimation> animations) {
+        CompiledAnimationClip clip = new CompiledAnimationClip();
+        for (Map.Entry<String, KeyframeAnimation> entry : animations.entrySet()) {
+            KeyframeAnimation animation = entry.getValue();
+            if (animation == null) {
+                continue;
+            }
+            Channel channel = Channel.compile(animation.keyframes);
+            clip.channels.put(entry.getKey(), channel);
+            clip.keyCount += channel.getKeyCount();
+        }
+        return clip;
+    }
+
+    /** The channel compiled from the animation stored under {@code name}, or null. */
+    public Channel getChannel(String name) {
+        return channels.get(name);
+    }
+
+    public int getChannelCount() {
+        return channels.size();
+    }
+
+    /** Keys across all channels. */
+    public int getKeyCount() {
+        return keyCount;
+    }
+}
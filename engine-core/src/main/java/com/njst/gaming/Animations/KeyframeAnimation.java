@@ -20,6 +20,11 @@ public class KeyframeAnimation extends Animation implements Serializable {
     // private boolean active; // Is the animation currently active?
     public Runnable onfinish;
     public float framesPerSecond = LEGACY_FRAMES_PER_SECOND;
+    private transient CompiledAnimationClip.Channel compiled;
+    private transient int keyCursor = -1;
+    private transient Quaternion sampledRotation;
+    private transient Quaternion sampledNextRotation;
+    private transient Vector3 sampledEuler;
     public KeyframeAnimation(Bone bone) {
         this.bone = bone;
         this.keyframes = new ArrayList<>();
@@ -28,6 +33,7 @@ public class KeyframeAnimation extends Animation implements Serializable {
 
     public void addKeyframe(float time, Vector3 position, Vector3 rotation) {
         keyframes.add(new Keyframe(time, position, rotation));
+        compiled = null;
         // Update the duration of the animation
         if (time > duration) {
             duration = time;
@@ -35,6 +41,61 @@ public class KeyframeAnimation extends Animation implements Serializable {
     }
    public  float time;
    public float speed=1;
+
+    /** Compiles {@link #keyframes} so {@link #animate(float)} samples with a key cursor instead of scanning. */
+    public void compile() {
+        setCompiledChannel(CompiledAnimationClip.Channel.compile(keyframes));
+    }
+
+    /**
+     * Samples {@code channel} instead of {@link #keyframes}. Pass null to go back to the list; call
+     * again after editing the list, since the channel is a snapshot.
+     */
+    public void setCompiledChannel(CompiledAnimationClip.Channel channel) {
+        compiled = channel;
+        keyCursor = -1;
+    }
+
+    public CompiledAnimationClip.Channel getCompiledChannel() {
+        return compiled;
+    }
+
+    /**
+     * Returns the last key at or before {@code time}, or -1 when there is none or no channel is
+     * compiled, and remembers it as the cursor for the next lookup.
+     */
+    int findKeyframe(float time) {
+        if (compiled == null) {
+            return -1;
+        }
+        keyCursor = compiled.findKey(time, keyCursor);
+        return keyCursor;
+    }
+
+    /** True when some keyframe lies after {@code time}, i.e. the animation has not finished yet. */
+    public boolean hasKeyframeAfter(float time) {
+        if (compiled != null) {
+            return compiled.hasNextKey(compiled.findKey(time, keyCursor));
+        }
+        if (keyframes == null) {
+            return false;
+        }
+        for (Keyframe keyframe : keyframes) {
+            if (keyframe.time > time) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the Euler rotation between {@code key} (from {@link #findKeyframe}) and the next key at
+     * {@code time} into {@code out}. Touches no animation state, so it may run off the frame thread.
+     */
+    public Vector3 sampleRotation(int key, float time, Quaternion scratch, Quaternion nextScratch, Vector3 out) {
+        return compiled.sampleRotation(key, time, nextScratch, scratch).toEuler(out);
+    }
+
     public void animate() {
         animate(1f / LEGACY_FRAMES_PER_SECOND);
     }
@@ -48,6 +109,10 @@ public class KeyframeAnimation extends Animation implements Serializable {
             deltaSeconds = 0f;
         }
         time += deltaSeconds * resolvedFramesPerSecond() * speed;
+        if (compiled != null) {
+            animateCompiled();
+            return;
+        }
         float currentTime = time;
         Keyframe previousKeyframe = null;
         Keyframe nextKeyframe = null;
@@ -88,7 +153,26 @@ public class KeyframeAnimation extends Animation implements Serializable {
         }
     }
 
-    
+
+    private void animateCompiled() {
+        int key = findKeyframe(time);
+        if (!compiled.hasNextKey(key)) {
+            if (onfinish != null) {
+                onfinish.run();
+            }
+            return;
+        }
+        if (key < 0) {
+            return;
+        }
+        if (sampledRotation == null) {
+            sampledRotation = new Quaternion();
+            sampledNextRotation = new Quaternion();
+            sampledEuler = new Vector3();
+        }
+        bone.setRotation(sampleRotation(key, time, sampledRotation, sampledNextRotation, sampledEuler));
+    }
+
     private Vector3 interpolate(Vector3 start, Vector3 end, float t) {
         // Linear interpolation
         Quaternion q1=Quaternion.fromEuler(start.x,start.y,start.z);
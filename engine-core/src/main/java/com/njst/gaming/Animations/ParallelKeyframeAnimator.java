@@ -3,140 +3,228 @@ package com.njst.gaming.Animations;
 import com.njst.gaming.Math.Quaternion;
 import com.njst.gaming.Math.Vector3;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
+import java.util.RandomAccess;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Samples keyframe animations on persistent worker threads. A pass fills reusable {@link Slot}s,
+ * one per animation, and splits them into chunks: one chunk per skeleton in
+ * {@link #animateSkeletons}, fixed-size runs in {@link #animate}. The workers and the frame thread
+ * claim chunks from a shared counter until none are left, so a busy thread never holds up an idle
+ * one, then meet at a countdown barrier. Since a skeleton chunk owns its bones, skeleton passes
+ * also rotate the bones on the worker; animation clocks and finish callbacks always run on the
+ * calling frame thread, in list order. Once the slot arrays have grown to the largest pass,
+ * sampling compiled clips allocates nothing.
+ *
+ * <p>The worker count defaults to one less than the available processors and the parallel
+ * threshold to {@value #DEFAULT_PARALLEL_THRESHOLD} animations; both can be set with the
+ * {@code njst.animator.workers} and {@code njst.animator.parallelThreshold} system properties or
+ * {@link #configure}.
+ */
 public final class ParallelKeyframeAnimator {
     private static final float LEGACY_FRAMES_PER_SECOND = 60f;
-    private static final int WORKER_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
-    private static final int PARALLEL_THRESHOLD = 4;
-    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
-            WORKER_COUNT,
-            new ThreadFactory() {
-                private final AtomicInteger threadIndex = new AtomicInteger(1);
-
-                @Override
-                public Thread newThread(Runnable runnable) {
-                    Thread thread = new Thread(runnable,
-                            "NJST-KeyframeAnimator-" + threadIndex.getAndIncrement());
-                    thread.setDaemon(true);
-                    return thread;
-                }
-            });
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 32;
+    private static final int ANIMATIONS_PER_CHUNK = 16;
+    private static final int SPINS_BEFORE_PARK = 256;
+
+    private static int workerCount = readProperty("njst.animator.workers",
+            Math.max(0, Runtime.getRuntime().availableProcessors() - 1));
+    private static int parallelThreshold = readProperty("njst.animator.parallelThreshold",
+            DEFAULT_PARALLEL_THRESHOLD);
+    private static WorkerPool pool;
+    private static boolean passRunning;
+    private static boolean rotateOnWorkers;
+
+    // Written by the frame thread before a pass is published to the workers.
+    private static Slot[] slots = new Slot[0];
+    private static int slotCount;
+    private static int[] chunkEnds = new int[0];
+    private static int chunkCount;
 
     private ParallelKeyframeAnimator() {
     }
 
-    public static void animate(List<KeyframeAnimation> animations, float deltaSeconds) {
+    /**
+     * Sets the number of background workers (0 samples everything on the calling thread) and the
+     * fewest animations a pass needs before it is handed to them. Workers are restarted lazily.
+     */
+    public static synchronized void configure(int workers, int threshold) {
+        int resolvedWorkers = Math.max(0, workers);
+        if (resolvedWorkers != workerCount && pool != null) {
+            pool.stop();
+            pool = null;
+        }
+        workerCount = resolvedWorkers;
+        parallelThreshold = Math.max(1, threshold);
+    }
+
+    public static synchronized int getWorkerCount() {
+        return workerCount;
+    }
+
+    public static synchronized int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public static synchronized void animate(List<KeyframeAnimation> animations, float deltaSeconds) {
         if (animations == null || animations.isEmpty()) {
             return;
         }
-        if (animations.size() < PARALLEL_THRESHOLD || WORKER_COUNT <= 1) {
+        if (animations.size() < parallelThreshold || workerCount <= 0 || passRunning) {
             animateSequentially(animations, deltaSeconds);
             return;
         }
 
-        ArrayList<AnimationJob> jobs = new ArrayList<>();
-        for (KeyframeAnimation animation : animations) {
-            AnimationJob job = createJob(animation, deltaSeconds);
-            if (job != null) {
-                jobs.add(job);
-            }
-        }
-        if (jobs.isEmpty()) {
-            return;
-        }
-
-        ArrayList<Future<AnimationResult>> futures = new ArrayList<>(jobs.size());
-        for (AnimationJob job : jobs) {
-            futures.add(EXECUTOR.submit(new Callable<AnimationResult>() {
-                @Override
-                public AnimationResult call() {
-                    return evaluate(job);
-                }
-            }));
+        beginPass(false);
+        addSlots(animations, deltaSeconds, ANIMATIONS_PER_CHUNK);
+        if (!runPass()) {
+            animateSequentially(animations, deltaSeconds);
         }
+    }
 
-        ArrayList<AnimationResult> results = new ArrayList<>(futures.size());
-        try {
-            for (Future<AnimationResult> future : futures) {
-                results.add(future.get());
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            animateSequentially(animations, deltaSeconds);
+    /**
+     * Animates one batch per skeleton. Each batch must drive bones no other batch touches, because
+     * its rotations are applied on whichever thread samples it.
+     */
+    public static synchronized void animateSkeletons(List<? extends List<KeyframeAnimation>> skeletonAnimationBatches,
+                                                     float deltaSeconds) {
+        if (skeletonAnimationBatches == null || skeletonAnimationBatches.isEmpty()) {
             return;
-        } catch (ExecutionException e) {
-            animateSequentially(animations, deltaSeconds);
+        }
+        int batchCount = skeletonAnimationBatches.size();
+        if (batchCount < 2 || workerCount <= 0 || passRunning
+                || countAnimations(skeletonAnimationBatches) < parallelThreshold) {
+            animateSkeletonsSequentially(skeletonAnimationBatches, deltaSeconds);
             return;
         }
 
-        // Only the frame thread mutates animation state, bones, and finish callbacks.
-        for (AnimationResult result : results) {
-            apply(result);
+        beginPass(true);
+        for (int i = 0; i < batchCount; i++) {
+            addSlots(skeletonAnimationBatches.get(i), deltaSeconds, Integer.MAX_VALUE);
+        }
+        if (!runPass()) {
+            animateSkeletonsSequentially(skeletonAnimationBatches, deltaSeconds);
         }
     }
 
-    public static void animateSkeletons(List<? extends List<KeyframeAnimation>> skeletonAnimationBatches,
-                                        float deltaSeconds) {
-        if (skeletonAnimationBatches == null || skeletonAnimationBatches.isEmpty()) {
+    private static void beginPass(boolean rotateBonesOnWorkers) {
+        slotCount = 0;
+        chunkCount = 0;
+        rotateOnWorkers = rotateBonesOnWorkers;
+    }
+
+    /** Fills slots for {@code animations}, closing a chunk every {@code chunkSize} slots and at the end. */
+    private static void addSlots(List<KeyframeAnimation> animations, float deltaSeconds, int chunkSize) {
+        if (animations == null) {
             return;
         }
-        if (skeletonAnimationBatches.size() < 2 || WORKER_COUNT <= 1) {
-            for (List<KeyframeAnimation> skeletonAnimations : skeletonAnimationBatches) {
-                animateSequentially(skeletonAnimations, deltaSeconds);
+        int chunkStart = slotCount;
+        if (animations instanceof RandomAccess) {
+            for (int i = 0, count = animations.size(); i < count; i++) {
+                chunkStart = addSlot(animations.get(i), deltaSeconds, chunkStart, chunkSize);
             }
-            return;
+        } else {
+            for (KeyframeAnimation animation : animations) {
+                chunkStart = addSlot(animation, deltaSeconds, chunkStart, chunkSize);
+            }
+        }
+        if (slotCount > chunkStart) {
+            closeChunk();
         }
+    }
 
-        ArrayList<Future<ArrayList<AnimationResult>>> futures = new ArrayList<>();
-        for (List<KeyframeAnimation> skeletonAnimations : skeletonAnimationBatches) {
-            ArrayList<AnimationJob> jobs = createJobs(skeletonAnimations, deltaSeconds);
-            if (jobs.isEmpty()) {
-                continue;
-            }
-            futures.add(EXECUTOR.submit(new Callable<ArrayList<AnimationResult>>() {
-                @Override
-                public ArrayList<AnimationResult> call() {
-                    ArrayList<AnimationResult> results = new ArrayList<>(jobs.size());
-                    for (AnimationJob job : jobs) {
-                        results.add(evaluate(job));
-                    }
-                    return results;
-                }
-            }));
+    private static int addSlot(KeyframeAnimation animation, float deltaSeconds, int chunkStart, int chunkSize) {
+        if (slotCount == slots.length) {
+            growSlots();
+        }
+        if (!slots[slotCount].prepare(animation, deltaSeconds)) {
+            return chunkStart;
         }
+        slotCount++;
+        if (slotCount - chunkStart >= chunkSize) {
+            closeChunk();
+            return slotCount;
+        }
+        return chunkStart;
+    }
+
+    private static void closeChunk() {
+        if (chunkCount == chunkEnds.length) {
+            int[] grown = new int[Math.max(16, chunkEnds.length * 2)];
+            System.arraycopy(chunkEnds, 0, grown, 0, chunkEnds.length);
+            chunkEnds = grown;
+        }
+        chunkEnds[chunkCount++] = slotCount;
+    }
 
-        ArrayList<ArrayList<AnimationResult>> skeletonResults = new ArrayList<>(futures.size());
+    private static void growSlots() {
+        Slot[] grown = new Slot[Math.max(64, slots.length * 2)];
+        System.arraycopy(slots, 0, grown, 0, slots.length);
+        for (int i = slots.length; i < grown.length; i++) {
+            grown[i] = new Slot();
+        }
+        slots = grown;
+    }
+
+    /**
+     * Evaluates the prepared slots on the workers and applies them in order. Returns false, with no
+     * clock advanced, when a worker failed, so the caller can fall back to the sequential path;
+     * rotations are absolute, so any already set on bones are simply written again.
+     */
+    private static boolean runPass() {
+        if (slotCount == 0) {
+            return true;
+        }
+        if (pool == null) {
+            pool = new WorkerPool(workerCount);
+        }
+        passRunning = true;
         try {
-            for (Future<ArrayList<AnimationResult>> future : futures) {
-                skeletonResults.add(future.get());
+            if (!pool.execute()) {
+                releaseSlots();
+                return false;
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            animateSkeletonsSequentially(skeletonAnimationBatches, deltaSeconds);
-            return;
-        } catch (ExecutionException e) {
-            animateSkeletonsSequentially(skeletonAnimationBatches, deltaSeconds);
-            return;
+            // Only the frame thread advances clocks and runs finish callbacks.
+            for (int i = 0; i < slotCount; i++) {
+                slots[i].apply(!rotateOnWorkers);
+            }
+            return true;
+        } finally {
+            passRunning = false;
         }
+    }
 
-        // Apply all skeleton results on the frame thread after every worker has joined.
-        for (ArrayList<AnimationResult> results : skeletonResults) {
-            for (AnimationResult result : results) {
-                apply(result);
+    private static void releaseSlots() {
+        for (int i = 0; i < slotCount; i++) {
+            slots[i].release();
+        }
+    }
+
+    private static void evaluateChunks(AtomicInteger nextChunk) {
+        int chunk;
+        while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+            int start = chunk == 0 ? 0 : chunkEnds[chunk - 1];
+            for (int i = start, end = chunkEnds[chunk]; i < end; i++) {
+                slots[i].evaluate(rotateOnWorkers);
             }
         }
     }
 
+    private static int countAnimations(List<? extends List<KeyframeAnimation>> skeletonAnimationBatches) {
+        int count = 0;
+        for (int i = 0, batches = skeletonAnimationBatches.size(); i < batches; i++) {
+            List<KeyframeAnimation> animations = skeletonAnimationBatches.get(i);
+            count += animations != null ? animations.size() : 0;
+        }
+        return count;
+    }
+
     private static void animateSequentially(List<KeyframeAnimation> animations, float deltaSeconds) {
+        if (animations == null) {
+            return;
+        }
         for (KeyframeAnimation animation : animations) {
             if (animation != null) {
                 animation.animate(deltaSeconds);
@@ -151,118 +239,226 @@ public final class ParallelKeyframeAnimator {
         }
     }
 
-    private static ArrayList<AnimationJob> createJobs(List<KeyframeAnimation> animations, float deltaSeconds) {
-        ArrayList<AnimationJob> jobs = new ArrayList<>();
-        if (animations == null) {
-            return jobs;
+    private static int readProperty(String name, int fallback) {
+        String value = System.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return fallback;
         }
-        for (KeyframeAnimation animation : animations) {
-            AnimationJob job = createJob(animation, deltaSeconds);
-            if (job != null) {
-                jobs.add(job);
-            }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return fallback;
         }
-        return jobs;
     }
 
-    private static AnimationJob createJob(KeyframeAnimation animation, float deltaSeconds) {
-        if (animation == null || !animation.active || animation.bone == null
-                || animation.keyframes == null || animation.keyframes.isEmpty()) {
-            return null;
-        }
-        float safeDeltaSeconds = Math.max(0f, deltaSeconds);
-        float framesPerSecond = animation.framesPerSecond > 0f
-                ? animation.framesPerSecond
-                : LEGACY_FRAMES_PER_SECOND;
-        float nextTime = animation.time + safeDeltaSeconds * framesPerSecond * animation.speed;
-        KeyframeAnimation.Keyframe previousKeyframe = null;
-        KeyframeAnimation.Keyframe nextKeyframe = null;
-
-        for (KeyframeAnimation.Keyframe keyframe : animation.keyframes) {
-            if (keyframe.time <= nextTime) {
-                previousKeyframe = keyframe;
-            } else if (nextKeyframe == null) {
-                nextKeyframe = keyframe;
-                break;
+    /**
+     * Daemon threads that sleep between passes. A pass bumps {@link #generation}, wakes every
+     * worker, evaluates chunks on the calling thread too, and waits until {@link #running} drops
+     * to zero.
+     */
+    private static final class WorkerPool implements Runnable {
+        private final Thread[] threads;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private volatile int generation;
+        private volatile boolean stopped;
+        private volatile boolean failed;
+        private volatile Thread waiter;
+
+        WorkerPool(int workers) {
+            threads = new Thread[workers];
+            for (int i = 0; i < workers; i++) {
+                Thread thread = new Thread(this, "NJST-KeyframeAnimator-" + (i + 1));
+                thread.setDaemon(true);
+                threads[i] = thread;
+                thread.start();
             }
         }
 
-        if (nextKeyframe == null) {
-            return new AnimationJob(animation, nextTime, null, null, 0f, true, false);
+        /** Runs one pass over the published slots; false when any thread failed. */
+        boolean execute() {
+            failed = false;
+            waiter = Thread.currentThread();
+            nextChunk.set(0);
+            running.set(threads.length);
+            // The volatile write publishes the slots and chunks written before it.
+            generation++;
+            for (Thread thread : threads) {
+                LockSupport.unpark(thread);
+            }
+            try {
+                evaluateChunks(nextChunk);
+            } catch (RuntimeException e) {
+                fail();
+            } finally {
+                awaitWorkers();
+            }
+            return !failed;
         }
-        if (previousKeyframe == null) {
-            return new AnimationJob(animation, nextTime, null, null, 0f, false, false);
+
+        void stop() {
+            stopped = true;
+            for (Thread thread : threads) {
+                LockSupport.unpark(thread);
+            }
         }
 
-        float frameSpan = nextKeyframe.time - previousKeyframe.time;
-        float blend = frameSpan != 0f ? (nextTime - previousKeyframe.time) / frameSpan : 1f;
-        return new AnimationJob(
-                animation,
-                nextTime,
-                previousKeyframe.rotation.clone(),
-                nextKeyframe.rotation.clone(),
-                blend,
-                false,
-                true);
-    }
+        @Override
+        public void run() {
+            int seenGeneration = 0;
+            while (!stopped) {
+                if (generation == seenGeneration) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                seenGeneration = generation;
+                try {
+                    evaluateChunks(nextChunk);
+                } catch (Throwable e) {
+                    fail();
+                }
+                if (running.decrementAndGet() == 0) {
+                    LockSupport.unpark(waiter);
+                }
+            }
+        }
 
-    private static AnimationResult evaluate(AnimationJob job) {
-        if (!job.hasRotation || job.finished) {
-            return new AnimationResult(job, null);
+        /** Marks the pass failed and leaves no chunks to claim; every worker still counts down. */
+        private void fail() {
+            failed = true;
+            nextChunk.set(chunkCount);
         }
-        Quaternion start = Quaternion.fromEuler(job.startRotation.x, job.startRotation.y, job.startRotation.z);
-        Quaternion end = Quaternion.fromEuler(job.endRotation.x, job.endRotation.y, job.endRotation.z);
-        Quaternion interpolated = Quaternion.slerp(start, end, job.blend);
-        return new AnimationResult(job, new Vector3(interpolated.toEuler()));
-    }
 
-    private static void apply(AnimationResult result) {
-        KeyframeAnimation animation = result.job.animation;
-        animation.time = result.job.time;
-        if (result.job.finished) {
-            if (animation.onfinish != null) {
-                animation.onfinish.run();
+        private void awaitWorkers() {
+            boolean interrupted = false;
+            int spins = 0;
+            while (running.get() != 0) {
+                if (spins < SPINS_BEFORE_PARK) {
+                    spins++;
+                    Thread.yield();
+                } else {
+                    LockSupport.park(this);
+                    // The workers are still writing slots, so an interrupt cannot cut the wait short.
+                    interrupted |= Thread.interrupted();
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
-            return;
-        }
-        if (result.rotation != null && animation.bone != null) {
-            animation.bone.setRotation(result.rotation);
         }
     }
 
-    private static final class AnimationJob {
-        final KeyframeAnimation animation;
-        final float time;
-        final Vector3 startRotation;
-        final Vector3 endRotation;
-        final float blend;
-        final boolean finished;
-        final boolean hasRotation;
-
-        AnimationJob(KeyframeAnimation animation,
-                     float time,
-                     Vector3 startRotation,
-                     Vector3 endRotation,
-                     float blend,
-                     boolean finished,
-                     boolean hasRotation) {
+    /** One animation's work for a pass; reused across passes so sampling allocates nothing. */
+    private static final class Slot {
+        KeyframeAnimation animation;
+        float time;
+        /** Key to sample from the animation's compiled channel, or -1 for none. */
+        int compiledKey;
+        boolean finished;
+        boolean hasRotation;
+        Vector3 startRotation;
+        Vector3 endRotation;
+        float blend;
+        final Quaternion start = new Quaternion();
+        final Quaternion end = new Quaternion();
+        final Vector3 rotation = new Vector3();
+
+        /** Finds the keys around the animation's next time; false when there is nothing to do. */
+        boolean prepare(KeyframeAnimation animation, float deltaSeconds) {
+            if (animation == null || !animation.active || animation.bone == null
+                    || animation.keyframes == null || animation.keyframes.isEmpty()) {
+                return false;
+            }
+            float safeDeltaSeconds = Math.max(0f, deltaSeconds);
+            float framesPerSecond = animation.framesPerSecond > 0f
+                    ? animation.framesPerSecond
+                    : LEGACY_FRAMES_PER_SECOND;
             this.animation = animation;
-            this.time = time;
-            this.startRotation = startRotation;
-            this.endRotation = endRotation;
-            this.blend = blend;
-            this.finished = finished;
-            this.hasRotation = hasRotation;
+            this.time = animation.time + safeDeltaSeconds * framesPerSecond * animation.speed;
+            this.compiledKey = -1;
+            this.finished = false;
+            this.hasRotation = false;
+            this.startRotation = null;
+            this.endRotation = null;
+            if (animation.getCompiledChannel() != null) {
+                int key = animation.findKeyframe(time);
+                if (!animation.getCompiledChannel().hasNextKey(key)) {
+                    finished = true;
+                } else if (key >= 0) {
+                    compiledKey = key;
+                    hasRotation = true;
+                }
+                return true;
+            }
+            KeyframeAnimation.Keyframe previousKeyframe = null;
+            KeyframeAnimation.Keyframe nextKeyframe = null;
+            List<KeyframeAnimation.Keyframe> keyframes = animation.keyframes;
+            for (int i = 0, count = keyframes.size(); i < count; i++) {
+                KeyframeAnimation.Keyframe keyframe = keyframes.get(i);
+                if (keyframe.time <= time) {
+                    previousKeyframe = keyframe;
+                } else if (nextKeyframe == null) {
+                    nextKeyframe = keyframe;
+                    break;
+                }
+            }
+            if (nextKeyframe == null) {
+                finished = true;
+                return true;
+            }
+            if (previousKeyframe == null) {
+                return true;
+            }
+            float frameSpan = nextKeyframe.time - previousKeyframe.time;
+            blend = frameSpan != 0f ? (time - previousKeyframe.time) / frameSpan : 1f;
+            startRotation = previousKeyframe.rotation;
+            endRotation = nextKeyframe.rotation;
+            hasRotation = true;
+            return true;
         }
-    }
 
-    private static final class AnimationResult {
-        final AnimationJob job;
-        final Vector3 rotation;
+        /**
+         * Samples into this slot's own scratch, and with {@code rotateBone} also sets the bone,
+         * which is only safe when no other thread touches the same skeleton.
+         */
+        void evaluate(boolean rotateBone) {
+            if (!hasRotation || finished) {
+                return;
+            }
+            if (compiledKey >= 0) {
+                animation.sampleRotation(compiledKey, time, start, end, rotation);
+            } else {
+                start.setFromEuler(startRotation.x, startRotation.y, startRotation.z);
+                end.setFromEuler(endRotation.x, endRotation.y, endRotation.z);
+                Quaternion.slerp(start, end, blend, start).toEuler(rotation);
+            }
+            if (rotateBone && animation.bone != null) {
+                animation.bone.setRotation(rotation);
+            }
+        }
+
+        void apply(boolean rotateBone) {
+            KeyframeAnimation target = animation;
+            boolean finishedNow = finished;
+            boolean rotate = rotateBone && hasRotation;
+            release();
+            target.time = time;
+            if (finishedNow) {
+                if (target.onfinish != null) {
+                    target.onfinish.run();
+                }
+                return;
+            }
+            if (rotate && target.bone != null) {
+                target.bone.setRotation(rotation);
+            }
+        }
 
-        AnimationResult(AnimationJob job, Vector3 rotation) {
-            this.job = job;
-            this.rotation = rotation;
+        /** Drops references so idle slots do not keep animations alive. */
+        void release() {
+            animation = null;
+            startRotation = null;
+            endRotation = null;
         }
     }
 }
@@ -37,6 +37,16 @@ public class Skeleton {
         return boneList.size();
     }
 
+    /** Builds a flat {@link SkeletonPose} of the current bone state, in {@link #getBoneList()} order. */
+    public SkeletonPose createPose() {
+        return SkeletonPose.fromBones(boneList);
+    }
+
+    /** Writes an evaluated pose created by {@link #createPose()} back into the bones. */
+    public void applyPose(SkeletonPose pose) {
+        pose.applyToBones(boneList);
+    }
+
     /**
      * Returns a list of bone matrices (as float[16] arrays) for uploading to the SSBO.
      */
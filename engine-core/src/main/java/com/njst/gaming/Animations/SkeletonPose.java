@@ -0,0 +1,302 @@
+package com.njst.gaming.Animations;
+
+import com.njst.gaming.Bone;
+import com.njst.gaming.Math.Quaternion;
+import com.njst.gaming.Math.Vector3;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Flat, array-backed pose of one skeleton. Bones are stored parent-first, each with the index of its
+ * parent and its local position, Euler rotation (degrees) and scale. Animation channels write the
+ * local values for every bone and {@link #evaluate()} then computes all global transforms and
+ * skinning matrices in one forward pass, instead of re-propagating a subtree every time
+ * {@link Bone#rotate} is called on one of its bones.
+ *
+ * <p>The math matches {@link Bone}: a bone inherits its parent's global orientation and position, but
+ * not its scale, and its skinning matrix is {@code T * R * S * inverseBind}.
+ */
+public final class SkeletonPose {
+    public static final int NO_PARENT = -1;
+    private static final int FLOATS_PER_MATRIX = 16;
+
+    private final int boneCount;
+    private final String[] names;
+    private final int[] parents;
+    private final float[] localPositions;
+    private final float[] localRotations;
+    private final float[] localScales;
+    /** Parent frame of root bones: orientation (4 per bone) and position (3 per bone). */
+    private final float[] rootOrientations;
+    private final float[] rootPositions;
+    private final float[] inverseBindMatrices;
+    private final float[] globalOrientations;
+    private final float[] globalPositions;
+    private final float[] skinningMatrices;
+    private final Quaternion scratch = new Quaternion();
+    private final Quaternion scratchParent = new Quaternion();
+    private final Vector3 scratchPosition = new Vector3();
+    private final Vector3 scratchParentPosition = new Vector3();
+    private long version;
+
+    private SkeletonPose(int boneCount) {
+        this.boneCount = boneCount;
+        names = new String[boneCount];
+        parents = new int[boneCount];
+        localPositions = new float[boneCount * 3];
+        localRotations = new float[boneCount * 3];
+        localScales = new float[boneCount * 3];
+        rootOrientations = new float[boneCount * 4];
+        rootPositions = new float[boneCount * 3];
+        inverseBindMatrices = new float[boneCount * FLOATS_PER_MATRIX];
+        globalOrientations = new float[boneCount * 4];
+        globalPositions = new float[boneCount * 3];
+        skinningMatrices = new float[boneCount * FLOATS_PER_MATRIX];
+    }
+
+    /**
+     * Builds a pose for {@code bones}, which must list every parent before its children (the order
+     * {@link Skeleton#getBoneList()} uses). Bones whose parent is not in the list become roots that
+     * keep their current parent frame. Bind matrices are copied, so call this after
+     * {@link Bone#calculate_bind_matrix()}.
+     */
+    public static SkeletonPose fromBones(List<Bone> bones) {
+        SkeletonPose pose = new SkeletonPose(bones.size());
+        IdentityHashMap<Bone, Integer> indices = new IdentityHashMap<Bone, Integer>();
+        for (int i = 0; i < bones.size(); i++) {
+            indices.put(bones.get(i), i);
+            pose.parents[i] = NO_PARENT;
+        }
+        for (int i = 0; i < bones.size(); i++) {
+            Bone bone = bones.get(i);
+            pose.names[i] = bone.name;
+            for (Bone child : bone.Children) {
+                Integer childIndex = indices.get(child);
+                if (childIndex == null) {
+                    continue;
+                }
+                if (childIndex <= i) {
+                    throw new IllegalArgumentException("Bone " + child.name + " is listed before its parent " + bone.name);
+                }
+                pose.parents[childIndex] = i;
+            }
+            System.arraycopy(bone.copyInverseBindPose(), 0, pose.inverseBindMatrices, i * FLOATS_PER_MATRIX,
+                    FLOATS_PER_MATRIX);
+        }
+        pose.readFromBones(bones);
+        pose.evaluate();
+        return pose;
+    }
+
+    public int getBoneCount() {
+        return boneCount;
+    }
+
+    public String getName(int bone) {
+        return names[bone];
+    }
+
+    /** Index of the first bone called {@code name}, or -1. */
+    public int indexOf(String name) {
+        for (int i = 0; i < boneCount; i++) {
+            if (names[i] != null && names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Parent index of {@code bone}, or {@link #NO_PARENT}; always lower than {@code bone}. */
+    public int getParent(int bone) {
+        return parents[bone];
+    }
+
+    public void setLocalPosition(int bone, float x, float y, float z) {
+        int o = bone * 3;
+        localPositions[o] = x;
+        localPositions[o + 1] = y;
+        localPositions[o + 2] = z;
+    }
+
+    /** Local rotation in degrees, in the same Euler convention as {@link Bone#rotation}. */
+    public void setLocalRotation(int bone, float x, float y, float z) {
+        int o = bone * 3;
+        localRotations[o] = x;
+        localRotations[o + 1] = y;
+        localRotations[o + 2] = z;
+    }
+
+    public void setLocalScale(int bone, float x, float y, float z) {
+        int o = bone * 3;
+        localScales[o] = x;
+        localScales[o + 1] = y;
+        localScales[o + 2] = z;
+    }
+
+    /** Live local arrays, three floats per bone. */
+    public float[] getLocalPositions() {
+        return localPositions;
+    }
+
+    public float[] getLocalRotations() {
+        return localRotations;
+    }
+
+    public float[] getLocalScales() {
+        return localScales;
+    }
+
+    /** Global orientations from the last {@link #evaluate()}, four floats (x, y, z, w) per bone. */
+    public float[] getGlobalOrientations() {
+        return globalOrientations;
+    }
+
+    /** Global positions from the last {@link #evaluate()}, three floats per bone. */
+    public float[] getGlobalPositions() {
+        return globalPositions;
+    }
+
+    /** Skinning matrices from the last {@link #evaluate()}, 16 column-major floats per bone. */
+    public float[] getSkinningMatrices() {
+        return skinningMatrices;
+    }
+
+    /** Bumped by every {@link #evaluate()}, so readers can tell when the matrices changed. */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Copies local transforms and the root parent frames from {@code bones}, in pose order. */
+    public void readFromBones(List<Bone> bones) {
+        for (int i = 0; i < boneCount; i++) {
+            Bone bone = bones.get(i);
+            setLocalPosition(i, bone.position_to_parent.x, bone.position_to_parent.y, bone.position_to_parent.z);
+            setLocalRotation(i, bone.rotation.x, bone.rotation.y, bone.rotation.z);
+            setLocalScale(i, bone.scale.x, bone.scale.y, bone.scale.z);
+            if (parents[i] == NO_PARENT) {
+                Quaternion parent = bone.getParentOrientation(scratch).normalize();
+                int q = i * 4;
+                rootOrientations[q] = parent.x;
+                rootOrientations[q + 1] = parent.y;
+                rootOrientations[q + 2] = parent.z;
+                rootOrientations[q + 3] = parent.w;
+                int p = i * 3;
+                rootPositions[p] = bone.parentposition.x;
+                rootPositions[p + 1] = bone.parentposition.y;
+                rootPositions[p + 2] = bone.parentposition.z;
+            }
+        }
+    }
+
+    /** Computes every global transform and skinning matrix from the local values, parents first. */
+    public void evaluate() {
+        for (int i = 0; i < boneCount; i++) {
+            int parent = parents[i];
+            float[] orientations = parent == NO_PARENT ? rootOrientations : globalOrientations;
+            float[] positions = parent == NO_PARENT ? rootPositions : globalPositions;
+            int pq = (parent == NO_PARENT ? i : parent) * 4;
+            int pp = (parent == NO_PARENT ? i : parent) * 3;
+            float pqx = orientations[pq], pqy = orientations[pq + 1], pqz = orientations[pq + 2], pqw = orientations[pq + 3];
+
+            int o = i * 3;
+            Quaternion local = scratch.setFromEuler(localRotations[o], localRotations[o + 1], localRotations[o + 2]);
+            float qx = (pqw * local.x) + (pqx * local.w) + (pqy * local.z) - (pqz * local.y);
+            float qy = (pqw * local.y) - (pqx * local.z) + (pqy * local.w) + (pqz * local.x);
+            float qz = (pqw * local.z) + (pqx * local.y) - (pqy * local.x) + (pqz * local.w);
+            float qw = (pqw * local.w) - (pqx * local.x) - (pqy * local.y) - (pqz * local.z);
+            float length = (float) Math.sqrt((qx * qx) + (qy * qy) + (qz * qz) + (qw * qw));
+            if (length > 0f) {
+                qx /= length;
+                qy /= length;
+                qz /= length;
+                qw /= length;
+            } else {
+                qx = 0f;
+                qy = 0f;
+                qz = 0f;
+                qw = 1f;
+            }
+            int q = i * 4;
+            globalOrientations[q] = qx;
+            globalOrientations[q + 1] = qy;
+            globalOrientations[q + 2] = qz;
+            globalOrientations[q + 3] = qw;
+
+            float px2 = pqx + pqx, py2 = pqy + pqy, pz2 = pqz + pqz;
+            float pxx = pqx * px2, pyy = pqy * py2, pzz = pqz * pz2;
+            float pxy = pqx * py2, pxz = pqx * pz2, pyz = pqy * pz2;
+            float pwx = pqw * px2, pwy = pqw * py2, pwz = pqw * pz2;
+            float lx = localPositions[o], ly = localPositions[o + 1], lz = localPositions[o + 2];
+            float tx = ((1f - (pyy + pzz)) * lx) + ((pxy - pwz) * ly) + ((pxz + pwy) * lz) + positions[pp];
+            float ty = ((pxy + pwz) * lx) + ((1f - (pxx + pzz)) * ly) + ((pyz - pwx) * lz) + positions[pp + 1];
+            float tz = ((pxz - pwy) * lx) + ((pyz + pwx) * ly) + ((1f - (pxx + pyy)) * lz) + positions[pp + 2];
+            globalPositions[o] = tx;
+            globalPositions[o + 1] = ty;
+            globalPositions[o + 2] = tz;
+
+            writeSkinningMatrix(i, qx, qy, qz, qw, tx, ty, tz);
+        }
+        version++;
+    }
+
+    /** Copies the skinning matrices into {@code out} starting at float {@code offset}. */
+    public void writeSkinningMatrices(float[] out, int offset) {
+        System.arraycopy(skinningMatrices, 0, out, offset, boneCount * FLOATS_PER_MATRIX);
+    }
+
+    /**
+     * Pushes the evaluated pose back into {@code bones} (same order as this pose) so code that reads
+     * the bone graph sees it. Local values are copied and each bone's parent and global state is set
+     * directly; no bone walks its children.
+     */
+    public void applyToBones(List<Bone> bones) {
+        for (int i = 0; i < boneCount; i++) {
+            Bone bone = bones.get(i);
+            int o = i * 3;
+            bone.position_to_parent.set(localPositions[o], localPositions[o + 1], localPositions[o + 2]);
+            bone.rotation.set(localRotations[o], localRotations[o + 1], localRotations[o + 2]);
+            bone.scale.set(localScales[o], localScales[o + 1], localScales[o + 2]);
+            int parent = parents[i];
+            int pq = (parent == NO_PARENT ? i : parent) * 4;
+            int pp = (parent == NO_PARENT ? i : parent) * 3;
+            float[] orientations = parent == NO_PARENT ? rootOrientations : globalOrientations;
+            float[] positions = parent == NO_PARENT ? rootPositions : globalPositions;
+            scratchParent.x = orientations[pq];
+            scratchParent.y = orientations[pq + 1];
+            scratchParent.z = orientations[pq + 2];
+            scratchParent.w = orientations[pq + 3];
+            scratchParentPosition.set(positions[pp], positions[pp + 1], positions[pp + 2]);
+            int q = i * 4;
+            scratch.x = globalOrientations[q];
+            scratch.y = globalOrientations[q + 1];
+            scratch.z = globalOrientations[q + 2];
+            scratch.w = globalOrientations[q + 3];
+            scratchPosition.set(globalPositions[o], globalPositions[o + 1], globalPositions[o + 2]);
+            bone.setPoseState(scratchParent, scratchParentPosition, scratch, scratchPosition);
+        }
+    }
+
+    private void writeSkinningMatrix(int bone, float qx, float qy, float qz, float qw, float tx, float ty, float tz) {
+        int s = bone * 3;
+        float sx = localScales[s], sy = localScales[s + 1], sz = localScales[s + 2];
+        float xx = qx * qx, yy = qy * qy, zz = qz * qz;
+        float xy = qx * qy, xz = qx * qz, yz = qy * qz;
+        float wx = qw * qx, wy = qw * qy, wz = qw * qz;
+        float m00 = (1f - (2f * (yy + zz))) * sx, m01 = 2f * (xy + wz) * sx, m02 = 2f * (xz - wy) * sx;
+        float m10 = 2f * (xy - wz) * sy, m11 = (1f - (2f * (xx + zz))) * sy, m12 = 2f * (yz + wx) * sy;
+        float m20 = 2f * (xz + wy) * sz, m21 = 2f * (yz - wx) * sz, m22 = (1f - (2f * (xx + yy))) * sz;
+
+        float[] b = inverseBindMatrices;
+        float[] out = skinningMatrices;
+        int base = bone * FLOATS_PER_MATRIX;
+        for (int column = 0; column < 4; column++) {
+            int c = base + (column * 4);
+            float b0 = b[c], b1 = b[c + 1], b2 = b[c + 2], b3 = b[c + 3];
+            out[c] = (m00 * b0) + (m10 * b1) + (m20 * b2) + (tx * b3);
+            out[c + 1] = (m01 * b0) + (m11 * b1) + (m21 * b2) + (ty * b3);
+            out[c + 2] = (m02 * b0) + (m12 * b1) + (m22 * b2) + (tz * b3);
+            out[c + 3] = b3;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.njst.gaming.Animations;
+
+import com.njst.gaming.Math.Quaternion;
+import com.njst.gaming.Math.Vector3;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of baked skinning palettes, keyed by skeleton asset, clip and
+ * quantized frame, so every instance of a rig playing the same clip at about the same frame can
+ * share one sampled pose. Palettes are stored in rig space, with the root bone's world rotation
+ * and translation taken out by {@link #bakeRigSpace}; {@link #placeInWorld} puts an instance's
+ * root back. The frame is whatever the caller passes, so two poses that differ in something the
+ * frame does not capture share an entry. Not thread-safe; use it from the frame thread.
+ */
+public final class SkinningPaletteCache {
+    public static final int FLOATS_PER_BONE = 16;
+
+    private static final class Key {
+        Object skeletonAsset;
+        Object clip;
+        int frame;
+
+        Key set(Object skeletonAsset, Object clip, int frame) {
+            this.skeletonAsset = skeletonAsset;
+            this.clip = clip;
+            this.frame = frame;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return frame == key.frame && skeletonAsset.equals(key.skeletonAsset) && clip.equals(key.clip);
+        }
+
+        @Override
+        public int hashCode() {
+            return (((skeletonAsset.hashCode() * 31) + clip.hashCode()) * 31) + frame;
+        }
+    }
+
+    private final LinkedHashMap<Key, float[]> palettes = new LinkedHashMap<Key, float[]>(64, 0.75f, true);
+    private final Key probe = new Key();
+    private final float[] rotation = new float[9];
+    private final long maxBytes;
+    private final float framesPerEntry;
+    private long memoryBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes       palette memory kept before the least recently used entries are evicted
+     * @param framesPerEntry clip frames that share one entry; larger values hit more often but
+     *                       step the pose more coarsely
+     */
+    public SkinningPaletteCache(long maxBytes, float framesPerEntry) {
+        this.maxBytes = Math.max(0L, maxBytes);
+        this.framesPerEntry = framesPerEntry > 0f ? framesPerEntry : 1f;
+    }
+
+    public int quantizeFrame(float frame) {
+        return (int) Math.floor(Math.max(0f, frame) / framesPerEntry);
+    }
+
+    /** The rig-space palette baked for this state, or null; counts as a hit or a miss. */
+    public float[] get(Object skeletonAsset, Object clip, int frame) {
+        float[] palette = palettes.get(probe.set(skeletonAsset, clip, frame));
+        probe.set(null, null, 0);
+        if (palette != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return palette;
+    }
+
+    /** Stores a palette from {@link #bakeRigSpace}; the cache keeps the array, so do not reuse it. */
+    public void put(Object skeletonAsset, Object clip, int frame, float[] rigSpacePalette) {
+        if (rigSpacePalette == null) {
+            return;
+        }
+        float[] previous = palettes.put(new Key().set(skeletonAsset, clip, frame), rigSpacePalette);
+        if (previous != null) {
+            memoryBytes -= bytes(previous);
+        }
+        memoryBytes += bytes(rigSpacePalette);
+        Iterator<Map.Entry<Key, float[]>> eldest = palettes.entrySet().iterator();
+        while (memoryBytes > maxBytes && palettes.size() > 1) {
+            memoryBytes -= bytes(eldest.next().getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public void clear() {
+        palettes.clear();
+        memoryBytes = 0L;
+    }
+
+    public void resetStats() {
+        hits = 0L;
+        misses = 0L;
+        evictions = 0L;
+    }
+
+    public int getEntryCount() {
+        return palettes.size();
+    }
+
+    /** Bytes held by cached palette floats, not counting map overhead. */
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    public long getMissCount() {
+        return misses;
+    }
+
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    /** Hits over lookups since the last {@link #resetStats()}, or 0 before the first lookup. */
+    public float getHitRate() {
+        long lookups = hits + misses;
+        return lookups > 0L ? (float) hits / lookups : 0f;
+    }
+
+    @Override
+    public String toString() {
+        return "entries=" + palettes.size()
+                + " hitRate=" + Math.round(getHitRate() * 100f) + "%"
+                + " hits=" + hits
+                + " misses=" + misses
+                + " evictions=" + evictions
+                + " memoryKb=" + (memoryBytes / 1024L) + "/" + (maxBytes / 1024L);
+    }
+
+    /**
+     * Copies {@code boneCount} world-space skinning matrices starting at {@code offset} into a new
+     * array with the root's world transform removed.
+     */
+    public float[] bakeRigSpace(float[] worldPalette, int offset, int boneCount,
+            Quaternion rootOrientation, Vector3 rootPosition) {
+        rotationColumns(rootOrientation, rotation);
+        // Inverse of a rigid transform: transpose the rotation and rotate the negated translation.
+        float r00 = rotation[0], r10 = rotation[1], r20 = rotation[2];
+        float r01 = rotation[3], r11 = rotation[4], r21 = rotation[5];
+        float r02 = rotation[6], r12 = rotation[7], r22 = rotation[8];
+        rotation[0] = r00; rotation[1] = r01; rotation[2] = r02;
+        rotation[3] = r10; rotation[4] = r11; rotation[5] = r12;
+        rotation[6] = r20; rotation[7] = r21; rotation[8] = r22;
+        float px = rootPosition.x, py = rootPosition.y, pz = rootPosition.z;
+        float tx = -((r00 * px) + (r10 * py) + (r20 * pz));
+        float ty = -((r01 * px) + (r11 * py) + (r21 * pz));
+        float tz = -((r02 * px) + (r12 * py) + (r22 * pz));
+        float[] rigSpace = new float[boneCount * FLOATS_PER_BONE];
+        for (int i = 0; i < boneCount; i++) {
+            transform(rotation, tx, ty, tz, worldPalette, offset + (i * FLOATS_PER_BONE),
+                    rigSpace, i * FLOATS_PER_BONE);
+        }
+        return rigSpace;
+    }
+
+    /** Writes {@code rigSpacePalette} moved to the given root transform into {@code out}. */
+    public void placeInWorld(float[] rigSpacePalette, Quaternion rootOrientation, Vector3 rootPosition,
+            float[] out) {
+        rotationColumns(rootOrientation, rotation);
+        int bones = Math.min(rigSpacePalette.length, out.length) / FLOATS_PER_BONE;
+        for (int i = 0; i < bones; i++) {
+            transform(rotation, rootPosition.x, rootPosition.y, rootPosition.z,
+                    rigSpacePalette, i * FLOATS_PER_BONE, out, i * FLOATS_PER_BONE);
+        }
+    }
+
+    private static long bytes(float[] palette) {
+        return palette.length * 4L;
+    }
+
+    /** Column-major 3x3 rotation of a unit quaternion, laid out like {@code Bone.writeAnimationMatrix}. */
+    private static void rotationColumns(Quaternion q, float[] out) {
+        float xx = q.x * q.x, yy = q.y * q.y, zz = q.z * q.z;
+        float xy = q.x * q.y, xz = q.x * q.z, yz = q.y * q.z;
+        float wx = q.w * q.x, wy = q.w * q.y, wz = q.w * q.z;
+        out[0] = 1f - (2f * (yy + zz));
+        out[1] = 2f * (xy + wz);
+        out[2] = 2f * (xz - wy);
+        out[3] = 2f * (xy - wz);
+        out[4] = 1f - (2f * (xx + zz));
+        out[5] = 2f * (yz + wx);
+        out[6] = 2f * (xz + wy);
+        out[7] = 2f * (yz - wx);
+        out[8] = 1f - (2f * (xx + yy));
+    }
+
+    /** {@code out = [rotation | t] * in} for one column-major 4x4 matrix. */
+    private static void transform(float[] rotation, float tx, float ty, float tz,
+            float[] in, int inOffset, float[] out, int outOffset) {
+        for (int column = 0; column < 4; column++) {
+            int c = column * 4;
+            float x = in[inOffset + c], y = in[inOffset + c + 1], z = in[inOffset + c + 2];
+            float w = in[inOffset + c + 3];
+            out[outOffset + c] = (rotation[0] * x) + (rotation[3] * y) + (rotation[6] * z) + (tx * w);
+            out[outOffset + c + 1] = (rotation[1] * x) + (rotation[4] * y) + (rotation[7] * z) + (ty * w);
+            out[outOffset + c + 2] = (rotation[2] * x) + (rotation[5] * y) + (rotation[8] * z) + (tz * w);
+            out[outOffset + c + 3] = w;
+        }
+    }
+}
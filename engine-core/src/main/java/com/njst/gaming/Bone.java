@@ -25,6 +25,8 @@ public Vector3 position_to_parent = new Vector3();
     private Quaternion parent_orientation = new Quaternion();
     private Quaternion global_orientation = new Quaternion();
     private transient Quaternion local_orientation = new Quaternion();
+    private transient Quaternion pose_parent;
+    private transient Quaternion pose_global;
 
     public Bone() {
         Children = new ArrayList<>();
@@ -44,16 +46,80 @@ public Vector3 position_to_parent = new Vector3();
         inverse_bindpose=modelMatrix.invert();
     }
     public Matrix4 getAnimationMatrix(){
+        Matrix4 animationMatrix = new Matrix4();
+        writeAnimationMatrix(animationMatrix.r, 0);
+        return animationMatrix;
+    }
+
+    /**
+     * Writes the same matrix as {@link #getAnimationMatrix()} into {@code out} at {@code offset}
+     * (16 floats, column-major) without allocating.
+     */
+    public void writeAnimationMatrix(float[] out, int offset) {
         ensureQuaternionState();
-        Matrix4 modelMatrix=new Matrix4().identity();
-        Vector3 anim_pos=get_globalposition();
-        Quaternion animOrientation = getGlobalQuaternion();
-        modelMatrix.translate(anim_pos);
-        modelMatrix.rotate(animOrientation);
-        modelMatrix.scale(scale);
-        
-        return modelMatrix.multiply(inverse_bindpose);
-        
+        if (pose_parent == null) {
+            pose_parent = new Quaternion();
+            pose_global = new Quaternion();
+        }
+        Quaternion parent = pose_parent.set(parent_orientation).normalize();
+        Quaternion q = parent.multiply(getLocalQuaternion(), pose_global).normalize();
+
+        float px = parent.x + parent.x, py = parent.y + parent.y, pz = parent.z + parent.z;
+        float pxx = parent.x * px, pyy = parent.y * py, pzz = parent.z * pz;
+        float pxy = parent.x * py, pxz = parent.x * pz, pyz = parent.y * pz;
+        float pwx = parent.w * px, pwy = parent.w * py, pwz = parent.w * pz;
+        float lx = position_to_parent.x, ly = position_to_parent.y, lz = position_to_parent.z;
+        float tx = ((1f - (pyy + pzz)) * lx) + ((pxy - pwz) * ly) + ((pxz + pwy) * lz) + parentposition.x;
+        float ty = ((pxy + pwz) * lx) + ((1f - (pxx + pzz)) * ly) + ((pyz - pwx) * lz) + parentposition.y;
+        float tz = ((pxz - pwy) * lx) + ((pyz + pwx) * ly) + ((1f - (pxx + pyy)) * lz) + parentposition.z;
+
+        float xx = q.x * q.x, yy = q.y * q.y, zz = q.z * q.z;
+        float xy = q.x * q.y, xz = q.x * q.z, yz = q.y * q.z;
+        float wx = q.w * q.x, wy = q.w * q.y, wz = q.w * q.z;
+        float sx = scale.x, sy = scale.y, sz = scale.z;
+        float m00 = (1f - (2f * (yy + zz))) * sx, m01 = 2f * (xy + wz) * sx, m02 = 2f * (xz - wy) * sx;
+        float m10 = 2f * (xy - wz) * sy, m11 = (1f - (2f * (xx + zz))) * sy, m12 = 2f * (yz + wx) * sy;
+        float m20 = 2f * (xz + wy) * sz, m21 = 2f * (yz - wx) * sz, m22 = (1f - (2f * (xx + yy))) * sz;
+
+        float[] b = inverse_bindpose != null ? inverse_bindpose.r : null;
+        if (b == null || b.length < 16) {
+            out[offset] = m00; out[offset + 1] = m01; out[offset + 2] = m02; out[offset + 3] = 0f;
+            out[offset + 4] = m10; out[offset + 5] = m11; out[offset + 6] = m12; out[offset + 7] = 0f;
+            out[offset + 8] = m20; out[offset + 9] = m21; out[offset + 10] = m22; out[offset + 11] = 0f;
+            out[offset + 12] = tx; out[offset + 13] = ty; out[offset + 14] = tz; out[offset + 15] = 1f;
+            return;
+        }
+        for (int column = 0; column < 4; column++) {
+            int c = column * 4;
+            float b0 = b[c], b1 = b[c + 1], b2 = b[c + 2], b3 = b[c + 3];
+            int o = offset + c;
+            out[o] = (m00 * b0) + (m10 * b1) + (m20 * b2) + (tx * b3);
+            out[o + 1] = (m01 * b0) + (m11 * b1) + (m21 * b2) + (ty * b3);
+            out[o + 2] = (m02 * b0) + (m12 * b1) + (m22 * b2) + (tz * b3);
+            out[o + 3] = b3;
+        }
+    }
+
+    /** Copies the orientation this bone inherits from its parent into {@code dest}. */
+    public Quaternion getParentOrientation(Quaternion dest) {
+        ensureQuaternionState();
+        return dest.set(parent_orientation);
+    }
+
+    /**
+     * Sets the inherited and global transform computed outside the bone graph, e.g. by
+     * {@link com.njst.gaming.Animations.SkeletonPose}, without walking the children the way
+     * {@link #update()} does.
+     */
+    public void setPoseState(Quaternion parentOrientation, Vector3 parentPosition,
+            Quaternion globalOrientation, Vector3 globalPosition) {
+        ensureQuaternionState();
+        parent_orientation.set(parentOrientation);
+        parent_orientation.toEuler(parent_rotation);
+        parentposition.set(parentPosition);
+        global_orientation.set(globalOrientation);
+        global_orientation.toEuler(global_rotation);
+        global_position.set(globalPosition);
     }
 
     public float[] copyInverseBindPose() {
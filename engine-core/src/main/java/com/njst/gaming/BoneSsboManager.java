@@ -1,18 +1,48 @@
 package com.njst.gaming;
 
+import com.njst.gaming.Animations.SkeletonPose;
 import com.njst.gaming.graphics.BufferHandle;
 import com.njst.gaming.graphics.GraphicsDevice;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Packs the animation matrices of every registered skeleton into one persistent palette, 16 floats
+ * per bone, at the start index handed out on registration. Each upload rewrites the palette in
+ * place, tracks which bones of each skeleton actually changed, and sends only those ranges to the
+ * shader storage buffer. The whole palette is uploaded again only when it grows.
+ */
 public final class BoneSsboManager implements BoneMatrixSsboManager {
     private static final int BONE_MATRIX_BINDING = 2;
+    private static final int FLOATS_PER_BONE = 16;
 
-    private final ArrayList<List<Bone>> skeletons = new ArrayList<>();
+    private static final class Skeleton {
+        final List<Bone> bones;
+        final SkeletonPose pose;
+        final int startIndex;
+        final int boneCount;
+        float[] matrices;
+        long poseVersion = -1L;
+        int firstDirty;
+        int lastDirty;
+
+        Skeleton(List<Bone> bones, SkeletonPose pose, int startIndex, int boneCount) {
+            this.bones = bones;
+            this.pose = pose;
+            this.startIndex = startIndex;
+            this.boneCount = boneCount;
+        }
+    }
+
+    private final ArrayList<Skeleton> skeletons = new ArrayList<>();
+    private final float[] scratch = new float[FLOATS_PER_BONE];
+    private float[] palette = new float[0];
     private BufferHandle skeletonBuffer;
+    private int bufferBoneCount;
     private boolean externalSkeletonBufferActive;
-    private int reservedBoneCount;
+    private int totalBoneCount;
+    private int lastUploadedBoneCount;
 
     @Override
     public boolean isSupported(GraphicsDevice graphicsDevice) {
@@ -24,21 +54,52 @@ public final class BoneSsboManager implements BoneMatrixSsboManager {
         if (bones == null || bones.isEmpty()) {
             return 0;
         }
-        int startIndex = totalBoneCount();
-        skeletons.add(bones);
+        int startIndex = totalBoneCount;
+        skeletons.add(new Skeleton(bones, null, startIndex, bones.size()));
+        totalBoneCount += bones.size();
+        return startIndex;
+    }
+
+    /**
+     * Registers a flat pose. Its skinning matrices are copied as evaluated, and only after
+     * {@link SkeletonPose#evaluate()} ran again; the bones are never read.
+     */
+    public int registerSkeletonPose(SkeletonPose pose) {
+        if (pose == null || pose.getBoneCount() == 0) {
+            return 0;
+        }
+        int startIndex = totalBoneCount;
+        skeletons.add(new Skeleton(null, pose, startIndex, pose.getBoneCount()));
+        totalBoneCount += pose.getBoneCount();
         return startIndex;
     }
 
     @Override
     public int reserveSkeleton(int boneCount) {
         if (boneCount <= 0) {
-            return totalBoneCount();
+            return totalBoneCount;
         }
-        int startIndex = totalBoneCount();
-        reservedBoneCount += boneCount;
+        int startIndex = totalBoneCount;
+        totalBoneCount += boneCount;
         return startIndex;
     }
 
+    /**
+     * Feeds the skeleton registered at {@code startIndex} from {@code matrices}, 16 floats per bone
+     * and already final, instead of from its bones or pose. The array is read at every upload
+     * until this is called again with null.
+     */
+    public void setSkeletonPalette(int startIndex, float[] matrices) {
+        for (int s = 0, count = skeletons.size(); s < count; s++) {
+            Skeleton skeleton = skeletons.get(s);
+            if (skeleton.startIndex == startIndex) {
+                skeleton.matrices = matrices;
+                skeleton.poseVersion = -1L;
+                return;
+            }
+        }
+    }
+
     @Override
     public void upload(GraphicsDevice graphicsDevice) {
         if (externalSkeletonBufferActive || graphicsDevice == null || skeletons.isEmpty()) {
@@ -47,8 +108,17 @@ public final class BoneSsboManager implements BoneMatrixSsboManager {
         if (skeletonBuffer == null) {
             skeletonBuffer = graphicsDevice.createShaderStorageBuffer();
         }
-        float[] boneData = createPackedBoneData();
-        skeletonBuffer.setData(boneData, graphicsDevice.dynamicDrawUsage());
+        ensurePaletteCapacity();
+        int dirtyBones = writePalette();
+        if (bufferBoneCount != totalBoneCount) {
+            skeletonBuffer.setData(palette, graphicsDevice.dynamicDrawUsage());
+            bufferBoneCount = totalBoneCount;
+            lastUploadedBoneCount = totalBoneCount;
+        } else if (dirtyBones > 0) {
+            lastUploadedBoneCount = uploadDirtyRanges();
+        } else {
+            lastUploadedBoneCount = 0;
+        }
         skeletonBuffer.bind();
         skeletonBuffer.bindToShader(BONE_MATRIX_BINDING);
     }
@@ -66,23 +136,113 @@ public final class BoneSsboManager implements BoneMatrixSsboManager {
         return skeletons.size();
     }
 
+    /** Bones registered or reserved so far, which is also the next start index handed out. */
     public int totalBoneCount() {
-        int totalBones = reservedBoneCount;
-        for (List<Bone> skeleton : skeletons) {
-            totalBones += skeleton.size();
+        return totalBoneCount;
+    }
+
+    /** Bone matrices sent to the GPU by the last {@link #upload}; 0 when no skeleton moved. */
+    public int getLastUploadedBoneCount() {
+        return lastUploadedBoneCount;
+    }
+
+    private void ensurePaletteCapacity() {
+        int floats = totalBoneCount * FLOATS_PER_BONE;
+        if (palette.length != floats) {
+            float[] grown = new float[floats];
+            System.arraycopy(palette, 0, grown, 0, Math.min(palette.length, floats));
+            palette = grown;
+        }
+    }
+
+    /** Recomputes every registered bone into the palette and returns how many changed. */
+    private int writePalette() {
+        int changed = 0;
+        for (int s = 0, count = skeletons.size(); s < count; s++) {
+            Skeleton skeleton = skeletons.get(s);
+            skeleton.firstDirty = -1;
+            skeleton.lastDirty = -1;
+            if (skeleton.matrices == null && skeleton.pose != null
+                    && skeleton.pose.getVersion() == skeleton.poseVersion) {
+                continue;
+            }
+            int bones = skeleton.matrices != null
+                    ? Math.min(skeleton.boneCount, skeleton.matrices.length / FLOATS_PER_BONE)
+                    : skeleton.pose != null
+                    ? skeleton.boneCount
+                    : Math.min(skeleton.boneCount, skeleton.bones.size());
+            for (int i = 0; i < bones; i++) {
+                float[] source = scratch;
+                int sourceOffset = 0;
+                if (skeleton.matrices != null) {
+                    source = skeleton.matrices;
+                    sourceOffset = i * FLOATS_PER_BONE;
+                } else if (skeleton.pose != null) {
+                    source = skeleton.pose.getSkinningMatrices();
+                    sourceOffset = i * FLOATS_PER_BONE;
+                } else {
+                    skeleton.bones.get(i).writeAnimationMatrix(scratch, 0);
+                }
+                int offset = (skeleton.startIndex + i) * FLOATS_PER_BONE;
+                if (!copyIfChanged(source, sourceOffset, palette, offset)) {
+                    continue;
+                }
+                if (skeleton.firstDirty < 0) {
+                    skeleton.firstDirty = i;
+                }
+                skeleton.lastDirty = i;
+                changed++;
+            }
+            if (skeleton.matrices == null && skeleton.pose != null) {
+                skeleton.poseVersion = skeleton.pose.getVersion();
+            }
+        }
+        return changed;
+    }
+
+    /** Sends each skeleton's dirty bone range, merging ranges that touch, and returns the bones sent. */
+    private int uploadDirtyRanges() {
+        int uploaded = 0;
+        int rangeStart = -1;
+        int rangeEnd = -1;
+        for (int s = 0, count = skeletons.size(); s < count; s++) {
+            Skeleton skeleton = skeletons.get(s);
+            if (skeleton.firstDirty < 0) {
+                continue;
+            }
+            int start = skeleton.startIndex + skeleton.firstDirty;
+            int end = skeleton.startIndex + skeleton.lastDirty + 1;
+            if (rangeStart >= 0 && start == rangeEnd) {
+                rangeEnd = end;
+                continue;
+            }
+            if (rangeStart >= 0) {
+                uploaded += uploadRange(rangeStart, rangeEnd);
+            }
+            rangeStart = start;
+            rangeEnd = end;
+        }
+        if (rangeStart >= 0) {
+            uploaded += uploadRange(rangeStart, rangeEnd);
         }
-        return totalBones;
+        return uploaded;
+    }
+
+    private int uploadRange(int firstBone, int endBone) {
+        int bones = endBone - firstBone;
+        skeletonBuffer.updateData(palette, firstBone * FLOATS_PER_BONE, bones * FLOATS_PER_BONE);
+        return bones;
     }
 
-    private float[] createPackedBoneData() {
-        float[] boneData = new float[totalBoneCount() * 16];
-        int offset = 0;
-        for (List<Bone> skeleton : skeletons) {
-            for (Bone bone : skeleton) {
-                System.arraycopy(bone.getAnimationMatrix().r, 0, boneData, offset, 16);
-                offset += 16;
+    private static boolean copyIfChanged(float[] source, int sourceOffset, float[] target, int offset) {
+        boolean changed = false;
+        for (int i = 0; i < FLOATS_PER_BONE; i++) {
+            float value = source[sourceOffset + i];
+            if (Float.floatToRawIntBits(target[offset + i]) != Float.floatToRawIntBits(value)) {
+                target[offset + i] = value;
+                changed = true;
             }
         }
-        return boneData;
+        return changed;
     }
 }
@@ -83,7 +83,7 @@ public class EvolutionSimulation extends Animation implements Scene.SceneLoader
                 Food f = foods.get(j);
                 if (c.position.distance(f.position) < 0.5f) {
                     c.energy += 20f;
-                    s.objects.remove(f.body);
+                    s.removeGameObject(f.body);
                     foods.remove(j);
                     break;
                 }
@@ -92,7 +92,7 @@ public class EvolutionSimulation extends Animation implements Scene.SceneLoader
             // Death by energy
             if (c.energy <= 0) {
                 creatures.remove(i);
-                s.objects.remove(body);
+                s.removeGameObject(body);
                 bodies.remove(i);
                 i--;
                 continue;
@@ -0,0 +1,113 @@
+package com.njst.gaming;
+
+import java.util.List;
+
+import com.njst.gaming.Math.Frustum;
+import com.njst.gaming.Math.Vector3;
+import com.njst.gaming.objects.GameObject;
+
+/**
+ * Filters scene objects against a view frustum using their world bounds ({@link GameObject#min} and
+ * {@link GameObject#max}). Objects with {@link GameObject#frustumCulled} off, or whose bounds were
+ * never computed, are always kept. Touches no GPU state, so it runs headless.
+ */
+public final class FrustumCuller {
+    private final Frustum frustum = new Frustum();
+    private boolean enabled = true;
+    private int visibleCount;
+    private int culledCount;
+    private int recomputedTransforms;
+    private int reusedTransforms;
+
+    public FrustumCuller setCamera(Camera camera) {
+        frustum.setViewProjection(camera.getProjectionMatrix(), camera.getViewMatrix());
+        return this;
+    }
+
+    /** Uses a column-major projection times view matrix, e.g. a light-space matrix. */
+    public FrustumCuller setViewProjection(float[] viewProjection) {
+        frustum.set(viewProjection);
+        return this;
+    }
+
+    public Frustum getFrustum() {
+        return frustum;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Clears {@code out} and fills it with the objects inside the frustum, in their original order,
+     * leaving out {@code exclude}. Returns how many objects were culled.
+     */
+    public int collectVisible(List<GameObject> objects, GameObject exclude, List<GameObject> out) {
+        return collect(objects, exclude, false, out);
+    }
+
+    /** Same as {@link #collectVisible} but only keeps objects with {@link GameObject#castsShadows} set. */
+    public int collectShadowCasters(List<GameObject> objects, GameObject exclude, List<GameObject> out) {
+        return collect(objects, exclude, true, out);
+    }
+
+    /** Counts from the last collect call. */
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    public int getCulledCount() {
+        return culledCount;
+    }
+
+    /** Objects whose model matrix the last collect call had to rebuild because their transform changed. */
+    public int getRecomputedTransforms() {
+        return recomputedTransforms;
+    }
+
+    /** Objects whose cached model matrix and bounds were still current. */
+    public int getReusedTransforms() {
+        return reusedTransforms;
+    }
+
+    private int collect(List<GameObject> objects, GameObject exclude, boolean castersOnly, List<GameObject> out) {
+        out.clear();
+        int culled = 0;
+        int recomputed = 0;
+        int visited = 0;
+        for (int i = 0, count = objects.size(); i < count; i++) {
+            GameObject object = objects.get(i);
+            if (object == null || object == exclude || (castersOnly && !object.castsShadows)) {
+                continue;
+            }
+            long version = object.getTransformVersion();
+            object.updateModelMatrix();
+            if (object.getTransformVersion() != version) {
+                recomputed++;
+            }
+            visited++;
+            if (!enabled || !object.frustumCulled || intersects(object.min, object.max)) {
+                out.add(object);
+            } else {
+                culled++;
+            }
+        }
+        visibleCount = out.size();
+        culledCount = culled;
+        recomputedTransforms = recomputed;
+        reusedTransforms = visited - recomputed;
+        return culled;
+    }
+
+    private boolean intersects(Vector3 min, Vector3 max) {
+        // GameObject starts with inverted bounds until its model matrix is first built.
+        if (min.x > max.x || min.y > max.y || min.z > max.z) {
+            return true;
+        }
+        return frustum.intersectsAabb(min, max);
+    }
+}
@@ -17,6 +17,15 @@ public  class Geometry {
     public  int[] getIndices(){
         return null;
     }
+    /** Number of indices drawn for this geometry; subclasses that cache their streams answer without copying. */
+    public int getIndexCount(){
+        int[] indices = getIndices();
+        return indices != null ? indices.length : 0;
+    }
+    /** Changes whenever the data returned by the getters changes; fixed geometries always return 0. */
+    public long getMeshVersion(){
+        return 0L;
+    }
     public Vector3[] getCollisionBoxes(){
         return new Vector3[]{min,max};
     }
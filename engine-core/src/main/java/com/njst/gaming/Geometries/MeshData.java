@@ -0,0 +1,44 @@
+package com.njst.gaming.Geometries;
+
+/**
+ * Finished vertex streams for one mesh. The arrays are shared with every caller, uploaders and the
+ * mesh cache included, so nothing may write to them after construction.
+ */
+public final class MeshData {
+    private final float[] vertices;
+    private final float[] normals;
+    private final float[] textureCoordinates;
+    private final int[] indices;
+
+    /** Takes ownership of the arrays; callers must not keep writing to them. */
+    public MeshData(float[] vertices, float[] normals, float[] textureCoordinates, int[] indices) {
+        this.vertices = vertices;
+        this.normals = normals;
+        this.textureCoordinates = textureCoordinates;
+        this.indices = indices;
+    }
+
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    public float[] getNormals() {
+        return normals;
+    }
+
+    public float[] getTextureCoordinates() {
+        return textureCoordinates;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public int getVertexCount() {
+        return vertices != null ? vertices.length / 3 : 0;
+    }
+
+    public int getIndexCount() {
+        return indices != null ? indices.length : 0;
+    }
+}
@@ -10,10 +10,11 @@ import java.util.List;
 /**
  * Procedural plant geometry generated from an L-System string.
  *
- * <p>Extends {@link Geometry} in exactly the same pattern as
- * {@link TerrainGeometry} — the constructor builds all vertex/normal/UV/index
- * arrays on the CPU and the engine's normal {@link com.njst.gaming.objects.GameObject}
- * pipeline uploads them to the GPU.</p>
+ * <p>Extends {@link ProceduralGeometry} in exactly the same pattern as
+ * {@link TerrainGeometry} — the constructor walks the L-System once, the
+ * vertex/normal/UV/index arrays are flattened into cached {@link MeshData}, and
+ * the engine's normal {@link com.njst.gaming.objects.GameObject} pipeline uploads
+ * them to the GPU.</p>
  *
  * <h2>Quick start</h2>
  * <pre>
@@ -31,7 +32,7 @@ import java.util.List;
  *   <li>Each {@code L} symbol → 2-triangle billboard quad</li>
  * </ul>
  */
-public class PlantGeometry extends Geometry {
+public class PlantGeometry extends ProceduralGeometry {
 
     /** Number of sides on each cylinder cross-section. */
     private static final int CYLINDER_SIDES = 6;
@@ -43,10 +44,6 @@ public class PlantGeometry extends Geometry {
     private final List<Integer> idxs   = new ArrayList<>();
 
     // Cached flat arrays
-    private float[] vertexArray;
-    private float[] normalArray;
-    private float[] uvArray;
-    private int[]   indexArray;
 
     // -------------------------------------------------------------------------
     // Turtle state
@@ -77,13 +74,7 @@ public class PlantGeometry extends Geometry {
         // 2. Turtle walk → mesh
         turtleWalk(str, config);
 
-        // 3. Flatten lists to arrays
-        vertexArray = toFloatArray(verts);
-        normalArray = toFloatArray(norms);
-        uvArray     = toFloatArray(uvs);
-        indexArray  = toIntArray(idxs);
-
-        // 4. Compute geometric bounds for collision
+        // 3. Compute geometric bounds for collision (flattens the lists into the mesh data)
         computeBounds();
     }
 
@@ -340,6 +331,7 @@ public class PlantGeometry extends Geometry {
     // =========================================================================
 
     private void computeBounds() {
+        float[] vertexArray = getVertices();
         if (vertexArray.length == 0) return;
         float minX = vertexArray[0], maxX = vertexArray[0];
         float minY = vertexArray[1], maxY = vertexArray[1];
@@ -361,16 +353,9 @@ public class PlantGeometry extends Geometry {
     // =========================================================================
 
     @Override
-    public float[] getVertices()           { return vertexArray; }
-
-    @Override
-    public float[] getNormals()            { return normalArray; }
-
-    @Override
-    public float[] getTextureCoordinates() { return uvArray; }
-
-    @Override
-    public int[]   getIndices()            { return indexArray; }
+    protected MeshData buildMeshData() {
+        return new MeshData(toFloatArray(verts), toFloatArray(norms), toFloatArray(uvs), toIntArray(idxs));
+    }
 
     // =========================================================================
     // Helpers
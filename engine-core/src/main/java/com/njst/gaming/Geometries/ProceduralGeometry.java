@@ -0,0 +1,60 @@
+package com.njst.gaming.Geometries;
+
+/**
+ * Base for geometries generated from parameters. The streams are built once, on first use, and
+ * every getter returns the same cached arrays.
+ */
+public abstract class ProceduralGeometry extends Geometry {
+    private MeshData meshData;
+    private long meshVersion;
+
+    /** Generates the vertex streams; called at most once per {@link #invalidateMeshData()}. */
+    protected abstract MeshData buildMeshData();
+
+    public final MeshData getMeshData() {
+        if (meshData == null) {
+            meshData = buildMeshData();
+        }
+        return meshData;
+    }
+
+    /**
+     * Drops the cached streams after the source data changed. Objects that already uploaded the old
+     * streams keep drawing them until their buffers are generated again.
+     */
+    public void invalidateMeshData() {
+        meshData = null;
+        meshVersion++;
+    }
+
+    /** Bumped by {@link #invalidateMeshData()}, so shared meshes uploaded before the edit are not reused. */
+    @Override
+    public final long getMeshVersion() {
+        return meshVersion;
+    }
+
+    @Override
+    public final float[] getVertices() {
+        return getMeshData().getVertices();
+    }
+
+    @Override
+    public final float[] getNormals() {
+        return getMeshData().getNormals();
+    }
+
+    @Override
+    public final float[] getTextureCoordinates() {
+        return getMeshData().getTextureCoordinates();
+    }
+
+    @Override
+    public final int[] getIndices() {
+        return getMeshData().getIndices();
+    }
+
+    @Override
+    public final int getIndexCount() {
+        return getMeshData().getIndexCount();
+    }
+}
@@ -1,6 +1,6 @@
 package com.njst.gaming.Geometries;
 
-public class SphereGeometry extends Geometry {
+public class SphereGeometry extends ProceduralGeometry {
     private final float radius;
     private final int latitudeBands;
     private final int longitudeBands;
@@ -12,7 +12,11 @@ public class SphereGeometry extends Geometry {
     }
 
     @Override
-    public float[] getVertices() {
+    protected MeshData buildMeshData() {
+        return new MeshData(buildVertices(), buildNormals(), buildTextureCoordinates(), buildIndices());
+    }
+
+    private float[] buildVertices() {
         int numVertices = (latitudeBands + 1) * (longitudeBands + 1);
         float[] vertices = new float[numVertices * 3]; // x, y, z for each vertex
         int index = 0;
@@ -39,8 +43,7 @@ public class SphereGeometry extends Geometry {
         return vertices;
     }
 
-    @Override
-    public float[] getTextureCoordinates() {
+    private float[] buildTextureCoordinates() {
         int numVertices = (latitudeBands + 1) * (longitudeBands + 1);
         float[] textureCoords = new float[numVertices * 2]; // u, v for each vertex
         int index = 0;
@@ -57,8 +60,7 @@ public class SphereGeometry extends Geometry {
         return textureCoords;
     }
 
-    @Override
-    public float[] getNormals() {
+    private float[] buildNormals() {
         int numVertices = (latitudeBands + 1) * (longitudeBands + 1);
         float[] normals = new float[numVertices * 3]; // nx, ny, nz for each vertex
         int index = 0;
@@ -82,8 +84,7 @@ public class SphereGeometry extends Geometry {
         return normals;
     }
 
-    @Override
-    public int[] getIndices() {
+    private int[] buildIndices() {
         int numIndices = latitudeBands * longitudeBands * 6;
         int[] indices = new int[numIndices];
         int index = 0;
@@ -2,7 +2,7 @@ package com.njst.gaming.Geometries;
 
 import com.njst.gaming.Math.Vector3;
 
-public class SphericalHeightmapGeometry extends Geometry {
+public class SphericalHeightmapGeometry extends ProceduralGeometry {
     private final int width;
     private final int height;
     private final float baseRadius;
@@ -21,7 +21,14 @@ public class SphericalHeightmapGeometry extends Geometry {
         this.width = heightSamples[0].length;
         this.heightSamples = copy(heightSamples);
         this.baseRadius = baseRadius;
+        // Build now so the bounds are known up front.
+        getMeshData();
+    }
+
+    @Override
+    protected MeshData buildMeshData() {
         rebuild();
+        return new MeshData(vertices, normals, textureCoordinates, indices);
     }
 
     private void rebuild() {
@@ -162,24 +169,4 @@ public class SphericalHeightmapGeometry extends Geometry {
         }
         return result;
     }
-
-    @Override
-    public float[] getVertices() {
-        return vertices;
-    }
-
-    @Override
-    public float[] getTextureCoordinates() {
-        return textureCoordinates;
-    }
-
-    @Override
-    public float[] getNormals() {
-        return normals;
-    }
-
-    @Override
-    public int[] getIndices() {
-        return indices;
-    }
 }
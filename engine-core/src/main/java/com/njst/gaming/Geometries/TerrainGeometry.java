@@ -3,7 +3,7 @@ package com.njst.gaming.Geometries;
 import com.njst.gaming.Math.Vector3;
 import com.njst.gaming.Utils.PerlinNoise;
 
-public class TerrainGeometry extends Geometry {
+public class TerrainGeometry extends ProceduralGeometry {
     private static final int DEFAULT_EROSION_ITERATIONS = 16;
     private static final float DEFAULT_EROSION_STRENGTH = 0.2f;
     private static final float DEFAULT_EROSION_THRESHOLD = 0.3f;
@@ -11,6 +11,7 @@ public class TerrainGeometry extends Geometry {
 
     private int width;
     private int depth;
+    /** Call {@link #invalidateMeshData()} after editing, then generate the object's buffers again. */
     public float[][] heightMap;
 
     public TerrainGeometry(int width, int depth, float[][] heightMap) {
@@ -92,7 +93,11 @@ public class TerrainGeometry extends Geometry {
     }
 
     @Override
-    public float[] getVertices() {
+    protected MeshData buildMeshData() {
+        return new MeshData(buildVertices(), buildNormals(), buildTextureCoordinates(), buildIndices());
+    }
+
+    private float[] buildVertices() {
         float[] vertices = new float[width * depth * 3];
         int index = 0;
 
@@ -107,8 +112,7 @@ public class TerrainGeometry extends Geometry {
         return vertices;
     }
 
-    @Override
-    public float[] getTextureCoordinates() {
+    private float[] buildTextureCoordinates() {
         float[] textureCoords = new float[width * depth * 2];
         int index = 0;
 
@@ -122,8 +126,7 @@ public class TerrainGeometry extends Geometry {
         return textureCoords;
     }
 
-    @Override
-    public float[] getNormals() {
+    private float[] buildNormals() {
         float[] normals = new float[width * depth * 3];
         for (int i = 0; i < normals.length; i += 3) {
             normals[i] = 0;
@@ -133,8 +136,7 @@ public class TerrainGeometry extends Geometry {
         return normals;
     }
 
-    @Override
-    public int[] getIndices() {
+    private int[] buildIndices() {
         int[] indices = new int[(width - 1) * (depth - 1) * 6];
         int index = 0;
 
@@ -1,11 +1,6 @@
 package com.njst.gaming.Geometries;
 
-public class TorusGeometry extends Geometry {
-    private float[] vertices;
-    private float[] textureCoordinates;
-    private float[] normals;
-    private int[] indices;
-
+public class TorusGeometry extends ProceduralGeometry {
     private int radialSegments;
     private int tubularSegments;
     private float radius;
@@ -16,16 +11,15 @@ public class TorusGeometry extends Geometry {
         this.tubeRadius = tubeRadius;
         this.radialSegments = radialSegments;
         this.tubularSegments = tubularSegments;
-
-        createGeometry();
     }
 
-    private void createGeometry() {
+    @Override
+    protected MeshData buildMeshData() {
         int vertexCount = (radialSegments + 1) * (tubularSegments + 1);
-        vertices = new float[vertexCount * 3];
-        textureCoordinates = new float[vertexCount * 2];
-        normals = new float[vertexCount * 3];
-        indices = new int[radialSegments * tubularSegments * 6];
+        float[] vertices = new float[vertexCount * 3];
+        float[] textureCoordinates = new float[vertexCount * 2];
+        float[] normals = new float[vertexCount * 3];
+        int[] indices = new int[radialSegments * tubularSegments * 6];
 
         int vertexIndex = 0;
         int indexIndex = 0;
@@ -74,28 +68,6 @@ public class TorusGeometry extends Geometry {
                 indices[indexIndex++] = (int) d;
             }
         }
+        return new MeshData(vertices, normals, textureCoordinates, indices);
     }
-
-    @Override
-        public
-        float[] getVertices() {
-            return vertices;
-        }
-
-    @Override
-        public
-        float[] getTextureCoordinates() {
-            return textureCoordinates;
-        }
-
-    @Override
-    public float[] getNormals() {
-            return normals;
-        }
-
-    @Override
-        public
-        int[] getIndices() {
-            return indices;
-        }
-}
\ No newline at end of file
+}
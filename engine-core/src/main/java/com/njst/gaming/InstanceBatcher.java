@@ -0,0 +1,205 @@
+package com.njst.gaming;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.njst.gaming.Geometries.Geometry;
+import com.njst.gaming.Math.Vector3;
+import com.njst.gaming.graphics.GraphicsDevice;
+import com.njst.gaming.graphics.ShaderHandle;
+import com.njst.gaming.objects.GameObject;
+
+/**
+ * Groups plain {@link GameObject}s that share a geometry (and, for the main pass, a texture and
+ * material) and draws each group with one instanced call. Model matrices stream into a single
+ * reused instance buffer that feeds the {@code instanceModel} attribute of the instanced shaders.
+ *
+ * <p>Only objects whose {@link GameObject#render} would do nothing special are batched: exactly
+ * the {@code GameObject} class, opaque, and drawn with the default shader. Subclasses keep their
+ * own draw path because their {@code render} overrides may bind extra state.
+ */
+public final class InstanceBatcher {
+    /** First of the four attribute locations holding the per-instance model matrix. */
+    public static final int INSTANCE_MATRIX_LOCATION = 5;
+    /** Groups smaller than this stay on the per-object path. */
+    public static final int DEFAULT_MIN_INSTANCES = 4;
+    private static final int FLOATS_PER_INSTANCE = 16;
+
+    private static final class Batch {
+        Geometry geometry;
+        int texture;
+        float shininess;
+        float ambient;
+        Batch next;
+        final ArrayList<GameObject> objects = new ArrayList<GameObject>();
+
+        boolean matches(GameObject object) {
+            return texture == object.texture
+                    && Float.floatToRawIntBits(shininess) == Float.floatToRawIntBits(object.shininess)
+                    && Float.floatToRawIntBits(ambient) == Float.floatToRawIntBits(object.ambientlight_multiplier);
+        }
+    }
+
+    private final boolean matchMaterial;
+    private final IdentityHashMap<Geometry, Batch> batchesByGeometry = new IdentityHashMap<Geometry, Batch>();
+    private final ArrayList<Batch> batches = new ArrayList<Batch>();
+    private final ArrayList<Batch> pool = new ArrayList<Batch>();
+    private final Vector3 properties = new Vector3();
+    private float[] instanceData = new float[64 * FLOATS_PER_INSTANCE];
+    private int instanceBuffer;
+    private int minInstances = DEFAULT_MIN_INSTANCES;
+    private int batchCount;
+    private int instanceCount;
+
+    /**
+     * @param matchMaterial true for color passes, where texture and material must match within a
+     *        group; false for depth-only passes, which group by geometry alone
+     */
+    public InstanceBatcher(boolean matchMaterial) {
+        this.matchMaterial = matchMaterial;
+    }
+
+    public void setMinInstances(int minInstances) {
+        this.minInstances = Math.max(2, minInstances);
+    }
+
+    public int getMinInstances() {
+        return minInstances;
+    }
+
+    /**
+     * Moves every batchable object out of {@code objects} into a group. Objects in groups below
+     * the minimum size stay in {@code objects}, which keeps its order otherwise.
+     * {@code defaultShader} is the program batched objects would have been drawn with; objects that
+     * picked another program are left alone. Pass null for depth passes, where the object's program
+     * does not matter.
+     */
+    public void build(List<GameObject> objects, ShaderHandle defaultShader) {
+        clear();
+        for (int i = 0, count = objects.size(); i < count; i++) {
+            GameObject object = objects.get(i);
+            if (isBatchable(object, defaultShader)) {
+                batchFor(object).objects.add(object);
+            }
+        }
+        int kept = 0;
+        for (int i = 0, count = objects.size(); i < count; i++) {
+            GameObject object = objects.get(i);
+            if (isBatchable(object, defaultShader) && find(object).objects.size() >= minInstances) {
+                continue;
+            }
+            objects.set(kept++, object);
+        }
+        for (int i = objects.size() - 1; i >= kept; i--) {
+            objects.remove(i);
+        }
+        for (int i = 0; i < batches.size(); i++) {
+            int size = batches.get(i).objects.size();
+            if (size >= minInstances) {
+                batchCount++;
+                instanceCount += size;
+            }
+        }
+    }
+
+    /**
+     * Draws every group with {@code shader}, which must already be bound and hold the per-frame
+     * uniforms. Color passes also get each group's {@code properties} and {@code uTexture}.
+     */
+    public void draw(GraphicsDevice device, ShaderHandle shader) {
+        for (int b = 0, count = batches.size(); b < count; b++) {
+            Batch batch = batches.get(b);
+            int instances = batch.objects.size();
+            if (instances < minInstances) {
+                continue;
+            }
+            GameObject first = batch.objects.get(0);
+            first.setGraphicsDevice(device);
+            if (first.vaoIds[0] == 0) {
+                first.generateBuffers();
+            }
+            int floats = instances * FLOATS_PER_INSTANCE;
+            if (instanceData.length < floats) {
+                instanceData = new float[Math.max(floats, instanceData.length * 2)];
+            }
+            for (int i = 0; i < instances; i++) {
+                System.arraycopy(batch.objects.get(i).getRenderModelMatrix().r, 0,
+                        instanceData, i * FLOATS_PER_INSTANCE, FLOATS_PER_INSTANCE);
+            }
+            if (instanceBuffer == 0) {
+                instanceBuffer = device.createBuffers(1)[0];
+            }
+            device.streamArrayBufferFloat(instanceBuffer, instanceData, floats);
+            if (matchMaterial) {
+                properties.set(batch.shininess, batch.ambient, 0f);
+                shader.setUniformVector3("properties", properties);
+                shader.activateTexture("uTexture", 0, batch.texture);
+            }
+            device.bindVertexArray(first.vaoIds[0]);
+            device.setInstanceMatrixAttribute(instanceBuffer, INSTANCE_MATRIX_LOCATION);
+            device.drawElementsTrianglesInstanced(first.getIndexCount(), instances);
+            device.bindVertexArray(0);
+        }
+    }
+
+    /** Groups found by the last {@link #build}; {@link #draw} issues one instanced call for each. */
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /** Objects covered by those draw calls. */
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    public void clear() {
+        for (int i = 0; i < batches.size(); i++) {
+            Batch batch = batches.get(i);
+            batch.objects.clear();
+            batch.geometry = null;
+            batch.next = null;
+            pool.add(batch);
+        }
+        batches.clear();
+        batchesByGeometry.clear();
+        batchCount = 0;
+        instanceCount = 0;
+    }
+
+    private boolean isBatchable(GameObject object, ShaderHandle defaultShader) {
+        if (object.getClass() != GameObject.class || object.geometry == null) {
+            return false;
+        }
+        if (!matchMaterial) {
+            return true;
+        }
+        return !object.transparent && (object.shaderprogram == null || object.shaderprogram == defaultShader);
+    }
+
+    private Batch find(GameObject object) {
+        Batch batch = batchesByGeometry.get(object.geometry);
+        while (matchMaterial && !batch.matches(object)) {
+            batch = batch.next;
+        }
+        return batch;
+    }
+
+    private Batch batchFor(GameObject object) {
+        Batch head = batchesByGeometry.get(object.geometry);
+        for (Batch batch = head; batch != null; batch = batch.next) {
+            if (!matchMaterial || batch.matches(object)) {
+                return batch;
+            }
+        }
+        Batch batch = pool.isEmpty() ? new Batch() : pool.remove(pool.size() - 1);
+        batch.geometry = object.geometry;
+        batch.texture = object.texture;
+        batch.shininess = object.shininess;
+        batch.ambient = object.ambientlight_multiplier;
+        batch.next = head;
+        batchesByGeometry.put(object.geometry, batch);
+        batches.add(batch);
+        return batch;
+    }
+}
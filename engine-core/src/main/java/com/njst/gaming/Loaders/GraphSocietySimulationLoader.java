@@ -35,6 +35,7 @@ public class GraphSocietySimulationLoader implements Scene.SceneLoader {
 
     private final Geometry foodGeometry = new SphereGeometry(0.3f, 10, 10);
     private final Geometry waterGeometry = new SphereGeometry(0.4f, 12, 12);
+    private final Geometry npcGeometry = new CubeGeometry();
     private int npcTex, foodTex, waterTex;
 
     @Override
@@ -116,7 +117,7 @@ public class GraphSocietySimulationLoader implements Scene.SceneLoader {
     }
 
     private void spawnNPC(float x, float y, float z, com.njst.gaming.simulation.brain.NPCBrain brain) {
-        GameObject npcSkin = new GameObject(new CubeGeometry(), npcTex);
+        GameObject npcSkin = new GameObject(npcGeometry, npcTex);
         npcSkin.move(x, y, z);
         npcSkin.scale = new float[] { 1, 1, 1 };
         
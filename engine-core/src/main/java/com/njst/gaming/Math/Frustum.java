@@ -0,0 +1,87 @@
+package com.njst.gaming.Math;
+
+/**
+ * Six clip planes taken from a column-major view-projection matrix (Gribb/Hartmann extraction).
+ * Works for perspective and orthographic projections. Planes point inward, so a point is inside
+ * when its signed distance to every plane is non-negative.
+ */
+public class Frustum {
+    private static final int PLANE_COUNT = 6;
+
+    /** Per plane: normal x, y, z and distance. Order: left, right, bottom, top, near, far. */
+    private final float[] planes = new float[PLANE_COUNT * 4];
+    private final float[] viewProjection = new float[16];
+
+    public Frustum setViewProjection(Matrix4 projection, Matrix4 view) {
+        float[] p = projection.r;
+        float[] v = view.r;
+        for (int column = 0; column < 4; column++) {
+            for (int row = 0; row < 4; row++) {
+                float sum = 0f;
+                for (int k = 0; k < 4; k++) {
+                    sum += p[(k * 4) + row] * v[(column * 4) + k];
+                }
+                viewProjection[(column * 4) + row] = sum;
+            }
+        }
+        return set(viewProjection);
+    }
+
+    /** Extracts the planes from {@code m}, a column-major projection times view matrix. */
+    public Frustum set(float[] m) {
+        for (int plane = 0; plane < PLANE_COUNT; plane++) {
+            int row = plane >> 1;
+            float sign = (plane & 1) == 0 ? 1f : -1f;
+            float a = m[3] + (sign * m[row]);
+            float b = m[7] + (sign * m[4 + row]);
+            float c = m[11] + (sign * m[8 + row]);
+            float d = m[15] + (sign * m[12 + row]);
+            float length = (float) java.lang.Math.sqrt((a * a) + (b * b) + (c * c));
+            if (length > 0f) {
+                a /= length;
+                b /= length;
+                c /= length;
+                d /= length;
+            }
+            int offset = plane * 4;
+            planes[offset] = a;
+            planes[offset + 1] = b;
+            planes[offset + 2] = c;
+            planes[offset + 3] = d;
+        }
+        return this;
+    }
+
+    /**
+     * Returns false only when the box lies entirely outside one plane. Boxes near a corner of the
+     * frustum can pass without touching it, which is the usual conservative answer.
+     */
+    public boolean intersectsAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        for (int offset = 0; offset < planes.length; offset += 4) {
+            float a = planes[offset];
+            float b = planes[offset + 1];
+            float c = planes[offset + 2];
+            float distance = (a * (a >= 0f ? maxX : minX))
+                    + (b * (b >= 0f ? maxY : minY))
+                    + (c * (c >= 0f ? maxZ : minZ))
+                    + planes[offset + 3];
+            if (distance < 0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean intersectsAabb(Vector3 min, Vector3 max) {
+        return intersectsAabb(min.x, min.y, min.z, max.x, max.y, max.z);
+    }
+
+    public boolean containsPoint(float x, float y, float z) {
+        for (int offset = 0; offset < planes.length; offset += 4) {
+            if ((planes[offset] * x) + (planes[offset + 1] * y) + (planes[offset + 2] * z) + planes[offset + 3] < 0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -175,6 +175,43 @@ public class Matrix4 implements Serializable {
 
     }
 
+    /**
+     * Overwrites this matrix with translate, then rotate about x, y and z, then scale: the same
+     * result as {@code identity().translate(..).rotate(rx, X).rotate(ry, Y).rotate(rz, Z).scale(..)}
+     * without the temporary matrices.
+     *
+     * @param translation translation vector
+     * @param rotation rotation about each axis, in degrees
+     * @param sx scale on the x axis
+     * @param sy scale on the y axis
+     * @param sz scale on the z axis
+     */
+    public Matrix4 setTranslationRotationScale(Vector3 translation, Vector3 rotation, float sx, float sy, float sz) {
+        double ax = java.lang.Math.toRadians(rotation.x);
+        double ay = java.lang.Math.toRadians(rotation.y);
+        double az = java.lang.Math.toRadians(rotation.z);
+        float sinX = (float) java.lang.Math.sin(ax), cosX = (float) java.lang.Math.cos(ax);
+        float sinY = (float) java.lang.Math.sin(ay), cosY = (float) java.lang.Math.cos(ay);
+        float sinZ = (float) java.lang.Math.sin(az), cosZ = (float) java.lang.Math.cos(az);
+        r[0] = cosY * cosZ * sx;
+        r[1] = ((cosX * sinZ) + (sinX * sinY * cosZ)) * sx;
+        r[2] = ((sinX * sinZ) - (cosX * sinY * cosZ)) * sx;
+        r[3] = 0f;
+        r[4] = -cosY * sinZ * sy;
+        r[5] = ((cosX * cosZ) - (sinX * sinY * sinZ)) * sy;
+        r[6] = ((sinX * cosZ) + (cosX * sinY * sinZ)) * sy;
+        r[7] = 0f;
+        r[8] = sinY * sz;
+        r[9] = -sinX * cosY * sz;
+        r[10] = cosX * cosY * sz;
+        r[11] = 0f;
+        r[12] = translation.x;
+        r[13] = translation.y;
+        r[14] = translation.z;
+        r[15] = 1f;
+        return this;
+    }
+
     public float[] getMatrix4f() {
         return r;
     }
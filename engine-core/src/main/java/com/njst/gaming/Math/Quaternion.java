@@ -195,6 +195,44 @@ public class Quaternion implements Serializable {
                 q1.w * s1 + q2.w * s2
         ).normalize();
     }
+    /** {@link #slerp(Quaternion, Quaternion, float)} into {@code dest}, which may be {@code q1} or {@code q2}. */
+    public static Quaternion slerp(Quaternion q1, Quaternion q2, float t, Quaternion dest) {
+        float bx = q2.x, by = q2.y, bz = q2.z, bw = q2.w;
+        float dot = q1.x*bx + q1.y*by + q1.z*bz + q1.w*bw;
+
+        if (dot < 0.0f) {
+            bx = -bx;
+            by = -by;
+            bz = -bz;
+            bw = -bw;
+            dot = -dot;
+        }
+
+        float s1;
+        float s2;
+        if (dot > 0.9995f) {
+            s1 = 1f - t;
+            s2 = t;
+        } else {
+            double theta0 = Math.acos(dot);
+            double theta = theta0 * t;
+            double sinTheta = Math.sin(theta);
+            double sinTheta0 = Math.sin(theta0);
+            s1 = (float) (Math.cos(theta) - dot * sinTheta / sinTheta0);
+            s2 = (float) (sinTheta / sinTheta0);
+        }
+
+        float nx = q1.x * s1 + bx * s2;
+        float ny = q1.y * s1 + by * s2;
+        float nz = q1.z * s1 + bz * s2;
+        float nw = q1.w * s1 + bw * s2;
+        dest.x = nx;
+        dest.y = ny;
+        dest.z = nz;
+        dest.w = nw;
+        return dest.normalize();
+    }
+
     public static Quaternion fromEuler(float rollDeg, float pitchDeg, float yawDeg) {
         // Convert degrees to radians
         float roll = (float) Math.toRadians(rollDeg);
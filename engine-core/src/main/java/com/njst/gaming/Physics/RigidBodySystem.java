@@ -0,0 +1,657 @@
+package com.njst.gaming.Physics;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.njst.gaming.collision.Bounds3;
+import com.njst.gaming.collision.Collider;
+import com.njst.gaming.collision.CollisionEvent;
+import com.njst.gaming.collision.CollisionEventType;
+import com.njst.gaming.collision.CollisionManifold;
+import com.njst.gaming.collision.CollisionWorld;
+import com.njst.gaming.objects.GameObject;
+
+/**
+ * Rigid-body stage that runs next to a {@link CollisionWorld}.
+ * Body state lives in parallel primitive arrays indexed by body id, so a step walks flat memory and
+ * allocates nothing once the arrays have grown to the body and contact counts.
+ *
+ * Each {@link #step} integrates velocities with semi-implicit Euler, resolves the contacts reported by
+ * the collision world's last update with sequential impulses (normal plus two friction directions),
+ * integrates positions, and writes the result to each body's {@link GameObject} once.
+ * Bodies with zero mass are kinematic: their position is read from the GameObject every step and they
+ * push dynamic bodies without being pushed back. A dynamic body whose GameObject was moved since the
+ * last step, for example by {@link GameObject#setPosition}, continues from the new position.
+ *
+ * Colliders passed to {@link #addBody} must also be added to the collision world by the caller.
+ */
+public class RigidBodySystem {
+    public static final int DEFAULT_ITERATIONS = 8;
+    public static final float DEFAULT_GRAVITY_Y = -9.81f;
+
+    private static final float RADIANS_TO_DEGREES = (float) (180.0 / Math.PI);
+    private static final float PENETRATION_SLOP = 0.005f;
+    private static final float POSITION_CORRECTION = 0.2f;
+    private static final float RESTING_SPEED = 0.5f;
+    private static final int CONTACT_FRAME_STRIDE = 15;
+    private static final int CONTACT_MASS_STRIDE = 4;
+
+    private final IdentityHashMap<Collider, Integer> bodyByCollider = new IdentityHashMap<Collider, Integer>();
+    private Collider[] colliders = new Collider[16];
+    private GameObject[] objects = new GameObject[16];
+    private float[] positionX = new float[16];
+    private float[] positionY = new float[16];
+    private float[] positionZ = new float[16];
+    /** Position last written to each body's GameObject, to tell a teleport from the body's own motion. */
+    private float[] syncedX = new float[16];
+    private float[] syncedY = new float[16];
+    private float[] syncedZ = new float[16];
+    private float[] velocityX = new float[16];
+    private float[] velocityY = new float[16];
+    private float[] velocityZ = new float[16];
+    private float[] angularX = new float[16];
+    private float[] angularY = new float[16];
+    private float[] angularZ = new float[16];
+    private float[] forceX = new float[16];
+    private float[] forceY = new float[16];
+    private float[] forceZ = new float[16];
+    private float[] inverseMass = new float[16];
+    private float[] inverseInertiaX = new float[16];
+    private float[] inverseInertiaY = new float[16];
+    private float[] inverseInertiaZ = new float[16];
+    private int bodyCount;
+
+    private int contactCount;
+    private int[] contactFirst = new int[32];
+    private int[] contactSecond = new int[32];
+    /** Per contact: normal xyz, first arm xyz, second arm xyz, tangent u xyz, tangent v xyz. */
+    private float[] contactFrame = new float[32 * CONTACT_FRAME_STRIDE];
+    /** Per contact: normal, tangent u and tangent v effective mass, then bias velocity. */
+    private float[] contactMass = new float[32 * CONTACT_MASS_STRIDE];
+    /** Per contact: accumulated normal, tangent u and tangent v impulse. */
+    private float[] contactImpulse = new float[32 * 3];
+
+    private float gravityX;
+    private float gravityY = DEFAULT_GRAVITY_Y;
+    private float gravityZ;
+    private int iterations = DEFAULT_ITERATIONS;
+    private float restitution;
+    private float friction = 0.4f;
+    private float linearDamping = 0.01f;
+    private float angularDamping = 0.05f;
+
+    /**
+     * Adds a body that does not rotate. Manifolds carry one contact point, which cannot hold a
+     * spinning box at rest, so rotation is opt-in.
+     */
+    public int addBody(Collider collider, GameObject object, float mass) {
+        return addBody(collider, object, mass, true);
+    }
+
+    /**
+     * Adds a body for {@code collider}, synced to {@code object} when it is not null.
+     * A mass of zero or less makes the body kinematic. Unlocked bodies take their inertia from the
+     * collider's current bounds as a solid box.
+     */
+    public int addBody(Collider collider, GameObject object, float mass, boolean lockRotation) {
+        if (collider == null) {
+            throw new IllegalArgumentException("collider must not be null.");
+        }
+        if (bodyByCollider.containsKey(collider)) {
+            throw new IllegalArgumentException("collider already has a body.");
+        }
+        ensureBodyCapacity(bodyCount + 1);
+        int body = bodyCount++;
+        colliders[body] = collider;
+        objects[body] = object;
+        if (object != null) {
+            positionX[body] = object.position.x;
+            positionY[body] = object.position.y;
+            positionZ[body] = object.position.z;
+            velocityX[body] = object.velocity[0];
+            velocityY[body] = object.velocity[1];
+            velocityZ[body] = object.velocity[2];
+        } else {
+            Bounds3 bounds = collider.getWorldBounds();
+            positionX[body] = (bounds.getMinX() + bounds.getMaxX()) * 0.5f;
+            positionY[body] = (bounds.getMinY() + bounds.getMaxY()) * 0.5f;
+            positionZ[body] = (bounds.getMinZ() + bounds.getMaxZ()) * 0.5f;
+            velocityX[body] = 0f;
+            velocityY[body] = 0f;
+            velocityZ[body] = 0f;
+        }
+        markSynced(body);
+        angularX[body] = 0f;
+        angularY[body] = 0f;
+        angularZ[body] = 0f;
+        forceX[body] = 0f;
+        forceY[body] = 0f;
+        forceZ[body] = 0f;
+        setMass(body, mass, lockRotation);
+        if (object != null && inverseMass[body] != 0f) {
+            object.interpolateFixedSteps = true;
+        }
+        bodyByCollider.put(collider, body);
+        return body;
+    }
+
+    /** Removes the collider's body; the last body takes over its id. */
+    public void removeBody(Collider collider) {
+        Integer removed = bodyByCollider.remove(collider);
+        if (removed == null) {
+            return;
+        }
+        int body = removed;
+        int last = --bodyCount;
+        if (body != last) {
+            colliders[body] = colliders[last];
+            objects[body] = objects[last];
+            positionX[body] = positionX[last];
+            positionY[body] = positionY[last];
+            positionZ[body] = positionZ[last];
+            syncedX[body] = syncedX[last];
+            syncedY[body] = syncedY[last];
+            syncedZ[body] = syncedZ[last];
+            velocityX[body] = velocityX[last];
+            velocityY[body] = velocityY[last];
+            velocityZ[body] = velocityZ[last];
+            angularX[body] = angularX[last];
+            angularY[body] = angularY[last];
+            angularZ[body] = angularZ[last];
+            forceX[body] = forceX[last];
+            forceY[body] = forceY[last];
+            forceZ[body] = forceZ[last];
+            inverseMass[body] = inverseMass[last];
+            inverseInertiaX[body] = inverseInertiaX[last];
+            inverseInertiaY[body] = inverseInertiaY[last];
+            inverseInertiaZ[body] = inverseInertiaZ[last];
+            bodyByCollider.put(colliders[body], body);
+        }
+        colliders[last] = null;
+        objects[last] = null;
+    }
+
+    public void clear() {
+        for (int i = 0; i < bodyCount; i++) {
+            colliders[i] = null;
+            objects[i] = null;
+        }
+        bodyCount = 0;
+        contactCount = 0;
+        bodyByCollider.clear();
+    }
+
+    /** Returns the body id for {@code collider}, or -1. Ids change when other bodies are removed. */
+    public int findBody(Collider collider) {
+        Integer body = bodyByCollider.get(collider);
+        return body != null ? body : -1;
+    }
+
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    public int getContactCountLastStep() {
+        return contactCount;
+    }
+
+    public void setGravity(float x, float y, float z) {
+        gravityX = x;
+        gravityY = y;
+        gravityZ = z;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = Math.max(1, iterations);
+    }
+
+    public void setRestitution(float restitution) {
+        this.restitution = Math.max(0f, Math.min(1f, restitution));
+    }
+
+    public void setFriction(float friction) {
+        this.friction = Math.max(0f, friction);
+    }
+
+    public void setDamping(float linearDamping, float angularDamping) {
+        this.linearDamping = Math.max(0f, linearDamping);
+        this.angularDamping = Math.max(0f, angularDamping);
+    }
+
+    public void setVelocity(int body, float x, float y, float z) {
+        velocityX[body] = x;
+        velocityY[body] = y;
+        velocityZ[body] = z;
+    }
+
+    public void setPosition(int body, float x, float y, float z) {
+        positionX[body] = x;
+        positionY[body] = y;
+        positionZ[body] = z;
+    }
+
+    /** Adds a force in newtons that is applied during the next step only. */
+    public void applyForce(int body, float x, float y, float z) {
+        forceX[body] += x;
+        forceY[body] += y;
+        forceZ[body] += z;
+    }
+
+    public void applyImpulse(int body, float x, float y, float z) {
+        float invMass = inverseMass[body];
+        velocityX[body] += x * invMass;
+        velocityY[body] += y * invMass;
+        velocityZ[body] += z * invMass;
+    }
+
+    public float getPositionX(int body) {
+        return positionX[body];
+    }
+
+    public float getPositionY(int body) {
+        return positionY[body];
+    }
+
+    public float getPositionZ(int body) {
+        return positionZ[body];
+    }
+
+    public float getVelocityX(int body) {
+        return velocityX[body];
+    }
+
+    public float getVelocityY(int body) {
+        return velocityY[body];
+    }
+
+    public float getVelocityZ(int body) {
+        return velocityZ[body];
+    }
+
+    public boolean isKinematic(int body) {
+        return inverseMass[body] == 0f;
+    }
+
+    /**
+     * Advances every body by {@code deltaTime} seconds using the contacts from the collision world's
+     * most recent update. Call it before the next {@link CollisionWorld#update}.
+     */
+    public void step(float deltaTime, CollisionWorld world) {
+        if (deltaTime <= 0f) {
+            return;
+        }
+        readObjectPositions(deltaTime);
+        integrateVelocities(deltaTime);
+        contactCount = 0;
+        if (world != null) {
+            buildContacts(world.getEvents(), deltaTime);
+        }
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int contact = 0; contact < contactCount; contact++) {
+                solveContact(contact);
+            }
+        }
+        integratePositions(deltaTime);
+        syncObjects(deltaTime);
+    }
+
+    private void readObjectPositions(float deltaTime) {
+        for (int body = 0; body < bodyCount; body++) {
+            GameObject object = objects[body];
+            if (object == null) {
+                continue;
+            }
+            if (inverseMass[body] != 0f) {
+                if (object.position.x != syncedX[body] || object.position.y != syncedY[body]
+                        || object.position.z != syncedZ[body]) {
+                    // Moved by gameplay code since the last step; continue from there.
+                    positionX[body] = object.position.x;
+                    positionY[body] = object.position.y;
+                    positionZ[body] = object.position.z;
+                    markSynced(body);
+                }
+                continue;
+            }
+            // Kinematic bodies are moved by gameplay code; their motion since the last step is their velocity.
+            velocityX[body] = (object.position.x - positionX[body]) / deltaTime;
+            velocityY[body] = (object.position.y - positionY[body]) / deltaTime;
+            velocityZ[body] = (object.position.z - positionZ[body]) / deltaTime;
+            positionX[body] = object.position.x;
+            positionY[body] = object.position.y;
+            positionZ[body] = object.position.z;
+        }
+    }
+
+    private void integrateVelocities(float deltaTime) {
+        float linearScale = 1f / (1f + (deltaTime * linearDamping));
+        float angularScale = 1f / (1f + (deltaTime * angularDamping));
+        for (int body = 0; body < bodyCount; body++) {
+            float invMass = inverseMass[body];
+            if (invMass == 0f) {
+                continue;
+            }
+            velocityX[body] = (velocityX[body] + ((gravityX + (forceX[body] * invMass)) * deltaTime)) * linearScale;
+            velocityY[body] = (velocityY[body] + ((gravityY + (forceY[body] * invMass)) * deltaTime)) * linearScale;
+            velocityZ[body] = (velocityZ[body] + ((gravityZ + (forceZ[body] * invMass)) * deltaTime)) * linearScale;
+            angularX[body] *= angularScale;
+            angularY[body] *= angularScale;
+            angularZ[body] *= angularScale;
+            forceX[body] = 0f;
+            forceY[body] = 0f;
+            forceZ[body] = 0f;
+        }
+    }
+
+    private void integratePositions(float deltaTime) {
+        for (int body = 0; body < bodyCount; body++) {
+            if (inverseMass[body] == 0f) {
+                continue;
+            }
+            positionX[body] += velocityX[body] * deltaTime;
+            positionY[body] += velocityY[body] * deltaTime;
+            positionZ[body] += velocityZ[body] * deltaTime;
+        }
+    }
+
+    private void syncObjects(float deltaTime) {
+        for (int body = 0; body < bodyCount; body++) {
+            GameObject object = objects[body];
+            if (object == null || inverseMass[body] == 0f) {
+                continue;
+            }
+            // Written directly: setPosition would mark a teleport and drop the render interpolation.
+            object.position.set(positionX[body], positionY[body], positionZ[body]);
+            markSynced(body);
+            object.velocity[0] = velocityX[body];
+            object.velocity[1] = velocityY[body];
+            object.velocity[2] = velocityZ[body];
+            float scale = deltaTime * RADIANS_TO_DEGREES;
+            if (angularX[body] != 0f || angularY[body] != 0f || angularZ[body] != 0f) {
+                // GameObject keeps Euler angles in degrees; small per-step rotations add up per axis.
+                object.rotate(angularX[body] * scale, angularY[body] * scale, angularZ[body] * scale);
+            }
+        }
+    }
+
+    private void markSynced(int body) {
+        syncedX[body] = positionX[body];
+        syncedY[body] = positionY[body];
+        syncedZ[body] = positionZ[body];
+    }
+
+    private void buildContacts(List<CollisionEvent> events, float deltaTime) {
+        for (int i = 0; i < events.size(); i++) {
+            CollisionEvent event = events.get(i);
+            if (event.getType() == CollisionEventType.EXIT) {
+                continue;
+            }
+            Collider firstCollider = event.getFirst();
+            Collider secondCollider = event.getSecond();
+            if (firstCollider.isTrigger() || secondCollider.isTrigger()) {
+                continue;
+            }
+            int first = findBody(firstCollider);
+            int second = findBody(secondCollider);
+            boolean firstDynamic = first >= 0 && inverseMass[first] != 0f;
+            boolean secondDynamic = second >= 0 && inverseMass[second] != 0f;
+            if (!firstDynamic && !secondDynamic) {
+                continue;
+            }
+            addContact(first, second, event.getManifold(), deltaTime);
+        }
+    }
+
+    private void addContact(int first, int second, CollisionManifold manifold, float deltaTime) {
+        ensureContactCapacity(contactCount + 1);
+        int contact = contactCount++;
+        contactFirst[contact] = first;
+        contactSecond[contact] = second;
+
+        float normalX = manifold.getNormalX();
+        float normalY = manifold.getNormalY();
+        float normalZ = manifold.getNormalZ();
+        float pointX = manifold.getContactPointX();
+        float pointY = manifold.getContactPointY();
+        float pointZ = manifold.getContactPointZ();
+
+        int frame = contact * CONTACT_FRAME_STRIDE;
+        float[] f = contactFrame;
+        f[frame] = normalX;
+        f[frame + 1] = normalY;
+        f[frame + 2] = normalZ;
+        f[frame + 3] = first >= 0 ? pointX - positionX[first] : 0f;
+        f[frame + 4] = first >= 0 ? pointY - positionY[first] : 0f;
+        f[frame + 5] = first >= 0 ? pointZ - positionZ[first] : 0f;
+        f[frame + 6] = second >= 0 ? pointX - positionX[second] : 0f;
+        f[frame + 7] = second >= 0 ? pointY - positionY[second] : 0f;
+        f[frame + 8] = second >= 0 ? pointZ - positionZ[second] : 0f;
+
+        // Tangent basis perpendicular to the normal.
+        float tangentX;
+        float tangentY;
+        float tangentZ;
+        if (Math.abs(normalX) >= 0.57735f) {
+            tangentX = normalY;
+            tangentY = -normalX;
+            tangentZ = 0f;
+        } else {
+            tangentX = 0f;
+            tangentY = normalZ;
+            tangentZ = -normalY;
+        }
+        float tangentLength = (float) Math.sqrt((tangentX * tangentX) + (tangentY * tangentY) + (tangentZ * tangentZ));
+        tangentX /= tangentLength;
+        tangentY /= tangentLength;
+        tangentZ /= tangentLength;
+        f[frame + 9] = tangentX;
+        f[frame + 10] = tangentY;
+        f[frame + 11] = tangentZ;
+        f[frame + 12] = (normalY * tangentZ) - (normalZ * tangentY);
+        f[frame + 13] = (normalZ * tangentX) - (normalX * tangentZ);
+        f[frame + 14] = (normalX * tangentY) - (normalY * tangentX);
+
+        int mass = contact * CONTACT_MASS_STRIDE;
+        contactMass[mass] = inverseEffectiveMass(contact, 0);
+        contactMass[mass + 1] = inverseEffectiveMass(contact, 9);
+        contactMass[mass + 2] = inverseEffectiveMass(contact, 12);
+
+        // The normal points from the first body toward the second.
+        float approach = relativeVelocity(contact, 0);
+        float bias = (POSITION_CORRECTION / deltaTime) * Math.max(0f, manifold.getPenetrationDepth() - PENETRATION_SLOP);
+        if (approach < -RESTING_SPEED) {
+            bias = Math.max(bias, -restitution * approach);
+        }
+        contactMass[mass + 3] = bias;
+        contactImpulse[contact * 3] = 0f;
+        contactImpulse[(contact * 3) + 1] = 0f;
+        contactImpulse[(contact * 3) + 2] = 0f;
+    }
+
+    private void solveContact(int contact) {
+        int mass = contact * CONTACT_MASS_STRIDE;
+        int impulse = contact * 3;
+
+        float normalMass = contactMass[mass];
+        if (normalMass > 0f) {
+            float velocity = relativeVelocity(contact, 0);
+            float lambda = (contactMass[mass + 3] - velocity) * normalMass;
+            float previous = contactImpulse[impulse];
+            float accumulated = Math.max(0f, previous + lambda);
+            contactImpulse[impulse] = accumulated;
+            applyContactImpulse(contact, 0, accumulated - previous);
+        }
+
+        float limit = friction * contactImpulse[impulse];
+        for (int axis = 1; axis <= 2; axis++) {
+            float tangentMass = contactMass[mass + axis];
+            if (tangentMass <= 0f) {
+                continue;
+            }
+            int direction = axis == 1 ? 9 : 12;
+            float lambda = -relativeVelocity(contact, direction) * tangentMass;
+            float previous = contactImpulse[impulse + axis];
+            float accumulated = Math.max(-limit, Math.min(limit, previous + lambda));
+            contactImpulse[impulse + axis] = accumulated;
+            applyContactImpulse(contact, direction, accumulated - previous);
+        }
+    }
+
+    /** Velocity of the second body relative to the first along a contact direction, arms included. */
+    private float relativeVelocity(int contact, int direction) {
+        int frame = contact * CONTACT_FRAME_STRIDE;
+        float[] f = contactFrame;
+        float dirX = f[frame + direction];
+        float dirY = f[frame + direction + 1];
+        float dirZ = f[frame + direction + 2];
+        float velocity = 0f;
+        int second = contactSecond[contact];
+        if (second >= 0) {
+            velocity += pointVelocityAlong(second, f[frame + 6], f[frame + 7], f[frame + 8], dirX, dirY, dirZ);
+        }
+        int first = contactFirst[contact];
+        if (first >= 0) {
+            velocity -= pointVelocityAlong(first, f[frame + 3], f[frame + 4], f[frame + 5], dirX, dirY, dirZ);
+        }
+        return velocity;
+    }
+
+    private float pointVelocityAlong(int body, float armX, float armY, float armZ,
+            float dirX, float dirY, float dirZ) {
+        float wx = angularX[body];
+        float wy = angularY[body];
+        float wz = angularZ[body];
+        float vx = velocityX[body] + ((wy * armZ) - (wz * armY));
+        float vy = velocityY[body] + ((wz * armX) - (wx * armZ));
+        float vz = velocityZ[body] + ((wx * armY) - (wy * armX));
+        return (vx * dirX) + (vy * dirY) + (vz * dirZ);
+    }
+
+    /** Pushes the second body along the direction and the first body against it. */
+    private void applyContactImpulse(int contact, int direction, float magnitude) {
+        if (magnitude == 0f) {
+            return;
+        }
+        int frame = contact * CONTACT_FRAME_STRIDE;
+        float[] f = contactFrame;
+        float impulseX = f[frame + direction] * magnitude;
+        float impulseY = f[frame + direction + 1] * magnitude;
+        float impulseZ = f[frame + direction + 2] * magnitude;
+        int second = contactSecond[contact];
+        if (second >= 0) {
+            applyBodyImpulse(second, f[frame + 6], f[frame + 7], f[frame + 8], impulseX, impulseY, impulseZ);
+        }
+        int first = contactFirst[contact];
+        if (first >= 0) {
+            applyBodyImpulse(first, f[frame + 3], f[frame + 4], f[frame + 5], -impulseX, -impulseY, -impulseZ);
+        }
+    }
+
+    private void applyBodyImpulse(int body, float armX, float armY, float armZ,
+            float impulseX, float impulseY, float impulseZ) {
+        float invMass = inverseMass[body];
+        if (invMass == 0f) {
+            return;
+        }
+        velocityX[body] += impulseX * invMass;
+        velocityY[body] += impulseY * invMass;
+        velocityZ[body] += impulseZ * invMass;
+        angularX[body] += ((armY * impulseZ) - (armZ * impulseY)) * inverseInertiaX[body];
+        angularY[body] += ((armZ * impulseX) - (armX * impulseZ)) * inverseInertiaY[body];
+        angularZ[body] += ((armX * impulseY) - (armY * impulseX)) * inverseInertiaZ[body];
+    }
+
+    /** Returns 1 / (J M^-1 J^T) for a contact direction, or 0 when neither body can respond. */
+    private float inverseEffectiveMass(int contact, int direction) {
+        int frame = contact * CONTACT_FRAME_STRIDE;
+        float[] f = contactFrame;
+        float dirX = f[frame + direction];
+        float dirY = f[frame + direction + 1];
+        float dirZ = f[frame + direction + 2];
+        float denominator = 0f;
+        int first = contactFirst[contact];
+        if (first >= 0) {
+            denominator += bodyResponse(first, f[frame + 3], f[frame + 4], f[frame + 5], dirX, dirY, dirZ);
+        }
+        int second = contactSecond[contact];
+        if (second >= 0) {
+            denominator += bodyResponse(second, f[frame + 6], f[frame + 7], f[frame + 8], dirX, dirY, dirZ);
+        }
+        return denominator > 0f ? 1f / denominator : 0f;
+    }
+
+    private float bodyResponse(int body, float armX, float armY, float armZ, float dirX, float dirY, float dirZ) {
+        float crossX = (armY * dirZ) - (armZ * dirY);
+        float crossY = (armZ * dirX) - (armX * dirZ);
+        float crossZ = (armX * dirY) - (armY * dirX);
+        return inverseMass[body]
+                + (crossX * crossX * inverseInertiaX[body])
+                + (crossY * crossY * inverseInertiaY[body])
+                + (crossZ * crossZ * inverseInertiaZ[body]);
+    }
+
+    private void setMass(int body, float mass, boolean lockRotation) {
+        if (mass <= 0f) {
+            inverseMass[body] = 0f;
+            inverseInertiaX[body] = 0f;
+            inverseInertiaY[body] = 0f;
+            inverseInertiaZ[body] = 0f;
+            return;
+        }
+        inverseMass[body] = 1f / mass;
+        if (lockRotation) {
+            inverseInertiaX[body] = 0f;
+            inverseInertiaY[body] = 0f;
+            inverseInertiaZ[body] = 0f;
+            return;
+        }
+        Bounds3 bounds = colliders[body].getWorldBounds();
+        float width = Math.max(0.01f, bounds.getMaxX() - bounds.getMinX());
+        float height = Math.max(0.01f, bounds.getMaxY() - bounds.getMinY());
+        float depth = Math.max(0.01f, bounds.getMaxZ() - bounds.getMinZ());
+        float boxFactor = mass / 12f;
+        inverseInertiaX[body] = 1f / (boxFactor * ((height * height) + (depth * depth)));
+        inverseInertiaY[body] = 1f / (boxFactor * ((width * width) + (depth * depth)));
+        inverseInertiaZ[body] = 1f / (boxFactor * ((width * width) + (height * height)));
+    }
+
+    private void ensureBodyCapacity(int required) {
+        if (required <= positionX.length) {
+            return;
+        }
+        int capacity = Math.max(required, positionX.length * 2);
+        colliders = Arrays.copyOf(colliders, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        positionZ = Arrays.copyOf(positionZ, capacity);
+        syncedX = Arrays.copyOf(syncedX, capacity);
+        syncedY = Arrays.copyOf(syncedY, capacity);
+        syncedZ = Arrays.copyOf(syncedZ, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        velocityZ = Arrays.copyOf(velocityZ, capacity);
+        angularX = Arrays.copyOf(angularX, capacity);
+        angularY = Arrays.copyOf(angularY, capacity);
+        angularZ = Arrays.copyOf(angularZ, capacity);
+        forceX = Arrays.copyOf(forceX, capacity);
+        forceY = Arrays.copyOf(forceY, capacity);
+        forceZ = Arrays.copyOf(forceZ, capacity);
+        inverseMass = Arrays.copyOf(inverseMass, capacity);
+        inverseInertiaX = Arrays.copyOf(inverseInertiaX, capacity);
+        inverseInertiaY = Arrays.copyOf(inverseInertiaY, capacity);
+        inverseInertiaZ = Arrays.copyOf(inverseInertiaZ, capacity);
+    }
+
+    private void ensureContactCapacity(int required) {
+        if (required <= contactFirst.length) {
+            return;
+        }
+        int capacity = Math.max(required, contactFirst.length * 2);
+        contactFirst = Arrays.copyOf(contactFirst, capacity);
+        contactSecond = Arrays.copyOf(contactSecond, capacity);
+        contactFrame = Arrays.copyOf(contactFrame, capacity * CONTACT_FRAME_STRIDE);
+        contactMass = Arrays.copyOf(contactMass, capacity * CONTACT_MASS_STRIDE);
+        contactImpulse = Arrays.copyOf(contactImpulse, capacity * 3);
+    }
+}
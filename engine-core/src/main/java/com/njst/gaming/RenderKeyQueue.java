@@ -0,0 +1,164 @@
+package com.njst.gaming;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.njst.gaming.graphics.ShaderHandle;
+import com.njst.gaming.objects.GameObject;
+
+/**
+ * Draw list ordered by 64-bit sort keys. From the high bits down, an opaque key holds the pass, the
+ * shader, the texture, the VAO, the quantized depth and the object index. Opaque objects therefore
+ * group by state and run front-to-back within a group. Transparent keys skip the state bits and
+ * store inverted depth, so they draw after every opaque object, back-to-front. Texture and VAO ids
+ * are truncated to their low bits: two ids that alias only cost a redundant bind, never a wrong draw.
+ */
+public final class RenderKeyQueue {
+    private static final int INDEX_BITS = 20;
+    private static final int DEPTH_BITS = 16;
+    private static final int VAO_BITS = 10;
+    private static final int TEXTURE_BITS = 10;
+    private static final int SHADER_BITS = 7;
+
+    private static final int DEPTH_SHIFT = INDEX_BITS;
+    private static final int VAO_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int TEXTURE_SHIFT = VAO_SHIFT + VAO_BITS;
+    private static final int SHADER_SHIFT = TEXTURE_SHIFT + TEXTURE_BITS;
+    private static final int PASS_SHIFT = SHADER_SHIFT + SHADER_BITS;
+
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1L;
+    private static final int DEPTH_MAX = (1 << DEPTH_BITS) - 1;
+    private static final long VAO_MASK = (1L << VAO_BITS) - 1L;
+    private static final long TEXTURE_MASK = (1L << TEXTURE_BITS) - 1L;
+    private static final long SHADER_MASK = (1L << SHADER_BITS) - 1L;
+    private static final long TRANSPARENT_PASS = 1L << PASS_SHIFT;
+
+    private static final int MAX_TRACKED_SHADERS = 1024;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+
+    private final IdentityHashMap<ShaderHandle, Integer> shaderIds = new IdentityHashMap<ShaderHandle, Integer>();
+    private final int[] counts = new int[RADIX_BUCKETS];
+    private long[] keys = new long[256];
+    private long[] scratch = new long[256];
+    private GameObject[] objects = new GameObject[256];
+    private ShaderHandle[] shaders = new ShaderHandle[256];
+    private int size;
+
+    public void clear() {
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(shaders, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Queues {@code object} to be drawn with {@code shader}. {@code depth} is its distance from the
+     * camera and {@code depthRange} the distance mapped to the last depth bucket (usually the far plane).
+     */
+    public void add(GameObject object, ShaderHandle shader, float depth, float depthRange) {
+        if (size > INDEX_MASK) {
+            throw new IllegalStateException("RenderKeyQueue holds at most " + (INDEX_MASK + 1) + " objects");
+        }
+        ensureCapacity(size + 1);
+        int quantized = quantizeDepth(depth, depthRange);
+        long key;
+        if (object.transparent) {
+            key = TRANSPARENT_PASS | ((long) (DEPTH_MAX - quantized) << DEPTH_SHIFT);
+        } else {
+            key = ((shaderId(shader) & SHADER_MASK) << SHADER_SHIFT)
+                    | ((object.texture & TEXTURE_MASK) << TEXTURE_SHIFT)
+                    | ((object.vaoIds[0] & VAO_MASK) << VAO_SHIFT)
+                    | ((long) quantized << DEPTH_SHIFT);
+        }
+        keys[size] = key | size;
+        objects[size] = object;
+        shaders[size] = shader;
+        size++;
+    }
+
+    /** Sorts the queued keys; afterwards {@link #getObject(int)} walks them in draw order. */
+    public void sort() {
+        long[] source = keys;
+        long[] target = scratch;
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[(int) ((source[i] >>> shift) & (RADIX_BUCKETS - 1))]++;
+            }
+            if (size == 0 || counts[(int) ((source[0] >>> shift) & (RADIX_BUCKETS - 1))] == size) {
+                // Every key shares this byte, so the pass would not move anything.
+                continue;
+            }
+            int offset = 0;
+            for (int bucket = 0; bucket < RADIX_BUCKETS; bucket++) {
+                int count = counts[bucket];
+                counts[bucket] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; i++) {
+                long key = source[i];
+                target[counts[(int) ((key >>> shift) & (RADIX_BUCKETS - 1))]++] = key;
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        keys = source;
+        scratch = target;
+    }
+
+    public GameObject getObject(int drawIndex) {
+        return objects[(int) (keys[drawIndex] & INDEX_MASK)];
+    }
+
+    public ShaderHandle getShader(int drawIndex) {
+        return shaders[(int) (keys[drawIndex] & INDEX_MASK)];
+    }
+
+    public long getKey(int drawIndex) {
+        return keys[drawIndex];
+    }
+
+    private int shaderId(ShaderHandle shader) {
+        if (shader == null) {
+            return 0;
+        }
+        Integer id = shaderIds.get(shader);
+        if (id == null) {
+            if (shaderIds.size() >= MAX_TRACKED_SHADERS) {
+                // Drop handles from programs that have since been released; ids only group draws.
+                shaderIds.clear();
+            }
+            id = shaderIds.size() + 1;
+            shaderIds.put(shader, id);
+        }
+        return id;
+    }
+
+    private static int quantizeDepth(float depth, float depthRange) {
+        float range = depthRange > 0f ? depthRange : 1f;
+        float normalized = depth / range;
+        if (!(normalized > 0f)) {
+            return 0;
+        }
+        if (normalized >= 1f) {
+            return DEPTH_MAX;
+        }
+        return (int) (normalized * DEPTH_MAX);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) {
+            return;
+        }
+        int grown = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, grown);
+        scratch = new long[grown];
+        objects = Arrays.copyOf(objects, grown);
+        shaders = Arrays.copyOf(shaders, grown);
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 
 import com.njst.gaming.Math.*;
+import com.njst.gaming.collision.CollisionStats;
 import com.njst.gaming.collision.SphericalHeightmapShape;
 import com.njst.gaming.graphics.BufferHandle;
 import com.njst.gaming.graphics.GraphicsDevice;
@@ -28,6 +29,27 @@ public class Renderer {
         public final float boneMs;
         public final int objectCount;
         public final int terrainCount;
+        /** Collision step averages over the stats window; see {@link CollisionStats}. */
+        public final float collisionMs;
+        public final float collisionMaxMs;
+        public final float broadphaseMs;
+        public final float narrowphaseMs;
+        public final float collisionListenerMs;
+        public final int colliderCount;
+        public final int collisionPairs;
+        public final int narrowphaseTests;
+        public final int collisionContacts;
+        public final int collisionEvents;
+        /** Narrowphase tests per dispatcher algorithm, step average and maximum; parallel arrays. */
+        public final String[] algorithmNames;
+        public final long[] algorithmTests;
+        public final long[] algorithmMaxTests;
+        /** Objects that passed the camera frustum test and objects skipped by it, averaged per frame. */
+        public final int visibleCount;
+        public final int culledCount;
+        /** Model matrices rebuilt per frame because the object moved, and matrices reused as cached. */
+        public final int transformsRecomputed;
+        public final int transformsReused;
 
         public ProfilerSnapshot(float frameMs, float updateMs, float skyboxMs, float renderMs,
                 int objectCount, int terrainCount) {
@@ -36,13 +58,130 @@ public class Renderer {
 
         public ProfilerSnapshot(float frameMs, float updateMs, float skyboxMs, float renderMs,
                 float boneMs, int objectCount, int terrainCount) {
-            this.frameMs = frameMs;
-            this.updateMs = updateMs;
-            this.skyboxMs = skyboxMs;
-            this.renderMs = renderMs;
-            this.boneMs = boneMs;
-            this.objectCount = objectCount;
-            this.terrainCount = terrainCount;
+            this(builder()
+                    .timings(frameMs, updateMs, skyboxMs, renderMs, boneMs)
+                    .objects(objectCount, terrainCount));
+        }
+
+        private ProfilerSnapshot(Builder builder) {
+            this.frameMs = builder.frameMs;
+            this.updateMs = builder.updateMs;
+            this.skyboxMs = builder.skyboxMs;
+            this.renderMs = builder.renderMs;
+            this.boneMs = builder.boneMs;
+            this.objectCount = builder.objectCount;
+            this.terrainCount = builder.terrainCount;
+            this.visibleCount = builder.visibleCount < 0 ? builder.objectCount : builder.visibleCount;
+            this.culledCount = builder.culledCount;
+            this.transformsRecomputed = builder.transformsRecomputed;
+            this.transformsReused = builder.transformsReused;
+            CollisionStats collisionStats = builder.collisionStats;
+            if (collisionStats == null) {
+                this.collisionMs = 0f;
+                this.collisionMaxMs = 0f;
+                this.broadphaseMs = 0f;
+                this.narrowphaseMs = 0f;
+                this.collisionListenerMs = 0f;
+                this.colliderCount = 0;
+                this.collisionPairs = 0;
+                this.narrowphaseTests = 0;
+                this.collisionContacts = 0;
+                this.collisionEvents = 0;
+                this.algorithmNames = new String[0];
+                this.algorithmTests = new long[0];
+                this.algorithmMaxTests = new long[0];
+                return;
+            }
+            this.collisionMs = averageMillis(collisionStats, CollisionStats.STEP_NANOS);
+            this.collisionMaxMs = collisionStats.getMax(CollisionStats.STEP_NANOS) / 1_000_000f;
+            this.broadphaseMs = averageMillis(collisionStats, CollisionStats.BROADPHASE_NANOS);
+            this.narrowphaseMs = averageMillis(collisionStats, CollisionStats.NARROWPHASE_NANOS);
+            this.collisionListenerMs = averageMillis(collisionStats, CollisionStats.LISTENER_NANOS);
+            this.colliderCount = (int) collisionStats.getLast(CollisionStats.COLLIDERS);
+            this.collisionPairs = averageCount(collisionStats, CollisionStats.CANDIDATE_PAIRS);
+            this.narrowphaseTests = averageCount(collisionStats, CollisionStats.NARROWPHASE_TESTS);
+            this.collisionContacts = averageCount(collisionStats, CollisionStats.CONTACTS);
+            this.collisionEvents = averageCount(collisionStats, CollisionStats.EVENTS);
+            int algorithmCount = collisionStats.getAlgorithmCount();
+            this.algorithmNames = new String[algorithmCount];
+            this.algorithmTests = new long[algorithmCount];
+            this.algorithmMaxTests = new long[algorithmCount];
+            for (int i = 0; i < algorithmCount; i++) {
+                algorithmNames[i] = collisionStats.getAlgorithmName(i);
+                algorithmTests[i] = Math.round(collisionStats.getAverageAlgorithmTests(i));
+                algorithmMaxTests[i] = collisionStats.getMaxAlgorithmTests(i);
+            }
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        private static float averageMillis(CollisionStats stats, int metric) {
+            return (float) (stats.getAverage(metric) / 1_000_000.0);
+        }
+
+        private static int averageCount(CollisionStats stats, int metric) {
+            return (int) Math.round(stats.getAverage(metric));
+        }
+
+        /**
+         * Collects the values of one profiler window. Collision figures are copied from the
+         * {@link CollisionStats} when {@link #build()} runs.
+         */
+        public static final class Builder {
+            private float frameMs;
+            private float updateMs;
+            private float skyboxMs;
+            private float renderMs;
+            private float boneMs;
+            private int objectCount;
+            private int terrainCount;
+            private int visibleCount = -1;
+            private int culledCount;
+            private int transformsRecomputed;
+            private int transformsReused;
+            private CollisionStats collisionStats;
+
+            private Builder() {
+            }
+
+            public Builder timings(float frameMs, float updateMs, float skyboxMs, float renderMs, float boneMs) {
+                this.frameMs = frameMs;
+                this.updateMs = updateMs;
+                this.skyboxMs = skyboxMs;
+                this.renderMs = renderMs;
+                this.boneMs = boneMs;
+                return this;
+            }
+
+            public Builder objects(int objectCount, int terrainCount) {
+                this.objectCount = objectCount;
+                this.terrainCount = terrainCount;
+                return this;
+            }
+
+            /** Defaults to every object visible and none culled. */
+            public Builder culling(int visibleCount, int culledCount) {
+                this.visibleCount = visibleCount;
+                this.culledCount = culledCount;
+                return this;
+            }
+
+            public Builder transforms(int recomputed, int reused) {
+                this.transformsRecomputed = recomputed;
+                this.transformsReused = reused;
+                return this;
+            }
+
+            public Builder collisionStats(CollisionStats collisionStats) {
+                this.collisionStats = collisionStats;
+                return this;
+            }
+
+            public ProfilerSnapshot build() {
+                return new ProfilerSnapshot(this);
+            }
         }
     }
 
@@ -58,6 +197,9 @@ public class Renderer {
     public ShaderHandle terrainShaderProgram;
     public ShaderHandle shadowShaderProgram;
     public ShaderHandle skinnedShadowShaderProgram;
+    /** Instanced variants of the main and shadow programs; null when they failed to build. */
+    public ShaderHandle instancedShaderProgram;
+    public ShaderHandle instancedShadowShaderProgram;
     public float speed = 1;
     public GameObject test;
 
@@ -73,6 +215,9 @@ public class Renderer {
     public final float[] lightPos = { 0, 50f, 0 };
     public final float[] lightColor = { 1.0f, 1.0f, 1.0f };
     public static final int MAX_LIGHTS = 8;
+    private static final String[] LIGHT_POSITION_UNIFORMS = indexedUniformNames("uLightPositions", MAX_LIGHTS);
+    private static final String[] LIGHT_COLOR_UNIFORMS = indexedUniformNames("uLightColors", MAX_LIGHTS);
+    private static final String[] LIGHT_PROPERTY_UNIFORMS = indexedUniformNames("uLightProperties", MAX_LIGHTS);
     public BufferHandle ssbo;
 
     public long lasttym = 0;
@@ -90,6 +235,17 @@ public class Renderer {
 
     private final GraphicsDevice graphicsDevice;
     private final ArrayList<GameObject> renderQueue = new ArrayList<>();
+    private final ArrayList<GameObject> shadowQueue = new ArrayList<>();
+    private final RenderKeyQueue drawQueue = new RenderKeyQueue();
+    /** Shaders that already hold this frame's eye position and light uniforms. */
+    private final ArrayList<ShaderHandle> preparedShaders = new ArrayList<>();
+    private ShaderHandle boundShader;
+    private final FrustumCuller cameraCuller = new FrustumCuller();
+    private final FrustumCuller shadowCuller = new FrustumCuller();
+    private final InstanceBatcher mainBatcher = new InstanceBatcher(true);
+    private final InstanceBatcher shadowBatcher = new InstanceBatcher(false);
+    private boolean instancingEnabled = true;
+    private int lastDrawCalls;
     private final ArrayList<Light> lights = new ArrayList<>();
     private final float[] cameraDataBuffer = new float[39];
     private final Vector3 mainPassLightPosition = new Vector3();
@@ -105,9 +261,14 @@ public class Renderer {
     private int profilerFrames = 0;
     private int profilerObjects = 0;
     private int profilerTerrainObjects = 0;
+    private int profilerVisibleObjects = 0;
+    private int profilerCulledObjects = 0;
+    private int profilerTransformsRecomputed = 0;
+    private int profilerTransformsReused = 0;
+    private int shadowTransformsRecomputed = 0;
 
     public Renderer() {
-        this(new NullGraphicsDevice());
+        this(NullGraphicsDevice.SHARED);
     }
 
     public Renderer(GraphicsDevice graphicsDevice) {
@@ -140,10 +301,16 @@ public class Renderer {
             skinnedShadowShaderProgram = graphicsDevice.createShaderProgram(
                     graphicsDevice.loadShaderSource("resources/shaders/shadow_depth_skinned_vert.glsl"),
                     graphicsDevice.loadShaderSource("resources/shaders/shadow_depth_frag.glsl"));
+            instancedShaderProgram = createOptionalShaderProgram("resources/shaders/vert11_instanced.glsl",
+                    "resources/shaders/frag11.glsl");
+            instancedShadowShaderProgram = createOptionalShaderProgram(
+                    "resources/shaders/shadow_depth_instanced_vert.glsl",
+                    "resources/shaders/shadow_depth_frag.glsl");
             if (shadowMapEnabled) {
                 shadowMap = graphicsDevice.createShadowMap(SHADOW_MAP_SIZE, SHADOW_MAP_SIZE);
             }
             scene.loader.load(scene);
+            scene.applyPendingObjectChanges();
             for (GameObject object : scene.objects) {
                 object.setGraphicsDevice(graphicsDevice);
                 object.generateBuffers();
@@ -158,6 +325,22 @@ public class Renderer {
         }
     }
 
+    /** Builds a program the renderer can do without; returns null so callers fall back to per-object draws. */
+    private ShaderHandle createOptionalShaderProgram(String vertexPath, String fragmentPath) {
+        try {
+            ShaderHandle shader = graphicsDevice.createShaderProgram(
+                    graphicsDevice.loadShaderSource(vertexPath),
+                    graphicsDevice.loadShaderSource(fragmentPath));
+            if (shader.compiled()) {
+                return shader;
+            }
+            shader.cleanup();
+        } catch (RuntimeException e) {
+            System.err.println("NJST Renderer: " + vertexPath + " unavailable: " + e);
+        }
+        return null;
+    }
+
     /**
      * Called every frame to render the scene.
      * This method executes the full rendering pipeline:
@@ -176,60 +359,55 @@ public class Renderer {
             long updateEnd = System.nanoTime();
             scene.uploadSkeletonBuffer(graphicsDevice);
 
-            renderQueue.clear();
-            renderQueue.addAll(scene.objects);
-            if (skybox != null) {
-                renderQueue.remove(skybox);
-            }
             updateLightMatrices();
-            renderShadowPass(renderQueue);
+            renderShadowPass(scene.objects);
+            cameraCuller.setCamera(camera).collectVisible(scene.objects, skybox, renderQueue);
             bindMainCameraData();
 
             graphicsDevice.clearColorAndDepth();
-            shaderProgram.use();
-            shaderProgram.setUniformVector3("eyepos1", camera.cameraPosition);
-            uploadLightUniforms(shaderProgram);
-            terrainShaderProgram.use();
-            terrainShaderProgram.setUniformVector3("eyepos1", camera.cameraPosition);
-            uploadLightUniforms(terrainShaderProgram);
+            resetShaderState();
+            bindMainPassShader(shaderProgram);
+            bindMainPassShader(terrainShaderProgram);
 
             long skyboxNanos = 0L;
             if (skybox != null) {
                 long skyboxStart = System.nanoTime();
                 skybox.setGraphicsDevice(graphicsDevice);
-                shaderProgram.use();
+                bindMainPassShader(shaderProgram);
                 skybox.updateModelMatrix();
                 skybox.render(shaderProgram, textureHandle);
                 skyboxNanos = System.nanoTime() - skyboxStart;
             }
 
             long renderStart = System.nanoTime();
-            renderQueue.sort((first, second) -> Float.compare(
-                    second.position.distanceSquared(camera.cameraPosition),
-                    first.position.distanceSquared(camera.cameraPosition)));
-            int terrainCount = 0;
             boolean shadowsActive = shadowMapEnabled && shadowMap != null;
-            for (GameObject object : renderQueue) {
+            if (instancingEnabled && instancedShaderProgram != null) {
+                mainBatcher.build(renderQueue, shaderProgram);
+                renderInstancedBatches(shadowsActive);
+            } else {
+                mainBatcher.clear();
+            }
+            buildDrawQueue();
+            int terrainCount = 0;
+            for (int i = 0, count = drawQueue.size(); i < count; i++) {
+                GameObject object = drawQueue.getObject(i);
                 object.setGraphicsDevice(graphicsDevice);
                 object.setShadowContext(shadowsActive ? shadowMap.getTextureId() : 0, lightSpaceMatrix, shadowsActive);
-                boolean terrainObject = object instanceof TerrainObject;
-                if (terrainObject) {
+                if (object instanceof TerrainObject) {
                     terrainCount++;
                 }
-                ShaderHandle activeShader = terrainObject ? terrainShaderProgram : shaderProgram;
-                if (object instanceof Weighted_GameObject
-                        && ((Weighted_GameObject) object).getSkinnedShaderProgram() != null) {
-                    activeShader = ((Weighted_GameObject) object).getSkinnedShaderProgram();
-                }
-                activeShader.use();
-                activeShader.setUniformVector3("eyepos1", camera.cameraPosition);
-                uploadLightUniforms(activeShader);
-                object.updateModelMatrix();
+                ShaderHandle activeShader = drawQueue.getShader(i);
+                bindMainPassShader(activeShader);
                 object.render(activeShader, textureHandle);
             }
+            lastDrawCalls = drawQueue.size() + mainBatcher.getBatchCount();
+            drawQueue.clear();
             long renderNanos = System.nanoTime() - renderStart;
             long frameNanos = System.nanoTime() - frameStart;
-            updateProfiler(frameNanos, updateEnd - updateStart, skyboxNanos, renderNanos, renderQueue.size(), terrainCount);
+            updateProfiler(frameNanos, updateEnd - updateStart, skyboxNanos, renderNanos,
+                    renderQueue.size() + mainBatcher.getInstanceCount(), terrainCount,
+                    cameraCuller.getVisibleCount(), cameraCuller.getCulledCount(),
+                    transformsRecomputedThisFrame(), transformsReusedThisFrame());
 
             time += frameNanos;
             if (frame == 200) {
@@ -246,6 +424,56 @@ public class Renderer {
         }
     }
 
+    private void renderInstancedBatches(boolean shadowsActive) {
+        if (mainBatcher.getBatchCount() == 0) {
+            return;
+        }
+        bindMainPassShader(instancedShaderProgram);
+        instancedShaderProgram.setUniformMatrix4fv("uLightSpaceMatrix", lightSpaceMatrix);
+        instancedShaderProgram.setUniformInt("uShadowEnabled", shadowsActive ? 1 : 0);
+        if (shadowsActive) {
+            instancedShaderProgram.activateTexture("uShadowMap", 5, shadowMap.getTextureId());
+        }
+        mainBatcher.draw(graphicsDevice, instancedShaderProgram);
+    }
+
+    private void buildDrawQueue() {
+        drawQueue.clear();
+        Vector3 eye = camera.cameraPosition;
+        for (int i = 0, count = renderQueue.size(); i < count; i++) {
+            GameObject object = renderQueue.get(i);
+            drawQueue.add(object, mainPassShaderFor(object), object.position.distance(eye), camera.far);
+        }
+        drawQueue.sort();
+    }
+
+    private ShaderHandle mainPassShaderFor(GameObject object) {
+        if (object instanceof Weighted_GameObject
+                && ((Weighted_GameObject) object).getSkinnedShaderProgram() != null) {
+            return ((Weighted_GameObject) object).getSkinnedShaderProgram();
+        }
+        return object instanceof TerrainObject ? terrainShaderProgram : shaderProgram;
+    }
+
+    /** Binds {@code shader} if it is not bound yet and uploads the per-frame uniforms once per frame. */
+    private void bindMainPassShader(ShaderHandle shader) {
+        if (shader != boundShader) {
+            shader.use();
+            boundShader = shader;
+        }
+        if (!preparedShaders.contains(shader)) {
+            shader.setUniformVector3("eyepos1", camera.cameraPosition);
+            uploadLightUniforms(shader);
+            preparedShaders.add(shader);
+        }
+    }
+
+    /** Forgets which shader is bound and which hold the main-pass uniforms, e.g. after an off-pass draw. */
+    private void resetShaderState() {
+        boundShader = null;
+        preparedShaders.clear();
+    }
+
     public void renderObjectLikeMainPass(GameObject object) {
         renderObjectWithCameraAndLight(object, camera, new Vector3(0f, 0f, 100f));
     }
@@ -262,6 +490,7 @@ public class Renderer {
         Vector3 activeLight = lightPosition != null ? lightPosition : new Vector3(lightPos[0], lightPos[1], lightPos[2]);
         bindCameraData(activeCamera, activeLight);
         scene.uploadSkeletonBuffer(graphicsDevice);
+        resetShaderState();
         ShaderHandle activeShader = (object instanceof TerrainObject) ? terrainShaderProgram : shaderProgram;
         activeShader.use();
         activeShader.setUniformVector3("eyepos1", activeCamera.cameraPosition);
@@ -281,6 +510,39 @@ public class Renderer {
         return shadowMapEnabled;
     }
 
+    public void setFrustumCullingEnabled(boolean enabled) {
+        cameraCuller.setEnabled(enabled);
+        shadowCuller.setEnabled(enabled);
+    }
+
+    public boolean isFrustumCullingEnabled() {
+        return cameraCuller.isEnabled();
+    }
+
+    /** Draws objects that share geometry and material with one instanced call per group. */
+    public void setInstancingEnabled(boolean enabled) {
+        instancingEnabled = enabled;
+    }
+
+    public boolean isInstancingEnabled() {
+        return instancingEnabled;
+    }
+
+    /** The main-pass batcher; its counts describe the last rendered frame. */
+    public InstanceBatcher getInstanceBatcher() {
+        return mainBatcher;
+    }
+
+    /** Main-pass draw calls issued by the last frame, skybox excluded. */
+    public int getLastDrawCallCount() {
+        return lastDrawCalls;
+    }
+
+    /** The main-pass culler; its counts describe the last rendered frame. */
+    public FrustumCuller getFrustumCuller() {
+        return cameraCuller;
+    }
+
     public void addLight(Light light) {
         if (light != null && lights.size() < MAX_LIGHTS - 1) {
             lights.add(light);
@@ -329,11 +591,19 @@ public class Renderer {
 
     private void uploadLight(ShaderHandle shader, int index, Vector3 position, float red, float green, float blue,
             float intensity, float range) {
-        shader.setUniformVector3("uLightPositions[" + index + "]", position);
+        shader.setUniformVector3(LIGHT_POSITION_UNIFORMS[index], position);
         scratchLightColor.set(red * intensity, green * intensity, blue * intensity);
-        shader.setUniformVector3("uLightColors[" + index + "]", scratchLightColor);
+        shader.setUniformVector3(LIGHT_COLOR_UNIFORMS[index], scratchLightColor);
         scratchLightProperties.set(Math.max(0.001f, range), index == 0 ? 1f : 0f, 0f);
-        shader.setUniformVector3("uLightProperties[" + index + "]", scratchLightProperties);
+        shader.setUniformVector3(LIGHT_PROPERTY_UNIFORMS[index], scratchLightProperties);
+    }
+
+    private static String[] indexedUniformNames(String name, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = name + "[" + i + "]";
+        }
+        return names;
     }
 
     private void bindCameraData(Camera activeCamera, Vector3 activeLight) {
@@ -370,17 +640,27 @@ public class Renderer {
         lightSpaceMatrix = lightProjection.multiply(lightView);
     }
 
-    private void renderShadowPass(ArrayList<GameObject> renderQueue) {
+    private void renderShadowPass(SceneObjectList objects) {
+        shadowTransformsRecomputed = 0;
         if (!shadowMapEnabled || shadowMap == null || shadowShaderProgram == null || skinnedShadowShaderProgram == null) {
             return;
         }
+        shadowCuller.setViewProjection(lightSpaceMatrix.r).collectShadowCasters(objects, skybox, shadowQueue);
+        shadowTransformsRecomputed = shadowCuller.getRecomputedTransforms();
+        if (instancingEnabled && instancedShadowShaderProgram != null) {
+            shadowBatcher.build(shadowQueue, null);
+        } else {
+            shadowBatcher.clear();
+        }
         graphicsDevice.bindShadowMap(shadowMap);
         graphicsDevice.viewport(shadowMap.getWidth(), shadowMap.getHeight());
         graphicsDevice.clearDepth();
-        for (GameObject object : renderQueue) {
-            if (!object.castsShadows) {
-                continue;
-            }
+        if (shadowBatcher.getBatchCount() > 0) {
+            instancedShadowShaderProgram.use();
+            instancedShadowShaderProgram.setUniformMatrix4fv("uLightSpaceMatrix", lightSpaceMatrix);
+            shadowBatcher.draw(graphicsDevice, instancedShadowShaderProgram);
+        }
+        for (GameObject object : shadowQueue) {
             object.setGraphicsDevice(graphicsDevice);
             if (object.vaoIds[0] == 0) {
                 object.generateBuffers();
@@ -398,21 +678,21 @@ public class Renderer {
 
     private void renderStaticShadow(GameObject object) {
         shadowShaderProgram.use();
-        shadowShaderProgram.setUniformMatrix4fv("uMMatrix", object.modelMatrix);
+        shadowShaderProgram.setUniformMatrix4fv("uMMatrix", object.getRenderModelMatrix());
         shadowShaderProgram.setUniformMatrix4fv("uLightSpaceMatrix", lightSpaceMatrix);
         graphicsDevice.bindVertexArray(object.vaoIds[0]);
-        graphicsDevice.drawElementsTriangles(object.geometry.getIndices().length);
+        graphicsDevice.drawElementsTriangles(object.getIndexCount());
         graphicsDevice.bindVertexArray(0);
     }
 
     private void renderSkinnedShadow(Weighted_GameObject object) {
         object.ensureRenderResources();
         skinnedShadowShaderProgram.use();
-        skinnedShadowShaderProgram.setUniformMatrix4fv("uMMatrix", object.modelMatrix);
+        skinnedShadowShaderProgram.setUniformMatrix4fv("uMMatrix", object.getRenderModelMatrix());
         skinnedShadowShaderProgram.setUniformMatrix4fv("uLightSpaceMatrix", lightSpaceMatrix);
         skinnedShadowShaderProgram.setUniformInt("boneStartIndex", object.boneBufferStartIndex);
         graphicsDevice.bindVertexArray(object.vaoIds[0]);
-        graphicsDevice.drawElementsTriangles(object.geo.getIndices().length);
+        graphicsDevice.drawElementsTriangles(object.getIndexCount());
         graphicsDevice.bindVertexArray(0);
     }
 
@@ -478,14 +758,37 @@ public class Renderer {
         }
     }
 
+    private CollisionStats collisionStats() {
+        if (scene == null || scene.getCollisionWorld() == null) {
+            return null;
+        }
+        return scene.getCollisionWorld().getStats();
+    }
+
+    // The shadow pass culls first and rebuilds moved casters; the camera pass then finds those
+    // current, so both cullers' rebuilds count and the camera pass's remaining objects were reused.
+    private int transformsRecomputedThisFrame() {
+        return shadowTransformsRecomputed + cameraCuller.getRecomputedTransforms();
+    }
+
+    private int transformsReusedThisFrame() {
+        int visited = cameraCuller.getRecomputedTransforms() + cameraCuller.getReusedTransforms();
+        return Math.max(0, visited - transformsRecomputedThisFrame());
+    }
+
     private synchronized void updateProfiler(long frameNanos, long updateNanos, long skyboxNanos,
-            long renderNanos, int objectCount, int terrainCount) {
+            long renderNanos, int objectCount, int terrainCount, int visibleCount, int culledCount,
+            int transformsRecomputed, int transformsReused) {
         profilerFrameNanos += frameNanos;
         profilerUpdateNanos += updateNanos;
         profilerSkyboxNanos += skyboxNanos;
         profilerRenderNanos += renderNanos;
         profilerObjects += objectCount;
         profilerTerrainObjects += terrainCount;
+        profilerVisibleObjects += visibleCount;
+        profilerCulledObjects += culledCount;
+        profilerTransformsRecomputed += transformsRecomputed;
+        profilerTransformsReused += transformsReused;
         profilerFrames++;
 
         long now = System.currentTimeMillis();
@@ -494,14 +797,19 @@ public class Renderer {
         }
 
         float divisor = 1_000_000f * profilerFrames;
-        profilerSnapshot = new ProfilerSnapshot(
-                profilerFrameNanos / divisor,
-                profilerUpdateNanos / divisor,
-                profilerSkyboxNanos / divisor,
-                profilerRenderNanos / divisor,
-                profilerBoneNanos / divisor,
-                Math.round(profilerObjects / (float) profilerFrames),
-                Math.round(profilerTerrainObjects / (float) profilerFrames));
+        float frames = profilerFrames;
+        profilerSnapshot = ProfilerSnapshot.builder()
+                .timings(profilerFrameNanos / divisor,
+                        profilerUpdateNanos / divisor,
+                        profilerSkyboxNanos / divisor,
+                        profilerRenderNanos / divisor,
+                        profilerBoneNanos / divisor)
+                .objects(Math.round(profilerObjects / frames), Math.round(profilerTerrainObjects / frames))
+                .culling(Math.round(profilerVisibleObjects / frames), Math.round(profilerCulledObjects / frames))
+                .transforms(Math.round(profilerTransformsRecomputed / frames),
+                        Math.round(profilerTransformsReused / frames))
+                .collisionStats(collisionStats())
+                .build();
 
         profilerWindowStartMillis = now;
         profilerFrameNanos = 0L;
@@ -511,6 +819,10 @@ public class Renderer {
         profilerBoneNanos = 0L;
         profilerObjects = 0;
         profilerTerrainObjects = 0;
+        profilerVisibleObjects = 0;
+        profilerCulledObjects = 0;
+        profilerTransformsRecomputed = 0;
+        profilerTransformsReused = 0;
         profilerFrames = 0;
     }
 }
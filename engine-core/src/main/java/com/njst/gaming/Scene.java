@@ -3,6 +3,7 @@ package com.njst.gaming;
 import com.njst.gaming.Animations.Animation;
 import com.njst.gaming.Animations.KeyframeAnimation;
 import com.njst.gaming.Animations.ParallelKeyframeAnimator;
+import com.njst.gaming.Animations.SkeletonPose;
 import com.njst.gaming.Math.Tetrahedron;
 import com.njst.gaming.Math.Vector3;
 import com.njst.gaming.Physics.*;
@@ -31,7 +32,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * processes input, and tracks the physics state.
  */
 public class Scene {
-    public CopyOnWriteArrayList<GameObject> objects;
+    public final SceneObjectList objects;
     public CopyOnWriteArrayList<Animation> animations;
     public Tetrahedron temp = new Tetrahedron();
     public HashMap<String, Map<String, KeyframeAnimation>> animation_groups;
@@ -53,9 +54,15 @@ public class Scene {
     public String dat = "";
     public float speed = 1;
     PhysicsEngine physics;
+    private final RigidBodySystem rigidBodies = new RigidBodySystem();
     private CollisionWorld collisionWorld;
     private long lastCollisionUpdateNanos;
     private long lastFrameUpdateNanos;
+    private float fixedStepSeconds;
+    private int maxSubsteps = DEFAULT_MAX_SUBSTEPS;
+    private float stepAccumulator;
+    private float interpolationAlpha = 1f;
+    private int substepsLastFrame;
     RootLogger log;
     public float[][] heightMap;
     private OpenWorldTerrainManager openWorldTerrainManager;
@@ -68,8 +75,10 @@ public class Scene {
     public boolean camera_should_move_up = false;
     private final BoneSsboManager boneSsboManager = new BoneSsboManager();
 
+    public static final int DEFAULT_MAX_SUBSTEPS = 5;
+
     public Scene() {
-        objects = new CopyOnWriteArrayList<>();
+        objects = new SceneObjectList();
         animation_groups = new HashMap<>();
         animations = new CopyOnWriteArrayList<>();
         MOTION_ANIMATIONS = new ArrayList<>();
@@ -98,6 +107,57 @@ public class Scene {
         return collisionWorld;
     }
 
+    /** Dynamic bodies stepped against the collision world's contacts each frame; empty by default. */
+    public RigidBodySystem getRigidBodies() {
+        return rigidBodies;
+    }
+
+    /**
+     * Runs animations, rigid bodies and collision in steps of exactly {@code stepSeconds}, up to
+     * {@code maxSubsteps} per frame. Time beyond that is dropped so a slow frame cannot snowball.
+     * Objects are drawn between their last two simulated positions.
+     */
+    public void setFixedTimestep(float stepSeconds, int maxSubsteps) {
+        if (stepSeconds <= 0f) {
+            throw new IllegalArgumentException("stepSeconds must be positive.");
+        }
+        if (maxSubsteps < 1) {
+            throw new IllegalArgumentException("maxSubsteps must be at least 1.");
+        }
+        this.fixedStepSeconds = stepSeconds;
+        this.maxSubsteps = maxSubsteps;
+        this.stepAccumulator = 0f;
+    }
+
+    /** Returns to one simulation update per frame using the measured frame time. This is the default. */
+    public void setVariableTimestep() {
+        fixedStepSeconds = 0f;
+        stepAccumulator = 0f;
+        lastCollisionUpdateNanos = 0L;
+        setInterpolationAlpha(1f);
+    }
+
+    public boolean isFixedTimestep() {
+        return fixedStepSeconds > 0f;
+    }
+
+    public float getFixedStepSeconds() {
+        return fixedStepSeconds;
+    }
+
+    public int getMaxSubsteps() {
+        return maxSubsteps;
+    }
+
+    /** Fraction of a fixed step between the last simulated state and the frame being drawn. */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    public int getSubstepsLastFrame() {
+        return substepsLastFrame;
+    }
+
     public void setCollisionWorld(CollisionWorld collisionWorld) {
         if (collisionWorld != null) {
             this.collisionWorld = collisionWorld;
@@ -107,19 +167,63 @@ public class Scene {
     /**
      * Advances the scene state by one frame.
      * Triggers animation updates, open world terrain streaming, camera movement,
-     * and advances the collision/physics world simulation step.
+     * and advances the collision/physics world simulation step. Queued object adds and removes
+     * are applied at the end, before the frame is rendered.
      */
     public void onDrawFrame() {
-        float animationDeltaSeconds = computeFrameDeltaSeconds() * speed;
+        float frameDeltaSeconds = computeFrameDeltaSeconds();
         if (openWorldTerrainManager != null && renderer != null && renderer.camera != null) {
             openWorldTerrainManager.update(renderer.camera.cameraPosition);
         }
         if (renderer != null && renderer.camera != null) {
             updateCameraMovement();
         }
-        animateSceneAnimations(animationDeltaSeconds);
+        if (fixedStepSeconds > 0f) {
+            runFixedSteps(frameDeltaSeconds);
+        } else {
+            animateSceneAnimations(frameDeltaSeconds * speed);
+            simulatePhysics(computeCollisionDeltaSeconds());
+            substepsLastFrame = 1;
+        }
+        applyPendingObjectChanges();
+    }
+
+    private void runFixedSteps(float frameDeltaSeconds) {
+        stepAccumulator += frameDeltaSeconds;
+        int steps = 0;
+        while (stepAccumulator >= fixedStepSeconds && steps < maxSubsteps) {
+            for (int i = 0; i < objects.size(); i++) {
+                GameObject object = objects.get(i);
+                if (object.interpolateFixedSteps) {
+                    object.capturePreviousPosition();
+                }
+            }
+            animateSceneAnimations(fixedStepSeconds * speed);
+            simulatePhysics(fixedStepSeconds);
+            stepAccumulator -= fixedStepSeconds;
+            steps++;
+        }
+        if (stepAccumulator >= fixedStepSeconds) {
+            // Out of substeps: drop the backlog instead of carrying it into the next frame.
+            stepAccumulator %= fixedStepSeconds;
+        }
+        substepsLastFrame = steps;
+        setInterpolationAlpha(stepAccumulator / fixedStepSeconds);
+    }
+
+    private void simulatePhysics(float deltaSeconds) {
+        if (rigidBodies.getBodyCount() > 0) {
+            rigidBodies.step(deltaSeconds, collisionWorld);
+        }
         if (collisionWorld != null) {
-            collisionWorld.update(computeCollisionDeltaSeconds());
+            collisionWorld.update(deltaSeconds);
+        }
+    }
+
+    private void setInterpolationAlpha(float alpha) {
+        interpolationAlpha = alpha;
+        for (int i = 0; i < objects.size(); i++) {
+            objects.get(i).setRenderInterpolation(alpha);
         }
     }
 
@@ -239,28 +343,27 @@ public class Scene {
     }
 
     /**
-     * Adds a GameObject to the scene. The object is inserted based on its collision bounds
-     * to maintain spatial ordering for optimized rendering or culling.
+     * Queues a GameObject to join the scene. It shows up in {@link #objects} at the next
+     * {@link #applyPendingObjectChanges()}, which runs at the end of {@link #onDrawFrame()}.
+     * Safe to call from any thread and from inside the frame.
      * @param r the GameObject to add
      */
     public void addGameObject(GameObject r) {
-        if (objects.size() != 0) {
-            int i = 0;
-            for (GameObject gameobject : objects) {
-                if (r.collisionBounds[0] < gameobject.collisionBounds[0]) {
-                    objects.add(i, r);
-                    return;
-                }
-                i++;
-            }
-        }
-        objects.add(r);
+        objects.queueAdd(r);
     }
 
     public int registerSkeleton(List<Bone> bones) {
         return boneSsboManager.registerSkeleton(bones);
     }
 
+    public int registerSkeletonPose(SkeletonPose pose) {
+        return boneSsboManager.registerSkeletonPose(pose);
+    }
+
+    public void setSkeletonPalette(int startIndex, float[] matrices) {
+        boneSsboManager.setSkeletonPalette(startIndex, matrices);
+    }
+
     public int reserveSkeleton(int boneCount) {
         return boneSsboManager.reserveSkeleton(boneCount);
     }
@@ -273,8 +376,17 @@ public class Scene {
         boneSsboManager.setExternalSkeletonBufferActive(externalSkeletonBufferActive);
     }
 
+    /** Queues a GameObject to leave the scene at the next sync point; see {@link #addGameObject}. */
     public boolean removeGameObject(GameObject obj) {
-        return objects.remove(obj);
+        return objects.queueRemove(obj);
+    }
+
+    /**
+     * Applies queued adds and removes to {@link #objects}. The frame loop calls this once per frame after
+     * simulation and before rendering; loaders that read {@code objects} right after adding can call it too.
+     */
+    public int applyPendingObjectChanges() {
+        return objects.applyPending();
     }
 
     public void addTetra() {
@@ -0,0 +1,122 @@
+package com.njst.gaming;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.RandomAccess;
+
+import com.njst.gaming.objects.GameObject;
+
+/**
+ * The scene's object container. Reads see a plain array that only changes at {@link #applyPending()},
+ * so iterating it during a frame is stable. Adds and removes from any thread are queued in order and
+ * applied together: adds append, and removes are compacted out in one pass that keeps the order of
+ * the remaining objects. Read it from the thread that applies the changes.
+ */
+public final class SceneObjectList extends AbstractList<GameObject> implements RandomAccess {
+    private final Object lock = new Object();
+    private GameObject[] items = new GameObject[64];
+    private int size;
+    private final IdentityHashMap<GameObject, Boolean> members = new IdentityHashMap<GameObject, Boolean>();
+    private final IdentityHashMap<GameObject, Boolean> removed = new IdentityHashMap<GameObject, Boolean>();
+    private final ArrayList<GameObject> queuedObjects = new ArrayList<GameObject>();
+    private final ArrayList<Boolean> queuedAdds = new ArrayList<Boolean>();
+
+    @Override
+    public GameObject get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " size " + size);
+        }
+        return items[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Queues {@code object} to be appended at the next {@link #applyPending()}; objects already present are skipped. */
+    public void queueAdd(GameObject object) {
+        if (object == null) {
+            return;
+        }
+        synchronized (lock) {
+            queuedObjects.add(object);
+            queuedAdds.add(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Queues {@code object} for removal at the next {@link #applyPending()}.
+     * Returns true when the object is in the list or queued to be added.
+     */
+    public boolean queueRemove(GameObject object) {
+        if (object == null) {
+            return false;
+        }
+        synchronized (lock) {
+            boolean known = members.containsKey(object) || queuedObjects.contains(object);
+            queuedObjects.add(object);
+            queuedAdds.add(Boolean.FALSE);
+            return known;
+        }
+    }
+
+    public boolean hasPending() {
+        synchronized (lock) {
+            return !queuedObjects.isEmpty();
+        }
+    }
+
+    /** Applies every queued change in the order it was made and returns how many were queued. */
+    public int applyPending() {
+        synchronized (lock) {
+            int count = queuedObjects.size();
+            if (count == 0) {
+                return 0;
+            }
+            for (int i = 0; i < count; i++) {
+                GameObject object = queuedObjects.get(i);
+                if (queuedAdds.get(i)) {
+                    if (members.put(object, Boolean.TRUE) != null) {
+                        continue;
+                    }
+                    // An object removed earlier in this batch still has its slot; keep it there.
+                    if (removed.remove(object) == null) {
+                        append(object);
+                    }
+                } else if (members.remove(object) != null) {
+                    removed.put(object, Boolean.TRUE);
+                }
+            }
+            if (!removed.isEmpty()) {
+                compact();
+            }
+            queuedObjects.clear();
+            queuedAdds.clear();
+            modCount++;
+            return count;
+        }
+    }
+
+    private void append(GameObject object) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = object;
+    }
+
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            GameObject object = items[i];
+            if (!removed.containsKey(object)) {
+                items[kept++] = object;
+            }
+        }
+        Arrays.fill(items, kept, size, null);
+        size = kept;
+        removed.clear();
+    }
+}
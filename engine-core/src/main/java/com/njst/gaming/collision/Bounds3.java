@@ -19,6 +19,30 @@ public class Bounds3 {
         return new Vector3(max);
     }
 
+    public float getMinX() {
+        return min.x;
+    }
+
+    public float getMinY() {
+        return min.y;
+    }
+
+    public float getMinZ() {
+        return min.z;
+    }
+
+    public float getMaxX() {
+        return max.x;
+    }
+
+    public float getMaxY() {
+        return max.y;
+    }
+
+    public float getMaxZ() {
+        return max.z;
+    }
+
     public Vector3 getCenter() {
         return new Vector3(
                 (min.x + max.x) * 0.5f,
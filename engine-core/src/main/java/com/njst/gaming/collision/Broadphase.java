@@ -4,4 +4,12 @@ import java.util.List;
 
 public interface Broadphase {
     List<CollisionPair> computePairs(List<Collider> colliders);
+
+    /**
+     * Like {@link #computePairs(List)}, but pairs where both colliders are flagged in {@code sleeping}
+     * (indexed like {@code colliders}) may be left out. A null array means every collider is awake.
+     */
+    default List<CollisionPair> computePairs(List<Collider> colliders, boolean[] sleeping) {
+        return computePairs(colliders);
+    }
 }
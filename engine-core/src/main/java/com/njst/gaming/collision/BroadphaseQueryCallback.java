@@ -0,0 +1,9 @@
+package com.njst.gaming.collision;
+
+public interface BroadphaseQueryCallback {
+    /**
+     * Called for each collider whose broadphase bounds may overlap the queried box.
+     * Returns false to stop the query.
+     */
+    boolean onCandidate(Collider collider);
+}
@@ -0,0 +1,9 @@
+package com.njst.gaming.collision;
+
+public interface BroadphaseRaycastCallback {
+    /**
+     * Called for each collider whose broadphase bounds the ray may cross.
+     * Returns the distance to clip the ray at, 0 to stop, or {@code maxDistance} to continue unchanged.
+     */
+    float onCandidate(Collider collider, float maxDistance);
+}
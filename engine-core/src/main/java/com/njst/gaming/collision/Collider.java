@@ -15,6 +15,31 @@ public interface Collider {
 
     boolean isStatic();
 
+    /**
+     * Fast colliders are swept from their previous-step bounds by {@link DefaultCollisionWorld},
+     * so thin colliders they pass through within one step still produce an ENTER event.
+     */
+    default boolean isFast() {
+        return false;
+    }
+
+    /**
+     * Brings any cached world transform up to date. {@link DefaultCollisionWorld} calls this for
+     * every collider on the stepping thread before the broadphase, so the narrowphase, which may
+     * run on worker threads, only reads.
+     */
+    default void refreshTransform() {
+    }
+
+    /**
+     * Counter that changes whenever the world bounds may have changed, read after
+     * {@link #refreshTransform()}. Queries refit a collider in the broadphase when its version
+     * differs from the last one seen; colliders that return a negative value are refit every time.
+     */
+    default long getTransformVersion() {
+        return -1L;
+    }
+
     default boolean canCollideWith(Collider other) {
         if (other == null || other == this) {
             return false;
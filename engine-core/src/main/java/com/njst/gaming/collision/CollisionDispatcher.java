@@ -19,11 +19,32 @@ public class CollisionDispatcher {
     }
 
     public CollisionManifold test(Collider first, Collider second) {
-        for (CollisionAlgorithm algorithm : algorithms) {
-            if (algorithm.supports(first.getShape(), second.getShape())) {
-                return algorithm.test(first, second);
+        return test(findAlgorithm(first.getShape(), second.getShape()), first, second);
+    }
+
+    /** Runs the algorithm at {@code algorithmIndex}; an index of -1 means no algorithm supports the pair. */
+    public CollisionManifold test(int algorithmIndex, Collider first, Collider second) {
+        if (algorithmIndex < 0) {
+            return CollisionManifold.none();
+        }
+        return algorithms.get(algorithmIndex).test(first, second);
+    }
+
+    /** Returns the index of the first registered algorithm that supports both shapes, or -1. */
+    public int findAlgorithm(CollisionShape first, CollisionShape second) {
+        for (int i = 0; i < algorithms.size(); i++) {
+            if (algorithms.get(i).supports(first, second)) {
+                return i;
             }
         }
-        return CollisionManifold.none();
+        return -1;
+    }
+
+    public int getAlgorithmCount() {
+        return algorithms.size();
+    }
+
+    public CollisionAlgorithm getAlgorithm(int index) {
+        return algorithms.get(index);
     }
 }
@@ -5,12 +5,19 @@ public class CollisionEvent {
     private final Collider first;
     private final Collider second;
     private final CollisionManifold manifold;
+    private final float timeOfImpact;
 
     public CollisionEvent(CollisionEventType type, Collider first, Collider second, CollisionManifold manifold) {
+        this(type, first, second, manifold, 1f);
+    }
+
+    public CollisionEvent(CollisionEventType type, Collider first, Collider second, CollisionManifold manifold,
+            float timeOfImpact) {
         this.type = type;
         this.first = first;
         this.second = second;
         this.manifold = manifold;
+        this.timeOfImpact = timeOfImpact;
     }
 
     public CollisionEventType getType() {
@@ -28,4 +35,12 @@ public class CollisionEvent {
     public CollisionManifold getManifold() {
         return manifold;
     }
+
+    /**
+     * Fraction of the step at which a swept contact began. Contacts found at the end of the
+     * step report 1.
+     */
+    public float getTimeOfImpact() {
+        return timeOfImpact;
+    }
 }
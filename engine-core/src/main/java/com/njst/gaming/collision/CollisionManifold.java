@@ -37,4 +37,28 @@ public class CollisionManifold {
     public Vector3 getContactPoint() {
         return new Vector3(contactPoint);
     }
+
+    public float getNormalX() {
+        return normal.x;
+    }
+
+    public float getNormalY() {
+        return normal.y;
+    }
+
+    public float getNormalZ() {
+        return normal.z;
+    }
+
+    public float getContactPointX() {
+        return contactPoint.x;
+    }
+
+    public float getContactPointY() {
+        return contactPoint.y;
+    }
+
+    public float getContactPointZ() {
+        return contactPoint.z;
+    }
 }
@@ -0,0 +1,73 @@
+package com.njst.gaming.collision;
+
+final class CollisionMath {
+    private static final float PARALLEL_EPSILON = 0.000001f;
+
+    private CollisionMath() {
+    }
+
+    /**
+     * Slab test against a box stored as min xyz, max xyz starting at {@code offset}.
+     * Returns the entry distance along the ray, or -1 when the ray misses within {@code maxDistance}.
+     */
+    static float intersectRayAabb(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float[] box, int offset, float maxDistance) {
+        return intersectRayAabb(originX, originY, originZ, directionX, directionY, directionZ,
+                box[offset], box[offset + 1], box[offset + 2],
+                box[offset + 3], box[offset + 4], box[offset + 5], maxDistance);
+    }
+
+    static float intersectRayAabb(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            Bounds3 bounds, float maxDistance) {
+        return intersectRayAabb(originX, originY, originZ, directionX, directionY, directionZ,
+                bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(),
+                bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ(), maxDistance);
+    }
+
+    static float intersectRayAabb(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            float maxDistance) {
+        float tMin = 0f;
+        float tMax = maxDistance;
+
+        tMin = updateRayInterval(originX, directionX, minX, maxX, tMin, tMax, true);
+        tMax = updateRayInterval(originX, directionX, minX, maxX, tMin, tMax, false);
+        if (tMin > tMax) {
+            return -1f;
+        }
+
+        tMin = updateRayInterval(originY, directionY, minY, maxY, tMin, tMax, true);
+        tMax = updateRayInterval(originY, directionY, minY, maxY, tMin, tMax, false);
+        if (tMin > tMax) {
+            return -1f;
+        }
+
+        tMin = updateRayInterval(originZ, directionZ, minZ, maxZ, tMin, tMax, true);
+        tMax = updateRayInterval(originZ, directionZ, minZ, maxZ, tMin, tMax, false);
+        if (tMin > tMax) {
+            return -1f;
+        }
+
+        return tMin;
+    }
+
+    private static float updateRayInterval(float origin, float direction, float min, float max, float tMin,
+            float tMax, boolean lowerBound) {
+        if (Math.abs(direction) < PARALLEL_EPSILON) {
+            if (origin < min || origin > max) {
+                return lowerBound ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+            }
+            return lowerBound ? tMin : tMax;
+        }
+
+        float invDirection = 1f / direction;
+        float t1 = (min - origin) * invDirection;
+        float t2 = (max - origin) * invDirection;
+        float near = Math.min(t1, t2);
+        float far = Math.max(t1, t2);
+        return lowerBound ? Math.max(tMin, near) : Math.min(tMax, far);
+    }
+}
@@ -0,0 +1,143 @@
+package com.njst.gaming.collision;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of collider pairs keyed by a packed pair of collider handles.
+ * Each entry keeps the two colliders it was recorded with, and entries are iterated in
+ * insertion order. Clearing only touches occupied slots, so a table that is cleared and
+ * refilled every step stops allocating once it has reached its working size.
+ */
+public class CollisionPairTable {
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] slotOrder;
+    private Collider[] firsts;
+    private Collider[] seconds;
+    private CollisionManifold[] manifolds;
+    private int mask;
+    private int size;
+
+    public CollisionPairTable() {
+        this(64);
+    }
+
+    public CollisionPairTable(int expectedPairs) {
+        allocate(tableCapacityFor(Math.max(4, expectedPairs)));
+    }
+
+    /** Packs two non-negative collider handles into an order-independent key. */
+    public static long pairKey(int firstHandle, int secondHandle) {
+        int low = Math.min(firstHandle, secondHandle);
+        int high = Math.max(firstHandle, secondHandle);
+        return ((long) low << 32) | (high & 0xffffffffL);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long key) {
+        return findSlot(key) >= 0;
+    }
+
+    /** Records the pair and returns true, or returns false when the key was already present. */
+    public boolean add(long key, Collider first, Collider second) {
+        return add(key, first, second, null);
+    }
+
+    /** Records the pair together with the manifold it was found with. */
+    public boolean add(long key, Collider first, Collider second, CollisionManifold manifold) {
+        if ((size + 1) * 2 > keys.length) {
+            allocate(keys.length * 2);
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        firsts[slot] = first;
+        seconds[slot] = second;
+        manifolds[slot] = manifold;
+        slotOrder[size++] = slot;
+        return true;
+    }
+
+    public long keyAt(int index) {
+        return keys[slotOrder[index]];
+    }
+
+    public Collider firstAt(int index) {
+        return firsts[slotOrder[index]];
+    }
+
+    public Collider secondAt(int index) {
+        return seconds[slotOrder[index]];
+    }
+
+    public CollisionManifold manifoldAt(int index) {
+        return manifolds[slotOrder[index]];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            int slot = slotOrder[i];
+            keys[slot] = EMPTY;
+            firsts[slot] = null;
+            seconds[slot] = null;
+            manifolds[slot] = null;
+        }
+        size = 0;
+    }
+
+    private int findSlot(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldOrder = slotOrder;
+        Collider[] oldFirsts = firsts;
+        Collider[] oldSeconds = seconds;
+        CollisionManifold[] oldManifolds = manifolds;
+        int oldSize = size;
+
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        slotOrder = new int[capacity / 2 + 1];
+        firsts = new Collider[capacity];
+        seconds = new Collider[capacity];
+        manifolds = new CollisionManifold[capacity];
+        mask = capacity - 1;
+        size = 0;
+
+        for (int i = 0; i < oldSize; i++) {
+            int slot = oldOrder[i];
+            add(oldKeys[slot], oldFirsts[slot], oldSeconds[slot], oldManifolds[slot]);
+        }
+    }
+
+    private static int tableCapacityFor(int expectedPairs) {
+        int capacity = 1;
+        while (capacity < expectedPairs * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
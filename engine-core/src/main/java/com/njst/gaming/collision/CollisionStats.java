@@ -0,0 +1,200 @@
+package com.njst.gaming.collision;
+
+import java.util.Arrays;
+
+/**
+ * Per-step counters for a {@link CollisionWorld}, with an average and a maximum over the last
+ * {@link #getWindow()} steps. Metrics are addressed by the int constants below.
+ * Written by the thread that calls {@link CollisionWorld#update}; read it from the same thread.
+ */
+public final class CollisionStats {
+    public static final int DEFAULT_WINDOW = 60;
+
+    public static final int COLLIDERS = 0;
+    public static final int CANDIDATE_PAIRS = 1;
+    public static final int NARROWPHASE_TESTS = 2;
+    public static final int CONTACTS = 3;
+    public static final int EVENTS = 4;
+    public static final int BROADPHASE_NANOS = 5;
+    public static final int NARROWPHASE_NANOS = 6;
+    public static final int LISTENER_NANOS = 7;
+    public static final int STEP_NANOS = 8;
+    public static final int METRIC_COUNT = 9;
+
+    private static final String[] METRIC_NAMES = {
+            "colliders", "candidatePairs", "narrowphaseTests", "contacts", "events",
+            "broadphaseNanos", "narrowphaseNanos", "listenerNanos", "stepNanos"
+    };
+
+    private final int window;
+    private final long[] history;
+    private final long[] sums = new long[METRIC_COUNT];
+    private final long[] last = new long[METRIC_COUNT];
+    private final long[] pending = new long[METRIC_COUNT];
+    private int filled;
+    private int cursor;
+    private long stepCount;
+    private CollisionAlgorithm[] algorithms = new CollisionAlgorithm[0];
+    private String[] algorithmNames = new String[0];
+    private long[] lastAlgorithmTests = new long[0];
+    private long[] pendingAlgorithmTests = new long[0];
+    private long[] algorithmHistory = new long[0];
+    private long[] algorithmSums = new long[0];
+    private int algorithmFilled;
+
+    public CollisionStats() {
+        this(DEFAULT_WINDOW);
+    }
+
+    public CollisionStats(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1.");
+        }
+        this.window = window;
+        this.history = new long[window * METRIC_COUNT];
+    }
+
+    public static String metricName(int metric) {
+        return METRIC_NAMES[metric];
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    /** Value recorded by the most recent step. */
+    public long getLast(int metric) {
+        return last[metric];
+    }
+
+    /** Mean over the steps currently in the window, or 0 before the first step. */
+    public double getAverage(int metric) {
+        return filled == 0 ? 0.0 : sums[metric] / (double) filled;
+    }
+
+    public long getMax(int metric) {
+        long max = 0L;
+        for (int i = 0; i < filled; i++) {
+            max = Math.max(max, history[(i * METRIC_COUNT) + metric]);
+        }
+        return max;
+    }
+
+    public int getAlgorithmCount() {
+        return algorithmNames.length;
+    }
+
+    public String getAlgorithmName(int algorithm) {
+        return algorithmNames[algorithm];
+    }
+
+    /** Narrowphase tests run by one dispatcher algorithm during the most recent step. */
+    public long getLastAlgorithmTests(int algorithm) {
+        return lastAlgorithmTests[algorithm];
+    }
+
+    /**
+     * Mean tests per step for one dispatcher algorithm over the window, or 0 before the first step.
+     * The window restarts when the dispatcher's algorithm count changes.
+     */
+    public double getAverageAlgorithmTests(int algorithm) {
+        return algorithmFilled == 0 ? 0.0 : algorithmSums[algorithm] / (double) algorithmFilled;
+    }
+
+    public long getMaxAlgorithmTests(int algorithm) {
+        int algorithmCount = algorithmSums.length;
+        long max = 0L;
+        for (int i = 0; i < window; i++) {
+            max = Math.max(max, algorithmHistory[(i * algorithmCount) + algorithm]);
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(history, 0L);
+        Arrays.fill(sums, 0L);
+        Arrays.fill(last, 0L);
+        Arrays.fill(pending, 0L);
+        Arrays.fill(lastAlgorithmTests, 0L);
+        Arrays.fill(pendingAlgorithmTests, 0L);
+        Arrays.fill(algorithmHistory, 0L);
+        Arrays.fill(algorithmSums, 0L);
+        filled = 0;
+        algorithmFilled = 0;
+        cursor = 0;
+        stepCount = 0L;
+    }
+
+    void beginStep(CollisionDispatcher dispatcher) {
+        Arrays.fill(pending, 0L);
+        int algorithmCount = dispatcher.getAlgorithmCount();
+        if (algorithms.length != algorithmCount) {
+            algorithms = new CollisionAlgorithm[algorithmCount];
+            algorithmNames = new String[algorithmCount];
+            lastAlgorithmTests = new long[algorithmCount];
+            pendingAlgorithmTests = new long[algorithmCount];
+            algorithmHistory = new long[window * algorithmCount];
+            algorithmSums = new long[algorithmCount];
+            algorithmFilled = 0;
+        }
+        for (int i = 0; i < algorithmCount; i++) {
+            CollisionAlgorithm algorithm = dispatcher.getAlgorithm(i);
+            if (algorithms[i] != algorithm) {
+                algorithms[i] = algorithm;
+                algorithmNames[i] = algorithm.getClass().getSimpleName();
+            }
+        }
+        Arrays.fill(pendingAlgorithmTests, 0L);
+    }
+
+    void set(int metric, long value) {
+        pending[metric] = value;
+    }
+
+    void add(int metric, long value) {
+        pending[metric] += value;
+    }
+
+    void countTest(int algorithm) {
+        pending[NARROWPHASE_TESTS]++;
+        if (algorithm >= 0) {
+            pendingAlgorithmTests[algorithm]++;
+        }
+    }
+
+    void endStep() {
+        int offset = cursor * METRIC_COUNT;
+        for (int metric = 0; metric < METRIC_COUNT; metric++) {
+            long value = pending[metric];
+            if (filled == window) {
+                sums[metric] -= history[offset + metric];
+            }
+            history[offset + metric] = value;
+            sums[metric] += value;
+            last[metric] = value;
+        }
+        int algorithmCount = pendingAlgorithmTests.length;
+        int algorithmOffset = cursor * algorithmCount;
+        for (int algorithm = 0; algorithm < algorithmCount; algorithm++) {
+            long value = pendingAlgorithmTests[algorithm];
+            if (algorithmFilled == window) {
+                algorithmSums[algorithm] -= algorithmHistory[algorithmOffset + algorithm];
+            }
+            algorithmHistory[algorithmOffset + algorithm] = value;
+            algorithmSums[algorithm] += value;
+            lastAlgorithmTests[algorithm] = value;
+        }
+        cursor = (cursor + 1) % window;
+        if (filled < window) {
+            filled++;
+        }
+        if (algorithmFilled < window) {
+            algorithmFilled++;
+        }
+        stepCount++;
+    }
+}
@@ -2,7 +2,14 @@ package com.njst.gaming.collision;
 
 import java.util.List;
 
+/**
+ * Batched queries write into caller-provided arrays and return how many entries they wrote.
+ * A collider matches a query when {@code (collider.getLayer() & layerMask) != 0}; pass -1 for every layer.
+ */
 public interface CollisionWorld {
+    /** Floats per ray in {@link #raycastBatch}: origin x, y, z then direction x, y, z. */
+    int RAY_STRIDE = 6;
+
     void addCollider(Collider collider);
 
     void removeCollider(Collider collider);
@@ -20,4 +27,43 @@ public interface CollisionWorld {
     void removeListener(CollisionListener listener);
 
     RaycastHit raycast(Ray ray, float maxDistance);
+
+    /** Counters and timings for recent {@link #update} calls. */
+    CollisionStats getStats();
+
+    /**
+     * Casts {@code rayCount} rays packed {@link #RAY_STRIDE} floats apart in {@code rays}. The closest hit of
+     * ray i goes to {@code hitColliders[i]} and {@code hitDistances[i]}; a miss writes null and -1.
+     * Returns the number of rays that hit something.
+     */
+    int raycastBatch(float[] rays, int rayCount, float maxDistance, int layerMask,
+            Collider[] hitColliders, float[] hitDistances);
+
+    /** Writes the colliders hit by the ray nearest first, keeping only as many as the arrays hold. */
+    int raycastAll(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, int layerMask, Collider[] hitColliders, float[] hitDistances);
+
+    /** Writes colliders whose bounds overlap the box, in no particular order, until {@code results} is full. */
+    int overlapAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            int layerMask, Collider[] results);
+
+    /** Writes colliders whose bounds overlap the sphere, in no particular order, until {@code results} is full. */
+    int overlapSphere(float centerX, float centerY, float centerZ, float radius,
+            int layerMask, Collider[] results);
+
+    /**
+     * Sweeps the box along {@code motion} and writes the colliders it touches in order of time of impact,
+     * keeping only as many as the arrays hold. Times are fractions of the motion in [0, 1].
+     */
+    int sweepAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            float motionX, float motionY, float motionZ,
+            int layerMask, Collider[] hitColliders, float[] hitTimes);
+
+    /**
+     * Queries read collider transforms once, at the first query after each {@link #update}. Call this
+     * after moving colliders between two queries of the same frame so the next query reads them again.
+     */
+    default void invalidateQueryBounds() {
+    }
 }
@@ -0,0 +1,381 @@
+package com.njst.gaming.collision;
+
+import java.util.List;
+
+import com.njst.gaming.Math.Vector3;
+
+/**
+ * Query state owned by {@link DefaultCollisionWorld}. Every query object is preallocated and reused,
+ * so queries allocate nothing and must not run concurrently on the same world.
+ * Candidates come from the broadphase when it is queryable and up to date, otherwise from a scan of
+ * every collider; either way the exact test runs against the collider's current world bounds.
+ */
+final class CollisionWorldQueries {
+    private final ClosestRaycastQuery closestRaycast = new ClosestRaycastQuery();
+    private final AllHitsRaycastQuery allHitsRaycast = new AllHitsRaycastQuery();
+    private final OverlapQuery overlap = new OverlapQuery();
+    private final SweepQuery sweep = new SweepQuery();
+
+    RaycastHit raycast(QueryableBroadphase accelerator, List<Collider> colliders,
+            float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ, float maxDistance) {
+        closestRaycast.begin(originX, originY, originZ, directionX, directionY, directionZ, -1);
+        castRay(accelerator, colliders, closestRaycast, maxDistance);
+        return closestRaycast.finish();
+    }
+
+    int raycastBatch(QueryableBroadphase accelerator, List<Collider> colliders, float[] rays, int rayCount,
+            float maxDistance, int layerMask, Collider[] hitColliders, float[] hitDistances) {
+        if (rayCount < 0 || rays.length < rayCount * CollisionWorld.RAY_STRIDE) {
+            throw new IllegalArgumentException("rays must hold " + rayCount + " rays of "
+                    + CollisionWorld.RAY_STRIDE + " floats.");
+        }
+        if (hitColliders.length < rayCount || hitDistances.length < rayCount) {
+            throw new IllegalArgumentException("hit arrays must hold at least " + rayCount + " results.");
+        }
+        int hits = 0;
+        for (int ray = 0; ray < rayCount; ray++) {
+            int offset = ray * CollisionWorld.RAY_STRIDE;
+            closestRaycast.begin(rays[offset], rays[offset + 1], rays[offset + 2],
+                    rays[offset + 3], rays[offset + 4], rays[offset + 5], layerMask);
+            castRay(accelerator, colliders, closestRaycast, maxDistance);
+            Collider hit = closestRaycast.closest;
+            hitColliders[ray] = hit;
+            hitDistances[ray] = hit != null ? closestRaycast.closestDistance : -1f;
+            closestRaycast.closest = null;
+            if (hit != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    int raycastAll(QueryableBroadphase accelerator, List<Collider> colliders,
+            float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, int layerMask, Collider[] hitColliders, float[] hitDistances) {
+        int capacity = Math.min(hitColliders.length, hitDistances.length);
+        if (capacity == 0) {
+            return 0;
+        }
+        allHitsRaycast.begin(originX, originY, originZ, directionX, directionY, directionZ, layerMask);
+        allHitsRaycast.hits.begin(hitColliders, hitDistances, capacity);
+        castRay(accelerator, colliders, allHitsRaycast, maxDistance);
+        return allHitsRaycast.hits.finish();
+    }
+
+    int overlapAabb(QueryableBroadphase accelerator, List<Collider> colliders,
+            float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            int layerMask, Collider[] results) {
+        if (results.length == 0) {
+            return 0;
+        }
+        overlap.beginBox(minX, minY, minZ, maxX, maxY, maxZ, layerMask, results);
+        queryBox(accelerator, colliders, overlap, minX, minY, minZ, maxX, maxY, maxZ);
+        return overlap.finish();
+    }
+
+    int overlapSphere(QueryableBroadphase accelerator, List<Collider> colliders,
+            float centerX, float centerY, float centerZ, float radius, int layerMask, Collider[] results) {
+        if (results.length == 0 || radius < 0f) {
+            return 0;
+        }
+        overlap.beginSphere(centerX, centerY, centerZ, radius, layerMask, results);
+        queryBox(accelerator, colliders, overlap, centerX - radius, centerY - radius, centerZ - radius,
+                centerX + radius, centerY + radius, centerZ + radius);
+        return overlap.finish();
+    }
+
+    int sweepAabb(QueryableBroadphase accelerator, List<Collider> colliders,
+            float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            float motionX, float motionY, float motionZ,
+            int layerMask, Collider[] hitColliders, float[] hitTimes) {
+        int capacity = Math.min(hitColliders.length, hitTimes.length);
+        if (capacity == 0) {
+            return 0;
+        }
+        sweep.begin(minX, minY, minZ, maxX, maxY, maxZ, motionX, motionY, motionZ, layerMask);
+        sweep.hits.begin(hitColliders, hitTimes, capacity);
+        queryBox(accelerator, colliders, sweep,
+                minX + Math.min(0f, motionX), minY + Math.min(0f, motionY), minZ + Math.min(0f, motionZ),
+                maxX + Math.max(0f, motionX), maxY + Math.max(0f, motionY), maxZ + Math.max(0f, motionZ));
+        return sweep.hits.finish();
+    }
+
+    private static void castRay(QueryableBroadphase accelerator, List<Collider> colliders,
+            RayQuery query, float maxDistance) {
+        if (accelerator != null) {
+            accelerator.raycast(query.originX, query.originY, query.originZ,
+                    query.directionX, query.directionY, query.directionZ, maxDistance, query);
+            return;
+        }
+        float limit = maxDistance;
+        for (int i = 0; i < colliders.size(); i++) {
+            limit = query.onCandidate(colliders.get(i), limit);
+            if (limit <= 0f) {
+                return;
+            }
+        }
+    }
+
+    private static void queryBox(QueryableBroadphase accelerator, List<Collider> colliders,
+            BroadphaseQueryCallback query, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        if (accelerator != null) {
+            accelerator.query(minX, minY, minZ, maxX, maxY, maxZ, query);
+            return;
+        }
+        for (int i = 0; i < colliders.size(); i++) {
+            if (!query.onCandidate(colliders.get(i))) {
+                return;
+            }
+        }
+    }
+
+    private static boolean matchesLayer(Collider collider, int layerMask) {
+        return (collider.getLayer() & layerMask) != 0;
+    }
+
+    private abstract static class RayQuery implements BroadphaseRaycastCallback {
+        float originX;
+        float originY;
+        float originZ;
+        float directionX;
+        float directionY;
+        float directionZ;
+        int layerMask;
+
+        void begin(float originX, float originY, float originZ,
+                float directionX, float directionY, float directionZ, int layerMask) {
+            this.originX = originX;
+            this.originY = originY;
+            this.originZ = originZ;
+            this.directionX = directionX;
+            this.directionY = directionY;
+            this.directionZ = directionZ;
+            this.layerMask = layerMask;
+        }
+
+        /** Returns the hit distance within {@code maxDistance}, or a negative value on a miss. */
+        float intersect(Collider collider, float maxDistance) {
+            if (!matchesLayer(collider, layerMask)) {
+                return -1f;
+            }
+            return CollisionMath.intersectRayAabb(originX, originY, originZ,
+                    directionX, directionY, directionZ, collider.getWorldBounds(), maxDistance);
+        }
+    }
+
+    private static final class ClosestRaycastQuery extends RayQuery {
+        private Collider closest;
+        private float closestDistance;
+
+        @Override
+        void begin(float originX, float originY, float originZ,
+                float directionX, float directionY, float directionZ, int layerMask) {
+            super.begin(originX, originY, originZ, directionX, directionY, directionZ, layerMask);
+            closest = null;
+            closestDistance = Float.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public float onCandidate(Collider collider, float maxDistance) {
+            float distance = intersect(collider, maxDistance);
+            if (distance >= 0f && distance < closestDistance) {
+                closest = collider;
+                closestDistance = distance;
+            }
+            return closest != null ? Math.min(closestDistance, maxDistance) : maxDistance;
+        }
+
+        RaycastHit finish() {
+            if (closest == null) {
+                return null;
+            }
+            Vector3 hitPoint = new Vector3(
+                    originX + (directionX * closestDistance),
+                    originY + (directionY * closestDistance),
+                    originZ + (directionZ * closestDistance));
+            RaycastHit hit = new RaycastHit(closest, closestDistance, hitPoint);
+            closest = null;
+            return hit;
+        }
+    }
+
+    private static final class AllHitsRaycastQuery extends RayQuery {
+        private final SortedHits hits = new SortedHits();
+
+        @Override
+        public float onCandidate(Collider collider, float maxDistance) {
+            float distance = intersect(collider, maxDistance);
+            if (distance >= 0f) {
+                hits.add(collider, distance);
+            }
+            return hits.isFull() ? Math.min(maxDistance, hits.last()) : maxDistance;
+        }
+    }
+
+    private static final class OverlapQuery implements BroadphaseQueryCallback {
+        private boolean sphere;
+        private float minX;
+        private float minY;
+        private float minZ;
+        private float maxX;
+        private float maxY;
+        private float maxZ;
+        private float centerX;
+        private float centerY;
+        private float centerZ;
+        private float radiusSquared;
+        private int layerMask;
+        private Collider[] results;
+        private int count;
+
+        void beginBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                int layerMask, Collider[] results) {
+            this.sphere = false;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.layerMask = layerMask;
+            this.results = results;
+            this.count = 0;
+        }
+
+        void beginSphere(float centerX, float centerY, float centerZ, float radius,
+                int layerMask, Collider[] results) {
+            this.sphere = true;
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.centerZ = centerZ;
+            this.radiusSquared = radius * radius;
+            this.layerMask = layerMask;
+            this.results = results;
+            this.count = 0;
+        }
+
+        @Override
+        public boolean onCandidate(Collider collider) {
+            if (!matchesLayer(collider, layerMask)) {
+                return true;
+            }
+            Bounds3 bounds = collider.getWorldBounds();
+            if (sphere ? !overlapsSphere(bounds) : !overlapsBox(bounds)) {
+                return true;
+            }
+            results[count++] = collider;
+            return count < results.length;
+        }
+
+        private boolean overlapsBox(Bounds3 bounds) {
+            return bounds.getMinX() <= maxX && bounds.getMaxX() >= minX
+                    && bounds.getMinY() <= maxY && bounds.getMaxY() >= minY
+                    && bounds.getMinZ() <= maxZ && bounds.getMaxZ() >= minZ;
+        }
+
+        private boolean overlapsSphere(Bounds3 bounds) {
+            float dx = Math.max(bounds.getMinX() - centerX, Math.max(0f, centerX - bounds.getMaxX()));
+            float dy = Math.max(bounds.getMinY() - centerY, Math.max(0f, centerY - bounds.getMaxY()));
+            float dz = Math.max(bounds.getMinZ() - centerZ, Math.max(0f, centerZ - bounds.getMaxZ()));
+            return (dx * dx) + (dy * dy) + (dz * dz) <= radiusSquared;
+        }
+
+        int finish() {
+            results = null;
+            return count;
+        }
+    }
+
+    private static final class SweepQuery implements BroadphaseQueryCallback {
+        private final SortedHits hits = new SortedHits();
+        private float minX;
+        private float minY;
+        private float minZ;
+        private float maxX;
+        private float maxY;
+        private float maxZ;
+        private float motionX;
+        private float motionY;
+        private float motionZ;
+        private int layerMask;
+
+        void begin(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                float motionX, float motionY, float motionZ, int layerMask) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.motionX = motionX;
+            this.motionY = motionY;
+            this.motionZ = motionZ;
+            this.layerMask = layerMask;
+        }
+
+        @Override
+        public boolean onCandidate(Collider collider) {
+            if (!matchesLayer(collider, layerMask)) {
+                return true;
+            }
+            Bounds3 target = collider.getWorldBounds();
+            float time = SweptAabb.timeOfImpact(minX, minY, minZ, maxX, maxY, maxZ, motionX, motionY, motionZ,
+                    target.getMinX(), target.getMinY(), target.getMinZ(),
+                    target.getMaxX(), target.getMaxY(), target.getMaxZ(), null);
+            if (time >= 0f) {
+                hits.add(collider, time);
+            }
+            return true;
+        }
+    }
+
+    /** Keeps the {@code capacity} smallest values seen, sorted ascending, in caller-owned arrays. */
+    private static final class SortedHits {
+        private Collider[] colliders;
+        private float[] values;
+        private int capacity;
+        private int count;
+
+        void begin(Collider[] colliders, float[] values, int capacity) {
+            this.colliders = colliders;
+            this.values = values;
+            this.capacity = capacity;
+            this.count = 0;
+        }
+
+        void add(Collider collider, float value) {
+            int size = count;
+            if (size == capacity) {
+                if (value >= values[size - 1]) {
+                    return;
+                }
+                size--;
+            }
+            int slot = size;
+            while (slot > 0 && values[slot - 1] > value) {
+                colliders[slot] = colliders[slot - 1];
+                values[slot] = values[slot - 1];
+                slot--;
+            }
+            colliders[slot] = collider;
+            values[slot] = value;
+            count = size + 1;
+        }
+
+        boolean isFull() {
+            return count == capacity;
+        }
+
+        float last() {
+            return values[count - 1];
+        }
+
+        int finish() {
+            colliders = null;
+            values = null;
+            return count;
+        }
+    }
+}
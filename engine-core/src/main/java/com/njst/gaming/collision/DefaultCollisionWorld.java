@@ -1,20 +1,57 @@
 package com.njst.gaming.collision;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Set;
 
 import com.njst.gaming.Math.Vector3;
 
 public class DefaultCollisionWorld implements CollisionWorld {
+    public static final float DEFAULT_SLEEP_EPSILON = 0.0001f;
+
     private final List<Collider> colliders = new ArrayList<Collider>();
     private final List<CollisionListener> listeners = new ArrayList<CollisionListener>();
     private final List<CollisionEvent> events = new ArrayList<CollisionEvent>();
-    private final Set<String> activePairs = new HashSet<String>();
+    private final IdentityHashMap<Collider, Integer> colliderHandles = new IdentityHashMap<Collider, Integer>();
+    private final IdentityHashMap<Collider, Integer> retiredHandles = new IdentityHashMap<Collider, Integer>();
+    private int[] freeHandles = new int[16];
+    private int freeHandleCount;
+    private int nextHandle;
+    private CollisionPairTable activePairs = new CollisionPairTable();
+    private CollisionPairTable currentPairs = new CollisionPairTable();
     private final Broadphase broadphase;
     private final CollisionDispatcher dispatcher;
+    private final CollisionWorldQueries queries = new CollisionWorldQueries();
+    private final CollisionStats stats = new CollisionStats();
+    private long listenerNanos;
+    private boolean broadphaseStale = true;
+    private long[] broadphaseVersions = new long[0];
+    private boolean[] movedSinceBroadphase = new boolean[0];
+    private long updateCount;
+    /** {@link #updateCount} when queries last refit moved colliders, or -1 to refit on the next query. */
+    private long queryRefitUpdate = -1L;
+    private ParallelNarrowphase parallelNarrowphase;
+    private CollisionManifold[] narrowphaseResults = new CollisionManifold[0];
+    private float[] previousFastBounds = new float[0];
+    private boolean[] hasPreviousFastBounds = new boolean[0];
+    private final float[] sweepNormal = new float[3];
+    private final SweepCandidates sweepCandidates = new SweepCandidates();
+    private int sleepFrames;
+    private float sleepEpsilon = DEFAULT_SLEEP_EPSILON;
+    private float[] restBounds = new float[0];
+    private int[] stillFrames = new int[0];
+    private boolean[] asleep = new boolean[0];
+    private boolean[] wakeRequested = new boolean[0];
+    private boolean[] sleepingByIndex = new boolean[0];
+    private int[] islandParents = new int[0];
+    private boolean[] islandStill = new boolean[0];
+    private boolean[] islandWake = new boolean[0];
+    private int[] islandHandles = new int[0];
+    private int sleepingCount;
+    private int sleepsLastStep;
+    private int wakesLastStep;
 
     public DefaultCollisionWorld() {
         this(new NaiveBroadphase(), defaultDispatcher());
@@ -31,16 +68,83 @@ public class DefaultCollisionWorld implements CollisionWorld {
         return dispatcher;
     }
 
+    /**
+     * Enables fork-join narrowphase dispatch once a step has at least the configured number of
+     * candidate pairs. Events are still emitted on the calling thread in candidate order, but every
+     * manifold of that step is computed before the first listener runs.
+     * Pass null to go back to serial dispatch.
+     */
+    public void setParallelNarrowphase(ParallelNarrowphase parallelNarrowphase) {
+        this.parallelNarrowphase = parallelNarrowphase;
+    }
+
+    public ParallelNarrowphase getParallelNarrowphase() {
+        return parallelNarrowphase;
+    }
+
+    /**
+     * Puts colliders to sleep once their world bounds have stayed within {@code epsilon} for
+     * {@code frames} steps. Colliders that touch form islands, and an island only sleeps when all
+     * of its members are still. Pairs of sleeping colliders skip the broadphase and narrowphase and
+     * repeat their cached STAY event. A sleeping collider wakes when its bounds move or when a
+     * collider that moved this step touches its island; static colliders do not join islands and
+     * only wake when they move. Motion is detected from world bounds alone, so a collider that
+     * turns in place without changing its bounds keeps its cached contacts.
+     * Pass {@code frames <= 0} to turn sleeping off, which is the default.
+     */
+    public void setSleepThreshold(int frames, float epsilon) {
+        if (epsilon < 0f) {
+            throw new IllegalArgumentException("epsilon must not be negative.");
+        }
+        sleepFrames = Math.max(0, frames);
+        sleepEpsilon = epsilon;
+        if (sleepFrames == 0) {
+            Arrays.fill(asleep, false);
+            Arrays.fill(stillFrames, -1);
+            sleepingCount = 0;
+        }
+    }
+
+    public int getSleepFrames() {
+        return sleepFrames;
+    }
+
+    public int getSleepingColliderCount() {
+        return sleepingCount;
+    }
+
+    /** Number of colliders that fell asleep at the end of the last step. */
+    public int getSleepCountLastStep() {
+        return sleepsLastStep;
+    }
+
+    /** Number of colliders woken during the last step, by moving or by being touched. */
+    public int getWakeCountLastStep() {
+        return wakesLastStep;
+    }
+
     @Override
     public void addCollider(Collider collider) {
-        if (collider != null && !colliders.contains(collider)) {
+        if (collider != null && !colliderHandles.containsKey(collider)) {
             colliders.add(collider);
+            colliderHandles.put(collider, acquireHandle(collider));
+            broadphaseStale = true;
         }
     }
 
     @Override
     public void removeCollider(Collider collider) {
-        colliders.remove(collider);
+        Integer handle = colliderHandles.remove(collider);
+        if (handle != null) {
+            colliders.remove(collider);
+            if (handle < asleep.length && asleep[handle]) {
+                asleep[handle] = false;
+                sleepingCount--;
+            }
+            // Held until the next step so pairs recorded with this handle cannot alias a new collider.
+            retiredHandles.put(collider, handle);
+            broadphaseStale = true;
+        }
     }
 
     @Override
@@ -48,42 +152,124 @@ public class DefaultCollisionWorld implements CollisionWorld {
         colliders.clear();
         events.clear();
         activePairs.clear();
+        currentPairs.clear();
+        colliderHandles.clear();
+        retiredHandles.clear();
+        freeHandleCount = 0;
+        nextHandle = 0;
+        Arrays.fill(hasPreviousFastBounds, false);
+        Arrays.fill(asleep, false);
+        Arrays.fill(stillFrames, -1);
+        sleepingCount = 0;
+        sleepsLastStep = 0;
+        wakesLastStep = 0;
+        broadphaseStale = true;
     }
 
     @Override
     public void update(float deltaTime) {
+        long stepStart = System.nanoTime();
         events.clear();
-        HashSet<String> currentPairs = new HashSet<String>();
+        currentPairs.clear();
+        stats.beginStep(dispatcher);
+        listenerNanos = 0L;
 
-        List<CollisionPair> candidatePairs = broadphase.computePairs(colliders);
-        for (CollisionPair pair : candidatePairs) {
+        for (int i = 0; i < colliders.size(); i++) {
+            colliders.get(i).refreshTransform();
+        }
+        boolean sleeping = sleepFrames > 0;
+        List<CollisionPair> candidatePairs = broadphase.computePairs(colliders,
+                sleeping ? prepareSleepStates() : null);
+        broadphaseStale = false;
+        recordBroadphaseVersions();
+        updateCount++;
+        long narrowphaseStart = System.nanoTime();
+        int candidateCount = candidatePairs.size();
+        boolean parallel = parallelNarrowphase != null && parallelNarrowphase.shouldRunInParallel(candidateCount);
+        if (parallel) {
+            if (narrowphaseResults.length < candidateCount) {
+                narrowphaseResults = new CollisionManifold[Math.max(candidateCount, narrowphaseResults.length * 2)];
+            }
+            parallelNarrowphase.test(dispatcher, candidatePairs, narrowphaseResults);
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            CollisionPair pair = candidatePairs.get(i);
             Collider first = pair.getFirst();
             Collider second = pair.getSecond();
-            CollisionManifold manifold = dispatcher.test(first, second);
+            int firstHandle = colliderHandles.get(first);
+            int secondHandle = colliderHandles.get(second);
+            if (sleeping && asleep[firstHandle] && asleep[secondHandle]) {
+                if (parallel) {
+                    narrowphaseResults[i] = null;
+                }
+                continue;
+            }
+            int algorithm = dispatcher.findAlgorithm(first.getShape(), second.getShape());
+            stats.countTest(algorithm);
+            CollisionManifold manifold;
+            if (parallel) {
+                manifold = narrowphaseResults[i];
+                narrowphaseResults[i] = null;
+            } else {
+                manifold = dispatcher.test(algorithm, first, second);
+            }
             if (!manifold.isColliding()) {
                 continue;
             }
 
-            String key = pairKey(first, second);
-            currentPairs.add(key);
+            long key = CollisionPairTable.pairKey(firstHandle, secondHandle);
+            currentPairs.add(key, first, second, manifold);
+            if (sleeping) {
+                noteContact(first, firstHandle, second, secondHandle);
+            }
             CollisionEventType type = activePairs.contains(key)
                     ? CollisionEventType.STAY
                     : CollisionEventType.ENTER;
             emit(new CollisionEvent(type, first, second, manifold));
         }
+        if (sleeping) {
+            carrySleepingPairs();
+        }
+        sweepFastColliders();
+        long narrowphaseNanos = System.nanoTime() - narrowphaseStart - listenerNanos;
+        int contactCount = currentPairs.size();
 
-        for (String key : activePairs) {
-            if (currentPairs.contains(key)) {
+        for (int i = 0; i < activePairs.size(); i++) {
+            if (currentPairs.contains(activePairs.keyAt(i))) {
                 continue;
             }
-            Collider[] pair = resolvePair(key);
-            if (pair[0] != null && pair[1] != null) {
-                emit(new CollisionEvent(CollisionEventType.EXIT, pair[0], pair[1], CollisionManifold.none()));
+            Collider first = activePairs.firstAt(i);
+            Collider second = activePairs.secondAt(i);
+            if (colliderHandles.containsKey(first) && colliderHandles.containsKey(second)) {
+                emit(new CollisionEvent(CollisionEventType.EXIT, first, second, CollisionManifold.none()));
             }
         }
 
-        activePairs.clear();
-        activePairs.addAll(currentPairs);
+        CollisionPairTable previousPairs = activePairs;
+        activePairs = currentPairs;
+        currentPairs = previousPairs;
+        currentPairs.clear();
+        recordFastBounds();
+        if (sleeping) {
+            updateIslands();
+        }
+        releaseRetiredHandles();
+
+        long stepEnd = System.nanoTime();
+        stats.set(CollisionStats.COLLIDERS, colliders.size());
+        stats.set(CollisionStats.CANDIDATE_PAIRS, candidateCount);
+        stats.set(CollisionStats.CONTACTS, contactCount);
+        stats.set(CollisionStats.EVENTS, events.size());
+        stats.set(CollisionStats.BROADPHASE_NANOS, narrowphaseStart - stepStart);
+        stats.set(CollisionStats.NARROWPHASE_NANOS, Math.max(0L, narrowphaseNanos));
+        stats.set(CollisionStats.LISTENER_NANOS, listenerNanos);
+        stats.set(CollisionStats.STEP_NANOS, stepEnd - stepStart);
+        stats.endStep();
+    }
+
+    @Override
+    public CollisionStats getStats() {
+        return stats;
     }
 
     @Override
@@ -110,99 +296,463 @@ public class DefaultCollisionWorld implements CollisionWorld {
 
     @Override
     public RaycastHit raycast(Ray ray, float maxDistance) {
-        RaycastHit closest = null;
-        for (Collider collider : colliders) {
-            float distance = intersectRayAabb(ray, collider.getWorldBounds(), maxDistance);
-            if (distance < 0f) {
-                continue;
-            }
-            if (closest == null || distance < closest.getDistance()) {
-                Vector3 hitPoint = ray.getOrigin().add(ray.getDirection().mul(distance));
-                closest = new RaycastHit(collider, distance, hitPoint);
+        Vector3 origin = ray.getOrigin();
+        Vector3 direction = ray.getDirection();
+        return queries.raycast(queryAccelerator(), colliders, origin.x, origin.y, origin.z,
+                direction.x, direction.y, direction.z, maxDistance);
+    }
+
+    @Override
+    public int raycastBatch(float[] rays, int rayCount, float maxDistance, int layerMask,
+            Collider[] hitColliders, float[] hitDistances) {
+        return queries.raycastBatch(queryAccelerator(), colliders, rays, rayCount, maxDistance, layerMask,
+                hitColliders, hitDistances);
+    }
+
+    @Override
+    public int raycastAll(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, int layerMask, Collider[] hitColliders, float[] hitDistances) {
+        return queries.raycastAll(queryAccelerator(), colliders, originX, originY, originZ,
+                directionX, directionY, directionZ, maxDistance, layerMask, hitColliders, hitDistances);
+    }
+
+    @Override
+    public int overlapAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            int layerMask, Collider[] results) {
+        return queries.overlapAabb(queryAccelerator(), colliders, minX, minY, minZ, maxX, maxY, maxZ,
+                layerMask, results);
+    }
+
+    @Override
+    public int overlapSphere(float centerX, float centerY, float centerZ, float radius,
+            int layerMask, Collider[] results) {
+        return queries.overlapSphere(queryAccelerator(), colliders, centerX, centerY, centerZ, radius,
+                layerMask, results);
+    }
+
+    @Override
+    public int sweepAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            float motionX, float motionY, float motionZ,
+            int layerMask, Collider[] hitColliders, float[] hitTimes) {
+        return queries.sweepAabb(queryAccelerator(), colliders, minX, minY, minZ, maxX, maxY, maxZ,
+                motionX, motionY, motionZ, layerMask, hitColliders, hitTimes);
+    }
+
+    @Override
+    public void invalidateQueryBounds() {
+        queryRefitUpdate = -1L;
+    }
+
+    /**
+     * Returns the broadphase when its structure matches the collider list, or null to scan every
+     * collider. The first query after each update, or after {@link #invalidateQueryBounds()}, refits
+     * colliders whose transform version changed since the broadphase last saw them; later queries
+     * go straight to the broadphase.
+     */
+    private QueryableBroadphase queryAccelerator() {
+        if (!(broadphase instanceof QueryableBroadphase) || broadphaseStale) {
+            return null;
+        }
+        QueryableBroadphase accelerator = (QueryableBroadphase) broadphase;
+        if (queryRefitUpdate == updateCount) {
+            return accelerator;
+        }
+        queryRefitUpdate = updateCount;
+        boolean anyMoved = false;
+        for (int i = 0; i < colliders.size(); i++) {
+            Collider collider = colliders.get(i);
+            collider.refreshTransform();
+            long version = collider.getTransformVersion();
+            boolean moved = version < 0L || version != broadphaseVersions[i];
+            movedSinceBroadphase[i] = moved;
+            if (moved) {
+                broadphaseVersions[i] = version;
+                anyMoved = true;
             }
         }
-        return closest;
+        if (anyMoved) {
+            accelerator.refit(movedSinceBroadphase);
+        }
+        return accelerator;
+    }
+
+    /** Remembers, by list index, the transform version each collider had when the broadphase read it. */
+    private void recordBroadphaseVersions() {
+        int count = colliders.size();
+        if (broadphaseVersions.length < count) {
+            int capacity = Math.max(count, broadphaseVersions.length * 2);
+            broadphaseVersions = new long[capacity];
+            movedSinceBroadphase = new boolean[capacity];
+        }
+        for (int i = 0; i < count; i++) {
+            broadphaseVersions[i] = colliders.get(i).getTransformVersion();
+        }
     }
 
     private void emit(CollisionEvent event) {
         events.add(event);
+        if (listeners.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
         for (CollisionListener listener : listeners) {
             listener.onCollision(event);
         }
+        listenerNanos += System.nanoTime() - start;
+    }
+
+    private int acquireHandle(Collider collider) {
+        Integer retired = retiredHandles.remove(collider);
+        if (retired != null) {
+            return retired;
+        }
+        int handle = freeHandleCount > 0 ? freeHandles[--freeHandleCount] : nextHandle++;
+        if (handle < hasPreviousFastBounds.length) {
+            hasPreviousFastBounds[handle] = false;
+        }
+        if (handle < stillFrames.length) {
+            stillFrames[handle] = -1;
+            asleep[handle] = false;
+        }
+        return handle;
+    }
+
+    /** Refreshes per-collider motion, wakes colliders that moved and returns the sleeping flags by index. */
+    private boolean[] prepareSleepStates() {
+        if (stillFrames.length < nextHandle) {
+            int capacity = Math.max(nextHandle, Math.max(16, stillFrames.length * 2));
+            int previous = stillFrames.length;
+            restBounds = Arrays.copyOf(restBounds, capacity * 6);
+            stillFrames = Arrays.copyOf(stillFrames, capacity);
+            Arrays.fill(stillFrames, previous, capacity, -1);
+            asleep = Arrays.copyOf(asleep, capacity);
+            wakeRequested = Arrays.copyOf(wakeRequested, capacity);
+        }
+        int count = colliders.size();
+        if (sleepingByIndex.length < count) {
+            sleepingByIndex = new boolean[Math.max(count, sleepingByIndex.length * 2)];
+        }
+
+        sleepsLastStep = 0;
+        wakesLastStep = 0;
+        for (int i = 0; i < count; i++) {
+            Collider collider = colliders.get(i);
+            int handle = colliderHandles.get(collider);
+            Bounds3 bounds = collider.getWorldBounds();
+            int offset = handle * 6;
+            if (stillFrames[handle] < 0 || movedFromRest(offset, bounds)) {
+                restBounds[offset] = bounds.getMinX();
+                restBounds[offset + 1] = bounds.getMinY();
+                restBounds[offset + 2] = bounds.getMinZ();
+                restBounds[offset + 3] = bounds.getMaxX();
+                restBounds[offset + 4] = bounds.getMaxY();
+                restBounds[offset + 5] = bounds.getMaxZ();
+                stillFrames[handle] = 0;
+                wake(handle);
+            } else if (stillFrames[handle] < Integer.MAX_VALUE) {
+                stillFrames[handle]++;
+            }
+            wakeRequested[handle] = false;
+            sleepingByIndex[i] = asleep[handle];
+        }
+        return sleepingByIndex;
     }
 
-    private String pairKey(Collider first, Collider second) {
-        int firstHash = System.identityHashCode(first);
-        int secondHash = System.identityHashCode(second);
-        return firstHash < secondHash
-                ? firstHash + ":" + secondHash
-                : secondHash + ":" + firstHash;
+    private boolean movedFromRest(int offset, Bounds3 bounds) {
+        return Math.abs(bounds.getMinX() - restBounds[offset]) > sleepEpsilon
+                || Math.abs(bounds.getMinY() - restBounds[offset + 1]) > sleepEpsilon
+                || Math.abs(bounds.getMinZ() - restBounds[offset + 2]) > sleepEpsilon
+                || Math.abs(bounds.getMaxX() - restBounds[offset + 3]) > sleepEpsilon
+                || Math.abs(bounds.getMaxY() - restBounds[offset + 4]) > sleepEpsilon
+                || Math.abs(bounds.getMaxZ() - restBounds[offset + 5]) > sleepEpsilon;
     }
 
-    private Collider[] resolvePair(String key) {
-        String[] parts = key.split(":");
-        if (parts.length != 2) {
-            return new Collider[] { null, null };
+    private void noteContact(Collider first, int firstHandle, Collider second, int secondHandle) {
+        if (asleep[firstHandle] && !first.isStatic() && stillFrames[secondHandle] == 0) {
+            wakeRequested[firstHandle] = true;
         }
-        int firstHash = Integer.parseInt(parts[0]);
-        int secondHash = Integer.parseInt(parts[1]);
-        Collider first = null;
-        Collider second = null;
-        for (Collider collider : colliders) {
-            int hash = System.identityHashCode(collider);
-            if (hash == firstHash) {
-                first = collider;
-            } else if (hash == secondHash) {
-                second = collider;
+        if (asleep[secondHandle] && !second.isStatic() && stillFrames[firstHandle] == 0) {
+            wakeRequested[secondHandle] = true;
+        }
+    }
+
+    /** Repeats STAY for contacts between colliders that were both asleep at the start of the step. */
+    private void carrySleepingPairs() {
+        for (int i = 0; i < activePairs.size(); i++) {
+            Collider first = activePairs.firstAt(i);
+            Collider second = activePairs.secondAt(i);
+            Integer firstHandle = colliderHandles.get(first);
+            Integer secondHandle = colliderHandles.get(second);
+            if (firstHandle == null || secondHandle == null || !asleep[firstHandle] || !asleep[secondHandle]) {
+                continue;
             }
+            CollisionManifold manifold = activePairs.manifoldAt(i);
+            currentPairs.add(activePairs.keyAt(i), first, second, manifold);
+            emit(new CollisionEvent(CollisionEventType.STAY, first, second, manifold));
         }
-        return new Collider[] { first, second };
     }
 
-    private float intersectRayAabb(Ray ray, Bounds3 bounds, float maxDistance) {
-        Vector3 origin = ray.getOrigin();
-        Vector3 direction = ray.getDirection();
-        Vector3 min = bounds.getMin();
-        Vector3 max = bounds.getMax();
+    /**
+     * Groups touching dynamic colliders into islands, wakes islands touched by a moving collider
+     * and puts islands to sleep once every member has been still for long enough.
+     */
+    private void updateIslands() {
+        int count = colliders.size();
+        if (islandParents.length < count) {
+            int capacity = Math.max(count, islandParents.length * 2);
+            islandParents = new int[capacity];
+            islandStill = new boolean[capacity];
+            islandWake = new boolean[capacity];
+        }
+        for (int i = 0; i < count; i++) {
+            islandParents[i] = i;
+            islandStill[i] = true;
+            islandWake[i] = false;
+        }
+        int[] handleIndices = islandHandleIndices(count);
+        for (int i = 0; i < activePairs.size(); i++) {
+            Collider first = activePairs.firstAt(i);
+            Collider second = activePairs.secondAt(i);
+            if (first.isStatic() || second.isStatic()) {
+                continue;
+            }
+            Integer firstHandle = colliderHandles.get(first);
+            Integer secondHandle = colliderHandles.get(second);
+            if (firstHandle == null || secondHandle == null) {
+                continue;
+            }
+            union(handleIndices[firstHandle], handleIndices[secondHandle]);
+        }
+
+        for (int i = 0; i < count; i++) {
+            int handle = colliderHandles.get(colliders.get(i));
+            int root = findIsland(i);
+            if (stillFrames[handle] < sleepFrames) {
+                islandStill[root] = false;
+            }
+            if (wakeRequested[handle]) {
+                islandWake[root] = true;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            Collider collider = colliders.get(i);
+            int handle = colliderHandles.get(collider);
+            if (collider.isStatic()) {
+                if (stillFrames[handle] >= sleepFrames) {
+                    sleep(handle);
+                }
+                continue;
+            }
+            int root = findIsland(i);
+            if (islandWake[root]) {
+                if (asleep[handle]) {
+                    wake(handle);
+                    stillFrames[handle] = 0;
+                }
+            } else if (islandStill[root]) {
+                sleep(handle);
+            }
+        }
+    }
+
+    private int[] islandHandleIndices(int count) {
+        if (islandHandles.length < nextHandle) {
+            islandHandles = new int[Math.max(nextHandle, islandHandles.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            islandHandles[colliderHandles.get(colliders.get(i))] = i;
+        }
+        return islandHandles;
+    }
 
-        float tMin = 0f;
-        float tMax = maxDistance;
+    private int findIsland(int index) {
+        while (islandParents[index] != index) {
+            islandParents[index] = islandParents[islandParents[index]];
+            index = islandParents[index];
+        }
+        return index;
+    }
 
-        tMin = updateRayInterval(origin.x, direction.x, min.x, max.x, tMin, tMax, true);
-        tMax = updateRayInterval(origin.x, direction.x, min.x, max.x, tMin, tMax, false);
-        if (tMin > tMax) {
-            return -1f;
+    private void union(int first, int second) {
+        int firstRoot = findIsland(first);
+        int secondRoot = findIsland(second);
+        if (firstRoot != secondRoot) {
+            islandParents[secondRoot] = firstRoot;
         }
+    }
+
+    private void sleep(int handle) {
+        if (!asleep[handle]) {
+            asleep[handle] = true;
+            sleepingCount++;
+            sleepsLastStep++;
+        }
+    }
+
+    private void wake(int handle) {
+        if (asleep[handle]) {
+            asleep[handle] = false;
+            sleepingCount--;
+            wakesLastStep++;
+        }
+    }
+
+    /**
+     * Sweeps each fast collider from its bounds at the previous step to its current bounds and
+     * reports the earliest collider it touched along the way among the pairs no discrete contact
+     * covers, so a narrowphase hit does not hide a separate collider tunnelled through earlier in
+     * the step. Candidates come from the broadphase, queried with the box covering both bounds,
+     * or from every collider when the broadphase cannot answer queries. Other colliders are
+     * treated as resting at their current bounds.
+     */
+    private void sweepFastColliders() {
+        for (int i = 0; i < colliders.size(); i++) {
+            Collider fast = colliders.get(i);
+            if (!fast.isFast()) {
+                continue;
+            }
+            int handle = colliderHandles.get(fast);
+            if (handle >= hasPreviousFastBounds.length || !hasPreviousFastBounds[handle]) {
+                continue;
+            }
+            int offset = handle * 6;
+            float previousMinX = previousFastBounds[offset];
+            float previousMinY = previousFastBounds[offset + 1];
+            float previousMinZ = previousFastBounds[offset + 2];
+            float previousMaxX = previousFastBounds[offset + 3];
+            float previousMaxY = previousFastBounds[offset + 4];
+            float previousMaxZ = previousFastBounds[offset + 5];
+            Bounds3 current = fast.getWorldBounds();
+            float motionX = ((current.getMinX() + current.getMaxX()) - (previousMinX + previousMaxX)) * 0.5f;
+            float motionY = ((current.getMinY() + current.getMaxY()) - (previousMinY + previousMaxY)) * 0.5f;
+            float motionZ = ((current.getMinZ() + current.getMaxZ()) - (previousMinZ + previousMaxZ)) * 0.5f;
+            if (motionX == 0f && motionY == 0f && motionZ == 0f) {
+                continue;
+            }
+
+            sweepCandidates.clear();
+            if (broadphase instanceof QueryableBroadphase && !broadphaseStale) {
+                ((QueryableBroadphase) broadphase).query(
+                        Math.min(previousMinX, current.getMinX()),
+                        Math.min(previousMinY, current.getMinY()),
+                        Math.min(previousMinZ, current.getMinZ()),
+                        Math.max(previousMaxX, current.getMaxX()),
+                        Math.max(previousMaxY, current.getMaxY()),
+                        Math.max(previousMaxZ, current.getMaxZ()),
+                        sweepCandidates);
+            } else {
+                for (int j = 0; j < colliders.size(); j++) {
+                    sweepCandidates.onCandidate(colliders.get(j));
+                }
+            }
+
+            Collider earliest = null;
+            long earliestKey = 0L;
+            float earliestTime = Float.POSITIVE_INFINITY;
+            float normalX = 0f;
+            float normalY = 0f;
+            float normalZ = 0f;
+            for (int j = 0; j < sweepCandidates.count; j++) {
+                Collider other = sweepCandidates.colliders[j];
+                if (other == fast || (fast.isStatic() && other.isStatic()) || !fast.canCollideWith(other)) {
+                    continue;
+                }
+                Bounds3 otherBounds = other.getWorldBounds();
+                float time = SweptAabb.timeOfImpact(
+                        previousMinX, previousMinY, previousMinZ, previousMaxX, previousMaxY, previousMaxZ,
+                        motionX, motionY, motionZ,
+                        otherBounds.getMinX(), otherBounds.getMinY(), otherBounds.getMinZ(),
+                        otherBounds.getMaxX(), otherBounds.getMaxY(), otherBounds.getMaxZ(),
+                        sweepNormal);
+                if (time < 0f || time >= earliestTime) {
+                    continue;
+                }
+                long key = CollisionPairTable.pairKey(handle, colliderHandles.get(other));
+                if (activePairs.contains(key) || currentPairs.contains(key)) {
+                    // Already touching at the start of the step, or the narrowphase found the
+                    // contact this step; discrete events own this pair.
+                    continue;
+                }
+                earliest = other;
+                earliestKey = key;
+                earliestTime = time;
+                normalX = sweepNormal[0];
+                normalY = sweepNormal[1];
+                normalZ = sweepNormal[2];
+            }
 
-        tMin = updateRayInterval(origin.y, direction.y, min.y, max.y, tMin, tMax, true);
-        tMax = updateRayInterval(origin.y, direction.y, min.y, max.y, tMin, tMax, false);
-        if (tMin > tMax) {
-            return -1f;
+            if (earliest == null) {
+                continue;
+            }
+            Vector3 contactPoint = new Vector3(
+                    ((previousMinX + previousMaxX) * 0.5f) + (motionX * earliestTime),
+                    ((previousMinY + previousMaxY) * 0.5f) + (motionY * earliestTime),
+                    ((previousMinZ + previousMaxZ) * 0.5f) + (motionZ * earliestTime));
+            CollisionManifold manifold = new CollisionManifold(true,
+                    new Vector3(normalX, normalY, normalZ), 0f, contactPoint);
+            currentPairs.add(earliestKey, fast, earliest, manifold);
+            emit(new CollisionEvent(CollisionEventType.ENTER, fast, earliest, manifold, earliestTime));
         }
+    }
+
+    /** Collects broadphase candidates for one fast-collider sweep; reused across sweeps. */
+    private static final class SweepCandidates implements BroadphaseQueryCallback {
+        private Collider[] colliders = new Collider[16];
+        private int count;
 
-        tMin = updateRayInterval(origin.z, direction.z, min.z, max.z, tMin, tMax, true);
-        tMax = updateRayInterval(origin.z, direction.z, min.z, max.z, tMin, tMax, false);
-        if (tMin > tMax) {
-            return -1f;
+        void clear() {
+            Arrays.fill(colliders, 0, count, null);
+            count = 0;
         }
 
-        return tMin;
+        @Override
+        public boolean onCandidate(Collider collider) {
+            if (count == colliders.length) {
+                colliders = Arrays.copyOf(colliders, count * 2);
+            }
+            colliders[count++] = collider;
+            return true;
+        }
     }
 
-    private float updateRayInterval(float origin, float direction, float min, float max, float tMin, float tMax,
-            boolean lowerBound) {
-        if (Math.abs(direction) < 0.000001f) {
-            if (origin < min || origin > max) {
-                return lowerBound ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+    private void recordFastBounds() {
+        for (int i = 0; i < colliders.size(); i++) {
+            Collider collider = colliders.get(i);
+            if (!collider.isFast()) {
+                continue;
+            }
+            int handle = colliderHandles.get(collider);
+            if (handle >= hasPreviousFastBounds.length) {
+                int capacity = Math.max(handle + 1, Math.max(16, hasPreviousFastBounds.length * 2));
+                previousFastBounds = Arrays.copyOf(previousFastBounds, capacity * 6);
+                hasPreviousFastBounds = Arrays.copyOf(hasPreviousFastBounds, capacity);
             }
-            return lowerBound ? tMin : tMax;
+            Bounds3 bounds = collider.getWorldBounds();
+            int offset = handle * 6;
+            previousFastBounds[offset] = bounds.getMinX();
+            previousFastBounds[offset + 1] = bounds.getMinY();
+            previousFastBounds[offset + 2] = bounds.getMinZ();
+            previousFastBounds[offset + 3] = bounds.getMaxX();
+            previousFastBounds[offset + 4] = bounds.getMaxY();
+            previousFastBounds[offset + 5] = bounds.getMaxZ();
+            hasPreviousFastBounds[handle] = true;
         }
+    }
 
-        float invDirection = 1f / direction;
-        float t1 = (min - origin) * invDirection;
-        float t2 = (max - origin) * invDirection;
-        float near = Math.min(t1, t2);
-        float far = Math.max(t1, t2);
-        return lowerBound ? Math.max(tMin, near) : Math.min(tMax, far);
+    private void releaseRetiredHandles() {
+        if (retiredHandles.isEmpty()) {
+            return;
+        }
+        for (Integer handle : retiredHandles.values()) {
+            if (freeHandleCount == freeHandles.length) {
+                int[] grown = new int[freeHandles.length * 2];
+                System.arraycopy(freeHandles, 0, grown, 0, freeHandleCount);
+                freeHandles = grown;
+            }
+            freeHandles[freeHandleCount++] = handle;
+        }
+        retiredHandles.clear();
     }
 }
@@ -0,0 +1,480 @@
+package com.njst.gaming.collision;
+
+/**
+ * Incrementally balanced bounding volume hierarchy over fattened AABBs.
+ * Nodes live in parallel primitive arrays and are recycled through a free list, so inserts,
+ * removals and queries do not allocate once the pool has grown to the working size.
+ * A proxy whose tight bounds stay inside its fattened leaf is not touched by {@link #moveProxy}.
+ * Not thread-safe: queries share a traversal stack.
+ */
+public class DynamicAabbTree {
+    public static final int NULL_NODE = -1;
+
+    private static final int BOUNDS_STRIDE = 6;
+
+    public interface QueryCallback {
+        /** Returns false to stop the query early. */
+        boolean onProxy(int proxyId);
+    }
+
+    public interface RaycastCallback {
+        /**
+         * Returns the distance to clip the ray at. Returning 0 stops the raycast,
+         * returning the incoming distance leaves the ray unchanged.
+         */
+        float onProxy(int proxyId, float maxDistance);
+    }
+
+    private final float margin;
+    private float[] bounds;
+    private int[] parent;
+    private int[] child1;
+    private int[] child2;
+    private int[] height;
+    private int[] userIndex;
+    private Collider[] colliders;
+    private int nodeCapacity;
+    private int nodeCount;
+    private int freeList = NULL_NODE;
+    private int root = NULL_NODE;
+    private int proxyCount;
+    private int[] stack = new int[64];
+    private final float[] combined = new float[BOUNDS_STRIDE];
+
+    public DynamicAabbTree() {
+        this(0.1f);
+    }
+
+    public DynamicAabbTree(float margin) {
+        if (margin < 0f) {
+            throw new IllegalArgumentException("margin must not be negative.");
+        }
+        this.margin = margin;
+        allocatePool(16);
+    }
+
+    public float getMargin() {
+        return margin;
+    }
+
+    public int getProxyCount() {
+        return proxyCount;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getHeight() {
+        return root == NULL_NODE ? 0 : height[root];
+    }
+
+    public int createProxy(Collider collider, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int proxyId = allocateNode();
+        setFatBounds(proxyId, minX, minY, minZ, maxX, maxY, maxZ);
+        colliders[proxyId] = collider;
+        userIndex[proxyId] = 0;
+        height[proxyId] = 0;
+        insertLeaf(proxyId);
+        proxyCount++;
+        return proxyId;
+    }
+
+    public void destroyProxy(int proxyId) {
+        checkProxy(proxyId);
+        removeLeaf(proxyId);
+        freeNode(proxyId);
+        proxyCount--;
+    }
+
+    /**
+     * Updates a proxy with its current tight bounds.
+     * Returns true when the proxy left its fattened bounds and was reinserted.
+     */
+    public boolean moveProxy(int proxyId, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        checkProxy(proxyId);
+        int offset = proxyId * BOUNDS_STRIDE;
+        if (bounds[offset] <= minX && bounds[offset + 1] <= minY && bounds[offset + 2] <= minZ
+                && bounds[offset + 3] >= maxX && bounds[offset + 4] >= maxY && bounds[offset + 5] >= maxZ) {
+            return false;
+        }
+        removeLeaf(proxyId);
+        setFatBounds(proxyId, minX, minY, minZ, maxX, maxY, maxZ);
+        insertLeaf(proxyId);
+        return true;
+    }
+
+    public Collider getCollider(int proxyId) {
+        checkProxy(proxyId);
+        return colliders[proxyId];
+    }
+
+    public int getUserIndex(int proxyId) {
+        checkProxy(proxyId);
+        return userIndex[proxyId];
+    }
+
+    public void setUserIndex(int proxyId, int index) {
+        checkProxy(proxyId);
+        userIndex[proxyId] = index;
+    }
+
+    public void getFatBounds(int proxyId, float[] out) {
+        checkProxy(proxyId);
+        System.arraycopy(bounds, proxyId * BOUNDS_STRIDE, out, 0, BOUNDS_STRIDE);
+    }
+
+    public void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, QueryCallback callback) {
+        if (root == NULL_NODE) {
+            return;
+        }
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            int offset = node * BOUNDS_STRIDE;
+            if (bounds[offset] > maxX || bounds[offset + 3] < minX
+                    || bounds[offset + 1] > maxY || bounds[offset + 4] < minY
+                    || bounds[offset + 2] > maxZ || bounds[offset + 5] < minZ) {
+                continue;
+            }
+            if (child1[node] == NULL_NODE) {
+                if (!callback.onProxy(node)) {
+                    return;
+                }
+                continue;
+            }
+            ensureStack(top + 2);
+            stack[top++] = child1[node];
+            stack[top++] = child2[node];
+        }
+    }
+
+    public void raycast(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, RaycastCallback callback) {
+        if (root == NULL_NODE) {
+            return;
+        }
+        float distance = maxDistance;
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (CollisionMath.intersectRayAabb(originX, originY, originZ, directionX, directionY, directionZ,
+                    bounds, node * BOUNDS_STRIDE, distance) < 0f) {
+                continue;
+            }
+            if (child1[node] == NULL_NODE) {
+                float clipped = callback.onProxy(node, distance);
+                if (clipped == 0f) {
+                    return;
+                }
+                if (clipped > 0f && clipped < distance) {
+                    distance = clipped;
+                }
+                continue;
+            }
+            ensureStack(top + 2);
+            stack[top++] = child1[node];
+            stack[top++] = child2[node];
+        }
+    }
+
+    private void setFatBounds(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int offset = node * BOUNDS_STRIDE;
+        bounds[offset] = minX - margin;
+        bounds[offset + 1] = minY - margin;
+        bounds[offset + 2] = minZ - margin;
+        bounds[offset + 3] = maxX + margin;
+        bounds[offset + 4] = maxY + margin;
+        bounds[offset + 5] = maxZ + margin;
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parent[leaf] = NULL_NODE;
+            return;
+        }
+
+        // Descend by surface area heuristic to the cheapest sibling.
+        int index = root;
+        while (child1[index] != NULL_NODE) {
+            int first = child1[index];
+            int second = child2[index];
+
+            float area = surfaceArea(index);
+            union(index, leaf, combined);
+            float combinedArea = surfaceArea(combined);
+            float cost = 2f * combinedArea;
+            float inheritanceCost = 2f * (combinedArea - area);
+            float firstCost = descendCost(first, leaf) + inheritanceCost;
+            float secondCost = descendCost(second, leaf) + inheritanceCost;
+            if (cost < firstCost && cost < secondCost) {
+                break;
+            }
+            index = firstCost < secondCost ? first : second;
+        }
+
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        colliders[newParent] = null;
+        union(sibling, leaf, combined);
+        System.arraycopy(combined, 0, bounds, newParent * BOUNDS_STRIDE, BOUNDS_STRIDE);
+        height[newParent] = height[sibling] + 1;
+
+        if (oldParent != NULL_NODE) {
+            if (child1[oldParent] == sibling) {
+                child1[oldParent] = newParent;
+            } else {
+                child2[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        refitUpwards(parent[leaf]);
+    }
+
+    private float descendCost(int child, int leaf) {
+        union(child, leaf, combined);
+        float combinedArea = surfaceArea(combined);
+        if (child1[child] == NULL_NODE) {
+            return combinedArea;
+        }
+        return combinedArea - surfaceArea(child);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+
+        int leafParent = parent[leaf];
+        int grandParent = parent[leafParent];
+        int sibling = child1[leafParent] == leaf ? child2[leafParent] : child1[leafParent];
+
+        if (grandParent != NULL_NODE) {
+            if (child1[grandParent] == leafParent) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(leafParent);
+            refitUpwards(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL_NODE;
+            freeNode(leafParent);
+        }
+    }
+
+    private void refitUpwards(int start) {
+        int index = start;
+        while (index != NULL_NODE) {
+            index = balance(index);
+            int first = child1[index];
+            int second = child2[index];
+            height[index] = 1 + Math.max(height[first], height[second]);
+            unionInto(first, second, index);
+            index = parent[index];
+        }
+    }
+
+    /** Performs a left or right rotation if node {@code a} is imbalanced and returns the new subtree root. */
+    private int balance(int a) {
+        if (child1[a] == NULL_NODE || height[a] < 2) {
+            return a;
+        }
+
+        int b = child1[a];
+        int c = child2[a];
+        int balance = height[c] - height[b];
+
+        if (balance > 1) {
+            int f = child1[c];
+            int g = child2[c];
+            child1[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replaceChild(parent[c], a, c);
+
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+                unionInto(b, g, a);
+                unionInto(a, f, c);
+                height[a] = 1 + Math.max(height[b], height[g]);
+                height[c] = 1 + Math.max(height[a], height[f]);
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+                unionInto(b, f, a);
+                unionInto(a, g, c);
+                height[a] = 1 + Math.max(height[b], height[f]);
+                height[c] = 1 + Math.max(height[a], height[g]);
+            }
+            return c;
+        }
+
+        if (balance < -1) {
+            int d = child1[b];
+            int e = child2[b];
+            child1[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replaceChild(parent[b], a, b);
+
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+                unionInto(c, e, a);
+                unionInto(a, d, b);
+                height[a] = 1 + Math.max(height[c], height[e]);
+                height[b] = 1 + Math.max(height[a], height[d]);
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+                unionInto(c, d, a);
+                unionInto(a, e, b);
+                height[a] = 1 + Math.max(height[c], height[d]);
+                height[b] = 1 + Math.max(height[a], height[e]);
+            }
+            return b;
+        }
+
+        return a;
+    }
+
+    private void replaceChild(int node, int oldChild, int newChild) {
+        if (node == NULL_NODE) {
+            root = newChild;
+        } else if (child1[node] == oldChild) {
+            child1[node] = newChild;
+        } else {
+            child2[node] = newChild;
+        }
+    }
+
+    private void union(int first, int second, float[] out) {
+        int a = first * BOUNDS_STRIDE;
+        int b = second * BOUNDS_STRIDE;
+        out[0] = Math.min(bounds[a], bounds[b]);
+        out[1] = Math.min(bounds[a + 1], bounds[b + 1]);
+        out[2] = Math.min(bounds[a + 2], bounds[b + 2]);
+        out[3] = Math.max(bounds[a + 3], bounds[b + 3]);
+        out[4] = Math.max(bounds[a + 4], bounds[b + 4]);
+        out[5] = Math.max(bounds[a + 5], bounds[b + 5]);
+    }
+
+    private void unionInto(int first, int second, int target) {
+        union(first, second, combined);
+        System.arraycopy(combined, 0, bounds, target * BOUNDS_STRIDE, BOUNDS_STRIDE);
+    }
+
+    private float surfaceArea(int node) {
+        int offset = node * BOUNDS_STRIDE;
+        return surfaceArea(bounds[offset + 3] - bounds[offset],
+                bounds[offset + 4] - bounds[offset + 1],
+                bounds[offset + 5] - bounds[offset + 2]);
+    }
+
+    private float surfaceArea(float[] box) {
+        return surfaceArea(box[3] - box[0], box[4] - box[1], box[5] - box[2]);
+    }
+
+    private float surfaceArea(float width, float height, float depth) {
+        return 2f * ((width * height) + (height * depth) + (depth * width));
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            allocatePool(nodeCapacity * 2);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL_NODE;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        height[node] = 0;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        height[node] = -1;
+        colliders[node] = null;
+        freeList = node;
+        nodeCount--;
+    }
+
+    private void allocatePool(int capacity) {
+        int oldCapacity = nodeCapacity;
+        bounds = grow(bounds, capacity * BOUNDS_STRIDE);
+        parent = grow(parent, capacity);
+        child1 = grow(child1, capacity);
+        child2 = grow(child2, capacity);
+        height = grow(height, capacity);
+        userIndex = grow(userIndex, capacity);
+        Collider[] grownColliders = new Collider[capacity];
+        if (colliders != null) {
+            System.arraycopy(colliders, 0, grownColliders, 0, oldCapacity);
+        }
+        colliders = grownColliders;
+
+        for (int i = oldCapacity; i < capacity; i++) {
+            parent[i] = i + 1 < capacity ? i + 1 : NULL_NODE;
+            child1[i] = NULL_NODE;
+            child2[i] = NULL_NODE;
+            height[i] = -1;
+        }
+        freeList = oldCapacity;
+        nodeCapacity = capacity;
+    }
+
+    private void ensureStack(int size) {
+        if (size > stack.length) {
+            int[] grown = new int[Math.max(size, stack.length * 2)];
+            System.arraycopy(stack, 0, grown, 0, stack.length);
+            stack = grown;
+        }
+    }
+
+    private void checkProxy(int proxyId) {
+        if (proxyId < 0 || proxyId >= nodeCapacity || height[proxyId] != 0) {
+            throw new IllegalArgumentException("Unknown proxy id " + proxyId + ".");
+        }
+    }
+
+    private static float[] grow(float[] source, int length) {
+        float[] grown = new float[length];
+        if (source != null) {
+            System.arraycopy(source, 0, grown, 0, source.length);
+        }
+        return grown;
+    }
+
+    private static int[] grow(int[] source, int length) {
+        int[] grown = new int[length];
+        if (source != null) {
+            System.arraycopy(source, 0, grown, 0, source.length);
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,257 @@
+package com.njst.gaming.collision;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Broadphase backed by a {@link DynamicAabbTree}.
+ * Each collider owns a fattened leaf; colliders that stay inside it are not reinserted,
+ * and pair generation queries the tree once per collider instead of testing every pair.
+ * The same tree accelerates {@link CollisionWorld#raycast} through {@link QueryableBroadphase}.
+ * The returned pair list is owned by the broadphase and reused by the next call.
+ */
+public class DynamicAabbTreeBroadphase implements QueryableBroadphase {
+    private static final int BOUNDS_STRIDE = 6;
+
+    private final DynamicAabbTree tree;
+    private final ArrayList<CollisionPair> pairs = new ArrayList<CollisionPair>();
+    private IdentityHashMap<Collider, Integer> proxyIds = new IdentityHashMap<Collider, Integer>();
+    private IdentityHashMap<Collider, Integer> rebuildProxyIds = new IdentityHashMap<Collider, Integer>();
+    private Collider[] registered = new Collider[0];
+    private int[] registeredProxies = new int[0];
+    private float[] tightBounds = new float[0];
+    private int registeredCount;
+    private int reinsertedCount;
+    private int queryIndex;
+    private boolean[] sleeping;
+    private BroadphaseRaycastCallback activeRaycast;
+    private BroadphaseQueryCallback activeQuery;
+
+    private final DynamicAabbTree.QueryCallback pairCollector = new DynamicAabbTree.QueryCallback() {
+        @Override
+        public boolean onProxy(int proxyId) {
+            collectPair(proxyId);
+            return true;
+        }
+    };
+
+    private final DynamicAabbTree.RaycastCallback raycastForwarder = new DynamicAabbTree.RaycastCallback() {
+        @Override
+        public float onProxy(int proxyId, float maxDistance) {
+            return activeRaycast.onCandidate(tree.getCollider(proxyId), maxDistance);
+        }
+    };
+
+    private final DynamicAabbTree.QueryCallback queryForwarder = new DynamicAabbTree.QueryCallback() {
+        @Override
+        public boolean onProxy(int proxyId) {
+            return activeQuery.onCandidate(tree.getCollider(proxyId));
+        }
+    };
+
+    public DynamicAabbTreeBroadphase() {
+        this(0.2f);
+    }
+
+    public DynamicAabbTreeBroadphase(float fatMargin) {
+        this.tree = new DynamicAabbTree(fatMargin);
+    }
+
+    @Override
+    public List<CollisionPair> computePairs(List<Collider> colliders) {
+        return computePairs(colliders, null);
+    }
+
+    /** Sleeping colliders are not queried; they are only found from the awake colliders they touch. */
+    @Override
+    public List<CollisionPair> computePairs(List<Collider> colliders, boolean[] sleeping) {
+        pairs.clear();
+        if (colliders == null) {
+            colliders = Collections.emptyList();
+        }
+
+        syncProxies(colliders);
+        refreshProxies();
+        this.sleeping = sleeping;
+        try {
+            for (int i = 0; i < registeredCount; i++) {
+                if (sleeping != null && sleeping[i]) {
+                    continue;
+                }
+                int offset = i * BOUNDS_STRIDE;
+                queryIndex = i;
+                tree.query(tightBounds[offset], tightBounds[offset + 1], tightBounds[offset + 2],
+                        tightBounds[offset + 3], tightBounds[offset + 4], tightBounds[offset + 5], pairCollector);
+            }
+        } finally {
+            this.sleeping = null;
+        }
+        return pairs;
+    }
+
+    @Override
+    public void raycast(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, BroadphaseRaycastCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        activeRaycast = callback;
+        try {
+            tree.raycast(originX, originY, originZ, directionX, directionY, directionZ, maxDistance, raycastForwarder);
+        } finally {
+            activeRaycast = null;
+        }
+    }
+
+    @Override
+    public void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            BroadphaseQueryCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        activeQuery = callback;
+        try {
+            tree.query(minX, minY, minZ, maxX, maxY, maxZ, queryForwarder);
+        } finally {
+            activeQuery = null;
+        }
+    }
+
+    @Override
+    public void refit(boolean[] moved) {
+        for (int i = 0; i < registeredCount; i++) {
+            if (moved[i]) {
+                refreshProxy(i);
+            }
+        }
+    }
+
+    public int getProxyCount() {
+        return tree.getProxyCount();
+    }
+
+    public int getTreeHeight() {
+        return tree.getHeight();
+    }
+
+    /** Number of proxies that left their fattened bounds during the last step. */
+    public int getReinsertedProxyCount() {
+        return reinsertedCount;
+    }
+
+    private void collectPair(int proxyId) {
+        int otherIndex = tree.getUserIndex(proxyId);
+        if (otherIndex == queryIndex) {
+            return;
+        }
+        // Awake pairs are found from both sides, so keep the lower index; sleeping colliders never query.
+        boolean otherSleeping = sleeping != null && sleeping[otherIndex];
+        if (otherIndex < queryIndex && !otherSleeping) {
+            return;
+        }
+        if (!tightOverlap(queryIndex, otherIndex)) {
+            return;
+        }
+        Collider first = registered[Math.min(queryIndex, otherIndex)];
+        Collider second = registered[Math.max(queryIndex, otherIndex)];
+        if (first.isStatic() && second.isStatic()) {
+            return;
+        }
+        if (!first.canCollideWith(second)) {
+            return;
+        }
+        pairs.add(new CollisionPair(first, second));
+    }
+
+    private void syncProxies(List<Collider> colliders) {
+        int count = colliders.size();
+        if (count == registeredCount) {
+            boolean unchanged = true;
+            for (int i = 0; i < count; i++) {
+                if (registered[i] != colliders.get(i)) {
+                    unchanged = false;
+                    break;
+                }
+            }
+            if (unchanged) {
+                return;
+            }
+        }
+
+        if (registered.length < count) {
+            int capacity = Math.max(count, registered.length * 2);
+            registered = new Collider[capacity];
+            registeredProxies = new int[capacity];
+            tightBounds = new float[capacity * BOUNDS_STRIDE];
+        }
+
+        rebuildProxyIds.clear();
+        for (int i = 0; i < count; i++) {
+            Collider collider = colliders.get(i);
+            Integer proxyId = rebuildProxyIds.get(collider);
+            if (proxyId == null) {
+                proxyId = proxyIds.remove(collider);
+            }
+            if (proxyId == null) {
+                Bounds3 worldBounds = collider.getWorldBounds();
+                proxyId = tree.createProxy(collider,
+                        worldBounds.getMinX(), worldBounds.getMinY(), worldBounds.getMinZ(),
+                        worldBounds.getMaxX(), worldBounds.getMaxY(), worldBounds.getMaxZ());
+            }
+            rebuildProxyIds.put(collider, proxyId);
+            registered[i] = collider;
+            registeredProxies[i] = proxyId;
+        }
+        for (Integer staleProxy : proxyIds.values()) {
+            tree.destroyProxy(staleProxy);
+        }
+        proxyIds.clear();
+
+        IdentityHashMap<Collider, Integer> swap = proxyIds;
+        proxyIds = rebuildProxyIds;
+        rebuildProxyIds = swap;
+
+        for (int i = count; i < registeredCount; i++) {
+            registered[i] = null;
+        }
+        registeredCount = count;
+    }
+
+    private void refreshProxies() {
+        reinsertedCount = 0;
+        for (int i = 0; i < registeredCount; i++) {
+            if (refreshProxy(i)) {
+                reinsertedCount++;
+            }
+        }
+    }
+
+    /** Returns true when the proxy left its fattened bounds and was reinserted. */
+    private boolean refreshProxy(int index) {
+        Bounds3 worldBounds = registered[index].getWorldBounds();
+        int offset = index * BOUNDS_STRIDE;
+        tightBounds[offset] = worldBounds.getMinX();
+        tightBounds[offset + 1] = worldBounds.getMinY();
+        tightBounds[offset + 2] = worldBounds.getMinZ();
+        tightBounds[offset + 3] = worldBounds.getMaxX();
+        tightBounds[offset + 4] = worldBounds.getMaxY();
+        tightBounds[offset + 5] = worldBounds.getMaxZ();
+
+        int proxyId = registeredProxies[index];
+        boolean reinserted = tree.moveProxy(proxyId, tightBounds[offset], tightBounds[offset + 1],
+                tightBounds[offset + 2], tightBounds[offset + 3], tightBounds[offset + 4], tightBounds[offset + 5]);
+        tree.setUserIndex(proxyId, index);
+        return reinserted;
+    }
+
+    private boolean tightOverlap(int firstIndex, int secondIndex) {
+        int first = firstIndex * BOUNDS_STRIDE;
+        int second = secondIndex * BOUNDS_STRIDE;
+        return tightBounds[first] <= tightBounds[second + 3] && tightBounds[first + 3] >= tightBounds[second]
+                && tightBounds[first + 1] <= tightBounds[second + 4] && tightBounds[first + 4] >= tightBounds[second + 1]
+                && tightBounds[first + 2] <= tightBounds[second + 5] && tightBounds[first + 5] >= tightBounds[second + 2];
+    }
+}
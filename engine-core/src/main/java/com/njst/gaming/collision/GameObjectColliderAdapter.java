@@ -34,6 +34,16 @@ public class GameObjectColliderAdapter implements Collider {
         return shape;
     }
 
+    @Override
+    public void refreshTransform() {
+        gameObject.updateModelMatrix();
+    }
+
+    @Override
+    public long getTransformVersion() {
+        return gameObject.getTransformVersion();
+    }
+
     @Override
     public Bounds3 getWorldBounds() {
         gameObject.updateModelMatrix();
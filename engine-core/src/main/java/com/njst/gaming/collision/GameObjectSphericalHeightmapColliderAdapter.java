@@ -70,20 +70,33 @@ public class GameObjectSphericalHeightmapColliderAdapter implements SphericalHei
     }
 
     @Override
-    public Vector3 worldToLocalPoint(Vector3 worldPoint) {
+    public void refreshTransform() {
         gameObject.updateModelMatrix();
-        float[] model = gameObject.getModelMatrix().clone();
-        Matrix4 inverse = new Matrix4().set(model).invert();
+    }
+
+    @Override
+    public long getTransformVersion() {
+        return gameObject.getTransformVersion();
+    }
+
+    @Override
+    public Vector3 worldToLocalPoint(Vector3 worldPoint) {
+        Matrix4 inverse = new Matrix4().set(gameObject.getModelMatrix()).invert();
         return inverse.multiply(worldPoint);
     }
 
     @Override
     public Vector3 localToWorldPoint(Vector3 localPoint) {
-        gameObject.updateModelMatrix();
-        Matrix4 world = new Matrix4().set(gameObject.getModelMatrix().clone());
+        Matrix4 world = new Matrix4().set(gameObject.getModelMatrix());
         return world.multiply(localPoint);
     }
 
+    @Override
+    public boolean copyLocalToWorld(float[] out) {
+        System.arraycopy(gameObject.modelMatrix.r, 0, out, 0, 16);
+        return true;
+    }
+
     public float worldDistanceForLocalRadius(float localRadius) {
         Vector3 center = getWorldCenter();
         Vector3 offsetPoint = localToWorldPoint(shape.getLocalCenter().add(new Vector3(localRadius, 0f, 0f)));
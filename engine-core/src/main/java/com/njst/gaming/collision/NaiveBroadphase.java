@@ -6,6 +6,11 @@ import java.util.List;
 public class NaiveBroadphase implements Broadphase {
     @Override
     public List<CollisionPair> computePairs(List<Collider> colliders) {
+        return computePairs(colliders, null);
+    }
+
+    @Override
+    public List<CollisionPair> computePairs(List<Collider> colliders, boolean[] sleeping) {
         ArrayList<CollisionPair> pairs = new ArrayList<CollisionPair>();
         if (colliders == null) {
             return pairs;
@@ -15,6 +20,9 @@ public class NaiveBroadphase implements Broadphase {
             Collider first = colliders.get(i);
             for (int j = i + 1; j < colliders.size(); j++) {
                 Collider second = colliders.get(j);
+                if (sleeping != null && sleeping[i] && sleeping[j]) {
+                    continue;
+                }
                 if (!first.canCollideWith(second)) {
                     continue;
                 }
@@ -0,0 +1,101 @@
+package com.njst.gaming.collision;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs {@link CollisionDispatcher#test} for candidate pairs on a fork-join pool.
+ * Manifolds are written into slots that match the candidate order, so the caller can emit
+ * events on its own thread in exactly the order the serial path would.
+ * Algorithms and colliders must tolerate concurrent reads while this runs; {@link DefaultCollisionWorld}
+ * calls {@link Collider#refreshTransform()} on its own thread first, so adapters need not update
+ * shared transforms from inside a test.
+ */
+public class ParallelNarrowphase {
+    public static final int DEFAULT_THRESHOLD = 64;
+    public static final int DEFAULT_BATCH_SIZE = 16;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int batchSize;
+
+    public ParallelNarrowphase() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD, DEFAULT_BATCH_SIZE);
+    }
+
+    public ParallelNarrowphase(int threshold) {
+        this(ForkJoinPool.commonPool(), threshold, DEFAULT_BATCH_SIZE);
+    }
+
+    public ParallelNarrowphase(ForkJoinPool pool, int threshold, int batchSize) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null.");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1.");
+        }
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+        this.batchSize = batchSize;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean shouldRunInParallel(int candidateCount) {
+        return candidateCount >= threshold && pool.getParallelism() > 1;
+    }
+
+    /** Fills {@code manifolds[i]} with the dispatcher result for {@code pairs.get(i)}. */
+    public void test(CollisionDispatcher dispatcher, List<CollisionPair> pairs, CollisionManifold[] manifolds) {
+        int count = pairs.size();
+        if (manifolds.length < count) {
+            throw new IllegalArgumentException("manifolds must hold at least " + count + " results.");
+        }
+        if (count == 0) {
+            return;
+        }
+        pool.invoke(new NarrowphaseTask(dispatcher, pairs, manifolds, 0, count, batchSize));
+    }
+
+    private static final class NarrowphaseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CollisionDispatcher dispatcher;
+        private final List<CollisionPair> pairs;
+        private final CollisionManifold[] manifolds;
+        private final int from;
+        private final int to;
+        private final int batchSize;
+
+        NarrowphaseTask(CollisionDispatcher dispatcher, List<CollisionPair> pairs, CollisionManifold[] manifolds,
+                int from, int to, int batchSize) {
+            this.dispatcher = dispatcher;
+            this.pairs = pairs;
+            this.manifolds = manifolds;
+            this.from = from;
+            this.to = to;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchSize) {
+                for (int i = from; i < to; i++) {
+                    CollisionPair pair = pairs.get(i);
+                    manifolds[i] = dispatcher.test(pair.getFirst(), pair.getSecond());
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NarrowphaseTask(dispatcher, pairs, manifolds, from, middle, batchSize),
+                    new NarrowphaseTask(dispatcher, pairs, manifolds, middle, to, batchSize));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.njst.gaming.collision;
+
+/**
+ * Broadphase that keeps a spatial structure between steps and can answer queries from it.
+ * Queries see colliders and bounds as of the last {@link #computePairs} call or {@link #refit},
+ * may report candidates that do not actually overlap, and report each collider at most once.
+ */
+public interface QueryableBroadphase extends Broadphase {
+    void raycast(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, BroadphaseRaycastCallback callback);
+
+    void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            BroadphaseQueryCallback callback);
+
+    /**
+     * Re-reads the world bounds of the colliders flagged in {@code moved}, indexed like the list
+     * given to the last {@link #computePairs} call, so queries see them where they are now.
+     */
+    void refit(boolean[] moved);
+}
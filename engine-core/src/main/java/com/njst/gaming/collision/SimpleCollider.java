@@ -39,6 +39,11 @@ public class SimpleCollider implements Collider {
         return worldBounds;
     }
 
+    @Override
+    public long getTransformVersion() {
+        return 0L;
+    }
+
     @Override
     public int getLayer() {
         return layer;
@@ -0,0 +1,599 @@
+package com.njst.gaming.collision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid broadphase that hashes integer cell coordinates into an open-addressing table.
+ * Works best when most colliders are about one cell in size, as on an arena floor.
+ * Each step re-buckets every collider with a counting sort into arrays that are kept between
+ * steps, so a world of stable size stops allocating apart from the reported pairs.
+ * A pair sharing several cells is only reported from the cell holding the minimum corner of
+ * its overlap. Colliders that would cover more than {@code maxCellsPerCollider} cells, such as
+ * floors, skip the grid and are tested against every other collider instead.
+ * The returned pair list is owned by the broadphase and reused by the next call.
+ */
+public class SpatialHashBroadphase implements QueryableBroadphase {
+    public static final float DEFAULT_CELL_SIZE = 2f;
+    public static final int DEFAULT_MAX_CELLS_PER_COLLIDER = 64;
+
+    private static final int BOUNDS_STRIDE = 6;
+    private static final long EMPTY = -1L;
+    private static final int CELL_BITS = 21;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1L;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+    private final int maxCellsPerCollider;
+    private final ArrayList<CollisionPair> pairs = new ArrayList<CollisionPair>();
+
+    private Collider[] registered = new Collider[0];
+    private float[] bounds = new float[0];
+    private int[] cellRanges = new int[0];
+    private boolean[] oversized = new boolean[0];
+    private int[] visitMarks = new int[0];
+    private int[] oversizedIndices = new int[0];
+    private int registeredCount;
+    private int oversizedCount;
+    private int visitStamp;
+    private boolean[] sleeping;
+
+    private long[] cellKeys = new long[0];
+    private int[] cellBuckets = new int[0];
+    private int[] occupiedSlots = new int[0];
+    private int cellMask;
+    private int bucketCount;
+    private int[] bucketCounts = new int[0];
+    private int[] bucketStarts = new int[0];
+    private int[] entries = new int[0];
+    private int entryCount;
+
+    private int gridMinX;
+    private int gridMinY;
+    private int gridMinZ;
+    private int gridMaxX;
+    private int gridMaxY;
+    private int gridMaxZ;
+
+    public SpatialHashBroadphase() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public SpatialHashBroadphase(float cellSize) {
+        this(cellSize, DEFAULT_MAX_CELLS_PER_COLLIDER);
+    }
+
+    public SpatialHashBroadphase(float cellSize, int maxCellsPerCollider) {
+        if (!(cellSize > 0f) || Float.isInfinite(cellSize)) {
+            throw new IllegalArgumentException("cellSize must be positive and finite.");
+        }
+        if (maxCellsPerCollider < 1) {
+            throw new IllegalArgumentException("maxCellsPerCollider must be at least 1.");
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+        this.maxCellsPerCollider = maxCellsPerCollider;
+        allocateCells(64);
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public int getProxyCount() {
+        return registeredCount;
+    }
+
+    /** Rebuilds the cell buckets after re-reading the flagged colliders' bounds. */
+    @Override
+    public void refit(boolean[] moved) {
+        if (registeredCount == 0) {
+            return;
+        }
+        for (int i = 0; i < registeredCount; i++) {
+            if (moved[i]) {
+                readBounds(i);
+            }
+        }
+        clearCells();
+        assignCells();
+        countEntries();
+        fillBuckets();
+    }
+
+    /** Number of non-empty cells after the last step. */
+    public int getOccupiedCellCount() {
+        return bucketCount;
+    }
+
+    /** Number of colliders that skipped the grid during the last step. */
+    public int getOversizedCount() {
+        return oversizedCount;
+    }
+
+    @Override
+    public List<CollisionPair> computePairs(List<Collider> colliders) {
+        return computePairs(colliders, null);
+    }
+
+    @Override
+    public List<CollisionPair> computePairs(List<Collider> colliders, boolean[] sleeping) {
+        pairs.clear();
+        clearCells();
+        int count = colliders == null ? 0 : colliders.size();
+        ensureColliderCapacity(count);
+        for (int i = count; i < registeredCount; i++) {
+            registered[i] = null;
+        }
+        registeredCount = count;
+        oversizedCount = 0;
+        if (count == 0) {
+            return pairs;
+        }
+
+        refreshBounds(colliders);
+        countEntries();
+        fillBuckets();
+        this.sleeping = sleeping;
+        try {
+            collectGridPairs();
+            collectOversizedPairs();
+        } finally {
+            this.sleeping = null;
+        }
+        return pairs;
+    }
+
+    @Override
+    public void raycast(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, BroadphaseRaycastCallback callback) {
+        if (callback == null || registeredCount == 0) {
+            return;
+        }
+        int stamp = nextVisitStamp();
+        float limit = maxDistance;
+        for (int i = 0; i < oversizedCount; i++) {
+            int index = oversizedIndices[i];
+            visitMarks[index] = stamp;
+            limit = callback.onCandidate(registered[index], limit);
+            if (limit <= 0f) {
+                return;
+            }
+        }
+        if (bucketCount == 0) {
+            return;
+        }
+
+        float enter = CollisionMath.intersectRayAabb(originX, originY, originZ, directionX, directionY, directionZ,
+                gridMinX * cellSize, gridMinY * cellSize, gridMinZ * cellSize,
+                (gridMaxX + 1) * cellSize, (gridMaxY + 1) * cellSize, (gridMaxZ + 1) * cellSize, limit);
+        if (enter < 0f) {
+            return;
+        }
+
+        int cellX = clamp(cellCoordinate(originX + (directionX * enter)), gridMinX, gridMaxX);
+        int cellY = clamp(cellCoordinate(originY + (directionY * enter)), gridMinY, gridMaxY);
+        int cellZ = clamp(cellCoordinate(originZ + (directionZ * enter)), gridMinZ, gridMaxZ);
+        int stepX = directionX > 0f ? 1 : (directionX < 0f ? -1 : 0);
+        int stepY = directionY > 0f ? 1 : (directionY < 0f ? -1 : 0);
+        int stepZ = directionZ > 0f ? 1 : (directionZ < 0f ? -1 : 0);
+        float nextX = boundaryDistance(originX, directionX, cellX, stepX);
+        float nextY = boundaryDistance(originY, directionY, cellY, stepY);
+        float nextZ = boundaryDistance(originZ, directionZ, cellZ, stepZ);
+        float deltaX = stepX != 0 ? cellSize / Math.abs(directionX) : Float.POSITIVE_INFINITY;
+        float deltaY = stepY != 0 ? cellSize / Math.abs(directionY) : Float.POSITIVE_INFINITY;
+        float deltaZ = stepZ != 0 ? cellSize / Math.abs(directionZ) : Float.POSITIVE_INFINITY;
+
+        while (true) {
+            int slot = findCell(cellKey(cellX, cellY, cellZ));
+            if (slot >= 0) {
+                int bucket = cellBuckets[slot];
+                int end = bucketStarts[bucket] + bucketCounts[bucket];
+                for (int entry = bucketStarts[bucket]; entry < end; entry++) {
+                    int index = entries[entry];
+                    if (visitMarks[index] == stamp) {
+                        continue;
+                    }
+                    visitMarks[index] = stamp;
+                    limit = callback.onCandidate(registered[index], limit);
+                    if (limit <= 0f) {
+                        return;
+                    }
+                }
+            }
+
+            if (nextX <= nextY && nextX <= nextZ) {
+                if (nextX > limit || stepX == 0) {
+                    return;
+                }
+                cellX += stepX;
+                nextX += deltaX;
+                if (cellX < gridMinX || cellX > gridMaxX) {
+                    return;
+                }
+            } else if (nextY <= nextZ) {
+                if (nextY > limit) {
+                    return;
+                }
+                cellY += stepY;
+                nextY += deltaY;
+                if (cellY < gridMinY || cellY > gridMaxY) {
+                    return;
+                }
+            } else {
+                if (nextZ > limit) {
+                    return;
+                }
+                cellZ += stepZ;
+                nextZ += deltaZ;
+                if (cellZ < gridMinZ || cellZ > gridMaxZ) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            BroadphaseQueryCallback callback) {
+        if (callback == null || registeredCount == 0) {
+            return;
+        }
+        int stamp = nextVisitStamp();
+        for (int i = 0; i < oversizedCount; i++) {
+            int index = oversizedIndices[i];
+            visitMarks[index] = stamp;
+            if (overlapsBox(index, minX, minY, minZ, maxX, maxY, maxZ) && !callback.onCandidate(registered[index])) {
+                return;
+            }
+        }
+        if (bucketCount == 0) {
+            return;
+        }
+
+        int cellMinX = Math.max(gridMinX, cellCoordinate(minX));
+        int cellMinY = Math.max(gridMinY, cellCoordinate(minY));
+        int cellMinZ = Math.max(gridMinZ, cellCoordinate(minZ));
+        int cellMaxX = Math.min(gridMaxX, cellCoordinate(maxX));
+        int cellMaxY = Math.min(gridMaxY, cellCoordinate(maxY));
+        int cellMaxZ = Math.min(gridMaxZ, cellCoordinate(maxZ));
+        if (cellMinX > cellMaxX || cellMinY > cellMaxY || cellMinZ > cellMaxZ) {
+            return;
+        }
+        long cellsCovered = ((long) cellMaxX - cellMinX + 1L) * ((long) cellMaxY - cellMinY + 1L)
+                * ((long) cellMaxZ - cellMinZ + 1L);
+        if (cellsCovered > bucketCount) {
+            // Boxes spanning more cells than are occupied are cheaper to answer bucket by bucket.
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                if (!queryBucket(bucket, stamp, minX, minY, minZ, maxX, maxY, maxZ, callback)) {
+                    return;
+                }
+            }
+            return;
+        }
+        for (int x = cellMinX; x <= cellMaxX; x++) {
+            for (int y = cellMinY; y <= cellMaxY; y++) {
+                for (int z = cellMinZ; z <= cellMaxZ; z++) {
+                    int slot = findCell(cellKey(x, y, z));
+                    if (slot >= 0 && !queryBucket(cellBuckets[slot], stamp, minX, minY, minZ, maxX, maxY, maxZ, callback)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean queryBucket(int bucket, int stamp, float minX, float minY, float minZ,
+            float maxX, float maxY, float maxZ, BroadphaseQueryCallback callback) {
+        int end = bucketStarts[bucket] + bucketCounts[bucket];
+        for (int entry = bucketStarts[bucket]; entry < end; entry++) {
+            int index = entries[entry];
+            if (visitMarks[index] == stamp) {
+                continue;
+            }
+            visitMarks[index] = stamp;
+            if (overlapsBox(index, minX, minY, minZ, maxX, maxY, maxZ) && !callback.onCandidate(registered[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean overlapsBox(int index, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        int offset = index * BOUNDS_STRIDE;
+        return bounds[offset] <= maxX && bounds[offset + 3] >= minX
+                && bounds[offset + 1] <= maxY && bounds[offset + 4] >= minY
+                && bounds[offset + 2] <= maxZ && bounds[offset + 5] >= minZ;
+    }
+
+    private void refreshBounds(List<Collider> colliders) {
+        for (int i = 0; i < registeredCount; i++) {
+            registered[i] = colliders.get(i);
+            readBounds(i);
+        }
+        assignCells();
+    }
+
+    private void readBounds(int index) {
+        Bounds3 worldBounds = registered[index].getWorldBounds();
+        int offset = index * BOUNDS_STRIDE;
+        bounds[offset] = worldBounds.getMinX();
+        bounds[offset + 1] = worldBounds.getMinY();
+        bounds[offset + 2] = worldBounds.getMinZ();
+        bounds[offset + 3] = worldBounds.getMaxX();
+        bounds[offset + 4] = worldBounds.getMaxY();
+        bounds[offset + 5] = worldBounds.getMaxZ();
+    }
+
+    /** Derives each collider's cell range, the oversized list and the grid extent from {@code bounds}. */
+    private void assignCells() {
+        oversizedCount = 0;
+        gridMinX = Integer.MAX_VALUE;
+        gridMinY = Integer.MAX_VALUE;
+        gridMinZ = Integer.MAX_VALUE;
+        gridMaxX = Integer.MIN_VALUE;
+        gridMaxY = Integer.MIN_VALUE;
+        gridMaxZ = Integer.MIN_VALUE;
+
+        for (int i = 0; i < registeredCount; i++) {
+            int offset = i * BOUNDS_STRIDE;
+            int minX = cellCoordinate(bounds[offset]);
+            int minY = cellCoordinate(bounds[offset + 1]);
+            int minZ = cellCoordinate(bounds[offset + 2]);
+            int maxX = cellCoordinate(bounds[offset + 3]);
+            int maxY = cellCoordinate(bounds[offset + 4]);
+            int maxZ = cellCoordinate(bounds[offset + 5]);
+            cellRanges[offset] = minX;
+            cellRanges[offset + 1] = minY;
+            cellRanges[offset + 2] = minZ;
+            cellRanges[offset + 3] = maxX;
+            cellRanges[offset + 4] = maxY;
+            cellRanges[offset + 5] = maxZ;
+
+            long cellsCovered = ((long) maxX - minX + 1L) * ((long) maxY - minY + 1L) * ((long) maxZ - minZ + 1L);
+            oversized[i] = cellsCovered > maxCellsPerCollider;
+            if (oversized[i]) {
+                oversizedIndices[oversizedCount++] = i;
+                continue;
+            }
+            gridMinX = Math.min(gridMinX, minX);
+            gridMinY = Math.min(gridMinY, minY);
+            gridMinZ = Math.min(gridMinZ, minZ);
+            gridMaxX = Math.max(gridMaxX, maxX);
+            gridMaxY = Math.max(gridMaxY, maxY);
+            gridMaxZ = Math.max(gridMaxZ, maxZ);
+        }
+    }
+
+    private void countEntries() {
+        entryCount = 0;
+        for (int i = 0; i < registeredCount; i++) {
+            if (oversized[i]) {
+                continue;
+            }
+            int offset = i * BOUNDS_STRIDE;
+            for (int x = cellRanges[offset]; x <= cellRanges[offset + 3]; x++) {
+                for (int y = cellRanges[offset + 1]; y <= cellRanges[offset + 4]; y++) {
+                    for (int z = cellRanges[offset + 2]; z <= cellRanges[offset + 5]; z++) {
+                        int bucket = bucketFor(cellKey(x, y, z));
+                        bucketCounts[bucket]++;
+                        entryCount++;
+                    }
+                }
+            }
+        }
+
+        if (entries.length < entryCount) {
+            entries = new int[Math.max(entryCount, entries.length * 2)];
+        }
+        int start = 0;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketStarts[bucket] = start;
+            start += bucketCounts[bucket];
+            bucketCounts[bucket] = 0;
+        }
+    }
+
+    private void fillBuckets() {
+        for (int i = 0; i < registeredCount; i++) {
+            if (oversized[i]) {
+                continue;
+            }
+            int offset = i * BOUNDS_STRIDE;
+            for (int x = cellRanges[offset]; x <= cellRanges[offset + 3]; x++) {
+                for (int y = cellRanges[offset + 1]; y <= cellRanges[offset + 4]; y++) {
+                    for (int z = cellRanges[offset + 2]; z <= cellRanges[offset + 5]; z++) {
+                        int bucket = cellBuckets[findCell(cellKey(x, y, z))];
+                        entries[bucketStarts[bucket] + bucketCounts[bucket]++] = i;
+                    }
+                }
+            }
+        }
+    }
+
+    private void collectGridPairs() {
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int start = bucketStarts[bucket];
+            int end = start + bucketCounts[bucket];
+            for (int a = start; a < end; a++) {
+                int firstIndex = entries[a];
+                for (int b = a + 1; b < end; b++) {
+                    int secondIndex = entries[b];
+                    if (bothSleeping(firstIndex, secondIndex) || !overlaps(firstIndex, secondIndex)) {
+                        continue;
+                    }
+                    if (!ownsPair(bucket, firstIndex, secondIndex)) {
+                        continue;
+                    }
+                    addPair(firstIndex, secondIndex);
+                }
+            }
+        }
+    }
+
+    private void collectOversizedPairs() {
+        for (int o = 0; o < oversizedCount; o++) {
+            int oversizedIndex = oversizedIndices[o];
+            for (int other = 0; other < registeredCount; other++) {
+                if (other == oversizedIndex || (oversized[other] && other < oversizedIndex)) {
+                    continue;
+                }
+                if (bothSleeping(oversizedIndex, other) || !overlaps(oversizedIndex, other)) {
+                    continue;
+                }
+                addPair(Math.min(oversizedIndex, other), Math.max(oversizedIndex, other));
+            }
+        }
+    }
+
+    /** True when {@code bucket} holds the minimum corner of the two colliders' overlap. */
+    private boolean ownsPair(int bucket, int firstIndex, int secondIndex) {
+        int first = firstIndex * BOUNDS_STRIDE;
+        int second = secondIndex * BOUNDS_STRIDE;
+        long ownerKey = cellKey(
+                Math.max(cellRanges[first], cellRanges[second]),
+                Math.max(cellRanges[first + 1], cellRanges[second + 1]),
+                Math.max(cellRanges[first + 2], cellRanges[second + 2]));
+        return cellKeys[occupiedSlots[bucket]] == ownerKey;
+    }
+
+    private void addPair(int firstIndex, int secondIndex) {
+        Collider first = registered[firstIndex];
+        Collider second = registered[secondIndex];
+        if (first.isStatic() && second.isStatic()) {
+            return;
+        }
+        if (!first.canCollideWith(second)) {
+            return;
+        }
+        pairs.add(new CollisionPair(first, second));
+    }
+
+    private boolean bothSleeping(int firstIndex, int secondIndex) {
+        return sleeping != null && sleeping[firstIndex] && sleeping[secondIndex];
+    }
+
+    private boolean overlaps(int firstIndex, int secondIndex) {
+        int first = firstIndex * BOUNDS_STRIDE;
+        int second = secondIndex * BOUNDS_STRIDE;
+        return bounds[first] <= bounds[second + 3] && bounds[first + 3] >= bounds[second]
+                && bounds[first + 1] <= bounds[second + 4] && bounds[first + 4] >= bounds[second + 1]
+                && bounds[first + 2] <= bounds[second + 5] && bounds[first + 5] >= bounds[second + 2];
+    }
+
+    private int cellCoordinate(float value) {
+        return (int) Math.floor(value * inverseCellSize);
+    }
+
+    private float boundaryDistance(float origin, float direction, int cell, int step) {
+        if (step == 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        float boundary = (step > 0 ? cell + 1 : cell) * cellSize;
+        return (boundary - origin) / direction;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    private static long cellKey(int x, int y, int z) {
+        return ((x & CELL_MASK) << (CELL_BITS * 2)) | ((y & CELL_MASK) << CELL_BITS) | (z & CELL_MASK);
+    }
+
+    private int bucketFor(long key) {
+        if ((bucketCount + 1) * 2 > cellKeys.length) {
+            growCells();
+        }
+        int slot = mix(key) & cellMask;
+        while (cellKeys[slot] != EMPTY) {
+            if (cellKeys[slot] == key) {
+                return cellBuckets[slot];
+            }
+            slot = (slot + 1) & cellMask;
+        }
+        cellKeys[slot] = key;
+        cellBuckets[slot] = bucketCount;
+        occupiedSlots[bucketCount] = slot;
+        if (bucketCounts.length <= bucketCount) {
+            bucketCounts = Arrays.copyOf(bucketCounts, Math.max(16, bucketCounts.length * 2));
+            bucketStarts = new int[bucketCounts.length];
+        }
+        bucketCounts[bucketCount] = 0;
+        return bucketCount++;
+    }
+
+    private int findCell(long key) {
+        int slot = mix(key) & cellMask;
+        while (cellKeys[slot] != EMPTY) {
+            if (cellKeys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & cellMask;
+        }
+        return -1;
+    }
+
+    private void clearCells() {
+        for (int i = 0; i < bucketCount; i++) {
+            cellKeys[occupiedSlots[i]] = EMPTY;
+        }
+        bucketCount = 0;
+    }
+
+    private void growCells() {
+        long[] oldKeys = cellKeys;
+        int[] oldBuckets = cellBuckets;
+        int[] oldOccupied = occupiedSlots;
+        allocateCells(oldKeys.length * 2);
+        for (int i = 0; i < bucketCount; i++) {
+            int oldSlot = oldOccupied[i];
+            long key = oldKeys[oldSlot];
+            int slot = mix(key) & cellMask;
+            while (cellKeys[slot] != EMPTY) {
+                slot = (slot + 1) & cellMask;
+            }
+            cellKeys[slot] = key;
+            cellBuckets[slot] = oldBuckets[oldSlot];
+            occupiedSlots[i] = slot;
+        }
+    }
+
+    private void allocateCells(int capacity) {
+        cellKeys = new long[capacity];
+        Arrays.fill(cellKeys, EMPTY);
+        cellBuckets = new int[capacity];
+        occupiedSlots = new int[capacity / 2 + 1];
+        cellMask = capacity - 1;
+    }
+
+    private void ensureColliderCapacity(int count) {
+        if (registered.length >= count) {
+            return;
+        }
+        int capacity = Math.max(count, registered.length * 2);
+        registered = new Collider[capacity];
+        bounds = new float[capacity * BOUNDS_STRIDE];
+        cellRanges = new int[capacity * BOUNDS_STRIDE];
+        oversized = new boolean[capacity];
+        visitMarks = new int[capacity];
+        oversizedIndices = new int[capacity];
+        visitStamp = 0;
+    }
+
+    private int nextVisitStamp() {
+        visitStamp++;
+        if (visitStamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitMarks, 0);
+            visitStamp = 1;
+        }
+        return visitStamp;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -8,4 +8,12 @@ public interface SphericalHeightmapCollider extends Collider {
     Vector3 worldToLocalPoint(Vector3 worldPoint);
 
     Vector3 localToWorldPoint(Vector3 localPoint);
+
+    /**
+     * Copies the affine local-to-world matrix (column-major, 16 floats) into {@code out}.
+     * Colliders that return false are tested through the Vector3 transform methods instead.
+     */
+    default boolean copyLocalToWorld(float[] out) {
+        return false;
+    }
 }
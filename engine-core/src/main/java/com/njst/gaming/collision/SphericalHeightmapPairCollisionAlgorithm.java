@@ -2,8 +2,43 @@ package com.njst.gaming.collision;
 
 import com.njst.gaming.Math.Vector3;
 
+/**
+ * Compares two baked spherical heightmaps along their center-to-center direction.
+ * By default, colliders that expose their model matrix are tested with primitive math and
+ * {@link SphericalHeightmapShape#sampleRadiusCubemap}, which allocates nothing apart from the
+ * returned manifold. Penetration depths then match the original atan2/acos sampling to within
+ * the cubemap tolerance of both shapes. Pass {@code false} to the constructor to keep the
+ * original sampling.
+ */
 public class SphericalHeightmapPairCollisionAlgorithm implements CollisionAlgorithm {
     private static final float EPSILON = 0.0001f;
+    private static final ThreadLocal<ContactScratch> SCRATCH = new ThreadLocal<ContactScratch>() {
+        @Override
+        protected ContactScratch initialValue() {
+            return new ContactScratch();
+        }
+    };
+
+    /** Caller-owned storage for {@link #test(Collider, Collider, ContactScratch)}. */
+    public static final class ContactScratch {
+        public final Vector3 normal = new Vector3();
+        public final Vector3 contactPoint = new Vector3();
+        public float penetrationDepth;
+        final float[] firstModel = new float[16];
+        final float[] secondModel = new float[16];
+        final float[] firstSurface = new float[3];
+        final float[] secondSurface = new float[3];
+    }
+
+    private final boolean cubemapSampling;
+
+    public SphericalHeightmapPairCollisionAlgorithm() {
+        this(true);
+    }
+
+    public SphericalHeightmapPairCollisionAlgorithm(boolean cubemapSampling) {
+        this.cubemapSampling = cubemapSampling;
+    }
 
     @Override
     public boolean supports(CollisionShape first, CollisionShape second) {
@@ -12,14 +47,155 @@ public class SphericalHeightmapPairCollisionAlgorithm implements CollisionAlgori
 
     @Override
     public CollisionManifold test(Collider first, Collider second) {
-        if (!(first instanceof SphericalHeightmapCollider) || !(second instanceof SphericalHeightmapCollider)) {
+        ContactScratch scratch = SCRATCH.get();
+        if (!test(first, second, scratch)) {
             return CollisionManifold.none();
         }
+        return new CollisionManifold(true, scratch.normal, scratch.penetrationDepth, scratch.contactPoint);
+    }
+
+    /**
+     * Writes the contact into {@code scratch} and returns whether the pair collides.
+     * Allocation-free when cubemap sampling is enabled and both colliders expose their model matrix.
+     */
+    public boolean test(Collider first, Collider second, ContactScratch scratch) {
+        if (!(first instanceof SphericalHeightmapCollider) || !(second instanceof SphericalHeightmapCollider)) {
+            return false;
+        }
 
         SphericalHeightmapCollider firstCollider = (SphericalHeightmapCollider) first;
         SphericalHeightmapCollider secondCollider = (SphericalHeightmapCollider) second;
-        SphericalHeightmapShape firstShape = (SphericalHeightmapShape) first.getShape();
-        SphericalHeightmapShape secondShape = (SphericalHeightmapShape) second.getShape();
+        if (cubemapSampling
+                && firstCollider.copyLocalToWorld(scratch.firstModel)
+                && secondCollider.copyLocalToWorld(scratch.secondModel)) {
+            return testWithMatrices(
+                    (SphericalHeightmapShape) first.getShape(),
+                    (SphericalHeightmapShape) second.getShape(),
+                    scratch);
+        }
+
+        CollisionManifold manifold = testWithTransforms(firstCollider, secondCollider);
+        if (!manifold.isColliding()) {
+            return false;
+        }
+        scratch.normal.set(manifold.getNormal());
+        scratch.contactPoint.set(manifold.getContactPoint());
+        scratch.penetrationDepth = manifold.getPenetrationDepth();
+        return true;
+    }
+
+    private boolean testWithMatrices(SphericalHeightmapShape firstShape, SphericalHeightmapShape secondShape,
+            ContactScratch scratch) {
+        float[] firstModel = scratch.firstModel;
+        float[] secondModel = scratch.secondModel;
+
+        float firstCenterX = transformX(firstModel, firstShape.getLocalCenterX(), firstShape.getLocalCenterY(), firstShape.getLocalCenterZ());
+        float firstCenterY = transformY(firstModel, firstShape.getLocalCenterX(), firstShape.getLocalCenterY(), firstShape.getLocalCenterZ());
+        float firstCenterZ = transformZ(firstModel, firstShape.getLocalCenterX(), firstShape.getLocalCenterY(), firstShape.getLocalCenterZ());
+        float secondCenterX = transformX(secondModel, secondShape.getLocalCenterX(), secondShape.getLocalCenterY(), secondShape.getLocalCenterZ());
+        float secondCenterY = transformY(secondModel, secondShape.getLocalCenterX(), secondShape.getLocalCenterY(), secondShape.getLocalCenterZ());
+        float secondCenterZ = transformZ(secondModel, secondShape.getLocalCenterX(), secondShape.getLocalCenterY(), secondShape.getLocalCenterZ());
+
+        float deltaX = secondCenterX - firstCenterX;
+        float deltaY = secondCenterY - firstCenterY;
+        float deltaZ = secondCenterZ - firstCenterZ;
+        float centerDistance = (float) Math.sqrt((deltaX * deltaX) + (deltaY * deltaY) + (deltaZ * deltaZ));
+
+        float normalX = 1f;
+        float normalY = 0f;
+        float normalZ = 0f;
+        if (centerDistance > EPSILON) {
+            float inverseDistance = 1f / centerDistance;
+            normalX = deltaX * inverseDistance;
+            normalY = deltaY * inverseDistance;
+            normalZ = deltaZ * inverseDistance;
+        }
+
+        float firstRadiusWorld = sampleSurface(firstShape, firstModel,
+                firstCenterX, firstCenterY, firstCenterZ, normalX, normalY, normalZ, scratch.firstSurface);
+        float secondRadiusWorld = sampleSurface(secondShape, secondModel,
+                secondCenterX, secondCenterY, secondCenterZ, -normalX, -normalY, -normalZ, scratch.secondSurface);
+
+        float separation = centerDistance - (firstRadiusWorld + secondRadiusWorld);
+        if (separation > 0f) {
+            return false;
+        }
+
+        scratch.normal.set(normalX, normalY, normalZ);
+        scratch.penetrationDepth = -separation;
+        scratch.contactPoint.set(
+                (scratch.firstSurface[0] + scratch.secondSurface[0]) * 0.5f,
+                (scratch.firstSurface[1] + scratch.secondSurface[1]) * 0.5f,
+                (scratch.firstSurface[2] + scratch.secondSurface[2]) * 0.5f);
+        return true;
+    }
+
+    /** Writes the sampled world surface point into {@code outSurface} and returns its world radius. */
+    private float sampleSurface(SphericalHeightmapShape shape, float[] model,
+            float centerX, float centerY, float centerZ,
+            float worldNormalX, float worldNormalY, float worldNormalZ, float[] outSurface) {
+        // The local direction is the inverse of the linear part applied to the world normal.
+        float m00 = model[0], m01 = model[4], m02 = model[8];
+        float m10 = model[1], m11 = model[5], m12 = model[9];
+        float m20 = model[2], m21 = model[6], m22 = model[10];
+        float cofactor00 = (m11 * m22) - (m12 * m21);
+        float cofactor01 = (m12 * m20) - (m10 * m22);
+        float cofactor02 = (m10 * m21) - (m11 * m20);
+        float determinant = (m00 * cofactor00) + (m01 * cofactor01) + (m02 * cofactor02);
+
+        float localX = 1f;
+        float localY = 0f;
+        float localZ = 0f;
+        if (Math.abs(determinant) > 1e-12f) {
+            float inverseDeterminant = 1f / determinant;
+            float x = ((cofactor00 * worldNormalX)
+                    + (((m02 * m21) - (m01 * m22)) * worldNormalY)
+                    + (((m01 * m12) - (m02 * m11)) * worldNormalZ)) * inverseDeterminant;
+            float y = ((cofactor01 * worldNormalX)
+                    + (((m00 * m22) - (m02 * m20)) * worldNormalY)
+                    + (((m02 * m10) - (m00 * m12)) * worldNormalZ)) * inverseDeterminant;
+            float z = ((cofactor02 * worldNormalX)
+                    + (((m01 * m20) - (m00 * m21)) * worldNormalY)
+                    + (((m00 * m11) - (m01 * m10)) * worldNormalZ)) * inverseDeterminant;
+            float length = (float) Math.sqrt((x * x) + (y * y) + (z * z));
+            if (length > EPSILON) {
+                float inverseLength = 1f / length;
+                localX = x * inverseLength;
+                localY = y * inverseLength;
+                localZ = z * inverseLength;
+            }
+        }
+
+        float localRadius = shape.sampleRadiusCubemap(localX, localY, localZ);
+        float surfaceX = shape.getLocalCenterX() + (localX * localRadius);
+        float surfaceY = shape.getLocalCenterY() + (localY * localRadius);
+        float surfaceZ = shape.getLocalCenterZ() + (localZ * localRadius);
+        outSurface[0] = transformX(model, surfaceX, surfaceY, surfaceZ);
+        outSurface[1] = transformY(model, surfaceX, surfaceY, surfaceZ);
+        outSurface[2] = transformZ(model, surfaceX, surfaceY, surfaceZ);
+
+        float offsetX = outSurface[0] - centerX;
+        float offsetY = outSurface[1] - centerY;
+        float offsetZ = outSurface[2] - centerZ;
+        return (float) Math.sqrt((offsetX * offsetX) + (offsetY * offsetY) + (offsetZ * offsetZ));
+    }
+
+    private static float transformX(float[] model, float x, float y, float z) {
+        return (model[0] * x) + (model[4] * y) + (model[8] * z) + model[12];
+    }
+
+    private static float transformY(float[] model, float x, float y, float z) {
+        return (model[1] * x) + (model[5] * y) + (model[9] * z) + model[13];
+    }
+
+    private static float transformZ(float[] model, float x, float y, float z) {
+        return (model[2] * x) + (model[6] * y) + (model[10] * z) + model[14];
+    }
+
+    private CollisionManifold testWithTransforms(SphericalHeightmapCollider firstCollider,
+            SphericalHeightmapCollider secondCollider) {
+        SphericalHeightmapShape firstShape = (SphericalHeightmapShape) firstCollider.getShape();
+        SphericalHeightmapShape secondShape = (SphericalHeightmapShape) secondCollider.getShape();
 
         Vector3 firstCenter = firstCollider.getWorldCenter();
         Vector3 secondCenter = secondCollider.getWorldCenter();
@@ -33,8 +209,8 @@ public class SphericalHeightmapPairCollisionAlgorithm implements CollisionAlgori
         Vector3 firstSampleDirectionLocal = directionInLocalSpace(firstCollider, firstCenter, worldNormal);
         Vector3 secondSampleDirectionLocal = directionInLocalSpace(secondCollider, secondCenter, new Vector3(worldNormal).mul(-1f));
 
-        float firstSurfaceRadiusLocal = firstShape.sampleRadius(firstSampleDirectionLocal);
-        float secondSurfaceRadiusLocal = secondShape.sampleRadius(secondSampleDirectionLocal);
+        float firstSurfaceRadiusLocal = sampleRadius(firstShape, firstSampleDirectionLocal);
+        float secondSurfaceRadiusLocal = sampleRadius(secondShape, secondSampleDirectionLocal);
 
         Vector3 firstSurfacePointWorld = firstCollider.localToWorldPoint(
                 localSurfacePoint(firstShape.getLocalCenter(), firstSampleDirectionLocal, firstSurfaceRadiusLocal));
@@ -53,6 +229,12 @@ public class SphericalHeightmapPairCollisionAlgorithm implements CollisionAlgori
         return new CollisionManifold(true, worldNormal, penetration, contactPoint);
     }
 
+    private float sampleRadius(SphericalHeightmapShape shape, Vector3 localDirection) {
+        return cubemapSampling
+                ? shape.sampleRadiusCubemap(localDirection.x, localDirection.y, localDirection.z)
+                : shape.sampleRadius(localDirection);
+    }
+
     private Vector3 directionInLocalSpace(SphericalHeightmapCollider collider, Vector3 worldCenter, Vector3 worldNormal) {
         Vector3 worldPoint = new Vector3(worldCenter).add(worldNormal);
         Vector3 localCenter = collider.worldToLocalPoint(worldCenter);
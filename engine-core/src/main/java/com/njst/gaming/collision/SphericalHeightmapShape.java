@@ -4,24 +4,37 @@ import com.njst.gaming.Math.Vector3;
 
 public class SphericalHeightmapShape implements CollisionShape {
     public static final String TYPE_ID = "spherical_heightmap";
+    private static final int CUBE_FACES = 6;
+    private static final int MIN_CUBEMAP_RESOLUTION = 4;
 
     private final float[][] heightSamples;
     private final float baseRadius;
     private final Vector3 localCenter;
     private final float minHeight;
     private final float maxHeight;
+    private final int cubemapResolution;
+    private volatile float[] cubemapHeights;
 
     public SphericalHeightmapShape(float[][] heightSamples, float baseRadius) {
         this(heightSamples, baseRadius, new Vector3());
     }
 
     public SphericalHeightmapShape(float[][] heightSamples, float baseRadius, Vector3 localCenter) {
+        this(heightSamples, baseRadius, localCenter, defaultCubemapResolution(heightSamples));
+    }
+
+    /**
+     * @param cubemapResolution texels per cube face edge used by {@link #sampleHeightCubemap}
+     */
+    public SphericalHeightmapShape(float[][] heightSamples, float baseRadius, Vector3 localCenter,
+            int cubemapResolution) {
         if (heightSamples == null || heightSamples.length == 0 || heightSamples[0].length == 0) {
             throw new IllegalArgumentException("heightSamples must not be empty.");
         }
         this.heightSamples = copy(heightSamples);
         this.baseRadius = baseRadius;
         this.localCenter = new Vector3(localCenter);
+        this.cubemapResolution = Math.max(MIN_CUBEMAP_RESOLUTION, cubemapResolution);
 
         float localMinHeight = Float.POSITIVE_INFINITY;
         float localMaxHeight = Float.NEGATIVE_INFINITY;
@@ -49,6 +62,18 @@ public class SphericalHeightmapShape implements CollisionShape {
         return new Vector3(localCenter);
     }
 
+    public float getLocalCenterX() {
+        return localCenter.x;
+    }
+
+    public float getLocalCenterY() {
+        return localCenter.y;
+    }
+
+    public float getLocalCenterZ() {
+        return localCenter.z;
+    }
+
     public float getBaseRadius() {
         return baseRadius;
     }
@@ -106,6 +131,120 @@ public class SphericalHeightmapShape implements CollisionShape {
         return baseRadius + sampleHeight(localDirection);
     }
 
+    public int getCubemapResolution() {
+        return cubemapResolution;
+    }
+
+    /**
+     * Trig-free equivalent of {@link #sampleHeight} backed by a cube-face lookup that is built
+     * from the spherical samples on first use. The direction does not need to be normalized.
+     * The lookup bilinearly resamples the map, so results differ from {@link #sampleHeight} by at
+     * most the height change across one cube texel; at the default resolution (two cube texels per
+     * source column) smooth maps stay within about 1% of the shape's height range.
+     */
+    public float sampleHeightCubemap(float directionX, float directionY, float directionZ) {
+        float[] heights = cubemapHeights;
+        if (heights == null) {
+            heights = buildCubemap();
+        }
+
+        float absX = Math.abs(directionX);
+        float absY = Math.abs(directionY);
+        float absZ = Math.abs(directionZ);
+        int face;
+        float major;
+        float u;
+        float v;
+        if (absX >= absY && absX >= absZ) {
+            if (absX <= 0.000001f) {
+                directionX = 1f;
+                absX = 1f;
+            }
+            face = directionX >= 0f ? 0 : 1;
+            major = absX;
+            u = directionY;
+            v = directionZ;
+        } else if (absY >= absZ) {
+            face = directionY >= 0f ? 2 : 3;
+            major = absY;
+            u = directionZ;
+            v = directionX;
+        } else {
+            face = directionZ >= 0f ? 4 : 5;
+            major = absZ;
+            u = directionX;
+            v = directionY;
+        }
+
+        float inverseMajor = 1f / major;
+        float halfResolution = cubemapResolution * 0.5f;
+        // Face coordinates in [-1, 1] map to texel centers shifted by the one-texel border.
+        float texelX = (u * inverseMajor + 1f) * halfResolution + 0.5f;
+        float texelY = (v * inverseMajor + 1f) * halfResolution + 0.5f;
+        int x0 = Math.min((int) texelX, cubemapResolution);
+        int y0 = Math.min((int) texelY, cubemapResolution);
+        float tx = texelX - x0;
+        float ty = texelY - y0;
+
+        int stride = cubemapResolution + 2;
+        int row0 = (face * stride + y0) * stride;
+        int row1 = row0 + stride;
+        float h00 = heights[row0 + x0];
+        float h10 = heights[row0 + x0 + 1];
+        float h01 = heights[row1 + x0];
+        float h11 = heights[row1 + x0 + 1];
+
+        float top = h00 + ((h10 - h00) * tx);
+        float bottom = h01 + ((h11 - h01) * tx);
+        return top + ((bottom - top) * ty);
+    }
+
+    public float sampleRadiusCubemap(float directionX, float directionY, float directionZ) {
+        return baseRadius + sampleHeightCubemap(directionX, directionY, directionZ);
+    }
+
+    private synchronized float[] buildCubemap() {
+        if (cubemapHeights != null) {
+            return cubemapHeights;
+        }
+        int stride = cubemapResolution + 2;
+        float[] heights = new float[CUBE_FACES * stride * stride];
+        float texelSize = 2f / cubemapResolution;
+        Vector3 direction = new Vector3();
+        for (int face = 0; face < CUBE_FACES; face++) {
+            float sign = (face & 1) == 0 ? 1f : -1f;
+            for (int y = 0; y < stride; y++) {
+                // Index 0 and stride - 1 are border texels just past the face edge.
+                float v = -1f + (y - 0.5f) * texelSize;
+                for (int x = 0; x < stride; x++) {
+                    float u = -1f + (x - 0.5f) * texelSize;
+                    switch (face >> 1) {
+                        case 0:
+                            direction.set(sign, u, v);
+                            break;
+                        case 1:
+                            direction.set(v, sign, u);
+                            break;
+                        default:
+                            direction.set(u, v, sign);
+                            break;
+                    }
+                    heights[(face * stride + y) * stride + x] = sampleHeight(direction);
+                }
+            }
+        }
+        cubemapHeights = heights;
+        return heights;
+    }
+
+    private static int defaultCubemapResolution(float[][] heightSamples) {
+        if (heightSamples == null || heightSamples.length == 0 || heightSamples[0].length == 0) {
+            return MIN_CUBEMAP_RESOLUTION;
+        }
+        // A face spans a quarter of the equator; sample it at twice the source column density.
+        return Math.max(heightSamples[0].length / 2, heightSamples.length);
+    }
+
     private float[][] copy(float[][] source) {
         float[][] result = new float[source.length][];
         for (int i = 0; i < source.length; i++) {
@@ -0,0 +1,262 @@
+package com.njst.gaming.collision;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Sort-and-sweep broadphase that keeps its proxies sorted along one axis between frames.
+ * Colliders move only a little from one frame to the next, so re-sorting the previous order
+ * with an insertion sort is close to linear. World bounds are fetched once per collider per call
+ * instead of once per candidate pair.
+ * Box queries walk the sorted axis and stop at the first proxy that starts past the box; raycasts
+ * test every proxy against its cached bounds.
+ * The returned pair list is owned by the broadphase and reused by the next call.
+ */
+public class SweepAndPruneBroadphase implements QueryableBroadphase {
+    public static final int AXIS_X = 0;
+    public static final int AXIS_Y = 1;
+    public static final int AXIS_Z = 2;
+
+    private static final int BOUNDS_STRIDE = 6;
+
+    private final int sweepAxis;
+    private final ArrayList<CollisionPair> pairs = new ArrayList<CollisionPair>();
+    private final IdentityHashMap<Collider, Integer> rebuildIndices = new IdentityHashMap<Collider, Integer>();
+    private Collider[] proxies = new Collider[0];
+    private float[] bounds = new float[0];
+    private int[] order = new int[0];
+    private boolean[] placed = new boolean[0];
+    private int proxyCount;
+    private boolean[] sleeping;
+
+    public SweepAndPruneBroadphase() {
+        this(AXIS_X);
+    }
+
+    public SweepAndPruneBroadphase(int sweepAxis) {
+        if (sweepAxis < AXIS_X || sweepAxis > AXIS_Z) {
+            throw new IllegalArgumentException("sweepAxis must be AXIS_X, AXIS_Y or AXIS_Z.");
+        }
+        this.sweepAxis = sweepAxis;
+    }
+
+    @Override
+    public List<CollisionPair> computePairs(List<Collider> colliders) {
+        return computePairs(colliders, null);
+    }
+
+    @Override
+    public List<CollisionPair> computePairs(List<Collider> colliders, boolean[] sleeping) {
+        pairs.clear();
+        if (colliders == null || colliders.isEmpty()) {
+            releaseProxies(0);
+            return pairs;
+        }
+
+        syncProxies(colliders);
+        refreshBounds();
+        sortProxies();
+        this.sleeping = sleeping;
+        try {
+            sweep();
+        } finally {
+            this.sleeping = null;
+        }
+        return pairs;
+    }
+
+    @Override
+    public void raycast(float originX, float originY, float originZ,
+            float directionX, float directionY, float directionZ,
+            float maxDistance, BroadphaseRaycastCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        float limit = maxDistance;
+        for (int i = 0; i < proxyCount; i++) {
+            if (CollisionMath.intersectRayAabb(originX, originY, originZ, directionX, directionY, directionZ,
+                    bounds, i * BOUNDS_STRIDE, limit) < 0f) {
+                continue;
+            }
+            limit = callback.onCandidate(proxies[i], limit);
+            if (limit <= 0f) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+            BroadphaseQueryCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        float sweepLimit = sweepAxis == AXIS_X ? maxX : (sweepAxis == AXIS_Y ? maxY : maxZ);
+        for (int i = 0; i < proxyCount; i++) {
+            int proxy = order[i];
+            int offset = proxy * BOUNDS_STRIDE;
+            if (bounds[offset + sweepAxis] > sweepLimit) {
+                return;
+            }
+            if (bounds[offset] > maxX || bounds[offset + 3] < minX
+                    || bounds[offset + 1] > maxY || bounds[offset + 4] < minY
+                    || bounds[offset + 2] > maxZ || bounds[offset + 5] < minZ) {
+                continue;
+            }
+            if (!callback.onCandidate(proxies[proxy])) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void refit(boolean[] moved) {
+        for (int i = 0; i < proxyCount; i++) {
+            if (moved[i]) {
+                readBounds(i);
+            }
+        }
+        sortProxies();
+    }
+
+    public int getProxyCount() {
+        return proxyCount;
+    }
+
+    private void syncProxies(List<Collider> colliders) {
+        int count = colliders.size();
+        if (count == proxyCount) {
+            boolean unchanged = true;
+            for (int i = 0; i < count; i++) {
+                if (proxies[i] != colliders.get(i)) {
+                    unchanged = false;
+                    break;
+                }
+            }
+            if (unchanged) {
+                return;
+            }
+        }
+        rebuildProxies(colliders);
+    }
+
+    private void rebuildProxies(List<Collider> colliders) {
+        int count = colliders.size();
+        Collider[] previousProxies = proxies;
+        int[] previousOrder = order;
+        int previousCount = proxyCount;
+
+        if (proxies.length < count) {
+            int capacity = Math.max(count, proxies.length * 2);
+            proxies = new Collider[capacity];
+            bounds = new float[capacity * BOUNDS_STRIDE];
+            order = new int[capacity];
+            placed = new boolean[capacity];
+        } else {
+            previousProxies = proxies.clone();
+            previousOrder = order.clone();
+        }
+
+        rebuildIndices.clear();
+        for (int i = 0; i < count; i++) {
+            Collider collider = colliders.get(i);
+            proxies[i] = collider;
+            placed[i] = false;
+            rebuildIndices.put(collider, i);
+        }
+
+        // Keep survivors in their previous sorted order so the insertion sort stays cheap.
+        int next = 0;
+        for (int i = 0; i < previousCount; i++) {
+            Integer index = rebuildIndices.get(previousProxies[previousOrder[i]]);
+            if (index != null && !placed[index]) {
+                placed[index] = true;
+                order[next++] = index;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (!placed[i]) {
+                order[next++] = i;
+            }
+        }
+
+        rebuildIndices.clear();
+        releaseProxies(count);
+    }
+
+    private void releaseProxies(int count) {
+        for (int i = count; i < proxyCount; i++) {
+            proxies[i] = null;
+        }
+        proxyCount = count;
+    }
+
+    private void refreshBounds() {
+        for (int i = 0; i < proxyCount; i++) {
+            readBounds(i);
+        }
+    }
+
+    private void readBounds(int proxy) {
+        Bounds3 worldBounds = proxies[proxy].getWorldBounds();
+        int offset = proxy * BOUNDS_STRIDE;
+        bounds[offset] = worldBounds.getMinX();
+        bounds[offset + 1] = worldBounds.getMinY();
+        bounds[offset + 2] = worldBounds.getMinZ();
+        bounds[offset + 3] = worldBounds.getMaxX();
+        bounds[offset + 4] = worldBounds.getMaxY();
+        bounds[offset + 5] = worldBounds.getMaxZ();
+    }
+
+    private void sortProxies() {
+        for (int i = 1; i < proxyCount; i++) {
+            int proxy = order[i];
+            float key = bounds[proxy * BOUNDS_STRIDE + sweepAxis];
+            int j = i - 1;
+            while (j >= 0 && bounds[order[j] * BOUNDS_STRIDE + sweepAxis] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = proxy;
+        }
+    }
+
+    private void sweep() {
+        for (int i = 0; i < proxyCount; i++) {
+            int firstProxy = order[i];
+            float sweepMax = bounds[firstProxy * BOUNDS_STRIDE + 3 + sweepAxis];
+            for (int j = i + 1; j < proxyCount; j++) {
+                int secondProxy = order[j];
+                if (bounds[secondProxy * BOUNDS_STRIDE + sweepAxis] > sweepMax) {
+                    break;
+                }
+                if (sleeping != null && sleeping[firstProxy] && sleeping[secondProxy]) {
+                    continue;
+                }
+                if (!overlaps(firstProxy, secondProxy)) {
+                    continue;
+                }
+
+                // Emit pairs in registration order, matching NaiveBroadphase.
+                Collider first = proxies[Math.min(firstProxy, secondProxy)];
+                Collider second = proxies[Math.max(firstProxy, secondProxy)];
+                if (first.isStatic() && second.isStatic()) {
+                    continue;
+                }
+                if (!first.canCollideWith(second)) {
+                    continue;
+                }
+                pairs.add(new CollisionPair(first, second));
+            }
+        }
+    }
+
+    private boolean overlaps(int firstProxy, int secondProxy) {
+        int first = firstProxy * BOUNDS_STRIDE;
+        int second = secondProxy * BOUNDS_STRIDE;
+        return bounds[first] <= bounds[second + 3] && bounds[first + 3] >= bounds[second]
+                && bounds[first + 1] <= bounds[second + 4] && bounds[first + 4] >= bounds[second + 1]
+                && bounds[first + 2] <= bounds[second + 5] && bounds[first + 5] >= bounds[second + 2];
+    }
+}
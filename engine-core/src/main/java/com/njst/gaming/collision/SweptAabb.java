@@ -0,0 +1,113 @@
+package com.njst.gaming.collision;
+
+/**
+ * Time-of-impact queries for a box translating against a stationary box.
+ * Times are fractions of the motion: 0 is the start position and 1 is the full motion.
+ */
+public final class SweptAabb {
+    private SweptAabb() {
+    }
+
+    public static float timeOfImpact(Bounds3 moving, float motionX, float motionY, float motionZ, Bounds3 target) {
+        return timeOfImpact(moving, motionX, motionY, motionZ, target, null);
+    }
+
+    /**
+     * Same as {@link #timeOfImpact(Bounds3, float, float, float, Bounds3)}, also writing the unit axis
+     * normal of the face that was hit into {@code normalOut}, pointing from the moving box toward the
+     * target. {@code normalOut} may be null.
+     */
+    public static float timeOfImpact(Bounds3 moving, float motionX, float motionY, float motionZ, Bounds3 target,
+            float[] normalOut) {
+        return timeOfImpact(
+                moving.getMinX(), moving.getMinY(), moving.getMinZ(),
+                moving.getMaxX(), moving.getMaxY(), moving.getMaxZ(),
+                motionX, motionY, motionZ,
+                target.getMinX(), target.getMinY(), target.getMinZ(),
+                target.getMaxX(), target.getMaxY(), target.getMaxZ(),
+                normalOut);
+    }
+
+    /**
+     * Returns the first time in [0, 1] at which the moving box touches the target, or -1 when it
+     * does not within the motion. Boxes that already overlap at the start return 0.
+     */
+    public static float timeOfImpact(
+            float movingMinX, float movingMinY, float movingMinZ,
+            float movingMaxX, float movingMaxY, float movingMaxZ,
+            float motionX, float motionY, float motionZ,
+            float targetMinX, float targetMinY, float targetMinZ,
+            float targetMaxX, float targetMaxY, float targetMaxZ,
+            float[] normalOut) {
+        float enter = Float.NEGATIVE_INFINITY;
+        float exit = Float.POSITIVE_INFINITY;
+        int enterAxis = -1;
+        float enterSign = 0f;
+
+        for (int axis = 0; axis < 3; axis++) {
+            float motion;
+            float movingMin;
+            float movingMax;
+            float targetMin;
+            float targetMax;
+            if (axis == 0) {
+                motion = motionX;
+                movingMin = movingMinX;
+                movingMax = movingMaxX;
+                targetMin = targetMinX;
+                targetMax = targetMaxX;
+            } else if (axis == 1) {
+                motion = motionY;
+                movingMin = movingMinY;
+                movingMax = movingMaxY;
+                targetMin = targetMinY;
+                targetMax = targetMaxY;
+            } else {
+                motion = motionZ;
+                movingMin = movingMinZ;
+                movingMax = movingMaxZ;
+                targetMin = targetMinZ;
+                targetMax = targetMaxZ;
+            }
+
+            if (motion == 0f) {
+                if (movingMax < targetMin || movingMin > targetMax) {
+                    return -1f;
+                }
+                continue;
+            }
+
+            float inverseMotion = 1f / motion;
+            float axisEnter;
+            float axisExit;
+            if (motion > 0f) {
+                axisEnter = (targetMin - movingMax) * inverseMotion;
+                axisExit = (targetMax - movingMin) * inverseMotion;
+            } else {
+                axisEnter = (targetMax - movingMin) * inverseMotion;
+                axisExit = (targetMin - movingMax) * inverseMotion;
+            }
+            if (axisEnter > enter) {
+                enter = axisEnter;
+                enterAxis = axis;
+                enterSign = motion > 0f ? 1f : -1f;
+            }
+            if (axisExit < exit) {
+                exit = axisExit;
+            }
+            if (enter > exit) {
+                return -1f;
+            }
+        }
+
+        if (exit < 0f || enter > 1f) {
+            return -1f;
+        }
+        if (normalOut != null) {
+            normalOut[0] = enterAxis == 0 ? enterSign : 0f;
+            normalOut[1] = enterAxis == 1 ? enterSign : 0f;
+            normalOut[2] = enterAxis == 2 ? enterSign : 0f;
+        }
+        return Math.max(0f, enter);
+    }
+}
@@ -41,6 +41,15 @@ public interface BufferHandle {
      */
     void updateData(int[] data);
 
+    /**
+     * Updates part of an already allocated buffer. {@code offset} is both the first float read from
+     * {@code data} and the float position written in the buffer.
+     * @param data the float array holding the new values
+     * @param offset the first float to update
+     * @param count the number of floats to update
+     */
+    void updateData(float[] data, int offset, int count);
+
     /**
      * Binds the buffer base to a specific binding point in the shader program.
      * @param bindingPoint the layout binding index
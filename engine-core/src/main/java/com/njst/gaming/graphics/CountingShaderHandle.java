@@ -0,0 +1,123 @@
+package com.njst.gaming.graphics;
+
+import com.njst.gaming.Math.Matrix4;
+import com.njst.gaming.Math.Vector3;
+
+/**
+ * Wraps a {@link ShaderHandle} and counts the uniform uploads requested through it. When the wrapped
+ * program filters redundant uploads, {@link #getAvoidedUploads()} reports how many of those requests
+ * never reached the driver.
+ */
+public final class CountingShaderHandle implements ShaderHandle {
+    private final ShaderHandle delegate;
+    private long useCalls;
+    private long requestedUploads;
+    private long skippedBaseline;
+
+    public CountingShaderHandle(ShaderHandle delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        this.delegate = delegate;
+        reset();
+    }
+
+    public ShaderHandle getDelegate() {
+        return delegate;
+    }
+
+    public long getUseCalls() {
+        return useCalls;
+    }
+
+    /** Uniform uploads asked for since the last {@link #reset()}, texture sampler bindings included. */
+    public long getRequestedUploads() {
+        return requestedUploads;
+    }
+
+    /** Requested uploads the wrapped program skipped because the value was unchanged. */
+    public long getAvoidedUploads() {
+        UniformCache cache = delegate.getUniformCache();
+        return cache != null ? cache.getSkippedCount() - skippedBaseline : 0L;
+    }
+
+    public void reset() {
+        useCalls = 0L;
+        requestedUploads = 0L;
+        UniformCache cache = delegate.getUniformCache();
+        skippedBaseline = cache != null ? cache.getSkippedCount() : 0L;
+    }
+
+    @Override
+    public void use() {
+        useCalls++;
+        delegate.use();
+    }
+
+    @Override
+    public int getUniformLocation(String name) {
+        return delegate.getUniformLocation(name);
+    }
+
+    @Override
+    public void setUniformVector3(String name, float[] vector3f) {
+        requestedUploads++;
+        delegate.setUniformVector3(name, vector3f);
+    }
+
+    @Override
+    public void setUniformVector3(String name, Vector3 vector3f) {
+        requestedUploads++;
+        delegate.setUniformVector3(name, vector3f);
+    }
+
+    @Override
+    public void setUniformInt(String name, int value) {
+        requestedUploads++;
+        delegate.setUniformInt(name, value);
+    }
+
+    @Override
+    public void setUniformMatrix4fv(String name, float[] matrix) {
+        requestedUploads++;
+        delegate.setUniformMatrix4fv(name, matrix);
+    }
+
+    @Override
+    public void setUniformMatrix4fv(String name, Matrix4 matrix) {
+        requestedUploads++;
+        delegate.setUniformMatrix4fv(name, matrix);
+    }
+
+    @Override
+    public void activateTexture(int location, int textureID) {
+        requestedUploads++;
+        delegate.activateTexture(location, textureID);
+    }
+
+    @Override
+    public void activateTexture(String uniformName, int unit, int textureID) {
+        requestedUploads++;
+        delegate.activateTexture(uniformName, unit, textureID);
+    }
+
+    @Override
+    public boolean compiled() {
+        return delegate.compiled();
+    }
+
+    @Override
+    public void cleanup() {
+        delegate.cleanup();
+    }
+
+    @Override
+    public Object rawHandle() {
+        return delegate.rawHandle();
+    }
+
+    @Override
+    public UniformCache getUniformCache() {
+        return delegate.getUniformCache();
+    }
+}
@@ -118,6 +118,11 @@ public interface GraphicsDevice {
      */
     int[] createBuffers(int count);
 
+    /**
+     * @return the cache of shared, reference-counted meshes uploaded through this device
+     */
+    MeshCache getMeshCache();
+
     /**
      * Binds a Vertex Array Object.
      * @param vaoId the VAO ID to bind
@@ -174,6 +179,30 @@ public interface GraphicsDevice {
      */
     void drawElementsTriangles(int indexCount);
 
+    /**
+     * Replaces the contents of an Array Buffer with data that changes every frame. The previous
+     * storage is orphaned so the upload does not wait on draws still reading it.
+     * @param bufferId the destination buffer ID
+     * @param data the float array data
+     * @param count the number of floats to upload from the start of {@code data}
+     */
+    void streamArrayBufferFloat(int bufferId, float[] data, int count);
+
+    /**
+     * Binds a per-instance mat4 attribute to the current VAO: four vec4 columns starting at
+     * {@code location}, read from {@code bufferId} once per instance.
+     * @param bufferId the buffer holding 16 floats per instance
+     * @param location the shader location of the first column
+     */
+    void setInstanceMatrixAttribute(int bufferId, int location);
+
+    /**
+     * Issues an instanced draw call using element indices (triangles).
+     * @param indexCount the number of indices per instance
+     * @param instanceCount the number of instances to draw
+     */
+    void drawElementsTrianglesInstanced(int indexCount, int instanceCount);
+
     /**
      * Issues a draw call using element indices (lines).
      * @param indexCount the number of indices to draw
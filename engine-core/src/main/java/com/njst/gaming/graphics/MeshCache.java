@@ -0,0 +1,262 @@
+package com.njst.gaming.graphics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import com.njst.gaming.Geometries.Geometry;
+
+/**
+ * Reference-counted vertex arrays shared by every object that draws the same geometry on one
+ * device. A mesh is found by {@link Geometry} identity first and then by content, so geometries
+ * rebuilt from the same data (a new sphere per projectile, an asset deserialized twice) still
+ * share one VAO. Content is matched by hash and array lengths, then compared against a geometry
+ * already using the mesh, so the cache holds no copy of the data. A geometry whose
+ * {@link Geometry#getMeshVersion()} changed since its upload is looked up again by content; objects
+ * still holding the old mesh keep drawing it until they generate their buffers again. The buffers
+ * are deleted when the last user releases the mesh.
+ *
+ * <p>Shared buffers must never be rewritten. Objects that stream their own vertex data bypass
+ * the cache; see {@code GameObject.shareMesh}.
+ */
+public final class MeshCache {
+    /** Buffers per mesh, laid out like {@code GameObject.vboIds}: positions, normals, UVs, two spare, indices. */
+    public static final int BUFFER_COUNT = 6;
+    private static final int INDEX_BUFFER = 5;
+
+    public static final class Mesh {
+        private final MeshCache owner;
+        private final int contentHash;
+        private final int vertexLength;
+        private final int normalLength;
+        private final int textureCoordinateLength;
+        private final int indexCount;
+        private final ArrayList<Geometry> geometries = new ArrayList<Geometry>(1);
+        /** {@link Geometry#getMeshVersion()} of each entry in {@link #geometries} when it was added. */
+        private long[] geometryVersions = new long[1];
+        private final int vertexArray;
+        private final int[] buffers;
+        private int references;
+        /** Next live mesh whose content hash collides with this one. */
+        private Mesh nextWithHash;
+
+        private Mesh(MeshCache owner, int contentHash, float[] vertices, float[] normals,
+                float[] textureCoordinates, int[] indices, int vertexArray, int[] buffers) {
+            this.owner = owner;
+            this.contentHash = contentHash;
+            this.vertexLength = length(vertices);
+            this.normalLength = length(normals);
+            this.textureCoordinateLength = length(textureCoordinates);
+            this.indexCount = indices != null ? indices.length : 0;
+            this.vertexArray = vertexArray;
+            this.buffers = buffers;
+        }
+
+        public MeshCache getOwner() {
+            return owner;
+        }
+
+        public int getVertexArray() {
+            return vertexArray;
+        }
+
+        /** A copy of the buffer ids, in {@link #BUFFER_COUNT} slots. */
+        public int[] getBuffers() {
+            return buffers.clone();
+        }
+
+        public int getIndexCount() {
+            return indexCount;
+        }
+
+        public int getReferenceCount() {
+            return references;
+        }
+
+        private void addGeometry(Geometry geometry) {
+            int index = geometries.size();
+            if (index == geometryVersions.length) {
+                geometryVersions = Arrays.copyOf(geometryVersions, index * 2);
+            }
+            geometries.add(geometry);
+            geometryVersions[index] = geometry.getMeshVersion();
+        }
+
+        private void removeGeometry(Geometry geometry) {
+            int index = geometries.indexOf(geometry);
+            int last = geometries.size() - 1;
+            geometries.set(index, geometries.get(last));
+            geometryVersions[index] = geometryVersions[last];
+            geometries.remove(last);
+        }
+
+        /** A geometry using this mesh that has not been edited since, or null. */
+        private Geometry unchangedGeometry() {
+            for (int i = 0; i < geometries.size(); i++) {
+                Geometry geometry = geometries.get(i);
+                if (geometry.getMeshVersion() == geometryVersions[i]) {
+                    return geometry;
+                }
+            }
+            return null;
+        }
+
+        private boolean isCurrent(Geometry geometry) {
+            return geometry.getMeshVersion() == geometryVersions[geometries.indexOf(geometry)];
+        }
+
+        /**
+         * Compares lengths first and only then reads the arrays of an unedited geometry already
+         * using this mesh, so the cache itself keeps no copy of the data.
+         */
+        private boolean holds(float[] vertices, float[] normals, float[] textureCoordinates, int[] indices) {
+            if (vertexLength != length(vertices) || normalLength != length(normals)
+                    || textureCoordinateLength != length(textureCoordinates)
+                    || indexCount != (indices != null ? indices.length : 0)) {
+                return false;
+            }
+            Geometry uploaded = unchangedGeometry();
+            return uploaded != null && Arrays.equals(indices, uploaded.getIndices())
+                    && Arrays.equals(vertices, uploaded.getVertices())
+                    && Arrays.equals(normals, uploaded.getNormals())
+                    && Arrays.equals(textureCoordinates, uploaded.getTextureCoordinates());
+        }
+
+        private static int length(float[] values) {
+            return values != null ? values.length : 0;
+        }
+    }
+
+    private final GraphicsDevice device;
+    private final IdentityHashMap<Geometry, Mesh> meshesByGeometry = new IdentityHashMap<Geometry, Mesh>();
+    private final HashMap<Integer, Mesh> meshesByContent = new HashMap<Integer, Mesh>();
+    private int meshCount;
+    private long uploads;
+    private long shared;
+
+    public MeshCache(GraphicsDevice device) {
+        this.device = device;
+    }
+
+    /**
+     * Returns the mesh for {@code geometry} with one more reference, uploading it if no live mesh
+     * holds the same data. Callers pair every acquire with one {@link #release(Mesh)}.
+     */
+    public Mesh acquire(Geometry geometry) {
+        Mesh mesh = meshesByGeometry.get(geometry);
+        if (mesh != null && !mesh.isCurrent(geometry)) {
+            // Edited since the upload; other users of the old mesh keep it until they regenerate.
+            mesh.removeGeometry(geometry);
+            meshesByGeometry.remove(geometry);
+            mesh = null;
+        }
+        if (mesh == null) {
+            float[] vertices = geometry.getVertices();
+            float[] normals = geometry.getNormals();
+            float[] textureCoordinates = geometry.getTextureCoordinates();
+            int[] indices = geometry.getIndices();
+            int hash = contentHash(vertices, normals, textureCoordinates, indices);
+            Mesh first = meshesByContent.get(hash);
+            mesh = first;
+            while (mesh != null && !mesh.holds(vertices, normals, textureCoordinates, indices)) {
+                mesh = mesh.nextWithHash;
+            }
+            if (mesh == null) {
+                mesh = upload(hash, vertices, normals, textureCoordinates, indices);
+                mesh.nextWithHash = first;
+                meshesByContent.put(hash, mesh);
+                meshCount++;
+            }
+            mesh.addGeometry(geometry);
+            meshesByGeometry.put(geometry, mesh);
+        }
+        if (mesh.references > 0) {
+            shared++;
+        }
+        mesh.references++;
+        return mesh;
+    }
+
+    /** Drops one reference; the last one deletes the VAO and buffers. */
+    public void release(Mesh mesh) {
+        if (mesh.owner != this) {
+            throw new IllegalArgumentException("Mesh belongs to another device");
+        }
+        if (mesh.references <= 0) {
+            return;
+        }
+        mesh.references--;
+        if (mesh.references > 0) {
+            return;
+        }
+        for (int i = 0; i < mesh.geometries.size(); i++) {
+            meshesByGeometry.remove(mesh.geometries.get(i));
+        }
+        mesh.geometries.clear();
+        unlink(mesh);
+        meshCount--;
+        device.deleteBuffers(mesh.buffers);
+        device.deleteVertexArrays(new int[] { mesh.vertexArray });
+    }
+
+    /** Meshes currently alive. */
+    public int getMeshCount() {
+        return meshCount;
+    }
+
+    /** Meshes uploaded since this cache was created. */
+    public long getUploadCount() {
+        return uploads;
+    }
+
+    /** Acquires served by a mesh that was already in use. */
+    public long getSharedCount() {
+        return shared;
+    }
+
+    private void unlink(Mesh mesh) {
+        Mesh first = meshesByContent.get(mesh.contentHash);
+        if (first == mesh) {
+            if (mesh.nextWithHash != null) {
+                meshesByContent.put(mesh.contentHash, mesh.nextWithHash);
+            } else {
+                meshesByContent.remove(mesh.contentHash);
+            }
+        } else {
+            Mesh previous = first;
+            while (previous != null && previous.nextWithHash != mesh) {
+                previous = previous.nextWithHash;
+            }
+            if (previous != null) {
+                previous.nextWithHash = mesh.nextWithHash;
+            }
+        }
+        mesh.nextWithHash = null;
+    }
+
+    private static int contentHash(float[] vertices, float[] normals, float[] textureCoordinates, int[] indices) {
+        int h = Arrays.hashCode(vertices);
+        h = (31 * h) + Arrays.hashCode(normals);
+        h = (31 * h) + Arrays.hashCode(textureCoordinates);
+        return (31 * h) + Arrays.hashCode(indices);
+    }
+
+    private Mesh upload(int hash, float[] vertices, float[] normals, float[] textureCoordinates, int[] indices) {
+        int vertexArray = device.createVertexArray();
+        int[] buffers = device.createBuffers(BUFFER_COUNT);
+        device.bindVertexArray(vertexArray);
+        device.uploadArrayBufferFloat(buffers[0], vertices);
+        device.uploadArrayBufferFloat(buffers[1], normals);
+        device.uploadArrayBufferFloat(buffers[2], textureCoordinates);
+
+        device.setVertexAttribPointer(buffers[1], 1, 3);
+        device.setVertexAttribPointer(buffers[0], 0, 3);
+        device.setVertexAttribPointer(buffers[2], 2, 2);
+
+        device.uploadElementArrayBufferInt(buffers[INDEX_BUFFER], indices);
+        device.bindVertexArray(0);
+        uploads++;
+        return new Mesh(this, hash, vertices, normals, textureCoordinates, indices, vertexArray, buffers);
+    }
+}
@@ -5,7 +5,21 @@ import com.njst.gaming.Math.Vector3;
 import com.njst.gaming.collision.SphericalHeightmapShape;
 import com.njst.gaming.objects.GameObject;
 
+/**
+ * Device used before a platform backend is attached, and for headless runs. Anything that needs a
+ * real context throws. Vertex arrays and buffers get id 0 instead and are only counted, so buffer
+ * management can be checked without a GPU; objects moved to a real device upload again there.
+ */
 public class NullGraphicsDevice implements GraphicsDevice {
+    /** Default device of objects and renderers that have not been given a real one yet. */
+    public static final NullGraphicsDevice SHARED = new NullGraphicsDevice();
+
+    private final MeshCache meshCache = new MeshCache(this);
+    private int vertexArraysCreated;
+    private int vertexArraysDeleted;
+    private int buffersCreated;
+    private int buffersDeleted;
+
     private static IllegalStateException unsupported() {
         return new IllegalStateException("GraphicsDevice is not configured.");
     }
@@ -70,49 +84,65 @@ public class NullGraphicsDevice implements GraphicsDevice {
     public void releaseTexture(int textureId) {
     }
 
+    public int getVertexArraysCreated() {
+        return vertexArraysCreated;
+    }
+
+    public int getVertexArraysDeleted() {
+        return vertexArraysDeleted;
+    }
+
+    public int getBuffersCreated() {
+        return buffersCreated;
+    }
+
+    public int getBuffersDeleted() {
+        return buffersDeleted;
+    }
+
+    @Override
+    public MeshCache getMeshCache() {
+        return meshCache;
+    }
+
     @Override
     public int createVertexArray() {
-        throw unsupported();
+        vertexArraysCreated++;
+        return 0;
     }
 
     @Override
     public int[] createBuffers(int count) {
-        throw unsupported();
+        buffersCreated += count;
+        return new int[count];
     }
 
     @Override
     public void bindVertexArray(int vaoId) {
-        throw unsupported();
     }
 
     @Override
     public void uploadArrayBufferFloat(int bufferId, float[] data) {
-        throw unsupported();
     }
 
     @Override
     public void uploadArrayBufferInt(int bufferId, int[] data) {
-        throw unsupported();
     }
 
     @Override
     public void uploadElementArrayBufferInt(int bufferId, int[] data) {
-        throw unsupported();
     }
 
     @Override
     public void setVertexAttribPointer(int bufferId, int location, int size) {
-        throw unsupported();
     }
 
     @Override
     public void setVertexAttribIPointer(int bufferId, int location, int size) {
-        throw unsupported();
     }
 
     @Override
     public void updateArrayBufferFloat(int bufferId, float[] data) {
-        throw unsupported();
     }
 
     @Override
@@ -120,6 +150,21 @@ public class NullGraphicsDevice implements GraphicsDevice {
         throw unsupported();
     }
 
+    @Override
+    public void streamArrayBufferFloat(int bufferId, float[] data, int count) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setInstanceMatrixAttribute(int bufferId, int location) {
+        throw unsupported();
+    }
+
+    @Override
+    public void drawElementsTrianglesInstanced(int indexCount, int instanceCount) {
+        throw unsupported();
+    }
+
     @Override
     public void drawElementsLines(int indexCount) {
         throw unsupported();
@@ -127,12 +172,12 @@ public class NullGraphicsDevice implements GraphicsDevice {
 
     @Override
     public void deleteBuffers(int[] buffers) {
-        throw unsupported();
+        buffersDeleted += buffers.length;
     }
 
     @Override
     public void deleteVertexArrays(int[] vaos) {
-        throw unsupported();
+        vertexArraysDeleted += vaos.length;
     }
 
     @Override
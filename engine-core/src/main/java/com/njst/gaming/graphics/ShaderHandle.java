@@ -6,6 +6,8 @@ import com.njst.gaming.Math.Vector3;
 /**
  * Represents a compiled shader program on the platform graphics backend.
  * Provides functions to bind the program, upload uniforms, and activate textures.
+ * Backends resolve uniform locations once and may skip an upload when the program already holds
+ * the value, so callers can set per-draw uniforms unconditionally.
  */
 public interface ShaderHandle {
     /**
@@ -84,4 +86,10 @@ public interface ShaderHandle {
      * @return the raw underlying platform shader handle (e.g. Integer for OpenGL ID).
      */
     Object rawHandle();
+
+    /**
+     * @return the location and value cache behind this program's uniform uploads, or null if the
+     * backend uploads every value.
+     */
+    UniformCache getUniformCache();
 }
@@ -0,0 +1,144 @@
+package com.njst.gaming.graphics;
+
+import java.util.HashMap;
+
+/**
+ * Per-program uniform bookkeeping shared by the shader backends: a name to location map filled at
+ * link time, plus a copy of the last value uploaded to each location so unchanged values can be
+ * skipped. Backends ask {@code accept*} before each upload; false means the program already holds
+ * the value. The copies are only valid while every upload to the program goes through its handle,
+ * so backends call {@link #invalidate()} whenever the program may have been written behind its back.
+ */
+public final class UniformCache {
+    /** Location reported by the driver for names the program does not use. */
+    public static final int MISSING_LOCATION = -1;
+
+    public static final class Slot {
+        final int location;
+        private boolean known;
+        private int intValue;
+        private float[] floatValues;
+
+        Slot(int location) {
+            this.location = location;
+        }
+
+        public int getLocation() {
+            return location;
+        }
+    }
+
+    private final HashMap<String, Slot> slots = new HashMap<String, Slot>();
+    private final HashMap<Integer, Slot> slotsByLocation = new HashMap<Integer, Slot>();
+    private long uploads;
+    private long skipped;
+
+    /** Records the location of {@code name}; backends call this while enumerating active uniforms. */
+    public Slot define(String name, int location) {
+        Slot slot = location != MISSING_LOCATION ? slotsByLocation.get(location) : null;
+        if (slot == null) {
+            slot = new Slot(location);
+            if (location != MISSING_LOCATION) {
+                slotsByLocation.put(location, slot);
+            }
+        }
+        slots.put(name, slot);
+        return slot;
+    }
+
+    /** Returns the slot for {@code name}, or null when it has not been resolved yet. */
+    public Slot find(String name) {
+        return slots.get(name);
+    }
+
+    /** Returns the slot for a location handed out earlier, or null for locations this cache never saw. */
+    public Slot findByLocation(int location) {
+        return slotsByLocation.get(location);
+    }
+
+    public boolean acceptInt(Slot slot, int value) {
+        if (slot.location == MISSING_LOCATION) {
+            return false;
+        }
+        if (slot.known && slot.intValue == value) {
+            skipped++;
+            return false;
+        }
+        slot.intValue = value;
+        slot.known = true;
+        uploads++;
+        return true;
+    }
+
+    public boolean acceptVector3(Slot slot, float x, float y, float z) {
+        if (slot.location == MISSING_LOCATION) {
+            return false;
+        }
+        float[] stored = values(slot, 3);
+        if (slot.known && same(stored[0], x) && same(stored[1], y) && same(stored[2], z)) {
+            skipped++;
+            return false;
+        }
+        stored[0] = x;
+        stored[1] = y;
+        stored[2] = z;
+        slot.known = true;
+        uploads++;
+        return true;
+    }
+
+    /** Compares the first {@code count} floats of {@code value}, e.g. 3 for a vector or 16 for a matrix. */
+    public boolean acceptFloats(Slot slot, float[] value, int count) {
+        if (slot.location == MISSING_LOCATION) {
+            return false;
+        }
+        float[] stored = values(slot, count);
+        if (slot.known && equalPrefix(stored, value, count)) {
+            skipped++;
+            return false;
+        }
+        System.arraycopy(value, 0, stored, 0, count);
+        slot.known = true;
+        uploads++;
+        return true;
+    }
+
+    /** Forgets every stored value; locations stay resolved. */
+    public void invalidate() {
+        for (Slot slot : slots.values()) {
+            slot.known = false;
+        }
+    }
+
+    /** Uploads that reached the driver. */
+    public long getUploadCount() {
+        return uploads;
+    }
+
+    /** Uploads dropped because the program already held the value. */
+    public long getSkippedCount() {
+        return skipped;
+    }
+
+    private static float[] values(Slot slot, int count) {
+        if (slot.floatValues == null || slot.floatValues.length != count) {
+            slot.floatValues = new float[count];
+            slot.known = false;
+        }
+        return slot.floatValues;
+    }
+
+    private static boolean equalPrefix(float[] stored, float[] value, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!same(stored[i], value[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Compare bits so NaN matches NaN and 0 differs from -0, the same way the driver sees them.
+    private static boolean same(float stored, float value) {
+        return Float.floatToRawIntBits(stored) == Float.floatToRawIntBits(value);
+    }
+}
@@ -51,7 +51,7 @@ public class Bone_object extends GameObject {
        // bind_array(GL_ELEMENT_ARRAY_BUFFER, vboIds[4]); // Bind the VBO for indices
         if(x!=0){
             graphicsDevice.bindVertexArray(vaoIds[0]); // Bind the VAO
-            graphicsDevice.drawElementsTriangles(geometry.getIndices().length);
+            graphicsDevice.drawElementsTriangles(getIndexCount());
             // Unbind the VAO
             graphicsDevice.bindVertexArray(0); // Unbind the VAO
         }
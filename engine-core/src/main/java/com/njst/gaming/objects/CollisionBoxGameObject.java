@@ -13,6 +13,8 @@ public class CollisionBoxGameObject extends GameObject {
         this.target = target;
         this.boxGeometry = (CollisionBoxGeometry) this.geometry;
         this.name = target.name + "_CollisionBox";
+        // The box vertices follow the target every frame, so the buffers cannot be shared.
+        this.shareMesh = false;
         this.modelMatrix.identity();
         this.shininess = 0;
         this.ambientlight_multiplier = 1;
@@ -47,7 +49,7 @@ public class CollisionBoxGameObject extends GameObject {
         shaderprogram.activateTexture(textureHandle, texture);
 
         graphicsDevice.bindVertexArray(vaoIds[0]);
-        graphicsDevice.drawElementsLines(geometry.getIndices().length);
+        graphicsDevice.drawElementsLines(getIndexCount());
         graphicsDevice.bindVertexArray(0);
     }
 }
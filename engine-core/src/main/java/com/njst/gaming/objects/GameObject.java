@@ -1,8 +1,10 @@
 package com.njst.gaming.objects;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import com.njst.gaming.graphics.GraphicsDevice;
+import com.njst.gaming.graphics.MeshCache;
 import com.njst.gaming.graphics.NullGraphicsDevice;
 import com.njst.gaming.graphics.ShaderHandle;
 
@@ -22,7 +24,12 @@ public class GameObject {
     public float[] scale = new float[] { 1, 1, 1 }; // Initial size (sx, sy, sz)
     private Vector3 rotation = new Vector3(); // Initial size (sx, sy, sz)
     public Matrix4 modelMatrix = new Matrix4();
+    /** The matrix {@link #updateModelMatrix()} builds; {@link #modelMatrix} may be pointed elsewhere. */
+    private final Matrix4 ownModelMatrix = modelMatrix;
     private boolean needsUpdate = true;
+    /** Position, rotation and scale the model matrix was last built from; catches direct field writes. */
+    private final float[] composedTransform = new float[9];
+    private long transformVersion;
 
     public float[] velocity = new float[] { 0, 0, 0 };
     private boolean buffers_generated = false;
@@ -42,12 +49,35 @@ public class GameObject {
     // float[] vertices, normals, texture_coordinates, colors;
     // int[] indices;
     public Geometry geometry;
-    protected GraphicsDevice graphicsDevice = new NullGraphicsDevice();
+    protected GraphicsDevice graphicsDevice = NullGraphicsDevice.SHARED;
     protected int shadowMapTexture = 0;
     protected Matrix4 lightSpaceMatrix = new Matrix4().identity();
     protected boolean shadowsEnabled = false;
     public boolean castsShadows = true;
+    /** When false the renderer draws this object without testing its world bounds against the camera frustum. */
+    public boolean frustumCulled = true;
+    /** Transparent objects draw after all opaque ones, sorted back-to-front instead of grouped by state. */
+    public boolean transparent = false;
+    /**
+     * When true, {@link #generateBuffers()} takes the VAO from the device's {@link MeshCache}, shared
+     * with every object whose geometry holds the same data. Objects that rewrite their own vertex
+     * buffers must set this to false before their buffers are generated.
+     */
+    public boolean shareMesh = true;
+    /**
+     * When true, a scene on a fixed timestep records this object's transform before each step and
+     * draws it between the last two steps. Set it for objects moved only by the simulation;
+     * {@code RigidBodySystem.addBody} sets it for dynamic bodies.
+     */
+    public boolean interpolateFixedSteps = false;
+    private MeshCache.Mesh mesh;
+    /** Indices in the uploaded element buffer, recorded by {@link #generateBuffers()}. */
+    private int indexCount;
     private final float[] worldCollisionBox = new float[24];
+    private final float[] previousTranslation = new float[3];
+    private final Matrix4 interpolatedMatrix = new Matrix4();
+    private boolean hasPreviousPosition = false;
+    private float interpolationAlpha = 1f;
 
     public GameObject(Geometry geometry, int texture) {
         // vertices = geometry.getVertices();
@@ -68,20 +98,25 @@ public class GameObject {
         animations.add(a);
     }
 
+    /** Index count of the uploaded mesh, or of the geometry when no buffers exist yet. */
     public int getIndexCount() {
-        return geometry.getIndices().length;
+        return buffers_generated ? indexCount : geometry.getIndexCount();
     }
 
     public void move(float x, float y, float z) {
-        position.add(new Vector3(x, y, z));
+        position.x += x;
+        position.y += y;
+        position.z += z;
         needsUpdate = true;
     }
 
+    /** Moves the object; with a fixed timestep it is drawn here without blending until the next step. */
     public void setPosition(float x, float y, float z) {
         position.x = x;
         position.y = y;
         position.z = z;
         needsUpdate = true;
+        hasPreviousPosition = false;
     }
 
     public void rotate(float x, float y, float z) {
@@ -104,6 +139,45 @@ public class GameObject {
         needsUpdate = true;
     }
 
+    /**
+     * Records the current model matrix translation as the start of the next simulation step. Scenes on
+     * a fixed timestep call this before each step for objects with {@link #interpolateFixedSteps}.
+     */
+    public void capturePreviousPosition() {
+        updateModelMatrix();
+        float[] r = ownModelMatrix.r;
+        previousTranslation[0] = r[12];
+        previousTranslation[1] = r[13];
+        previousTranslation[2] = r[14];
+        hasPreviousPosition = true;
+    }
+
+    /**
+     * Sets how far between the previous and the current simulation step this object is drawn.
+     * 1 draws the current position; only the translation is blended.
+     */
+    public void setRenderInterpolation(float alpha) {
+        interpolationAlpha = alpha;
+    }
+
+    /**
+     * Model matrix to draw with: {@link #modelMatrix} with its translation blended from the one
+     * captured before the last step. A {@link #modelMatrix} assigned from outside is drawn as is.
+     */
+    public Matrix4 getRenderModelMatrix() {
+        if (!hasPreviousPosition || interpolationAlpha >= 1f || modelMatrix != ownModelMatrix) {
+            return modelMatrix;
+        }
+        float[] current = modelMatrix.r;
+        float[] blended = interpolatedMatrix.r;
+        System.arraycopy(current, 0, blended, 0, 16);
+        float keep = 1f - interpolationAlpha;
+        blended[12] = (previousTranslation[0] * keep) + (current[12] * interpolationAlpha);
+        blended[13] = (previousTranslation[1] * keep) + (current[13] * interpolationAlpha);
+        blended[14] = (previousTranslation[2] * keep) + (current[14] * interpolationAlpha);
+        return interpolatedMatrix;
+    }
+
     public void resize(float sx, float sy, float sz) {
         scale[0] = sx;
         scale[1] = sy;
@@ -119,19 +193,41 @@ public class GameObject {
         needsUpdate = true;
     }
 
+    /**
+     * Rebuilds the model matrix and world collision box when the transform changed since the last
+     * call, either through a setter or by writing {@link #position} or {@link #scale} directly.
+     * Otherwise returns without touching either.
+     */
     public void updateModelMatrix() {
-        if (!needsUpdate) {
+        if (!needsUpdate && !transformChanged()) {
             return;
         }
-        // Matrix.setIdentityM(modelMatrix,0);
-        modelMatrix.identity();
-        modelMatrix.translate(position);
-        modelMatrix.rotate(rotation.x, new Vector3(1f, 0, 0));
-        modelMatrix.rotate(rotation.y, new Vector3(0f, 1, 0));
-        modelMatrix.rotate(rotation.z, new Vector3(0f, 0, 1));
-        modelMatrix.scale(new Vector3(scale[0], scale[1], scale[2]));
+        float[] composed = composedTransform;
+        composed[0] = position.x;
+        composed[1] = position.y;
+        composed[2] = position.z;
+        composed[3] = rotation.x;
+        composed[4] = rotation.y;
+        composed[5] = rotation.z;
+        composed[6] = scale[0];
+        composed[7] = scale[1];
+        composed[8] = scale[2];
+        modelMatrix.setTranslationRotationScale(position, rotation, scale[0], scale[1], scale[2]);
         updateCollisionBox();
         needsUpdate = false;
+        transformVersion++;
+    }
+
+    /** Bumped each time {@link #updateModelMatrix()} rebuilds the matrix; equal values mean an unchanged transform. */
+    public long getTransformVersion() {
+        return transformVersion;
+    }
+
+    private boolean transformChanged() {
+        float[] composed = composedTransform;
+        return composed[0] != position.x || composed[1] != position.y || composed[2] != position.z
+                || composed[3] != rotation.x || composed[4] != rotation.y || composed[5] != rotation.z
+                || composed[6] != scale[0] || composed[7] != scale[1] || composed[8] != scale[2];
     }
 
     private void initCollisionBoxFromGeometry() {
@@ -248,6 +344,15 @@ public class GameObject {
     }
 
     public void generateBuffers() {
+        if (shareMesh) {
+            releaseMesh();
+            mesh = graphicsDevice.getMeshCache().acquire(geometry);
+            vboIds = mesh.getBuffers();
+            vaoIds[0] = mesh.getVertexArray();
+            indexCount = mesh.getIndexCount();
+            buffers_generated = true;
+            return;
+        }
         int vaoId = graphicsDevice.createVertexArray();
         vboIds = graphicsDevice.createBuffers(6);
         graphicsDevice.bindVertexArray(vaoId);
@@ -262,7 +367,9 @@ public class GameObject {
         graphicsDevice.setVertexAttribPointer(vboIds[2], 2, 2);
 
         int eboId = vboIds[5];
-        graphicsDevice.uploadElementArrayBufferInt(eboId, geometry.getIndices());
+        int[] indices = geometry.getIndices();
+        graphicsDevice.uploadElementArrayBufferInt(eboId, indices);
+        indexCount = indices.length;
 
         graphicsDevice.bindVertexArray(0);
         vaoIds[0] = vaoId;
@@ -270,17 +377,40 @@ public class GameObject {
     }
 
     public void cleanup() {
-        if (buffers_generated) {
+        releaseBuffers();
+    }
+
+    public void setGraphicsDevice(GraphicsDevice graphicsDevice) {
+        if (graphicsDevice != null) {
+            if (graphicsDevice != this.graphicsDevice) {
+                // Shared or private, the buffers live on the old device; upload again on the new one.
+                releaseBuffers();
+            }
+            this.graphicsDevice = graphicsDevice;
+        }
+    }
+
+    private void releaseBuffers() {
+        if (mesh != null) {
+            releaseMesh();
+        } else if (buffers_generated) {
             graphicsDevice.deleteBuffers(vboIds);
             graphicsDevice.deleteVertexArrays(vaoIds);
+            Arrays.fill(vboIds, 0);
+            vaoIds[0] = 0;
             buffers_generated = false;
         }
     }
 
-    public void setGraphicsDevice(GraphicsDevice graphicsDevice) {
-        if (graphicsDevice != null) {
-            this.graphicsDevice = graphicsDevice;
+    private void releaseMesh() {
+        if (mesh == null) {
+            return;
         }
+        mesh.getOwner().release(mesh);
+        mesh = null;
+        Arrays.fill(vboIds, 0);
+        vaoIds[0] = 0;
+        buffers_generated = false;
     }
 
     public void setShadowContext(int textureId, Matrix4 lightSpaceMatrix, boolean enabled) {
@@ -291,6 +421,10 @@ public class GameObject {
 
     public ShaderHandle shaderprogram;
 
+    /**
+     * Draws this object with {@code shader}, which the renderer has already bound. Overrides that bind
+     * a different program must bind {@code shader} again before returning.
+     */
     public void render(ShaderHandle shader, int textureHandle) {
         if (!buffers_generated) {
             generateBuffers();
@@ -302,7 +436,7 @@ public class GameObject {
         // shaderprogram.use();
         shaderprogram.setUniformVector3("properties", new Vector3(shininess, ambientlight_multiplier, 0));
         // Bind the VAO
-        shaderprogram.setUniformMatrix4fv("uMMatrix", modelMatrix);
+        shaderprogram.setUniformMatrix4fv("uMMatrix", getRenderModelMatrix());
         shaderprogram.setUniformMatrix4fv("uLightSpaceMatrix", lightSpaceMatrix);
         shaderprogram.setUniformInt("uShadowEnabled", shadowsEnabled ? 1 : 0);
         if (shadowsEnabled) {
@@ -311,7 +445,7 @@ public class GameObject {
         shaderprogram.activateTexture(textureHandle, texture);
 
         graphicsDevice.bindVertexArray(vaoIds[0]); // Bind the VAO
-        graphicsDevice.drawElementsTriangles(geometry.getIndices().length);
+        graphicsDevice.drawElementsTriangles(getIndexCount());
         graphicsDevice.bindVertexArray(0); // Unbind the VAO
     }
 
@@ -43,7 +43,7 @@ public class TerrainObject extends GameObject {
                 new Vector3(detailTextureScale, chunkWorldSize, controlTileScale));
         shaderprogram.setUniformVector3("terrainControlOffset",
                 new Vector3(controlTileOffsetX, controlTileOffsetY, 0f));
-        shaderprogram.setUniformMatrix4fv("uMMatrix", modelMatrix);
+        shaderprogram.setUniformMatrix4fv("uMMatrix", getRenderModelMatrix());
         shaderprogram.setUniformMatrix4fv("uLightSpaceMatrix", lightSpaceMatrix);
         shaderprogram.setUniformInt("uShadowEnabled", shadowsEnabled ? 1 : 0);
         shaderprogram.activateTexture("uTexture0", 0, terrainTextures[0]);
@@ -56,7 +56,7 @@ public class TerrainObject extends GameObject {
         }
 
         graphicsDevice.bindVertexArray(vaoIds[0]);
-        graphicsDevice.drawElementsTriangles(geometry.getIndices().length);
+        graphicsDevice.drawElementsTriangles(getIndexCount());
         graphicsDevice.bindVertexArray(0);
     }
 
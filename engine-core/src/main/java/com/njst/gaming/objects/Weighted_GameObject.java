@@ -101,7 +101,7 @@ public class Weighted_GameObject extends GameObject {
         }
         program1.use();
         program1.setUniformVector3("properties", new Vector3(shininess, ambientlight_multiplier, 0));
-        program1.setUniformMatrix4fv("uMMatrix", modelMatrix);
+        program1.setUniformMatrix4fv("uMMatrix", getRenderModelMatrix());
         program1.setUniformMatrix4fv("uLightSpaceMatrix", lightSpaceMatrix);
         program1.setUniformInt("uShadowEnabled", shadowsEnabled ? 1 : 0);
         program1.setUniformInt("boneStartIndex", boneBufferStartIndex);
@@ -111,7 +111,7 @@ public class Weighted_GameObject extends GameObject {
         program1.activateTexture(textureHandle, texture);
 
         graphicsDevice.bindVertexArray(vaoIds[0]);
-        graphicsDevice.drawElementsTriangles(geo.getIndices().length);
+        graphicsDevice.drawElementsTriangles(getIndexCount());
         graphicsDevice.bindVertexArray(0);
         shaderprogram.use();
     }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import com.njst.gaming.Geometries.Geometry;
 import com.njst.gaming.Math.Matrix4;
+import com.njst.gaming.graphics.GraphicsDevice;
 import com.njst.gaming.graphics.ShaderHandle;
 
 public class instancedGameObject extends GameObject{
@@ -12,6 +13,9 @@ public class instancedGameObject extends GameObject{
     public instancedGameObject(Geometry geo,int texture){
         super(geo, texture);
         matrices=new ArrayList<>();
+        frustumCulled=false;
+        // Attribute 6 points at this object's own instance buffer, so the VAO must not be shared.
+        shareMesh=false;
     }
     @Override
     public void  render(ShaderHandle shader, int textureHandle){
@@ -30,6 +34,24 @@ public class instancedGameObject extends GameObject{
 
 
 
+    }
+    @Override
+    public void cleanup(){
+        deleteInstanceBuffer();
+        super.cleanup();
+    }
+    @Override
+    public void setGraphicsDevice(GraphicsDevice graphicsDevice){
+        if(graphicsDevice!=null&&graphicsDevice!=this.graphicsDevice){
+            deleteInstanceBuffer();
+        }
+        super.setGraphicsDevice(graphicsDevice);
+    }
+    private void deleteInstanceBuffer(){
+        if(instanceBuffer!=0){
+            graphicsDevice.deleteBuffers(new int[]{instanceBuffer});
+            instanceBuffer=0;
+        }
     }
     public float[] getModelMatrices(){
         float[] data=new float[matrices.size()*16];
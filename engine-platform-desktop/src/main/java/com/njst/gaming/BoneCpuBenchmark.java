@@ -1,18 +1,56 @@
 package com.njst.gaming;
 
+import com.njst.gaming.Animations.KeyframeAnimation;
+import com.njst.gaming.Animations.ParallelKeyframeAnimator;
+import com.njst.gaming.Animations.SkeletonPose;
 import com.njst.gaming.Math.Vector3;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 
 public final class BoneCpuBenchmark {
     private static final int BONE_COUNT = 96;
     private static final int UPDATE_ITERATIONS = 20_000;
     private static final int MATRIX_ITERATIONS = 5_000;
+    private static final int CHANNEL_ITERATIONS = 2_000;
+    private static final int ANIMATOR_SKELETONS = 128;
+    private static final int ANIMATOR_KEYS = 24;
+    private static final int ANIMATOR_FRAMES = 200;
+    private static final float ANIMATOR_TICK_SECONDS = 1f / 60f;
 
     private BoneCpuBenchmark() {
     }
 
+    /**
+     * Modes: {@code graph} times the {@link Bone} object graph alone, {@code pose} compares per-bone
+     * channels applied through {@link Bone#rotate} against a {@link SkeletonPose}, {@code animator}
+     * times {@link ParallelKeyframeAnimator#animateSkeletons} at several worker counts, {@code all}
+     * (the default) runs everything. An optional second argument caps the animator worker counts
+     * instead of one less than the available processors.
+     */
     public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "all";
+        if (!mode.equals("all") && !mode.equals("graph") && !mode.equals("pose") && !mode.equals("animator")) {
+            System.out.println("usage: BoneCpuBenchmark [all|graph|pose|animator] [maxWorkers]");
+            return;
+        }
+        System.out.println("Bone CPU benchmark bones=" + BONE_COUNT + " mode=" + mode);
+        if (mode.equals("all") || mode.equals("graph")) {
+            runGraphBenchmark();
+        }
+        if (mode.equals("all") || mode.equals("pose")) {
+            runPoseBenchmark();
+        }
+        if (mode.equals("all") || mode.equals("animator")) {
+            int maxWorkers = args.length > 1
+                    ? Integer.parseInt(args[1])
+                    : Runtime.getRuntime().availableProcessors() - 1;
+            runAnimatorBenchmark(Math.max(1, maxWorkers));
+        }
+    }
+
+    private static void runGraphBenchmark() {
         ArrayList<Bone> bones = createSkeleton(BONE_COUNT);
         Bone root = bones.get(0);
         for (Bone bone : bones) {
@@ -44,7 +82,6 @@ public final class BoneCpuBenchmark {
         }
         long matrixNanos = System.nanoTime() - matrixStart;
 
-        System.out.println("Bone CPU benchmark bones=" + BONE_COUNT);
         System.out.println("updateOnly iterations=" + UPDATE_ITERATIONS
                 + " totalMs=" + nanosToMillis(updateNanos)
                 + " perUpdateUs=" + nanosToMicros(updateNanos / (double) UPDATE_ITERATIONS));
@@ -54,6 +91,170 @@ public final class BoneCpuBenchmark {
         System.out.println("checksum=" + checksum(packed));
     }
 
+    /**
+     * Every iteration sets a rotation on every bone, the way one keyframe channel per bone would.
+     * The graph path calls {@link Bone#rotate}, which re-propagates the bone's subtree each time; the
+     * pose path writes the local values and evaluates the hierarchy once.
+     */
+    private static void runPoseBenchmark() {
+        ArrayList<Bone> graphBones = createSkeleton(BONE_COUNT);
+        ArrayList<Bone> poseBones = createSkeleton(BONE_COUNT);
+        for (int i = 0; i < BONE_COUNT; i++) {
+            graphBones.get(i).calculate_bind_matrix();
+            poseBones.get(i).calculate_bind_matrix();
+        }
+        SkeletonPose pose = SkeletonPose.fromBones(poseBones);
+        float[] graphPacked = new float[BONE_COUNT * 16];
+        float[] posePacked = new float[BONE_COUNT * 16];
+        Vector3 delta = new Vector3();
+
+        for (int i = 0; i < 500; i++) {
+            animateChannelsOnGraph(graphBones, delta, i);
+            animateChannelsOnPose(pose, i);
+        }
+
+        long graphStart = System.nanoTime();
+        for (int i = 0; i < CHANNEL_ITERATIONS; i++) {
+            animateChannelsOnGraph(graphBones, delta, i);
+            for (int b = 0; b < BONE_COUNT; b++) {
+                graphBones.get(b).writeAnimationMatrix(graphPacked, b * 16);
+            }
+        }
+        long graphNanos = System.nanoTime() - graphStart;
+
+        long poseStart = System.nanoTime();
+        for (int i = 0; i < CHANNEL_ITERATIONS; i++) {
+            animateChannelsOnPose(pose, i);
+            pose.writeSkinningMatrices(posePacked, 0);
+        }
+        long poseNanos = System.nanoTime() - poseStart;
+
+        System.out.println("channelsGraph iterations=" + CHANNEL_ITERATIONS
+                + " totalMs=" + nanosToMillis(graphNanos)
+                + " perIterationUs=" + nanosToMicros(graphNanos / (double) CHANNEL_ITERATIONS));
+        System.out.println("channelsPose iterations=" + CHANNEL_ITERATIONS
+                + " totalMs=" + nanosToMillis(poseNanos)
+                + " perIterationUs=" + nanosToMicros(poseNanos / (double) CHANNEL_ITERATIONS)
+                + " speedup=" + String.format("%.2f", graphNanos / (double) Math.max(1L, poseNanos)));
+        System.out.println("maxDifference=" + maxDifference(graphPacked, posePacked)
+                + " checksum=" + checksum(posePacked));
+    }
+
+    /**
+     * Drives {@value #ANIMATOR_SKELETONS} skeletons with one looping compiled channel per bone and
+     * reports frame time and bytes allocated by all threads for 0, 1, 2, 4, ... workers up to
+     * {@code maxWorkers}.
+     */
+    private static void runAnimatorBenchmark(int maxWorkers) {
+        ArrayList<ArrayList<KeyframeAnimation>> skeletons = new ArrayList<ArrayList<KeyframeAnimation>>();
+        for (int s = 0; s < ANIMATOR_SKELETONS; s++) {
+            skeletons.add(createAnimatedSkeleton(s));
+        }
+        int originalWorkers = ParallelKeyframeAnimator.getWorkerCount();
+        int originalThreshold = ParallelKeyframeAnimator.getParallelThreshold();
+        long baselineNanos = 0L;
+        for (int workers = 0; ; workers = workers == 0 ? 1 : Math.min(workers * 2, maxWorkers)) {
+            ParallelKeyframeAnimator.configure(workers, originalThreshold);
+            for (int i = 0; i < 50; i++) {
+                ParallelKeyframeAnimator.animateSkeletons(skeletons, ANIMATOR_TICK_SECONDS);
+            }
+            // Workers are running after the warm-up, so their ids are in the list taken here.
+            long[] threadIds = ManagementFactory.getThreadMXBean().getAllThreadIds();
+            long allocatedStart = allocatedBytes(threadIds);
+            long start = System.nanoTime();
+            for (int i = 0; i < ANIMATOR_FRAMES; i++) {
+                ParallelKeyframeAnimator.animateSkeletons(skeletons, ANIMATOR_TICK_SECONDS);
+            }
+            long nanos = System.nanoTime() - start;
+            long allocated = allocatedBytes(threadIds) - allocatedStart;
+            if (workers == 0) {
+                baselineNanos = nanos;
+            }
+            System.out.println("animator skeletons=" + ANIMATOR_SKELETONS
+                    + " workers=" + workers
+                    + " perFrameUs=" + nanosToMicros(nanos / (double) ANIMATOR_FRAMES)
+                    + " speedup=" + String.format("%.2f", baselineNanos / (double) Math.max(1L, nanos))
+                    + " bytesPerFrame=" + (allocated < 0L ? "n/a" : String.valueOf(allocated / ANIMATOR_FRAMES)));
+            if (workers >= maxWorkers) {
+                break;
+            }
+        }
+        ParallelKeyframeAnimator.configure(originalWorkers, originalThreshold);
+    }
+
+    private static ArrayList<KeyframeAnimation> createAnimatedSkeleton(int seed) {
+        ArrayList<Bone> bones = createSkeleton(BONE_COUNT);
+        ArrayList<KeyframeAnimation> animations = new ArrayList<KeyframeAnimation>();
+        for (int b = 0; b < bones.size(); b++) {
+            KeyframeAnimation animation = new KeyframeAnimation(bones.get(b));
+            for (int k = 0; k < ANIMATOR_KEYS; k++) {
+                animation.addKeyframe(k, new Vector3(),
+                        new Vector3(channelX(b, k * 7), channelY(b, k * 7), channelZ(b, k * 7)));
+            }
+            animation.framesPerSecond = 30f;
+            animation.time = (seed * 3 + b) % (ANIMATOR_KEYS - 1);
+            animation.compile();
+            animation.onfinish = () -> animation.time = 0f;
+            animation.start();
+            animations.add(animation);
+        }
+        return animations;
+    }
+
+    /**
+     * Bytes allocated so far by {@code threadIds}, or -1 when the JVM cannot report it. Reads one
+     * thread at a time so the measurement itself allocates no arrays.
+     */
+    private static long allocatedBytes(long[] threadIds) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long total = 0L;
+        for (long threadId : threadIds) {
+            total += Math.max(0L, allocations.getThreadAllocatedBytes(threadId));
+        }
+        return total;
+    }
+
+    private static void animateChannelsOnGraph(ArrayList<Bone> bones, Vector3 delta, int iteration) {
+        for (int b = 0; b < bones.size(); b++) {
+            Bone bone = bones.get(b);
+            delta.set(channelX(b, iteration) - bone.rotation.x,
+                    channelY(b, iteration) - bone.rotation.y,
+                    channelZ(b, iteration) - bone.rotation.z);
+            bone.rotate(delta);
+        }
+    }
+
+    private static void animateChannelsOnPose(SkeletonPose pose, int iteration) {
+        for (int b = 0; b < pose.getBoneCount(); b++) {
+            pose.setLocalRotation(b, channelX(b, iteration), channelY(b, iteration), channelZ(b, iteration));
+        }
+        pose.evaluate();
+    }
+
+    private static float channelX(int bone, int iteration) {
+        return (iteration + bone) % 360;
+    }
+
+    private static float channelY(int bone, int iteration) {
+        return ((iteration * 2) + bone) % 360;
+    }
+
+    private static float channelZ(int bone, int iteration) {
+        return (bone % 11) + ((iteration % 30) * 0.5f);
+    }
+
+    private static float maxDifference(float[] a, float[] b) {
+        float max = 0f;
+        for (int i = 0; i < a.length; i++) {
+            max = Math.max(max, Math.abs(a[i] - b[i]));
+        }
+        return max;
+    }
+
     private static ArrayList<Bone> createSkeleton(int boneCount) {
         ArrayList<Bone> bones = new ArrayList<Bone>();
         Bone root = createBone(0);
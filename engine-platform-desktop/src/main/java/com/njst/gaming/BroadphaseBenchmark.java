@@ -0,0 +1,160 @@
+package com.njst.gaming;
+
+import com.njst.gaming.Math.Vector3;
+import com.njst.gaming.collision.AabbShape;
+import com.njst.gaming.collision.Bounds3;
+import com.njst.gaming.collision.Broadphase;
+import com.njst.gaming.collision.Collider;
+import com.njst.gaming.collision.CollisionShape;
+import com.njst.gaming.collision.DynamicAabbTreeBroadphase;
+import com.njst.gaming.collision.NaiveBroadphase;
+import com.njst.gaming.collision.SpatialHashBroadphase;
+import com.njst.gaming.collision.SweepAndPruneBroadphase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class BroadphaseBenchmark {
+    private static final int[] COLLIDER_COUNTS = { 100, 1_000, 5_000, 20_000 };
+    private static final int NAIVE_LIMIT = 5_000;
+    private static final int WARMUP_STEPS = 5;
+    private static final int MEASURED_STEPS = 20;
+    private static final int CLUSTER_COUNT = 8;
+    private static final float HALF_EXTENT = 0.5f;
+    private static final CollisionShape SHAPE = new AabbShape(
+            new Vector3(-HALF_EXTENT, -HALF_EXTENT, -HALF_EXTENT), new Vector3(HALF_EXTENT, HALF_EXTENT, HALF_EXTENT));
+
+    private BroadphaseBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        System.out.println("Broadphase benchmark steps=" + MEASURED_STEPS + " colliderSize=" + (HALF_EXTENT * 2f));
+        for (int count : COLLIDER_COUNTS) {
+            run("uniform", count, false);
+            run("clustered", count, true);
+        }
+    }
+
+    private static void run(String distribution, int count, boolean clustered) {
+        String[] names = { "naive", "sweepAndPrune", "aabbTree", "spatialHash" };
+        for (int i = 0; i < names.length; i++) {
+            if (i == 0 && count > NAIVE_LIMIT) {
+                System.out.println(distribution + " colliders=" + count + " " + names[i] + " skipped");
+                continue;
+            }
+            List<Collider> colliders = createColliders(count, clustered);
+            Broadphase broadphase = createBroadphase(i);
+            Random motion = new Random(11L);
+            for (int step = 0; step < WARMUP_STEPS; step++) {
+                jitter(colliders, motion);
+                broadphase.computePairs(colliders);
+            }
+
+            long pairTotal = 0L;
+            long start = System.nanoTime();
+            for (int step = 0; step < MEASURED_STEPS; step++) {
+                jitter(colliders, motion);
+                pairTotal += broadphase.computePairs(colliders).size();
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.println(distribution + " colliders=" + count + " " + names[i]
+                    + " perStepMs=" + nanosToMillis(nanos / MEASURED_STEPS)
+                    + " pairsPerStep=" + (pairTotal / MEASURED_STEPS));
+        }
+    }
+
+    private static Broadphase createBroadphase(int index) {
+        switch (index) {
+            case 0:
+                return new NaiveBroadphase();
+            case 1:
+                return new SweepAndPruneBroadphase();
+            case 2:
+                return new DynamicAabbTreeBroadphase();
+            default:
+                return new SpatialHashBroadphase(HALF_EXTENT * 4f);
+        }
+    }
+
+    private static List<Collider> createColliders(int count, boolean clustered) {
+        Random random = new Random(count * 31L + (clustered ? 1L : 0L));
+        float arenaSize = (float) Math.sqrt(count) * 3f;
+        float[] clusterCenters = new float[CLUSTER_COUNT * 2];
+        for (int i = 0; i < clusterCenters.length; i++) {
+            clusterCenters[i] = random.nextFloat() * arenaSize;
+        }
+
+        ArrayList<Collider> colliders = new ArrayList<Collider>(count);
+        for (int i = 0; i < count; i++) {
+            BenchmarkCollider collider = new BenchmarkCollider();
+            if (clustered) {
+                int cluster = random.nextInt(CLUSTER_COUNT) * 2;
+                float spread = arenaSize * 0.04f;
+                collider.x = clusterCenters[cluster] + (float) random.nextGaussian() * spread;
+                collider.z = clusterCenters[cluster + 1] + (float) random.nextGaussian() * spread;
+            } else {
+                collider.x = random.nextFloat() * arenaSize;
+                collider.z = random.nextFloat() * arenaSize;
+            }
+            collider.y = random.nextFloat() * 2f;
+            colliders.add(collider);
+        }
+        return colliders;
+    }
+
+    private static void jitter(List<Collider> colliders, Random random) {
+        for (int i = 0; i < colliders.size(); i++) {
+            BenchmarkCollider collider = (BenchmarkCollider) colliders.get(i);
+            collider.x += (random.nextFloat() - 0.5f) * 0.1f;
+            collider.z += (random.nextFloat() - 0.5f) * 0.1f;
+        }
+    }
+
+    private static String nanosToMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    private static final class BenchmarkCollider implements Collider {
+        private float x;
+        private float y;
+        private float z;
+
+        @Override
+        public Object getOwner() {
+            return this;
+        }
+
+        @Override
+        public CollisionShape getShape() {
+            return SHAPE;
+        }
+
+        @Override
+        public Bounds3 getWorldBounds() {
+            return new Bounds3(
+                    new Vector3(x - HALF_EXTENT, y - HALF_EXTENT, z - HALF_EXTENT),
+                    new Vector3(x + HALF_EXTENT, y + HALF_EXTENT, z + HALF_EXTENT));
+        }
+
+        @Override
+        public int getLayer() {
+            return 1;
+        }
+
+        @Override
+        public int getMask() {
+            return -1;
+        }
+
+        @Override
+        public boolean isTrigger() {
+            return false;
+        }
+
+        @Override
+        public boolean isStatic() {
+            return false;
+        }
+    }
+}
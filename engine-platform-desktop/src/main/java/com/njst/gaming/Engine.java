@@ -9,6 +9,7 @@ import com.njst.gaming.audio.AudioDevice;
 import com.njst.gaming.input.InputBindings;
 import com.njst.gaming.input.InputSystem;
 import com.njst.gaming.input.MouseButtons;
+import java.util.Locale;
 import java.util.Scanner;
 
 import static org.lwjgl.glfw.Callbacks.*;
@@ -153,7 +154,8 @@ public abstract class Engine {
         while (!glfwWindowShouldClose(window)) {
             if (frameCount == 30) {
                 long currentTime = System.currentTimeMillis();
-                glfwSetWindowTitle(window, title + " - FPS: " + (30000 / (currentTime - lastTime)));
+                glfwSetWindowTitle(window, title + " - FPS: " + (30000 / (currentTime - lastTime))
+                        + profilerSummary(renderer.getProfilerSnapshot()));
                 lastTime = currentTime;
                 frameCount = 0;
             }
@@ -174,6 +176,28 @@ public abstract class Engine {
     protected void onUpdate() {
     }
 
+    private static String profilerSummary(Renderer.ProfilerSnapshot snapshot) {
+        if (snapshot == null) {
+            return "";
+        }
+        StringBuilder summary = new StringBuilder(160);
+        summary.append(String.format(Locale.US,
+                " | frame %.1fms rnd %.1f bone %.1f | col %.1f max %.1f bp %.1f np %.1f | pairs %d tests %d",
+                snapshot.frameMs, snapshot.renderMs, snapshot.boneMs,
+                snapshot.collisionMs, snapshot.collisionMaxMs, snapshot.broadphaseMs, snapshot.narrowphaseMs,
+                snapshot.collisionPairs, snapshot.narrowphaseTests));
+        for (int i = 0; i < snapshot.algorithmNames.length; i++) {
+            if (snapshot.algorithmMaxTests[i] > 0L) {
+                summary.append(' ').append(snapshot.algorithmNames[i]).append('=').append(snapshot.algorithmTests[i])
+                        .append('^').append(snapshot.algorithmMaxTests[i]);
+            }
+        }
+        summary.append(" | cull ").append(snapshot.culledCount)
+                .append(" xform ").append(snapshot.transformsRecomputed)
+                .append('/').append(snapshot.transformsRecomputed + snapshot.transformsReused);
+        return summary.toString();
+    }
+
     protected void afterDrawFrame() {
     }
 
@@ -1,5 +1,6 @@
 package com.njst.gaming;
 
+import com.njst.gaming.Natives.ShaderProgram;
 import org.lwjgl.opengl.GL30;
 
 public class Material {
@@ -95,5 +96,6 @@ private int loadShader(int type, String shaderCode) {
     }
     public void Activate(){
         GL30.glUseProgram(program);
+        ShaderProgram.forgetBoundProgram();
     }
 }
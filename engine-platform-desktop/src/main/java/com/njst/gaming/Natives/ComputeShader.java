@@ -79,6 +79,7 @@ public class ComputeShader {
         if (program == 0) return;
 
         GL43.glUseProgram(program);
+        ShaderProgram.forgetBoundProgram();
         GL43.glDispatchCompute(x, y, z);
         GL43.glMemoryBarrier(GL43.GL_SHADER_STORAGE_BARRIER_BIT);
     }
@@ -20,6 +20,8 @@ import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
 
 import com.njst.gaming.Renderer;
 import com.njst.gaming.Math.Vector3;
@@ -28,11 +30,15 @@ import com.njst.gaming.graphics.BufferHandle;
 import com.njst.gaming.graphics.ComputeBackend;
 import com.njst.gaming.graphics.GraphicsDevice;
 import com.njst.gaming.graphics.ImposterBakeResult;
+import com.njst.gaming.graphics.MeshCache;
 import com.njst.gaming.graphics.ShaderHandle;
 import com.njst.gaming.objects.GameObject;
 
 public class DesktopGraphicsDevice implements GraphicsDevice {
+    private static final int MATRIX_COLUMN_BYTES = 4 * Float.BYTES;
     private final DesktopImposterBaker imposterBaker = new DesktopImposterBaker();
+    private final MeshCache meshCache = new MeshCache(this);
+    private FloatBuffer streamBuffer = BufferUtils.createFloatBuffer(1024);
     private int whiteTextureId;
 
     @Override
@@ -115,6 +121,11 @@ public class DesktopGraphicsDevice implements GraphicsDevice {
         return buffers;
     }
 
+    @Override
+    public MeshCache getMeshCache() {
+        return meshCache;
+    }
+
     @Override
     public void bindVertexArray(int vaoId) {
         GL30.glBindVertexArray(vaoId);
@@ -158,11 +169,39 @@ public class DesktopGraphicsDevice implements GraphicsDevice {
         GL15.glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STATIC_DRAW);
     }
 
+    @Override
+    public void streamArrayBufferFloat(int bufferId, float[] data, int count) {
+        if (streamBuffer.capacity() < count) {
+            streamBuffer = BufferUtils.createFloatBuffer(Math.max(count, streamBuffer.capacity() * 2));
+        }
+        streamBuffer.clear();
+        streamBuffer.put(data, 0, count).flip();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, bufferId);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) count * Float.BYTES, GL15.GL_STREAM_DRAW);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, streamBuffer);
+    }
+
+    @Override
+    public void setInstanceMatrixAttribute(int bufferId, int location) {
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, bufferId);
+        for (int column = 0; column < 4; column++) {
+            GL20.glVertexAttribPointer(location + column, 4, GL_FLOAT, false, 4 * MATRIX_COLUMN_BYTES,
+                    (long) column * MATRIX_COLUMN_BYTES);
+            GL20.glEnableVertexAttribArray(location + column);
+            GL33.glVertexAttribDivisor(location + column, 1);
+        }
+    }
+
     @Override
     public void drawElementsTriangles(int indexCount) {
         glDrawElements(GL_TRIANGLES, indexCount, GL_UNSIGNED_INT, 0);
     }
 
+    @Override
+    public void drawElementsTrianglesInstanced(int indexCount, int instanceCount) {
+        GL31.glDrawElementsInstanced(GL_TRIANGLES, indexCount, GL_UNSIGNED_INT, 0, instanceCount);
+    }
+
     @Override
     public void drawElementsLines(int indexCount) {
         glDrawElements(GL_LINES, indexCount, GL_UNSIGNED_INT, 0);
@@ -63,6 +63,19 @@ public class SSBO implements BufferHandle {
         unbind();
     }
 
+    @Override
+    public void updateData(float[] data, int offset, int count) {
+        bind();
+        if (reusableBuffer == null || reusableBuffer.capacity() < count) {
+            reusableBuffer = BufferUtils.createFloatBuffer(count);
+        }
+        reusableBuffer.clear();
+        reusableBuffer.put(data, offset, count).flip();
+
+        GL43.glBufferSubData(GL43.GL_SHADER_STORAGE_BUFFER, (long) offset * Float.BYTES, reusableBuffer);
+        unbind();
+    }
+
     @Override
     public void updateData(int[] data) {
         bind();
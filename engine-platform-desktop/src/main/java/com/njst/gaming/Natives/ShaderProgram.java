@@ -5,20 +5,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL30;
 import org.lwjgl.stb.STBImage;
 
 import com.njst.gaming.Math.Matrix4;
 import com.njst.gaming.Math.Vector3;
-import com.njst.gaming.Utils.Utils;
 import com.njst.gaming.graphics.ShaderHandle;
+import com.njst.gaming.graphics.UniformCache;
 
 import static org.lwjgl.opengl.GL30.GL_CLAMP_TO_EDGE;
 import static org.lwjgl.opengl.GL30.GL_FALSE;
@@ -43,8 +43,12 @@ import static org.lwjgl.opengl.GL30.glTexParameteri;
 import static org.lwjgl.system.MemoryStack.stackMallocInt;
 
 public class ShaderProgram implements ShaderHandle {
+    /** Program last bound through {@link #use()} on the GL thread, or null when unknown. */
+    private static ShaderProgram boundProgram;
+
     public int programId;
     public String log = "";
+    private final UniformCache uniformCache = new UniformCache();
 
     public ShaderProgram(String vertexShaderSource, String fragmentShaderSource) {
         int vertexShaderId = compileShader(GL_VERTEX_SHADER, vertexShaderSource);
@@ -58,6 +62,92 @@ public class ShaderProgram implements ShaderHandle {
 
         GL30.glDeleteShader(vertexShaderId);
         GL30.glDeleteShader(fragmentShaderId);
+        resolveUniformLocations();
+    }
+
+    /**
+     * Call after binding a program without going through {@link #use()}, e.g. a compute dispatch,
+     * so uniform uploads stop trusting the cached values of the previously bound program.
+     */
+    public static void forgetBoundProgram() {
+        boundProgram = null;
+    }
+
+    private void resolveUniformLocations() {
+        if (!compiled()) {
+            return;
+        }
+        int count = GL30.glGetProgrami(programId, GL30.GL_ACTIVE_UNIFORMS);
+        IntBuffer size = BufferUtils.createIntBuffer(1);
+        IntBuffer type = BufferUtils.createIntBuffer(1);
+        for (int i = 0; i < count; i++) {
+            String name = GL30.glGetActiveUniform(programId, i, size, type);
+            if (name.endsWith("[0]")) {
+                String base = name.substring(0, name.length() - 3);
+                uniformCache.define(base, GL30.glGetUniformLocation(programId, base));
+                for (int element = 0; element < size.get(0); element++) {
+                    String elementName = base + "[" + element + "]";
+                    uniformCache.define(elementName, GL30.glGetUniformLocation(programId, elementName));
+                }
+            } else {
+                uniformCache.define(name, GL30.glGetUniformLocation(programId, name));
+            }
+        }
+    }
+
+    private UniformCache.Slot slot(String name) {
+        UniformCache.Slot slot = uniformCache.find(name);
+        if (slot == null) {
+            // Not an active uniform; remember the miss so the driver is asked only once.
+            slot = uniformCache.define(name, GL30.glGetUniformLocation(programId, name));
+        }
+        return slot;
+    }
+
+    private UniformCache.Slot slot(int location) {
+        UniformCache.Slot slot = uniformCache.findByLocation(location);
+        if (slot == null) {
+            slot = uniformCache.define("#" + location, location);
+        }
+        return slot;
+    }
+
+    /**
+     * glUniform writes to whichever program is bound. The cache can only vouch for this program while
+     * it is the bound one; otherwise the write lands elsewhere and that program's cache is dropped.
+     */
+    private boolean isBound() {
+        if (boundProgram == this) {
+            return true;
+        }
+        if (boundProgram != null) {
+            boundProgram.uniformCache.invalidate();
+        }
+        return false;
+    }
+
+    private void uploadInt(UniformCache.Slot slot, int value) {
+        if (!isBound() || uniformCache.acceptInt(slot, value)) {
+            GL30.glUniform1i(slot.getLocation(), value);
+        }
+    }
+
+    private void uploadVector3(UniformCache.Slot slot, float x, float y, float z) {
+        if (!isBound() || uniformCache.acceptVector3(slot, x, y, z)) {
+            GL30.glUniform3f(slot.getLocation(), x, y, z);
+        }
+    }
+
+    private void uploadVector3(UniformCache.Slot slot, float[] vector3f) {
+        if (!isBound() || uniformCache.acceptFloats(slot, vector3f, 3)) {
+            GL30.glUniform3fv(slot.getLocation(), vector3f);
+        }
+    }
+
+    private void uploadMatrix4(UniformCache.Slot slot, float[] matrix) {
+        if (!isBound() || uniformCache.acceptFloats(slot, matrix, 16)) {
+            GL30.glUniformMatrix4fv(slot.getLocation(), false, matrix);
+        }
     }
 
     @Override
@@ -211,57 +301,61 @@ public class ShaderProgram implements ShaderHandle {
     @Override
     public void use() {
         GL30.glUseProgram(programId);
+        boundProgram = this;
     }
 
     @Override
     public void cleanup() {
+        if (boundProgram == this) {
+            boundProgram = null;
+        }
         GL30.glDeleteProgram(programId);
     }
 
     @Override
     public int getUniformLocation(String name) {
-        return GL30.glGetUniformLocation(programId, name);
+        return slot(name).getLocation();
     }
 
     public int getTextureLocation(String name) {
-        return GL30.glGetUniformLocation(programId, name);
+        return getUniformLocation(name);
     }
 
     public void setUniformMatrix4fv(int location, float[] matrix) {
-        GL30.glUniformMatrix4fv(location, false, matrix);
+        uploadMatrix4(slot(location), matrix);
     }
 
     public void setUniformVector3(int location, float[] vector3f) {
-        GL30.glUniform3fv(location, vector3f);
+        uploadVector3(slot(location), vector3f);
     }
 
     @Override
     public void setUniformVector3(String name, float[] vector3f) {
-        GL30.glUniform3fv(getUniformLocation(name), vector3f);
+        uploadVector3(slot(name), vector3f);
     }
 
     @Override
     public void setUniformInt(String name, int value) {
-        GL30.glUniform1i(getUniformLocation(name), value);
+        uploadInt(slot(name), value);
     }
 
     @Override
     public void setUniformMatrix4fv(String name, float[] matrix) {
-        GL30.glUniformMatrix4fv(getUniformLocation(name), false, matrix);
+        uploadMatrix4(slot(name), matrix);
     }
 
     @Override
     public void activateTexture(int location, int textureID) {
         glActiveTexture(GL_TEXTURE0);
         GL30.glBindTexture(GL_TEXTURE_2D, textureID);
-        GL30.glUniform1i(location, 0);
+        uploadInt(slot(location), 0);
     }
 
     @Override
     public void activateTexture(String uniformName, int unit, int textureID) {
         glActiveTexture(GL_TEXTURE0 + unit);
         GL30.glBindTexture(GL_TEXTURE_2D, textureID);
-        GL30.glUniform1i(getUniformLocation(uniformName), unit);
+        uploadInt(slot(uniformName), unit);
     }
 
     public void ActivateTexture(int location, int textureID) {
@@ -269,24 +363,21 @@ public class ShaderProgram implements ShaderHandle {
     }
 
     public void setUniformMatrix4fv(int location, Matrix4 matrix) {
-        GL30.glUniformMatrix4fv(location, false, matrix.getAsBuffer());
+        uploadMatrix4(slot(location), matrix.r);
     }
 
     @Override
     public void setUniformMatrix4fv(String name, Matrix4 vector3f) {
-        setUniformMatrix4fv(getUniformLocation(name), vector3f);
+        uploadMatrix4(slot(name), vector3f.r);
     }
 
     public void setUniformVector3(int cameraPositionLocation, Vector3 vector3f) {
-        FloatBuffer buffer = Utils.mallocFloat(3);
-        buffer.put(vector3f.x).put(vector3f.y).put(vector3f.z);
-        buffer.flip();
-        GL30.glUniform3fv(cameraPositionLocation, buffer);
+        uploadVector3(slot(cameraPositionLocation), vector3f.x, vector3f.y, vector3f.z);
     }
 
     @Override
     public void setUniformVector3(String name, Vector3 vector3f) {
-        setUniformVector3(getUniformLocation(name), vector3f);
+        uploadVector3(slot(name), vector3f.x, vector3f.y, vector3f.z);
     }
 
     public int getAttributeLocation(String string) {
@@ -298,6 +389,11 @@ public class ShaderProgram implements ShaderHandle {
         return this;
     }
 
+    @Override
+    public UniformCache getUniformCache() {
+        return uniformCache;
+    }
+
     public static int loadTexture(String path) {
         try {
             IntBuffer w = stackMallocInt(1), h = stackMallocInt(1), comp = stackMallocInt(1);
@@ -0,0 +1,138 @@
+package com.njst.gaming;
+
+import com.njst.gaming.Math.Vector3;
+import com.njst.gaming.collision.CollisionManifold;
+import com.njst.gaming.collision.GameObjectSphericalHeightmapColliderAdapter;
+import com.njst.gaming.collision.SphericalHeightmapPairCollisionAlgorithm;
+import com.njst.gaming.collision.SphericalHeightmapShape;
+import com.njst.gaming.objects.GameObject;
+
+import java.util.Random;
+
+public final class SphericalHeightmapCollisionBenchmark {
+    private static final int HEIGHTMAP_WIDTH = 128;
+    private static final int HEIGHTMAP_HEIGHT = 64;
+    private static final int PAIR_COUNT = 256;
+    private static final int ITERATIONS = 200;
+
+    private SphericalHeightmapCollisionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(7L);
+        SphericalHeightmapShape shape = new SphericalHeightmapShape(
+                createHeights(HEIGHTMAP_WIDTH, HEIGHTMAP_HEIGHT), 1f, new Vector3());
+        GameObjectSphericalHeightmapColliderAdapter[] firsts = new GameObjectSphericalHeightmapColliderAdapter[PAIR_COUNT];
+        GameObjectSphericalHeightmapColliderAdapter[] seconds = new GameObjectSphericalHeightmapColliderAdapter[PAIR_COUNT];
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            firsts[i] = createCollider(shape, random, 0f);
+            seconds[i] = createCollider(shape, random, 2.2f);
+        }
+
+        SphericalHeightmapPairCollisionAlgorithm legacy = new SphericalHeightmapPairCollisionAlgorithm(false);
+        SphericalHeightmapPairCollisionAlgorithm cubemap = new SphericalHeightmapPairCollisionAlgorithm(true);
+        SphericalHeightmapPairCollisionAlgorithm.ContactScratch scratch =
+                new SphericalHeightmapPairCollisionAlgorithm.ContactScratch();
+
+        float maxDepthError = 0f;
+        int mismatchedHits = 0;
+        for (int i = 0; i < PAIR_COUNT; i++) {
+            CollisionManifold expected = legacy.test(firsts[i], seconds[i]);
+            boolean hit = cubemap.test(firsts[i], seconds[i], scratch);
+            if (expected.isColliding() != hit) {
+                mismatchedHits++;
+            } else if (hit) {
+                maxDepthError = Math.max(maxDepthError,
+                        Math.abs(expected.getPenetrationDepth() - scratch.penetrationDepth));
+            }
+        }
+
+        for (int i = 0; i < 20; i++) {
+            runLegacy(legacy, firsts, seconds);
+            runScratch(cubemap, firsts, seconds, scratch);
+        }
+
+        long legacyStart = System.nanoTime();
+        float legacyChecksum = 0f;
+        for (int i = 0; i < ITERATIONS; i++) {
+            legacyChecksum += runLegacy(legacy, firsts, seconds);
+        }
+        long legacyNanos = System.nanoTime() - legacyStart;
+
+        long cubemapStart = System.nanoTime();
+        float cubemapChecksum = 0f;
+        for (int i = 0; i < ITERATIONS; i++) {
+            cubemapChecksum += runScratch(cubemap, firsts, seconds, scratch);
+        }
+        long cubemapNanos = System.nanoTime() - cubemapStart;
+
+        int tests = PAIR_COUNT * ITERATIONS;
+        System.out.println("Spherical heightmap benchmark pairs=" + PAIR_COUNT
+                + " heightmap=" + HEIGHTMAP_WIDTH + "x" + HEIGHTMAP_HEIGHT
+                + " cubemapResolution=" + shape.getCubemapResolution());
+        System.out.println("legacy tests=" + tests
+                + " totalMs=" + nanosToMillis(legacyNanos)
+                + " perTestUs=" + nanosToMicros(legacyNanos / (double) tests));
+        System.out.println("cubemapScratch tests=" + tests
+                + " totalMs=" + nanosToMillis(cubemapNanos)
+                + " perTestUs=" + nanosToMicros(cubemapNanos / (double) tests)
+                + " speedup=" + String.format("%.2f", legacyNanos / (double) Math.max(1L, cubemapNanos)));
+        System.out.println("maxPenetrationError=" + maxDepthError
+                + " heightRange=" + (shape.getMaxRadius() - shape.getMinRadius())
+                + " mismatchedHits=" + mismatchedHits);
+        System.out.println("checksum legacy=" + legacyChecksum + " cubemap=" + cubemapChecksum);
+    }
+
+    private static float runLegacy(SphericalHeightmapPairCollisionAlgorithm algorithm,
+            GameObjectSphericalHeightmapColliderAdapter[] firsts,
+            GameObjectSphericalHeightmapColliderAdapter[] seconds) {
+        float sum = 0f;
+        for (int i = 0; i < firsts.length; i++) {
+            sum += algorithm.test(firsts[i], seconds[i]).getPenetrationDepth();
+        }
+        return sum;
+    }
+
+    private static float runScratch(SphericalHeightmapPairCollisionAlgorithm algorithm,
+            GameObjectSphericalHeightmapColliderAdapter[] firsts,
+            GameObjectSphericalHeightmapColliderAdapter[] seconds,
+            SphericalHeightmapPairCollisionAlgorithm.ContactScratch scratch) {
+        float sum = 0f;
+        for (int i = 0; i < firsts.length; i++) {
+            if (algorithm.test(firsts[i], seconds[i], scratch)) {
+                sum += scratch.penetrationDepth;
+            }
+        }
+        return sum;
+    }
+
+    private static GameObjectSphericalHeightmapColliderAdapter createCollider(SphericalHeightmapShape shape,
+            Random random, float offsetX) {
+        GameObject gameObject = new GameObject(null, 0);
+        gameObject.setPosition(offsetX + (random.nextFloat() * 0.2f), random.nextFloat() * 0.4f - 0.2f,
+                random.nextFloat() * 0.4f - 0.2f);
+        gameObject.setRotation(random.nextFloat() * 360f, random.nextFloat() * 360f, random.nextFloat() * 360f);
+        gameObject.updateModelMatrix();
+        return new GameObjectSphericalHeightmapColliderAdapter(gameObject, shape);
+    }
+
+    private static float[][] createHeights(int width, int height) {
+        float[][] heights = new float[height][width];
+        for (int row = 0; row < height; row++) {
+            float latitude = (float) Math.PI * row / (height - 1);
+            for (int col = 0; col < width; col++) {
+                float longitude = 2f * (float) Math.PI * col / width;
+                heights[row][col] = 0.1f * (float) (Math.sin(3f * longitude) * Math.sin(2f * latitude));
+            }
+        }
+        return heights;
+    }
+
+    private static String nanosToMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String nanosToMicros(double nanos) {
+        return String.format("%.3f", nanos / 1_000.0);
+    }
+}
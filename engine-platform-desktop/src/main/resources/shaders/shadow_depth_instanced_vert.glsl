@@ -0,0 +1,9 @@
+#version 450 core
+layout(location = 0) in vec3 position;
+layout(location = 5) in mat4 instanceModel;
+
+uniform mat4 uLightSpaceMatrix;
+
+void main() {
+    gl_Position = uLightSpaceMatrix * instanceModel * vec4(position, 1.0);
+}